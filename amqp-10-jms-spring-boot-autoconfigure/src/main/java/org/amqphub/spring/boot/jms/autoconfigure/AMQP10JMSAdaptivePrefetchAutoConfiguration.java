@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.observation.ObservationHandler;
+
+/**
+ * Auto Configuration class that creates the {@link AMQP10JMSAdaptivePrefetchController} which the
+ * connection factory created by the AMQP 1.0 JMS auto configuration installs as part of its prefetch
+ * policy when adaptive prefetch is enabled.
+ * <p>
+ * Listener processing time is reported to the controller by an observation handler which the observation
+ * registry applies to the listener containers, and when a {@link MeterRegistry} is available the chosen
+ * prefetch of each destination is exported by the {@link AMQP10JMSAdaptivePrefetchMetrics}.
+ * <p>
+ * Listener containers cache their consumers by default, so the adapted prefetch only reaches the
+ * consumers a container creates as it scales, see {@link AMQP10JMSAdaptivePrefetchPolicy}.
+ *
+ * @see AMQP10JMSProperties.Prefetch.Adaptive
+ */
+@AutoConfiguration(after = AMQP10JMSAutoConfiguration.class, afterName = {
+    "org.springframework.boot.micrometer.metrics.autoconfigure.MetricsAutoConfiguration",
+    "org.springframework.boot.micrometer.metrics.autoconfigure.CompositeMeterRegistryAutoConfiguration",
+    "org.springframework.boot.micrometer.metrics.autoconfigure.export.simple.SimpleMetricsExportAutoConfiguration" })
+@ConditionalOnClass(JmsConnectionFactory.class)
+@ConditionalOnBean(AMQP10JMSProperties.class)
+@ConditionalOnProperty(prefix = "amqphub.amqp10jms.prefetch.adaptive", name = "enabled", havingValue = "true")
+public class AMQP10JMSAdaptivePrefetchAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    AMQP10JMSAdaptivePrefetchController amqp10jmsAdaptivePrefetchController(AMQP10JMSProperties properties,
+                                                                            ObjectProvider<AMQP10JMSAdaptivePrefetchListener> prefetchListener) {
+        final AMQP10JMSProperties.Prefetch.Adaptive adaptive = properties.getPrefetch().getAdaptive();
+
+        return new AMQP10JMSAdaptivePrefetchController(adaptive.getMin(), adaptive.getMax(),
+                                                       adaptive.getTargetBufferTime(), prefetchListener.getIfUnique());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ ObservationHandler.class, JmsProcessObservationContext.class })
+    static class ObservationConfiguration {
+
+        @Bean
+        AMQP10JMSAdaptivePrefetchObservationHandler amqp10jmsAdaptivePrefetchObservationHandler(AMQP10JMSAdaptivePrefetchController controller) {
+            return new AMQP10JMSAdaptivePrefetchObservationHandler(controller);
+        }
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(MeterRegistry.class)
+    @ConditionalOnBean(MeterRegistry.class)
+    static class MetricsConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean
+        AMQP10JMSAdaptivePrefetchMetrics amqp10jmsAdaptivePrefetchMetrics() {
+            return new AMQP10JMSAdaptivePrefetchMetrics();
+        }
+    }
+}
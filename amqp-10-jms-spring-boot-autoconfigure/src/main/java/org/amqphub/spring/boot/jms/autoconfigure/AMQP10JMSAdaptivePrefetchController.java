@@ -0,0 +1,184 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.qpid.jms.JmsDestination;
+import org.springframework.util.Assert;
+
+/**
+ * Chooses the prefetch given to new consumers of each destination from the listener processing
+ * time measured for that destination, applied through an {@link AMQP10JMSAdaptivePrefetchPolicy}.
+ * <p>
+ * The prefetch is sized such that a consumer holds about the target buffer time of work in its
+ * local buffer, the target divided by the moving average processing time of a message, bounded by
+ * the configured minimum and maximum. Fast listeners are therefore given enough credit to never
+ * wait on the remote peer, while slow listeners hold few messages that competing consumers could
+ * otherwise process. Until processing time has been measured for a destination the statically
+ * configured prefetch applies within the same bounds. Temporary destinations are not tracked.
+ */
+public class AMQP10JMSAdaptivePrefetchController {
+
+    // Weight of each new sample in the moving average processing time
+    private static final double SMOOTHING = 0.2;
+
+    private static final int MAX_DESTINATIONS = 1000;
+
+    private final int minPrefetch;
+    private final int maxPrefetch;
+    private final long targetBufferNanos;
+    private final AMQP10JMSAdaptivePrefetchListener listener;
+
+    private final ConcurrentMap<String, DestinationState> destinations = new ConcurrentHashMap<>();
+
+    /**
+     * Create a new controller.
+     *
+     * @param minPrefetch
+     *      the lower bound of the chosen prefetch.
+     * @param maxPrefetch
+     *      the upper bound of the chosen prefetch.
+     * @param targetBufferTime
+     *      the amount of listener work each consumer should hold in its local buffer.
+     * @param listener
+     *      optional listener notified of the chosen prefetch values, may be null.
+     */
+    public AMQP10JMSAdaptivePrefetchController(int minPrefetch, int maxPrefetch, Duration targetBufferTime, AMQP10JMSAdaptivePrefetchListener listener) {
+        Assert.isTrue(minPrefetch >= 1, "Minimum prefetch must be at least one");
+        Assert.isTrue(maxPrefetch >= minPrefetch, "Maximum prefetch must not be less than the minimum prefetch");
+        Assert.isTrue(targetBufferTime != null && !targetBufferTime.isNegative() && !targetBufferTime.isZero(),
+                      "Target buffer time must be positive");
+
+        this.minPrefetch = minPrefetch;
+        this.maxPrefetch = maxPrefetch;
+        this.targetBufferNanos = targetBufferTime.toNanos();
+        this.listener = listener;
+    }
+
+    /**
+     * Returns the prefetch to give a new consumer of the given destination.
+     *
+     * @param destination
+     *      the destination of the consumer.
+     * @param configuredPrefetch
+     *      the statically configured prefetch for the consumer.
+     *
+     * @return the prefetch chosen for the destination.
+     */
+    public int getPrefetch(JmsDestination destination, int configuredPrefetch) {
+        final DestinationState state = state(destination, configuredPrefetch);
+        return state != null ? state.prefetch : bound(configuredPrefetch);
+    }
+
+    /**
+     * Records the time a listener spent processing a message from the given destination.
+     *
+     * @param destination
+     *      the destination the message was consumed from.
+     * @param processingNanos
+     *      the time in nanoseconds spent processing the message.
+     */
+    public void recordProcessingTime(JmsDestination destination, long processingNanos) {
+        final DestinationState state = state(destination, maxPrefetch);
+        if (state != null && processingNanos >= 0) {
+            state.record(processingNanos);
+        }
+    }
+
+    /**
+     * @return a snapshot of the prefetch chosen for each tracked destination keyed by address.
+     */
+    public Map<String, Integer> getPrefetchValues() {
+        final Map<String, Integer> values = new LinkedHashMap<>();
+        destinations.forEach((address, state) -> values.put(address, state.prefetch));
+        return Collections.unmodifiableMap(values);
+    }
+
+    public int getMinPrefetch() {
+        return minPrefetch;
+    }
+
+    public int getMaxPrefetch() {
+        return maxPrefetch;
+    }
+
+    private DestinationState state(JmsDestination destination, int initialPrefetch) {
+        if (destination == null || destination.isTemporary() || destination.getAddress() == null) {
+            return null;
+        }
+
+        final String address = destination.getAddress();
+        final DestinationState state = destinations.get(address);
+        if (state != null || destinations.size() >= MAX_DESTINATIONS) {
+            return state;
+        }
+
+        final DestinationState created = new DestinationState(address, bound(initialPrefetch));
+        final DestinationState existing = destinations.putIfAbsent(address, created);
+        if (existing != null) {
+            return existing;
+        }
+
+        if (listener != null) {
+            listener.onPrefetchChanged(address, created.prefetch);
+        }
+
+        return created;
+    }
+
+    private int bound(long prefetch) {
+        return (int) Math.max(minPrefetch, Math.min(maxPrefetch, prefetch));
+    }
+
+    private final class DestinationState {
+
+        private final String address;
+
+        private double averageNanos = Double.NaN;
+
+        private volatile int prefetch;
+
+        DestinationState(String address, int prefetch) {
+            this.address = address;
+            this.prefetch = prefetch;
+        }
+
+        void record(long processingNanos) {
+            final int previous;
+            final int chosen;
+
+            synchronized (this) {
+                averageNanos = Double.isNaN(averageNanos) ?
+                    processingNanos : averageNanos + SMOOTHING * (processingNanos - averageNanos);
+
+                previous = prefetch;
+                chosen = averageNanos <= 0 ? maxPrefetch : bound(Math.round(targetBufferNanos / averageNanos));
+                prefetch = chosen;
+            }
+
+            if (chosen != previous && listener != null) {
+                listener.onPrefetchChanged(address, chosen);
+            }
+        }
+    }
+}
@@ -0,0 +1,35 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+/**
+ * Listener interface that is notified when the {@link AMQP10JMSAdaptivePrefetchController} chooses
+ * a new prefetch for the consumers of a destination.
+ */
+public interface AMQP10JMSAdaptivePrefetchListener {
+
+    /**
+     * Called when the prefetch for a destination is first chosen and each time it changes.
+     *
+     * @param address
+     *      the address of the destination.
+     * @param prefetch
+     *      the prefetch that new consumers of the destination are given.
+     */
+    void onPrefetchChanged(String address, int prefetch);
+
+}
@@ -0,0 +1,81 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer {@link MeterBinder} that exposes the prefetch chosen by the {@link AMQP10JMSAdaptivePrefetchController}
+ * as an {@code amqphub.amqp10jms.prefetch} gauge for each destination, tagged with the {@code destination} address.
+ */
+public class AMQP10JMSAdaptivePrefetchMetrics implements MeterBinder, AMQP10JMSAdaptivePrefetchListener {
+
+    private static final String METRIC_NAME = "amqphub.amqp10jms.prefetch";
+
+    private final Tags tags;
+
+    private final Map<String, AtomicInteger> prefetchValues = new ConcurrentHashMap<>();
+
+    private volatile MeterRegistry registry;
+
+    public AMQP10JMSAdaptivePrefetchMetrics() {
+        this(Tags.empty());
+    }
+
+    /**
+     * Create a new metrics binder that applies the given tags to each registered meter.
+     *
+     * @param tags
+     *      The tags to apply to all meters registered by this binder.
+     */
+    public AMQP10JMSAdaptivePrefetchMetrics(Iterable<Tag> tags) {
+        this.tags = Tags.of(tags);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        this.registry = registry;
+        prefetchValues.forEach((address, prefetch) -> register(registry, address, prefetch));
+    }
+
+    @Override
+    public void onPrefetchChanged(String address, int prefetch) {
+        prefetchValues.computeIfAbsent(address, (key) -> {
+            final AtomicInteger value = new AtomicInteger(prefetch);
+            final MeterRegistry current = registry;
+            if (current != null) {
+                register(current, key, value);
+            }
+            return value;
+        }).set(prefetch);
+    }
+
+    private void register(MeterRegistry registry, String address, AtomicInteger prefetch) {
+        Gauge.builder(METRIC_NAME, prefetch, AtomicInteger::get)
+             .description("The prefetch given to new consumers of the destination")
+             .tags(tags).tag("destination", address)
+             .register(registry);
+    }
+}
@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsDestination;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+
+/**
+ * {@link ObservationHandler} that reports the time taken by the listener containers to process each
+ * message, from the {@code jms.message.process} observations, to an {@link AMQP10JMSAdaptivePrefetchController}.
+ * The time of an observation that covers a batch of messages is shared evenly between its messages.
+ */
+class AMQP10JMSAdaptivePrefetchObservationHandler implements ObservationHandler<JmsProcessObservationContext> {
+
+    private static final Object PROCESS_START_KEY = new Object();
+
+    private final AMQP10JMSAdaptivePrefetchController controller;
+
+    AMQP10JMSAdaptivePrefetchObservationHandler(AMQP10JMSAdaptivePrefetchController controller) {
+        this.controller = controller;
+    }
+
+    @Override
+    public void onStart(JmsProcessObservationContext context) {
+        context.put(PROCESS_START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(JmsProcessObservationContext context) {
+        final Long startTime = context.get(PROCESS_START_KEY);
+        final JmsDestination destination = destinationOf(context.getCarrier());
+
+        if (startTime != null && destination != null) {
+            final int messageCount = AMQP10JMSWindowedMessageListenerContainer.observedMessageCount(context);
+            controller.recordProcessingTime(destination, (System.nanoTime() - startTime) / messageCount);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof JmsProcessObservationContext;
+    }
+
+    private static JmsDestination destinationOf(Message message) {
+        try {
+            final Destination destination = message != null ? message.getJMSDestination() : null;
+            return destination instanceof JmsDestination ? (JmsDestination) destination : null;
+        } catch (JMSException ex) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsDestination;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
+import org.springframework.util.Assert;
+
+/**
+ * {@link JmsPrefetchPolicy} that gives new consumers the prefetch chosen for their destination by an
+ * {@link AMQP10JMSAdaptivePrefetchController}, starting from the statically configured prefetch which
+ * also continues to apply to queue browsers. The controller is shared by all copies of the policy such
+ * that every connection created by the connection factory uses the same measurements.
+ * <p>
+ * The prefetch of a consumer is granted when the consumer is created and is not changed afterwards.
+ * Listener containers that cache their consumers, as the {@code DefaultMessageListenerContainer} does
+ * by default, therefore keep the prefetch their consumers started with, and the adapted values only
+ * reach the consumers created later, such as those added when a container scales up or recreated after
+ * a connection failure.
+ */
+public class AMQP10JMSAdaptivePrefetchPolicy extends AMQP10JMSPrefetchPolicy {
+
+    private final AMQP10JMSAdaptivePrefetchController controller;
+
+    /**
+     * Creates a new policy that starts from the values of the given default policy.
+     *
+     * @param source
+     *      The policy whose prefetch values are copied.
+     * @param controller
+     *      The controller that chooses the prefetch for each destination.
+     */
+    public AMQP10JMSAdaptivePrefetchPolicy(JmsDefaultPrefetchPolicy source, AMQP10JMSAdaptivePrefetchController controller) {
+        super(source);
+
+        Assert.notNull(controller, "Adaptive prefetch controller must not be null");
+        this.controller = controller;
+    }
+
+    @Override
+    public AMQP10JMSAdaptivePrefetchPolicy copy() {
+        return new AMQP10JMSAdaptivePrefetchPolicy(this, controller);
+    }
+
+    @Override
+    public int getConfiguredPrefetch(JmsSession session, JmsDestination destination, boolean durable, boolean browser) {
+        final int configuredPrefetch = super.getConfiguredPrefetch(session, destination, durable, browser);
+
+        if (browser) {
+            return configuredPrefetch;
+        }
+
+        return controller.getPrefetch(destination, configuredPrefetch);
+    }
+
+    /**
+     * @return the controller that chooses the prefetch for each destination.
+     */
+    public AMQP10JMSAdaptivePrefetchController getController() {
+        return controller;
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.jms.core.ProducerCallback;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.util.Assert;
+
+import jakarta.jms.CompletionListener;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.ResourceAllocationException;
+
+/**
+ * Send template that uses the JMS 2 {@link CompletionListener} based send methods such that the
+ * caller is not blocked while the remote peer settles each message, every send returns a
+ * {@link CompletableFuture} that completes once the message has been settled.
+ * <p>
+ * The connection factory, destination resolution, message conversion and quality of service
+ * settings are taken from the {@link JmsTemplate} the template is created with. The number of
+ * sends awaiting completion is capped, a send made when the cap has been reached blocks until
+ * an earlier send completes or the configured acquire timeout expires. Connection factories that
+ * cache producers (the caching and pooled factories) should be used as closing an uncached
+ * producer waits for its outstanding sends to complete.
+ * <p>
+ * The returned futures are completed from the client's I/O thread, dependent work that could
+ * block should be run using the async variants of the {@link CompletableFuture} methods.
+ */
+public class AMQP10JMSAsyncTemplate {
+
+    private final JmsTemplate jmsTemplate;
+    private final int maxInFlight;
+    private final Duration acquireTimeout;
+    private final Semaphore inFlightPermits;
+
+    /**
+     * Creates a new template whose sends wait indefinitely for an in-flight slot.
+     *
+     * @param jmsTemplate
+     *      The {@link JmsTemplate} whose connection factory and settings are used.
+     * @param maxInFlight
+     *      The maximum number of sends that may be awaiting completion.
+     */
+    public AMQP10JMSAsyncTemplate(JmsTemplate jmsTemplate, int maxInFlight) {
+        this(jmsTemplate, maxInFlight, null);
+    }
+
+    /**
+     * Creates a new template.
+     *
+     * @param jmsTemplate
+     *      The {@link JmsTemplate} whose connection factory and settings are used.
+     * @param maxInFlight
+     *      The maximum number of sends that may be awaiting completion.
+     * @param acquireTimeout
+     *      The maximum time a send waits for an in-flight slot or null to wait indefinitely.
+     */
+    public AMQP10JMSAsyncTemplate(JmsTemplate jmsTemplate, int maxInFlight, Duration acquireTimeout) {
+        Assert.notNull(jmsTemplate, "JmsTemplate must not be null");
+        Assert.isTrue(maxInFlight > 0, "Max in flight sends must be greater than zero");
+        Assert.isTrue(acquireTimeout == null || !acquireTimeout.isNegative(), "Acquire timeout must not be negative");
+
+        this.jmsTemplate = jmsTemplate;
+        this.maxInFlight = maxInFlight;
+        this.acquireTimeout = acquireTimeout;
+        this.inFlightPermits = new Semaphore(maxInFlight);
+    }
+
+    /**
+     * @return the {@link JmsTemplate} whose connection factory and settings this template uses.
+     */
+    public JmsTemplate getJmsTemplate() {
+        return jmsTemplate;
+    }
+
+    /**
+     * @return the maximum number of sends that may be awaiting completion.
+     */
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    /**
+     * @return the number of sends currently awaiting completion.
+     */
+    public int getInFlight() {
+        return maxInFlight - inFlightPermits.availablePermits();
+    }
+
+    public CompletableFuture<Void> send(MessageCreator messageCreator) {
+        return doSend((callback) -> jmsTemplate.execute(callback), messageCreator);
+    }
+
+    public CompletableFuture<Void> send(Destination destination, MessageCreator messageCreator) {
+        return doSend((callback) -> jmsTemplate.execute(destination, callback), messageCreator);
+    }
+
+    public CompletableFuture<Void> send(String destinationName, MessageCreator messageCreator) {
+        return doSend((callback) -> jmsTemplate.execute(destinationName, callback), messageCreator);
+    }
+
+    public CompletableFuture<Void> convertAndSend(Object message) {
+        return send((session) -> getRequiredMessageConverter().toMessage(message, session));
+    }
+
+    public CompletableFuture<Void> convertAndSend(Destination destination, Object message) {
+        return send(destination, (session) -> getRequiredMessageConverter().toMessage(message, session));
+    }
+
+    public CompletableFuture<Void> convertAndSend(String destinationName, Object message) {
+        return send(destinationName, (session) -> getRequiredMessageConverter().toMessage(message, session));
+    }
+
+    private CompletableFuture<Void> doSend(Consumer<ProducerCallback<Object>> executor, MessageCreator messageCreator) {
+        Assert.notNull(messageCreator, "MessageCreator must not be null");
+
+        try {
+            if (!acquireInFlightPermit()) {
+                return CompletableFuture.failedFuture(JmsUtils.convertJmsAccessException(new ResourceAllocationException(
+                    "Timed out after " + acquireTimeout + " waiting for one of the " + maxInFlight + " in flight sends to complete")));
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return CompletableFuture.failedFuture(ex);
+        }
+
+        final SendCompletion completion = new SendCompletion();
+
+        try {
+            executor.accept((session, producer) -> {
+                doSend(producer, messageCreator.createMessage(session), completion);
+                return null;
+            });
+        } catch (RuntimeException ex) {
+            completion.fail(ex);
+        }
+
+        return completion.future;
+    }
+
+    private void doSend(MessageProducer producer, Message message, CompletionListener completionListener) throws JMSException {
+        if (jmsTemplate.getDeliveryDelay() >= 0) {
+            producer.setDeliveryDelay(jmsTemplate.getDeliveryDelay());
+        }
+
+        if (jmsTemplate.isExplicitQosEnabled()) {
+            producer.send(message, jmsTemplate.getDeliveryMode(), jmsTemplate.getPriority(), jmsTemplate.getTimeToLive(), completionListener);
+        } else {
+            producer.send(message, completionListener);
+        }
+    }
+
+    private boolean acquireInFlightPermit() throws InterruptedException {
+        if (acquireTimeout == null) {
+            inFlightPermits.acquire();
+            return true;
+        }
+
+        return inFlightPermits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    private MessageConverter getRequiredMessageConverter() {
+        final MessageConverter converter = jmsTemplate.getMessageConverter();
+        if (converter == null) {
+            throw new IllegalStateException("No 'messageConverter' specified. Check configuration of JmsTemplate.");
+        }
+
+        return converter;
+    }
+
+    private final class SendCompletion implements CompletionListener {
+
+        private final CompletableFuture<Void> future = new CompletableFuture<>();
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onCompletion(Message message) {
+            release();
+            future.complete(null);
+        }
+
+        @Override
+        public void onException(Message message, Exception exception) {
+            fail(exception instanceof JMSException ? JmsUtils.convertJmsAccessException((JMSException) exception) : exception);
+        }
+
+        void fail(Throwable error) {
+            release();
+            future.completeExceptionally(error);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                inFlightPermits.release();
+            }
+        }
+    }
+}
@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+/**
+ * Strategy that reports the number of messages waiting on a queue, used by the
+ * {@link AMQP10JMSConcurrencyAutoscaler} to size the consumers of the listener containers.
+ * An application may provide its own implementation as a bean, for example one that reads
+ * the queue depth from a broker specific management API or metrics endpoint.
+ */
+@FunctionalInterface
+public interface AMQP10JMSBacklogProvider {
+
+    /**
+     * Returns the number of messages waiting on the given queue.
+     *
+     * @param queueName
+     *      the name of the queue.
+     *
+     * @return the number of messages waiting on the queue or a negative value if it is not known.
+     */
+    long getBacklog(String queueName);
+
+}
@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.jms.autoconfigure.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.jms.autoconfigure.JmsProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jms.annotation.EnableJms;
+import org.springframework.jms.annotation.JmsListenerConfigurer;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
+
+import jakarta.jms.ConnectionFactory;
+
+/**
+ * Auto Configuration class that creates the {@link AMQP10JMSBatchListenerContainerFactory} named
+ * {@value #BATCH_LISTENER_CONTAINER_FACTORY_BEAN_NAME} for the connection factory created by the
+ * AMQP 1.0 JMS auto configuration. A {@code @JmsListener} method that names the factory as its
+ * {@code containerFactory} receives batches bounded by the {@code amqphub.amqp10jms.listener.batch}
+ * properties.
+ * <p>
+ * The factory is configured from the {@code spring.jms.listener} properties and the listener options of
+ * this starter in the same way as the default listener container factory. Spring Boot creates transacted
+ * listener sessions unless told otherwise, in which case each batch is committed with one transaction,
+ * sessions that are not transacted should use the client acknowledge mode for each batch to be
+ * acknowledged as a whole.
+ * <p>
+ * Batch listener methods are resolved by the message handler method factory of the {@code @JmsListener}
+ * endpoint registrar, as configured by the application's {@link JmsListenerConfigurer} beans, so they use
+ * the same argument resolvers, conversion service and validator as other listener methods.
+ *
+ * @see AMQP10JMSProperties.Listener.Batch
+ */
+@AutoConfiguration(after = { AMQP10JMSAutoConfiguration.class, JmsAutoConfiguration.class })
+@ConditionalOnClass({ EnableJms.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+public class AMQP10JMSBatchListenerAutoConfiguration {
+
+    public static final String BATCH_LISTENER_CONTAINER_FACTORY_BEAN_NAME = "amqp10JmsBatchListenerContainerFactory";
+
+    @Bean(name = BATCH_LISTENER_CONTAINER_FACTORY_BEAN_NAME)
+    @ConditionalOnMissingBean(name = BATCH_LISTENER_CONTAINER_FACTORY_BEAN_NAME)
+    AMQP10JMSBatchListenerContainerFactory amqp10JmsBatchListenerContainerFactory(DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                                                                  ConnectionFactory connectionFactory,
+                                                                                  @Qualifier(AMQP10JMSConnectionFactoryConfiguration.CONSUMER_CONNECTION_FACTORY_BEAN_NAME)
+                                                                                  ObjectProvider<ConnectionFactory> consumerConnectionFactory,
+                                                                                  AMQP10JMSProperties properties,
+                                                                                  JmsProperties jmsProperties) {
+        final AMQP10JMSBatchListenerContainerFactory factory = new AMQP10JMSBatchListenerContainerFactory();
+
+        AMQP10JMSListenerAutoConfiguration.configureFactory(factory, configurer, connectionFactory,
+                                                            consumerConnectionFactory, properties, jmsProperties);
+
+        factory.setMaxBatchSize(properties.getListener().getBatch().getMaxSize());
+        factory.setMaxWait(properties.getListener().getBatch().getMaxWait());
+
+        return factory;
+    }
+
+    @Bean
+    JmsListenerConfigurer amqp10JmsBatchListenerConfigurer(@Qualifier(BATCH_LISTENER_CONTAINER_FACTORY_BEAN_NAME)
+                                                           ObjectProvider<AMQP10JMSBatchListenerContainerFactory> batchFactory,
+                                                           BeanFactory beanFactory) {
+        return (registrar) -> {
+            final AMQP10JMSBatchListenerContainerFactory factory = batchFactory.getIfAvailable();
+            if (factory == null || factory.getMessageHandlerMethodFactory() != null) {
+                // Not the factory of this configuration or one configured by the application
+                return;
+            }
+
+            final DefaultMessageHandlerMethodFactory defaultFactory = new DefaultMessageHandlerMethodFactory();
+            defaultFactory.setBeanFactory(beanFactory);
+            defaultFactory.afterPropertiesSet();
+
+            // Looked up as each container is created as other configurers may set the registrar's factory later
+            factory.setMessageHandlerMethodFactory((bean, method) -> {
+                final MessageHandlerMethodFactory registrarFactory = registrar.getMessageHandlerMethodFactory();
+                return (registrarFactory != null ? registrarFactory : defaultFactory).createInvocableHandlerMethod(bean, method);
+            });
+        };
+    }
+}
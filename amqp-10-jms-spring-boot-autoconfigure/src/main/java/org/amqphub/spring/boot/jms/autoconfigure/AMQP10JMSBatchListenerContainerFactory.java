@@ -0,0 +1,140 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.BeanFactoryAware;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpoint;
+import org.springframework.jms.config.MethodJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.annotation.support.MessageHandlerMethodFactory;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DefaultJmsListenerContainerFactory} that creates {@link AMQP10JMSBatchMessageListenerContainer}
+ * instances, a {@code @JmsListener} method that names this factory as its {@code containerFactory} is
+ * given each batch of messages in one invocation through a {@link java.util.List} parameter.
+ * <p>
+ * The arguments of a batch listener method are resolved by the {@link MessageHandlerMethodFactory} of
+ * this factory. The auto configuration sets one that delegates to the message handler method factory
+ * of the {@code @JmsListener} endpoint registrar, such that batch listener methods resolve their arguments
+ * in the same way as other listener methods, otherwise a {@link DefaultMessageHandlerMethodFactory} that
+ * is given the bean factory of this factory is used.
+ */
+public class AMQP10JMSBatchListenerContainerFactory extends DefaultJmsListenerContainerFactory implements BeanFactoryAware {
+
+    private static final MessageConverter DEFAULT_MESSAGE_CONVERTER = new SimpleMessageConverter();
+
+    private Integer maxBatchSize;
+    private Duration maxWait;
+    private MessageHandlerMethodFactory messageHandlerMethodFactory;
+    private BeanFactory beanFactory;
+
+    /**
+     * @param maxBatchSize
+     *      the maximum number of messages delivered to the listener in one batch.
+     */
+    public void setMaxBatchSize(Integer maxBatchSize) {
+        Assert.isTrue(maxBatchSize == null || maxBatchSize > 0, "Max batch size must be greater than zero");
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * @param maxWait
+     *      the maximum time a batch waits for further messages after its first message.
+     */
+    public void setMaxWait(Duration maxWait) {
+        Assert.isTrue(maxWait == null || !maxWait.isNegative(), "Max batch wait must not be negative");
+        this.maxWait = maxWait;
+    }
+
+    /**
+     * @param messageHandlerMethodFactory
+     *      the factory that creates the handler methods invoked with each batch of a {@code @JmsListener} method.
+     */
+    public void setMessageHandlerMethodFactory(MessageHandlerMethodFactory messageHandlerMethodFactory) {
+        this.messageHandlerMethodFactory = messageHandlerMethodFactory;
+    }
+
+    /**
+     * @return the factory that creates the handler methods invoked with each batch, or null when none has been set.
+     */
+    public MessageHandlerMethodFactory getMessageHandlerMethodFactory() {
+        return messageHandlerMethodFactory;
+    }
+
+    @Override
+    public void setBeanFactory(BeanFactory beanFactory) {
+        this.beanFactory = beanFactory;
+    }
+
+    @Override
+    public DefaultMessageListenerContainer createListenerContainer(JmsListenerEndpoint endpoint) {
+        final DefaultMessageListenerContainer container = super.createListenerContainer(endpoint);
+
+        // Replace the single message adapter of a @JmsListener method with one that is given the whole batch
+        if (endpoint instanceof MethodJmsListenerEndpoint) {
+            final MethodJmsListenerEndpoint methodEndpoint = (MethodJmsListenerEndpoint) endpoint;
+            final InvocableHandlerMethod method =
+                obtainMessageHandlerMethodFactory().createInvocableHandlerMethod(methodEndpoint.getBean(), methodEndpoint.getMethod());
+            final MessageConverter converter = container.getMessageConverter();
+
+            container.setupMessageListener(new AMQP10JMSBatchMethodListener(method, converter != null ? converter : DEFAULT_MESSAGE_CONVERTER));
+        }
+
+        return container;
+    }
+
+    private MessageHandlerMethodFactory obtainMessageHandlerMethodFactory() {
+        if (messageHandlerMethodFactory == null) {
+            final DefaultMessageHandlerMethodFactory defaultFactory = new DefaultMessageHandlerMethodFactory();
+            if (beanFactory != null) {
+                defaultFactory.setBeanFactory(beanFactory);
+            }
+            defaultFactory.afterPropertiesSet();
+            messageHandlerMethodFactory = defaultFactory;
+        }
+
+        return messageHandlerMethodFactory;
+    }
+
+    @Override
+    protected DefaultMessageListenerContainer createContainerInstance() {
+        return new AMQP10JMSBatchMessageListenerContainer();
+    }
+
+    @Override
+    protected void initializeContainer(DefaultMessageListenerContainer container) {
+        super.initializeContainer(container);
+
+        final AMQP10JMSBatchMessageListenerContainer batchContainer = (AMQP10JMSBatchMessageListenerContainer) container;
+
+        if (maxBatchSize != null) {
+            batchContainer.setMaxBatchSize(maxBatchSize);
+        }
+        if (maxWait != null) {
+            batchContainer.setMaxWait(maxWait);
+        }
+    }
+}
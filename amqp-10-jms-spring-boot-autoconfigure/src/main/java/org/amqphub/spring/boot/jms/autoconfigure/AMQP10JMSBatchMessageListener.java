@@ -0,0 +1,55 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.Collections;
+import java.util.List;
+
+import org.springframework.jms.listener.SessionAwareMessageListener;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+/**
+ * Listener interface for programmatically registered endpoints of an
+ * {@link AMQP10JMSBatchMessageListenerContainer} which receives the messages of each batch together.
+ * Should the listener throw an exception the whole batch is rolled back or recovered and redelivered.
+ */
+@FunctionalInterface
+public interface AMQP10JMSBatchMessageListener extends SessionAwareMessageListener<Message> {
+
+    /**
+     * Called with each batch of messages received by the listener container.
+     *
+     * @param messages
+     *      the messages of the batch in the order they were received.
+     * @param session
+     *      the session the messages were received on.
+     *
+     * @throws JMSException if an error occurs while processing the messages.
+     */
+    void onMessages(List<Message> messages, Session session) throws JMSException;
+
+    /**
+     * Delivers a single message as a batch of one.
+     */
+    @Override
+    default void onMessage(Message message, Session session) throws JMSException {
+        onMessages(Collections.singletonList(message), session);
+    }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+/**
+ * Listener container that receives messages in batches and hands each batch to its listener in a
+ * single invocation, acknowledging the batch with one transaction commit when the session is transacted
+ * or with one {@link Message#acknowledge()} when the session uses client acknowledgement.
+ * <p>
+ * A batch is started by the first message received within the receive timeout and is complete once it
+ * holds the maximum batch size or the maximum wait time has passed since its first message, after which
+ * messages are only added while the consumer has one immediately available, which checks the remote peer
+ * as well unless {@code receiveNoWaitLocalOnly} is enabled. Should the listener fail the session is rolled
+ * back, or recovered when using client acknowledgement, such that the whole batch is redelivered. With
+ * automatic acknowledgement each message is acknowledged as it is received. The consumer prefetch should
+ * be at least the maximum batch size so that batches can fill without waiting on the remote peer.
+ * <p>
+ * The listener is an {@link AMQP10JMSBatchMessageListener}. A {@code @JmsListener} method is invoked
+ * through such a listener when its container is created by an {@link AMQP10JMSBatchListenerContainerFactory},
+ * the method must declare a {@link List} parameter that receives either the {@link Message} instances of
+ * the batch or their payloads as converted by the container's message converter, and may declare a
+ * {@link Session} parameter. Return values of batch listener methods are not sent as replies. The
+ * processing of a batch is observed as one listener observation made for the first message of the batch.
+ */
+public class AMQP10JMSBatchMessageListenerContainer extends AMQP10JMSWindowedMessageListenerContainer {
+
+    public AMQP10JMSBatchMessageListenerContainer() {
+        super(100, Duration.ofMillis(500));
+    }
+
+    /**
+     * @return the maximum number of messages delivered to the listener in one batch.
+     */
+    public int getMaxBatchSize() {
+        return getWindowSize();
+    }
+
+    /**
+     * @param maxBatchSize
+     *      the maximum number of messages delivered to the listener in one batch.
+     */
+    public void setMaxBatchSize(int maxBatchSize) {
+        Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than zero");
+        setWindowSize(maxBatchSize);
+    }
+
+    /**
+     * @return the maximum time a batch waits for further messages after its first message.
+     */
+    public Duration getMaxWait() {
+        return getWindowTime();
+    }
+
+    /**
+     * @param maxWait
+     *      the maximum time a batch waits for further messages after its first message.
+     */
+    public void setMaxWait(Duration maxWait) {
+        Assert.isTrue(maxWait != null && !maxWait.isNegative(), "Max batch wait must not be negative");
+        setWindowTime(maxWait);
+    }
+
+    @Override
+    protected boolean isWindowFilledAfterTime() {
+        // The listener is invoked once per batch so filling the batch does not delay its settlement
+        return true;
+    }
+
+    @Override
+    protected void onWindowMessage(Session session, Message message) {
+        // The listener is invoked once the batch is complete
+    }
+
+    @Override
+    protected void onWindowClosed(Session session, List<Message> batch) throws JMSException {
+        invokeObserved(session, batch.get(0), batch.size(), () -> invokeBatchListener(session, batch));
+    }
+
+    private void invokeBatchListener(Session session, List<Message> batch) throws JMSException {
+        final Object listener = getMessageListener();
+        if (listener instanceof AMQP10JMSBatchMessageListener) {
+            ((AMQP10JMSBatchMessageListener) listener).onMessages(batch, session);
+        } else {
+            throw new IllegalStateException("Batch listener containers require an AMQP10JMSBatchMessageListener, @JmsListener methods must be registered through an AMQP10JMSBatchListenerContainerFactory");
+        }
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.core.ResolvableType;
+import org.springframework.jms.listener.adapter.ListenerExecutionFailedException;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.util.Assert;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+/**
+ * {@link AMQP10JMSBatchMessageListener} that hands each batch to a {@code @JmsListener} method which
+ * declares a {@link List} parameter, given either the {@link Message} instances of the batch or their
+ * payloads as converted by the message converter of the listener container.
+ */
+class AMQP10JMSBatchMethodListener implements AMQP10JMSBatchMessageListener {
+
+    private final InvocableHandlerMethod method;
+    private final MessageConverter converter;
+    private final boolean jmsMessages;
+
+    AMQP10JMSBatchMethodListener(InvocableHandlerMethod method, MessageConverter converter) {
+        Assert.notNull(method, "Batch listener method must not be null");
+        Assert.notNull(converter, "Message converter must not be null");
+
+        this.method = method;
+        this.converter = converter;
+        this.jmsMessages = isJmsMessageList(method);
+    }
+
+    @Override
+    public void onMessages(List<Message> messages, Session session) throws JMSException {
+        final List<Object> payloads = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            payloads.add(jmsMessages ? message : converter.fromMessage(message));
+        }
+
+        try {
+            method.invoke(MessageBuilder.withPayload(payloads).build(), session);
+        } catch (Exception ex) {
+            throw new ListenerExecutionFailedException("Listener method '" + method.getMethod().toGenericString() + "' threw exception", ex);
+        }
+    }
+
+    private static boolean isJmsMessageList(InvocableHandlerMethod method) {
+        for (MethodParameter parameter : method.getMethodParameters()) {
+            final Class<?> type = parameter.getParameterType();
+            if (Collection.class.isAssignableFrom(type) && type.isAssignableFrom(List.class)) {
+                final Class<?> elementType = ResolvableType.forMethodParameter(parameter).asCollection().resolveGeneric(0);
+                return elementType != null && Message.class.isAssignableFrom(elementType);
+            }
+        }
+
+        throw new IllegalStateException("Batch listener method " + method.getMethod().toGenericString() + " must declare a List parameter");
+    }
+}
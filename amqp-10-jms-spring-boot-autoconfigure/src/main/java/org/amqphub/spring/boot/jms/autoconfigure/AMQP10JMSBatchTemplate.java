@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.Collection;
+
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.util.Assert;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Send template that publishes a collection of messages through a single session and producer,
+ * grouping the messages into local transactions such that one settlement round-trip is made per
+ * transaction rather than one per message.
+ * <p>
+ * The connection factory, destination resolution, message conversion and quality of service
+ * settings are taken from the {@link JmsTemplate} the template is created with. A batch is split
+ * into several transactions when it exceeds the maximum batch size or when adding a message would
+ * exceed the byte budget of the current transaction. The body size of text and bytes messages is
+ * counted against the byte budget, text by its UTF-8 encoded size, other message types count as
+ * empty. If a send or commit fails the current transaction is rolled back, transactions committed
+ * earlier in the batch remain committed.
+ */
+public class AMQP10JMSBatchTemplate {
+
+    private final JmsTemplate jmsTemplate;
+    private final int maxBatchSize;
+    private final long maxBatchBytes;
+
+    /**
+     * Creates a new template.
+     *
+     * @param jmsTemplate
+     *      The {@link JmsTemplate} whose connection factory and settings are used.
+     * @param maxBatchSize
+     *      The maximum number of messages sent in a single transaction.
+     * @param maxBatchBytes
+     *      The maximum combined body size in bytes of the messages sent in a single transaction.
+     */
+    public AMQP10JMSBatchTemplate(JmsTemplate jmsTemplate, int maxBatchSize, long maxBatchBytes) {
+        Assert.notNull(jmsTemplate, "JmsTemplate must not be null");
+        Assert.notNull(jmsTemplate.getConnectionFactory(), "JmsTemplate must have a ConnectionFactory");
+        Assert.isTrue(maxBatchSize > 0, "Max batch size must be greater than zero");
+        Assert.isTrue(maxBatchBytes > 0, "Max batch bytes must be greater than zero");
+
+        this.jmsTemplate = jmsTemplate;
+        this.maxBatchSize = maxBatchSize;
+        this.maxBatchBytes = maxBatchBytes;
+    }
+
+    /**
+     * @return the {@link JmsTemplate} whose connection factory and settings this template uses.
+     */
+    public JmsTemplate getJmsTemplate() {
+        return jmsTemplate;
+    }
+
+    /**
+     * @return the maximum number of messages sent in a single transaction.
+     */
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    /**
+     * @return the maximum combined body size in bytes of the messages sent in a single transaction.
+     */
+    public long getMaxBatchBytes() {
+        return maxBatchBytes;
+    }
+
+    /**
+     * Converts and sends each of the given payloads to the named destination.
+     *
+     * @param destinationName
+     *      The name of the destination, resolved using the {@link JmsTemplate} destination resolver.
+     * @param payloads
+     *      The payloads to convert and send in order.
+     *
+     * @return the number of transactions that were committed to send the batch.
+     */
+    public int sendBatch(String destinationName, Collection<?> payloads) {
+        Assert.notNull(destinationName, "Destination name must not be null");
+        return doSendBatch(destinationName, null, payloads);
+    }
+
+    /**
+     * Converts and sends each of the given payloads to the given destination.
+     *
+     * @param destination
+     *      The destination to send to.
+     * @param payloads
+     *      The payloads to convert and send in order.
+     *
+     * @return the number of transactions that were committed to send the batch.
+     */
+    public int sendBatch(Destination destination, Collection<?> payloads) {
+        Assert.notNull(destination, "Destination must not be null");
+        return doSendBatch(null, destination, payloads);
+    }
+
+    private int doSendBatch(String destinationName, Destination destination, Collection<?> payloads) {
+        Assert.notNull(payloads, "Payloads must not be null");
+
+        if (payloads.isEmpty()) {
+            return 0;
+        }
+
+        final ConnectionFactory connectionFactory = jmsTemplate.getConnectionFactory();
+        final MessageConverter converter = getRequiredMessageConverter();
+
+        Connection connection = null;
+        Session session = null;
+        MessageProducer producer = null;
+
+        try {
+            connection = connectionFactory.createConnection();
+            session = connection.createSession(true, Session.SESSION_TRANSACTED);
+
+            final Destination target = destination != null ? destination :
+                jmsTemplate.getDestinationResolver().resolveDestinationName(session, destinationName, jmsTemplate.isPubSubDomain());
+
+            producer = session.createProducer(target);
+            if (jmsTemplate.getDeliveryDelay() >= 0) {
+                producer.setDeliveryDelay(jmsTemplate.getDeliveryDelay());
+            }
+
+            int commits = 0;
+            int batchCount = 0;
+            long batchBytes = 0;
+
+            for (Object payload : payloads) {
+                final Message message = converter.toMessage(payload, session);
+                final long messageBytes = getBodySize(message);
+
+                if (batchCount > 0 && (batchCount == maxBatchSize || batchBytes + messageBytes > maxBatchBytes)) {
+                    session.commit();
+                    commits++;
+                    batchCount = 0;
+                    batchBytes = 0;
+                }
+
+                doSend(producer, message);
+                batchCount++;
+                batchBytes += messageBytes;
+            }
+
+            session.commit();
+
+            return ++commits;
+        } catch (JMSException ex) {
+            rollback(session);
+            throw JmsUtils.convertJmsAccessException(ex);
+        } catch (RuntimeException ex) {
+            rollback(session);
+            throw ex;
+        } finally {
+            JmsUtils.closeMessageProducer(producer);
+            JmsUtils.closeSession(session);
+            JmsUtils.closeConnection(connection);
+        }
+    }
+
+    private void doSend(MessageProducer producer, Message message) throws JMSException {
+        if (jmsTemplate.isExplicitQosEnabled()) {
+            producer.send(message, jmsTemplate.getDeliveryMode(), jmsTemplate.getPriority(), jmsTemplate.getTimeToLive());
+        } else {
+            producer.send(message);
+        }
+    }
+
+    private static void rollback(Session session) {
+        if (session != null) {
+            try {
+                JmsUtils.rollbackIfNecessary(session);
+            } catch (JMSException | RuntimeException ex) {
+                // Ignore, the original failure is reported and closing the session discards the transaction
+            }
+        }
+    }
+
+    private static long getBodySize(Message message) throws JMSException {
+        if (message instanceof BytesMessage) {
+            // Converted bytes messages are write-only until reset, which the send would do regardless
+            final BytesMessage bytesMessage = (BytesMessage) message;
+            bytesMessage.reset();
+            return bytesMessage.getBodyLength();
+        } else if (message instanceof TextMessage) {
+            final String text = ((TextMessage) message).getText();
+            // Text is sent UTF-8 encoded, so its exact encoded size is counted against the budget
+            return text != null ? utf8Length(text) : 0;
+        }
+
+        return 0;
+    }
+
+    /**
+     * Counts the bytes the text encodes to in UTF-8 without encoding it. A surrogate pair
+     * encodes to four bytes and an unpaired surrogate to the single replacement byte that
+     * {@link String#getBytes(java.nio.charset.Charset)} would write.
+     */
+    static long utf8Length(CharSequence text) {
+        final int length = text.length();
+        long bytes = length;
+
+        for (int i = 0; i < length; i++) {
+            final char c = text.charAt(i);
+            if (c < 0x80) {
+                continue;
+            } else if (c < 0x800) {
+                bytes++;
+            } else if (!Character.isSurrogate(c)) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(text.charAt(i + 1))) {
+                // Both chars of the pair are already counted once, the code point takes four
+                bytes += 2;
+                i++;
+            }
+        }
+
+        return bytes;
+    }
+
+    private MessageConverter getRequiredMessageConverter() {
+        final MessageConverter converter = jmsTemplate.getMessageConverter();
+        if (converter == null) {
+            throw new IllegalStateException("No 'messageConverter' specified. Check configuration of JmsTemplate.");
+        }
+
+        return converter;
+    }
+}
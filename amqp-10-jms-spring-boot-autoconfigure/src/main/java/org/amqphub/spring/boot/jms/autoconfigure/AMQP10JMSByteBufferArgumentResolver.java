@@ -0,0 +1,61 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.nio.ByteBuffer;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.handler.annotation.support.MethodArgumentTypeMismatchException;
+import org.springframework.messaging.handler.invocation.HandlerMethodArgumentResolver;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+
+/**
+ * {@link HandlerMethodArgumentResolver} that resolves {@link ByteBuffer} and Netty {@link ByteBuf}
+ * listener method parameters from a message payload converted to a {@link ByteBuffer} or byte array
+ * by wrapping the payload rather than copying it.
+ *
+ * @see AMQP10JMSByteBufferMessageConverter
+ */
+public class AMQP10JMSByteBufferArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        final Class<?> type = parameter.getParameterType();
+        return type == ByteBuffer.class || type == ByteBuf.class;
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, Message<?> message) {
+        final Object payload = message.getPayload();
+        final boolean byteBuf = parameter.getParameterType() == ByteBuf.class;
+
+        if (payload instanceof ByteBuffer) {
+            return byteBuf ? Unpooled.wrappedBuffer((ByteBuffer) payload) : payload;
+        } else if (payload instanceof byte[]) {
+            return byteBuf ? Unpooled.wrappedBuffer((byte[]) payload) : ByteBuffer.wrap((byte[]) payload);
+        } else if (payload instanceof ByteBuf) {
+            return byteBuf ? payload : ((ByteBuf) payload).nioBuffer();
+        }
+
+        throw new MethodArgumentTypeMismatchException(message, parameter,
+            "Cannot resolve " + parameter.getParameterType().getSimpleName() + " from payload of type " +
+            (payload != null ? payload.getClass().getName() : "null"));
+    }
+}
@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.nio.ByteBuffer;
+
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+
+import io.netty.buffer.ByteBuf;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+/**
+ * {@link SimpleMessageConverter} extension that converts {@link ByteBuffer} and Netty {@link ByteBuf}
+ * payloads to a {@link BytesMessage} and reads the body of a received {@link BytesMessage} as a
+ * {@link ByteBuffer}, all other payloads and message types are converted as by the simple converter.
+ * <p>
+ * Buffers backed by an array are written to the message directly from that array, other buffers are
+ * written through a small per thread scratch array, such that no array the size of the message body
+ * is allocated in addition to the one the JMS client creates to hold the body. The position and reader
+ * index of the given buffers are left unchanged. A received body is copied once, by the JMS client,
+ * into an array of exactly the body length which the returned {@link ByteBuffer} wraps.
+ */
+public class AMQP10JMSByteBufferMessageConverter extends SimpleMessageConverter {
+
+    private static final int SCRATCH_SIZE = 8192;
+
+    private static final ThreadLocal<byte[]> SCRATCH = ThreadLocal.withInitial(() -> new byte[SCRATCH_SIZE]);
+
+    private static final ByteBuffer EMPTY_BODY = ByteBuffer.allocate(0);
+
+    @Override
+    public Message toMessage(Object object, Session session) throws JMSException, MessageConversionException {
+        if (object instanceof ByteBuffer) {
+            final BytesMessage message = session.createBytesMessage();
+            writeBuffer(message, (ByteBuffer) object);
+            return message;
+        } else if (object instanceof ByteBuf) {
+            final BytesMessage message = session.createBytesMessage();
+            writeBuffer(message, (ByteBuf) object);
+            return message;
+        } else {
+            return super.toMessage(object, session);
+        }
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws JMSException, MessageConversionException {
+        if (message instanceof BytesMessage) {
+            return readBuffer((BytesMessage) message);
+        } else {
+            return super.fromMessage(message);
+        }
+    }
+
+    /**
+     * Reads the body of the given message into a {@link ByteBuffer} using a single copy.
+     *
+     * @param message
+     *      the message whose body is read.
+     *
+     * @return a buffer holding the message body positioned at its start.
+     *
+     * @throws JMSException if an error occurs while reading the message body.
+     */
+    protected ByteBuffer readBuffer(BytesMessage message) throws JMSException {
+        final byte[] body = message.getBody(byte[].class);
+        return body != null ? ByteBuffer.wrap(body) : EMPTY_BODY.duplicate();
+    }
+
+    private static void writeBuffer(BytesMessage message, ByteBuffer buffer) throws JMSException {
+        if (buffer.hasArray()) {
+            message.writeBytes(buffer.array(), buffer.arrayOffset() + buffer.position(), buffer.remaining());
+        } else {
+            final ByteBuffer source = buffer.duplicate();
+            final byte[] scratch = SCRATCH.get();
+            while (source.hasRemaining()) {
+                final int length = Math.min(scratch.length, source.remaining());
+                source.get(scratch, 0, length);
+                message.writeBytes(scratch, 0, length);
+            }
+        }
+    }
+
+    private static void writeBuffer(BytesMessage message, ByteBuf buffer) throws JMSException {
+        if (buffer.hasArray()) {
+            message.writeBytes(buffer.array(), buffer.arrayOffset() + buffer.readerIndex(), buffer.readableBytes());
+        } else {
+            final byte[] scratch = SCRATCH.get();
+            final int end = buffer.writerIndex();
+            for (int index = buffer.readerIndex(); index < end; ) {
+                final int length = Math.min(scratch.length, end - index);
+                buffer.getBytes(index, scratch, 0, length);
+                message.writeBytes(scratch, 0, length);
+                index += length;
+            }
+        }
+    }
+}
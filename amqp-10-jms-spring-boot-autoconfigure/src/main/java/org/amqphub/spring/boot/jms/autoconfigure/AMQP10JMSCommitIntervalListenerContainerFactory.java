@@ -0,0 +1,72 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DefaultJmsListenerContainerFactory} that creates {@link AMQP10JMSCommitIntervalMessageListenerContainer}
+ * instances, the listeners of the created containers are invoked for one message at a time as usual while their
+ * sessions are committed once per commit interval.
+ */
+public class AMQP10JMSCommitIntervalListenerContainerFactory extends DefaultJmsListenerContainerFactory {
+
+    private Integer commitMessages;
+    private Duration commitTime;
+
+    /**
+     * @param commitMessages
+     *      the maximum number of messages processed within one commit interval.
+     */
+    public void setCommitMessages(Integer commitMessages) {
+        Assert.isTrue(commitMessages == null || commitMessages > 0, "Commit interval messages must be greater than zero");
+        this.commitMessages = commitMessages;
+    }
+
+    /**
+     * @param commitTime
+     *      the maximum time a commit interval stays open after its first message.
+     */
+    public void setCommitTime(Duration commitTime) {
+        Assert.isTrue(commitTime == null || !commitTime.isNegative(), "Commit interval time must not be negative");
+        this.commitTime = commitTime;
+    }
+
+    @Override
+    protected DefaultMessageListenerContainer createContainerInstance() {
+        return new AMQP10JMSCommitIntervalMessageListenerContainer();
+    }
+
+    @Override
+    protected void initializeContainer(DefaultMessageListenerContainer container) {
+        super.initializeContainer(container);
+
+        final AMQP10JMSCommitIntervalMessageListenerContainer commitIntervalContainer =
+            (AMQP10JMSCommitIntervalMessageListenerContainer) container;
+
+        if (commitMessages != null) {
+            commitIntervalContainer.setCommitMessages(commitMessages);
+        }
+        if (commitTime != null) {
+            commitIntervalContainer.setCommitTime(commitTime);
+        }
+    }
+}
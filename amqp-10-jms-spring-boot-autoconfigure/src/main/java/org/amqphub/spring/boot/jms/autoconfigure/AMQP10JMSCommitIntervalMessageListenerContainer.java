@@ -0,0 +1,95 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.springframework.util.Assert;
+
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+
+/**
+ * Listener container that invokes its listener for each message as it is received but commits the
+ * transacted session only once every commit interval, which closes after the configured number of
+ * messages or once the configured time has passed since its first message, whichever comes first.
+ * A session using client acknowledgement is likewise acknowledged once per commit interval.
+ * <p>
+ * Should the listener fail for any message the session is rolled back and every message received
+ * within the commit interval is redelivered, including those already processed, so listeners must
+ * tolerate redelivery of messages they completed. When the container stops the listener is handed the
+ * message already received and the commit interval is committed, so a normal stop does not cause the
+ * messages already processed to be redelivered. Messages sent from within the listener using the
+ * listener session, such as replies, or using a {@code JmsTemplate} while the listener session is exposed,
+ * become visible when the commit interval is committed and are discarded should it be rolled back.
+ */
+public class AMQP10JMSCommitIntervalMessageListenerContainer extends AMQP10JMSWindowedMessageListenerContainer {
+
+    public AMQP10JMSCommitIntervalMessageListenerContainer() {
+        super(100, Duration.ofSeconds(1));
+    }
+
+    /**
+     * @return the maximum number of messages processed within one commit interval.
+     */
+    public int getCommitMessages() {
+        return getWindowSize();
+    }
+
+    /**
+     * @param commitMessages
+     *      the maximum number of messages processed within one commit interval.
+     */
+    public void setCommitMessages(int commitMessages) {
+        Assert.isTrue(commitMessages > 0, "Commit interval messages must be greater than zero");
+        setWindowSize(commitMessages);
+    }
+
+    /**
+     * @return the maximum time a commit interval stays open after its first message.
+     */
+    public Duration getCommitTime() {
+        return getWindowTime();
+    }
+
+    /**
+     * @param commitTime
+     *      the maximum time a commit interval stays open after its first message.
+     */
+    public void setCommitTime(Duration commitTime) {
+        Assert.isTrue(commitTime != null && !commitTime.isNegative(), "Commit interval time must not be negative");
+        setWindowTime(commitTime);
+    }
+
+    @Override
+    protected boolean isWindowSettledOnStop() {
+        // The listener has already processed every message of the open commit interval
+        return true;
+    }
+
+    @Override
+    protected void onWindowMessage(Session session, Message message) throws JMSException {
+        invokeObserved(session, message, 1, () -> invokeListener(session, message));
+    }
+
+    @Override
+    protected void onWindowClosed(Session session, List<Message> messages) {
+        // Each message was handed to the listener as it was received
+    }
+}
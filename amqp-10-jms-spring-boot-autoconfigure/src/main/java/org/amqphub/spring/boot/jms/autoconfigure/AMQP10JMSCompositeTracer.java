@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.tracing.JmsTracer;
+import org.apache.qpid.jms.tracing.TraceableMessage;
+
+/**
+ * {@link JmsTracer} that passes each event to a tracer configured by the application followed by
+ * a tracer added by this starter, such that installing the latency metrics does not replace the
+ * tracer an application has set on the connection factory.
+ */
+class AMQP10JMSCompositeTracer implements JmsTracer {
+
+    private final JmsTracer first;
+    private final JmsTracer second;
+
+    AMQP10JMSCompositeTracer(JmsTracer first, JmsTracer second) {
+        this.first = first;
+        this.second = second;
+    }
+
+    JmsTracer getFirst() {
+        return first;
+    }
+
+    JmsTracer getSecond() {
+        return second;
+    }
+
+    @Override
+    public void initSend(TraceableMessage message, String address) {
+        first.initSend(message, address);
+        second.initSend(message, address);
+    }
+
+    @Override
+    public void completeSend(TraceableMessage message, String outcome) {
+        first.completeSend(message, outcome);
+        second.completeSend(message, outcome);
+    }
+
+    @Override
+    public void syncReceive(TraceableMessage message, String address, DeliveryOutcome outcome) {
+        first.syncReceive(message, address, outcome);
+        second.syncReceive(message, address, outcome);
+    }
+
+    @Override
+    public void asyncDeliveryInit(TraceableMessage message, String address) {
+        first.asyncDeliveryInit(message, address);
+        second.asyncDeliveryInit(message, address);
+    }
+
+    @Override
+    public void asyncDeliveryComplete(TraceableMessage message, DeliveryOutcome outcome, Throwable throwable) {
+        first.asyncDeliveryComplete(message, outcome, throwable);
+        second.asyncDeliveryComplete(message, outcome, throwable);
+    }
+
+    @Override
+    public void close() {
+        try {
+            first.close();
+        } finally {
+            second.close();
+        }
+    }
+}
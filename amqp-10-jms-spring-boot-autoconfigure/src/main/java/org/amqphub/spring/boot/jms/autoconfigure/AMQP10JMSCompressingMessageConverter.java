@@ -0,0 +1,364 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.Enumeration;
+
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.util.Assert;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageEOFException;
+import jakarta.jms.MessageNotWriteableException;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * {@link MessageConverter} decorator that compresses the text and bytes message bodies created
+ * by the delegate converter once they reach a size threshold.
+ * <p>
+ * A compressed body is sent as a {@link BytesMessage} carrying the headers and properties set by
+ * the delegate along with a {@value #CONTENT_ENCODING_PROPERTY} property that names the codec and
+ * a {@value #ORIGINAL_TYPE_PROPERTY} property that records the original body type. Messages without
+ * the content encoding property are passed to the delegate unchanged, such that consumers remain
+ * interoperable with producers that do not compress, while consumers that do not use this converter
+ * can only read messages that were sent below the threshold. On receive a compressed message is
+ * presented to the delegate as a read-only message of its original type with the decompressed body.
+ * <p>
+ * As a small compressed body can expand to a very large one, decompression stops and the message
+ * is rejected with a {@link MessageConversionException} once the decompressed body exceeds the
+ * maximum decompressed size.
+ */
+public class AMQP10JMSCompressingMessageConverter implements MessageConverter {
+
+    /**
+     * Message property naming the content encoding of a compressed message body.
+     */
+    public static final String CONTENT_ENCODING_PROPERTY = "amqphub_content_encoding";
+
+    /**
+     * Message property holding the body type of a compressed message before it was compressed.
+     */
+    public static final String ORIGINAL_TYPE_PROPERTY = "amqphub_original_type";
+
+    /**
+     * The default maximum size in bytes of a decompressed message body.
+     */
+    public static final long DEFAULT_MAX_DECOMPRESSED_SIZE = 64L * 1024 * 1024;
+
+    private static final String TEXT_TYPE = "text";
+    private static final String BYTES_TYPE = "bytes";
+
+    private final MessageConverter delegate;
+    private final AMQP10JMSCompressionCodec codec;
+    private final long threshold;
+    private final long maxDecompressedSize;
+
+    /**
+     * Create a new compressing message converter.
+     *
+     * @param delegate
+     *      the converter that creates and reads the uncompressed messages.
+     * @param codec
+     *      the codec used to compress message bodies.
+     * @param threshold
+     *      the body size in bytes at which a message body is compressed.
+     */
+    public AMQP10JMSCompressingMessageConverter(MessageConverter delegate, AMQP10JMSCompressionCodec codec, long threshold) {
+        this(delegate, codec, threshold, DEFAULT_MAX_DECOMPRESSED_SIZE);
+    }
+
+    /**
+     * Create a new compressing message converter.
+     *
+     * @param delegate
+     *      the converter that creates and reads the uncompressed messages.
+     * @param codec
+     *      the codec used to compress message bodies.
+     * @param threshold
+     *      the body size in bytes at which a message body is compressed.
+     * @param maxDecompressedSize
+     *      the maximum size in bytes a received message body may decompress to.
+     */
+    public AMQP10JMSCompressingMessageConverter(MessageConverter delegate, AMQP10JMSCompressionCodec codec, long threshold, long maxDecompressedSize) {
+        Assert.notNull(delegate, "Delegate message converter must not be null");
+        Assert.notNull(codec, "Compression codec must not be null");
+        Assert.isTrue(codec.isAvailable(), () -> "Compression codec " + codec + " is not available on the classpath");
+        Assert.isTrue(threshold >= 0, "Compression threshold must not be negative");
+        Assert.isTrue(maxDecompressedSize > 0, "Maximum decompressed size must be greater than zero");
+
+        this.delegate = delegate;
+        this.codec = codec;
+        this.threshold = threshold;
+        this.maxDecompressedSize = maxDecompressedSize;
+    }
+
+    public MessageConverter getDelegate() {
+        return delegate;
+    }
+
+    public long getMaxDecompressedSize() {
+        return maxDecompressedSize;
+    }
+
+    @Override
+    public Message toMessage(Object object, Session session) throws JMSException, MessageConversionException {
+        final Message message = delegate.toMessage(object, session);
+
+        final byte[] body;
+        final String originalType;
+
+        if (message instanceof TextMessage) {
+            final String text = ((TextMessage) message).getText();
+            // A UTF-8 encoded character takes at most three bytes
+            if (text == null || text.length() * 3L < threshold) {
+                return message;
+            }
+
+            body = text.getBytes(StandardCharsets.UTF_8);
+            originalType = TEXT_TYPE;
+        } else if (message instanceof BytesMessage) {
+            final BytesMessage bytesMessage = (BytesMessage) message;
+            bytesMessage.reset();
+            if (bytesMessage.getBodyLength() < threshold) {
+                return message;
+            }
+
+            body = new byte[(int) bytesMessage.getBodyLength()];
+            bytesMessage.readBytes(body);
+            bytesMessage.reset();
+            originalType = BYTES_TYPE;
+        } else {
+            return message;
+        }
+
+        if (body.length < threshold || message.propertyExists(CONTENT_ENCODING_PROPERTY)) {
+            return message;
+        }
+
+        final byte[] compressed;
+        try {
+            compressed = codec.compress(body);
+        } catch (IOException ex) {
+            throw new MessageConversionException("Failed to compress message body with " + codec, ex);
+        }
+
+        // Send incompressible bodies as they are rather than growing them
+        if (compressed.length >= body.length) {
+            return message;
+        }
+
+        final BytesMessage compressedMessage = session.createBytesMessage();
+        compressedMessage.writeBytes(compressed);
+        copyHeadersAndProperties(message, compressedMessage);
+        compressedMessage.setStringProperty(CONTENT_ENCODING_PROPERTY, codec.getEncoding());
+        compressedMessage.setStringProperty(ORIGINAL_TYPE_PROPERTY, originalType);
+
+        return compressedMessage;
+    }
+
+    @Override
+    public Object fromMessage(Message message) throws JMSException, MessageConversionException {
+        if (!(message instanceof BytesMessage) || !message.propertyExists(CONTENT_ENCODING_PROPERTY)) {
+            return delegate.fromMessage(message);
+        }
+
+        final String encoding = message.getStringProperty(CONTENT_ENCODING_PROPERTY);
+        final AMQP10JMSCompressionCodec messageCodec = AMQP10JMSCompressionCodec.forEncoding(encoding);
+        if (messageCodec == null) {
+            throw new MessageConversionException("Cannot decompress message with unsupported content encoding: " + encoding);
+        }
+
+        final BytesMessage bytesMessage = (BytesMessage) message;
+        final byte[] compressed = new byte[(int) bytesMessage.getBodyLength()];
+        bytesMessage.readBytes(compressed);
+        bytesMessage.reset();
+
+        final byte[] body;
+        try {
+            body = messageCodec.decompress(compressed, maxDecompressedSize);
+        } catch (IOException ex) {
+            throw new MessageConversionException("Failed to decompress message body with " + messageCodec, ex);
+        }
+
+        if (TEXT_TYPE.equals(message.getStringProperty(ORIGINAL_TYPE_PROPERTY))) {
+            return delegate.fromMessage(decompressedMessage(message, TextMessage.class, new TextBody(body)));
+        } else {
+            return delegate.fromMessage(decompressedMessage(message, BytesMessage.class, new BytesBody(body)));
+        }
+    }
+
+    private static void copyHeadersAndProperties(Message source, Message target) throws JMSException {
+        target.setJMSCorrelationID(source.getJMSCorrelationID());
+        target.setJMSType(source.getJMSType());
+        target.setJMSReplyTo(source.getJMSReplyTo());
+
+        final Enumeration<?> propertyNames = source.getPropertyNames();
+        while (propertyNames.hasMoreElements()) {
+            final String name = (String) propertyNames.nextElement();
+            target.setObjectProperty(name, source.getObjectProperty(name));
+        }
+    }
+
+    private static <T extends Message> T decompressedMessage(Message message, Class<T> type, Body body) {
+        return type.cast(Proxy.newProxyInstance(AMQP10JMSCompressingMessageConverter.class.getClassLoader(),
+            new Class<?>[] { type }, new DecompressedMessageHandler(message, body)));
+    }
+
+    private static final class DecompressedMessageHandler implements InvocationHandler {
+
+        private final Message message;
+        private final Body body;
+
+        DecompressedMessageHandler(Message message, Body body) {
+            this.message = message;
+            this.body = body;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                default:
+                    break;
+            }
+
+            // Body access is served from the decompressed body, headers and properties from the received message
+            if (method.getDeclaringClass() != Message.class && method.getDeclaringClass() != Object.class ||
+                method.getName().equals("getBody") || method.getName().equals("isBodyAssignableTo")) {
+                return body.invoke(method.getName(), args);
+            }
+
+            try {
+                return method.invoke(message, args);
+            } catch (InvocationTargetException ex) {
+                throw ex.getTargetException();
+            }
+        }
+    }
+
+    private interface Body {
+
+        Object invoke(String method, Object[] args) throws JMSException;
+
+    }
+
+    private static final class TextBody implements Body {
+
+        private final String text;
+
+        TextBody(byte[] body) {
+            this.text = new String(body, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object invoke(String method, Object[] args) throws JMSException {
+            switch (method) {
+                case "getText":
+                    return text;
+                case "getBody":
+                    return ((Class<?>) args[0]).cast(text);
+                case "isBodyAssignableTo":
+                    return ((Class<?>) args[0]).isAssignableFrom(String.class);
+                default:
+                    throw new MessageNotWriteableException("Decompressed text message is read-only, cannot call " + method);
+            }
+        }
+    }
+
+    private static final class BytesBody implements Body {
+
+        private final byte[] bytes;
+
+        private DataInputStream input;
+
+        BytesBody(byte[] bytes) {
+            this.bytes = bytes;
+            reset();
+        }
+
+        private void reset() {
+            this.input = new DataInputStream(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public Object invoke(String method, Object[] args) throws JMSException {
+            try {
+                switch (method) {
+                    case "getBodyLength":
+                        return (long) bytes.length;
+                    case "reset":
+                        reset();
+                        return null;
+                    case "getBody":
+                        return ((Class<?>) args[0]).cast(bytes.clone());
+                    case "isBodyAssignableTo":
+                        return ((Class<?>) args[0]).isAssignableFrom(byte[].class);
+                    case "readBytes":
+                        final byte[] target = (byte[]) args[0];
+                        final int length = args.length > 1 ? (Integer) args[1] : target.length;
+                        return input.read(target, 0, length);
+                    case "readBoolean":
+                        return input.readBoolean();
+                    case "readByte":
+                        return input.readByte();
+                    case "readUnsignedByte":
+                        return input.readUnsignedByte();
+                    case "readShort":
+                        return input.readShort();
+                    case "readUnsignedShort":
+                        return input.readUnsignedShort();
+                    case "readChar":
+                        return input.readChar();
+                    case "readInt":
+                        return input.readInt();
+                    case "readLong":
+                        return input.readLong();
+                    case "readFloat":
+                        return input.readFloat();
+                    case "readDouble":
+                        return input.readDouble();
+                    case "readUTF":
+                        return input.readUTF();
+                    default:
+                        throw new MessageNotWriteableException("Decompressed bytes message is read-only, cannot call " + method);
+                }
+            } catch (EOFException ex) {
+                final MessageEOFException eof = new MessageEOFException("Reached the end of the decompressed message body");
+                eof.initCause(ex);
+                throw eof;
+            } catch (IOException ex) {
+                throw new MessageConversionException("Failed to read the decompressed message body", ex);
+            }
+        }
+    }
+}
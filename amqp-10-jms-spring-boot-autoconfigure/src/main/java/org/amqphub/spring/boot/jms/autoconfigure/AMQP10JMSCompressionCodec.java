@@ -0,0 +1,189 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.InflaterInputStream;
+
+import org.springframework.util.ClassUtils;
+
+import net.jpountz.lz4.LZ4FrameInputStream;
+import net.jpountz.lz4.LZ4FrameOutputStream;
+
+/**
+ * The compression codecs supported by the {@link AMQP10JMSCompressingMessageConverter}, each
+ * identified on the wire by the content encoding name carried by compressed messages.
+ */
+public enum AMQP10JMSCompressionCodec {
+
+    /**
+     * zlib wrapped Deflate compression provided by the JDK.
+     */
+    DEFLATE("deflate") {
+
+        @Override
+        protected OutputStream compressor(OutputStream output) {
+            return new DeflaterOutputStream(output);
+        }
+
+        @Override
+        protected InputStream decompressor(InputStream input) {
+            return new InflaterInputStream(input);
+        }
+    },
+
+    /**
+     * LZ4 frame compression, requires lz4-java on the classpath.
+     */
+    LZ4("lz4") {
+
+        @Override
+        public boolean isAvailable() {
+            return LZ4_PRESENT;
+        }
+
+        @Override
+        protected OutputStream compressor(OutputStream output) throws IOException {
+            return Lz4Streams.compressor(output);
+        }
+
+        @Override
+        protected InputStream decompressor(InputStream input) throws IOException {
+            return Lz4Streams.decompressor(input);
+        }
+    };
+
+    // The largest byte array that can be allocated
+    private static final int MAX_DECOMPRESSED_SIZE = Integer.MAX_VALUE - 8;
+
+    private static final boolean LZ4_PRESENT = ClassUtils.isPresent(
+        "net.jpountz.lz4.LZ4FrameOutputStream", AMQP10JMSCompressionCodec.class.getClassLoader());
+
+    private final String encoding;
+
+    AMQP10JMSCompressionCodec(String encoding) {
+        this.encoding = encoding;
+    }
+
+    /**
+     * @return the content encoding name that identifies this codec.
+     */
+    public String getEncoding() {
+        return encoding;
+    }
+
+    /**
+     * @return true if the libraries this codec depends on are on the classpath.
+     */
+    public boolean isAvailable() {
+        return true;
+    }
+
+    /**
+     * Returns the codec identified by the given content encoding name.
+     *
+     * @param encoding
+     *      the content encoding name read from a message.
+     *
+     * @return the matching codec or null if the encoding is not known or not available.
+     */
+    public static AMQP10JMSCompressionCodec forEncoding(String encoding) {
+        for (AMQP10JMSCompressionCodec codec : values()) {
+            if (codec.encoding.equalsIgnoreCase(encoding) && codec.isAvailable()) {
+                return codec;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * @param data
+     *      the bytes to compress.
+     *
+     * @return the compressed form of the given bytes.
+     *
+     * @throws IOException if an error occurs while compressing.
+     */
+    public byte[] compress(byte[] data) throws IOException {
+        final ByteArrayOutputStream output = new ByteArrayOutputStream(Math.max(32, data.length / 2));
+        try (OutputStream compressor = compressor(output)) {
+            compressor.write(data);
+        }
+
+        return output.toByteArray();
+    }
+
+    /**
+     * @param data
+     *      the bytes to decompress.
+     *
+     * @return the original bytes that were compressed with this codec.
+     *
+     * @throws IOException if the data is not valid for this codec.
+     */
+    public byte[] decompress(byte[] data) throws IOException {
+        return decompress(data, MAX_DECOMPRESSED_SIZE);
+    }
+
+    /**
+     * Decompresses the given bytes, failing as soon as the decompressed bytes exceed the given size
+     * such that a small body that expands to an excessive size is never fully held in memory.
+     *
+     * @param data
+     *      the bytes to decompress.
+     * @param maxSize
+     *      the maximum number of bytes the data may decompress to.
+     *
+     * @return the original bytes that were compressed with this codec.
+     *
+     * @throws IOException if the data is not valid for this codec or decompresses to more than the maximum size.
+     */
+    public byte[] decompress(byte[] data, long maxSize) throws IOException {
+        final int limit = (int) Math.min(Math.max(maxSize, 0), MAX_DECOMPRESSED_SIZE);
+
+        try (InputStream decompressor = decompressor(new ByteArrayInputStream(data))) {
+            final byte[] decompressed = decompressor.readNBytes(limit);
+            if (decompressor.read() != -1) {
+                throw new IOException("Decompressed body exceeds the maximum size of " + limit + " bytes");
+            }
+
+            return decompressed;
+        }
+    }
+
+    protected abstract OutputStream compressor(OutputStream output) throws IOException;
+
+    protected abstract InputStream decompressor(InputStream input) throws IOException;
+
+    // Keeps the optional lz4-java types out of the codec constants until LZ4 is used
+    private static final class Lz4Streams {
+
+        static OutputStream compressor(OutputStream output) throws IOException {
+            return new LZ4FrameOutputStream(output);
+        }
+
+        static InputStream decompressor(InputStream input) throws IOException {
+            return new LZ4FrameInputStream(input);
+        }
+    }
+}
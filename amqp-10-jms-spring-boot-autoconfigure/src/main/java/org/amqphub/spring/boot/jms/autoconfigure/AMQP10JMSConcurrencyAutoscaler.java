@@ -0,0 +1,257 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.MessageListenerContainer;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Queue;
+
+/**
+ * Periodically sizes the consumers of the queue listener containers in a {@link JmsListenerEndpointRegistry}
+ * from the backlog of each queue, as reported by an {@link AMQP10JMSBacklogProvider}, and the measured
+ * listener processing time of its messages.
+ * <p>
+ * Each container is given the number of consumers needed to drain the backlog within the target drain time,
+ * the backlog multiplied by the moving average processing time of a message and divided by the target,
+ * bounded by the configured minimum and maximum. Consumers are added as soon as they are needed while
+ * surplus consumers are removed by half of the surplus on each poll so that short lulls do not cause the
+ * consumer count to oscillate. The minimum and maximum consumers of each container are both set to the
+ * chosen count, which replaces the idle based scaling of the container.
+ * <p>
+ * Containers of topics, containers whose queue backlog is not known and containers whose processing time
+ * has not yet been measured are left unchanged, as are partitioned listener containers which always run a
+ * single consumer.
+ */
+public class AMQP10JMSConcurrencyAutoscaler implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSConcurrencyAutoscaler.class);
+
+    static final String THREAD_NAME_PREFIX = "amqp10jms-autoscaler-";
+
+    // Weight of each new sample in the moving average processing time
+    private static final double SMOOTHING = 0.2;
+
+    private static final int MAX_QUEUES = 1000;
+
+    private final JmsListenerEndpointRegistry registry;
+    private final AMQP10JMSBacklogProvider backlogProvider;
+    private final int minConsumers;
+    private final int maxConsumers;
+    private final long targetDrainNanos;
+    private final Duration pollInterval;
+
+    private final ConcurrentMap<String, ProcessingTime> processingTimes = new ConcurrentHashMap<>();
+
+    private final Object lock = new Object();
+    private ScheduledExecutorService scheduler;
+
+    /**
+     * Create a new autoscaler.
+     *
+     * @param registry
+     *      the registry whose listener containers are scaled.
+     * @param backlogProvider
+     *      the provider of the backlog of each queue.
+     * @param minConsumers
+     *      the lower bound of the consumers given to a container.
+     * @param maxConsumers
+     *      the upper bound of the consumers given to a container.
+     * @param targetDrainTime
+     *      the time within which the consumers of a container should drain the backlog of its queue.
+     * @param pollInterval
+     *      the interval between successive polls of the backlog.
+     */
+    public AMQP10JMSConcurrencyAutoscaler(JmsListenerEndpointRegistry registry, AMQP10JMSBacklogProvider backlogProvider,
+                                          int minConsumers, int maxConsumers, Duration targetDrainTime, Duration pollInterval) {
+        Assert.notNull(registry, "Registry must not be null");
+        Assert.notNull(backlogProvider, "Backlog provider must not be null");
+        Assert.isTrue(minConsumers >= 1, "Minimum consumers must be at least one");
+        Assert.isTrue(maxConsumers >= minConsumers, "Maximum consumers must not be less than the minimum consumers");
+        Assert.isTrue(targetDrainTime != null && !targetDrainTime.isNegative() && !targetDrainTime.isZero(),
+                      "Target drain time must be positive");
+        Assert.isTrue(pollInterval != null && !pollInterval.isNegative() && !pollInterval.isZero(),
+                      "Poll interval must be positive");
+
+        this.registry = registry;
+        this.backlogProvider = backlogProvider;
+        this.minConsumers = minConsumers;
+        this.maxConsumers = maxConsumers;
+        this.targetDrainNanos = targetDrainTime.toNanos();
+        this.pollInterval = pollInterval;
+    }
+
+    public int getMinConsumers() {
+        return minConsumers;
+    }
+
+    public int getMaxConsumers() {
+        return maxConsumers;
+    }
+
+    /**
+     * Records the time a listener spent processing a message from the given queue.
+     *
+     * @param queueName
+     *      the name of the queue the message was consumed from.
+     * @param processingNanos
+     *      the time in nanoseconds spent processing the message.
+     */
+    public void recordProcessingTime(String queueName, long processingNanos) {
+        if (queueName == null || processingNanos < 0) {
+            return;
+        }
+
+        ProcessingTime processingTime = processingTimes.get(queueName);
+        if (processingTime == null) {
+            if (processingTimes.size() >= MAX_QUEUES) {
+                return;
+            }
+            processingTime = processingTimes.computeIfAbsent(queueName, (name) -> new ProcessingTime());
+        }
+
+        processingTime.record(processingNanos);
+    }
+
+    /**
+     * Polls the backlog of the queue of each listener container and adjusts its consumers.
+     */
+    public void poll() {
+        for (MessageListenerContainer container : registry.getListenerContainers()) {
+            if (container instanceof DefaultMessageListenerContainer && !(container instanceof AMQP10JMSPartitionedMessageListenerContainer)) {
+                try {
+                    scale((DefaultMessageListenerContainer) container);
+                } catch (RuntimeException ex) {
+                    LOG.debug("Could not scale listener container {}: {}", container, ex.getMessage());
+                }
+            }
+        }
+    }
+
+    @Override
+    public void start() {
+        synchronized (lock) {
+            if (scheduler == null) {
+                scheduler = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory(THREAD_NAME_PREFIX));
+                scheduler.scheduleWithFixedDelay(this::poll, pollInterval.toNanos(), pollInterval.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    @Override
+    public void stop() {
+        synchronized (lock) {
+            if (scheduler != null) {
+                scheduler.shutdownNow();
+                scheduler = null;
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        synchronized (lock) {
+            return scheduler != null;
+        }
+    }
+
+    static int desiredConsumers(long backlog, double averageNanos, long targetDrainNanos, int minConsumers, int maxConsumers) {
+        final double needed = Math.ceil(backlog * averageNanos / targetDrainNanos);
+        return (int) Math.max(minConsumers, Math.min(maxConsumers, needed));
+    }
+
+    static int nextConsumers(int current, int desired) {
+        // Surplus consumers are removed gradually so that a brief drop in backlog does not cause oscillation
+        return desired >= current ? desired : current - Math.max(1, (current - desired) / 2);
+    }
+
+    private void scale(DefaultMessageListenerContainer container) {
+        final String queueName = queueNameOf(container);
+        if (queueName == null) {
+            return;
+        }
+
+        final ProcessingTime processingTime = processingTimes.get(queueName);
+        final double averageNanos = processingTime != null ? processingTime.average() : Double.NaN;
+        if (Double.isNaN(averageNanos)) {
+            return;
+        }
+
+        final long backlog = backlogProvider.getBacklog(queueName);
+        if (backlog < 0) {
+            return;
+        }
+
+        final int current = container.getMaxConcurrentConsumers();
+        final int desired = desiredConsumers(backlog, averageNanos, targetDrainNanos, minConsumers, maxConsumers);
+        final int next = Math.max(minConsumers, Math.min(maxConsumers, nextConsumers(current, desired)));
+
+        if (next != current || container.getConcurrentConsumers() != next) {
+            LOG.debug("Scaling consumers of queue {} from {} to {} for a backlog of {}", queueName, current, next, backlog);
+
+            // The maximum is set last as the container does not let it fall below the concurrent consumers
+            container.setConcurrentConsumers(next);
+            container.setMaxConcurrentConsumers(next);
+        }
+    }
+
+    private static String queueNameOf(DefaultMessageListenerContainer container) {
+        if (container.isPubSubDomain()) {
+            return null;
+        }
+
+        if (container.getDestinationName() != null) {
+            return container.getDestinationName();
+        }
+
+        final Destination destination = container.getDestination();
+        try {
+            return destination instanceof Queue ? ((Queue) destination).getQueueName() : null;
+        } catch (JMSException ex) {
+            return null;
+        }
+    }
+
+    private static final class ProcessingTime {
+
+        private double averageNanos = Double.NaN;
+
+        synchronized void record(long processingNanos) {
+            averageNanos = Double.isNaN(averageNanos) ?
+                processingNanos : averageNanos + SMOOTHING * (processingNanos - averageNanos);
+        }
+
+        synchronized double average() {
+            return averageNanos;
+        }
+    }
+}
@@ -0,0 +1,73 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Queue;
+import jakarta.jms.TemporaryQueue;
+
+/**
+ * {@link ObservationHandler} that reports the time taken by the listener containers to process each
+ * message from a queue, from the {@code jms.message.process} observations, to an {@link AMQP10JMSConcurrencyAutoscaler}.
+ * The time of an observation that covers a batch of messages is shared evenly between its messages.
+ */
+class AMQP10JMSConcurrencyAutoscalerObservationHandler implements ObservationHandler<JmsProcessObservationContext> {
+
+    private static final Object PROCESS_START_KEY = new Object();
+
+    private final AMQP10JMSConcurrencyAutoscaler autoscaler;
+
+    AMQP10JMSConcurrencyAutoscalerObservationHandler(AMQP10JMSConcurrencyAutoscaler autoscaler) {
+        this.autoscaler = autoscaler;
+    }
+
+    @Override
+    public void onStart(JmsProcessObservationContext context) {
+        context.put(PROCESS_START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(JmsProcessObservationContext context) {
+        final Long startTime = context.get(PROCESS_START_KEY);
+        final String queueName = queueNameOf(context.getCarrier());
+
+        if (startTime != null && queueName != null) {
+            final int messageCount = AMQP10JMSWindowedMessageListenerContainer.observedMessageCount(context);
+            autoscaler.recordProcessingTime(queueName, (System.nanoTime() - startTime) / messageCount);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof JmsProcessObservationContext;
+    }
+
+    private static String queueNameOf(Message message) {
+        try {
+            final Destination destination = message != null ? message.getJMSDestination() : null;
+            return destination instanceof Queue && !(destination instanceof TemporaryQueue) ? ((Queue) destination).getQueueName() : null;
+        } catch (JMSException ex) {
+            return null;
+        }
+    }
+}
@@ -16,9 +16,14 @@
  */
 package org.amqphub.spring.boot.jms.autoconfigure;
 
+import java.util.ArrayList;
+import java.util.List;
+
 import org.apache.commons.pool2.PooledObject;
 import org.apache.qpid.jms.JmsConnectionFactory;
 import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
@@ -27,6 +32,10 @@ import org.springframework.boot.jms.autoconfigure.JmsProperties;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.StringUtils;
 
 import jakarta.jms.ConnectionFactory;
 
@@ -35,11 +44,33 @@ import jakarta.jms.ConnectionFactory;
  * the client beans. If the connection pooling option is enabled in the {@link AMQP10JMSProperties}
  * then that is always preferred over the Spring {@link CachingConnectionFactory} which is
  * used whenever pooling is not enabled unless explicitly disabled.
+ * <p>
+ * When the consumer pool is enabled a second, independently sized {@link JmsPoolConnectionFactory}
+ * is created over its own Qpid JMS connection factory for use by the listener containers. It is not
+ * a default injection candidate so the {@code jmsConnectionFactory} remains the factory used by
+ * the {@code JmsTemplate} and any other component that injects a {@link ConnectionFactory}. A configured
+ * client ID is then applied only to the consumer pool connections, on which durable subscriptions are
+ * created, as the remote peer refuses a second connection that claims the same client ID.
+ * <p>
+ * When sharding is enabled the {@code jmsConnectionFactory} caches, pools or directly exposes an
+ * {@link AMQP10JMSShardedConnectionFactory} over the configured number of Qpid JMS connection factories
+ * in place of a single Qpid JMS connection factory.
  */
 @Configuration(proxyBeanMethods = false)
 @ConditionalOnMissingBean(ConnectionFactory.class)
 public class AMQP10JMSConnectionFactoryConfiguration {
 
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSConnectionFactoryConfiguration.class);
+
+    private static final boolean POOLED_JMS_PRESENT =
+        ClassUtils.isPresent("org.messaginghub.pooled.jms.JmsPoolConnectionFactory", AMQP10JMSConnectionFactoryConfiguration.class.getClassLoader()) &&
+        ClassUtils.isPresent("org.apache.commons.pool2.PooledObject", AMQP10JMSConnectionFactoryConfiguration.class.getClassLoader());
+
+    /**
+     * The name of the connection factory bean used by listener containers when the consumer pool is enabled.
+     */
+    public static final String CONSUMER_CONNECTION_FACTORY_BEAN_NAME = "amqp10JmsConsumerConnectionFactory";
+
     @Configuration(proxyBeanMethods = false)
     @ConditionalOnClass(CachingConnectionFactory.class)
     @ConditionalOnProperty(prefix = "amqphub.amqp10jms.pool", name = "enabled", havingValue = "false", matchIfMissing = true)
@@ -48,11 +79,12 @@ public class AMQP10JMSConnectionFactoryConfiguration {
         @Bean(name = "jmsConnectionFactory")
         @ConditionalOnProperty(prefix = "spring.jms.cache", name = "enabled", havingValue = "true", matchIfMissing = true)
         CachingConnectionFactory cachingJmsConnectionFactory(
-            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers, JmsProperties jmsProperties) {
+            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers, JmsProperties jmsProperties,
+            ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
 
             JmsProperties.Cache cacheProperties = jmsProperties.getCache();
             CachingConnectionFactory connectionFactory = new CachingConnectionFactory(
-                createQpidJMSConnectionFactory(properties, factoryCustomizers));
+                createTargetConnectionFactory(properties, factoryCustomizers, prefetchController));
             connectionFactory.setCacheConsumers(cacheProperties.isConsumers());
             connectionFactory.setCacheProducers(cacheProperties.isProducers());
             connectionFactory.setSessionCacheSize(cacheProperties.getSessionCacheSize());
@@ -61,10 +93,22 @@ public class AMQP10JMSConnectionFactoryConfiguration {
 
         @Bean(name = "jmsConnectionFactory")
         @ConditionalOnProperty(prefix = "spring.jms.cache", name = "enabled", havingValue = "false", matchIfMissing = false)
+        @ConditionalOnProperty(prefix = "amqphub.amqp10jms.sharding", name = "enabled", havingValue = "false", matchIfMissing = true)
         JmsConnectionFactory jmsConnectionFactory(
-            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers, JmsProperties jmsProperties) {
+            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers, JmsProperties jmsProperties,
+            ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
+
+            return createQpidJMSConnectionFactory(properties, factoryCustomizers, prefetchController);
+        }
+
+        @Bean(name = "jmsConnectionFactory")
+        @ConditionalOnProperty(prefix = "spring.jms.cache", name = "enabled", havingValue = "false", matchIfMissing = false)
+        @ConditionalOnProperty(prefix = "amqphub.amqp10jms.sharding", name = "enabled", havingValue = "true")
+        AMQP10JMSShardedConnectionFactory shardedJmsConnectionFactory(
+            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers, JmsProperties jmsProperties,
+            ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
 
-            return createQpidJMSConnectionFactory(properties, factoryCustomizers);
+            return createShardedConnectionFactory(properties, factoryCustomizers, prefetchController);
         }
     }
 
@@ -75,16 +119,89 @@ public class AMQP10JMSConnectionFactoryConfiguration {
 
         @Bean(destroyMethod = "stop")
         JmsPoolConnectionFactory jmsConnectionFactory(
-            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers, JmsProperties jmsProperties) {
+            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers, JmsProperties jmsProperties,
+            ObjectProvider<AMQP10JMSJmsPoolConnectionFactoryListener> poolListener, ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
 
-            final ConnectionFactory cf = createQpidJMSConnectionFactory(properties, factoryCustomizers);
+            final ConnectionFactory cf = createTargetConnectionFactory(properties, factoryCustomizers, prefetchController);
 
-            return new AMQP10JMSJmsPoolConnectionFactoryFactory(properties.getPool()).createPooledConnectionFactory(cf);
+            // An anonymous producer has no destination for the presettle policy to match when it is created
+            if (properties.getPool().isUseAnonymousProducers() && !ObjectUtils.isEmpty(properties.getPresettle().getProducerDestinations())) {
+                LOG.warn("The amqphub.amqp10jms.presettle.producerDestinations patterns never match the anonymous producers of the pool, " +
+                         "set amqphub.amqp10jms.pool.useAnonymousProducers=false or enable amqphub.amqp10jms.presettle.producers instead");
+            }
+
+            return new AMQP10JMSJmsPoolConnectionFactoryFactory(properties.getPool(), poolListener.getIfUnique())
+                .createPooledConnectionFactory(cf);
+        }
+
+        @Bean
+        @ConditionalOnProperty(prefix = "amqphub.amqp10jms.pool.warmup", name = "enabled", havingValue = "true")
+        AMQP10JMSJmsPoolConnectionFactoryWarmup jmsPoolConnectionFactoryWarmup(JmsPoolConnectionFactory jmsConnectionFactory, AMQP10JMSProperties properties) {
+            return new AMQP10JMSJmsPoolConnectionFactoryWarmup(jmsConnectionFactory, properties.getPool().getWarmup());
         }
     }
 
-    private static JmsConnectionFactory createQpidJMSConnectionFactory(AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers) {
-        return new AMQP10JMSConnectionFactoryFactory(properties, factoryCustomizers)
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ JmsPoolConnectionFactory.class, PooledObject.class })
+    @ConditionalOnProperty(prefix = "amqphub.amqp10jms.consumer-pool", name = "enabled", havingValue = "true")
+    static class ConsumerPooledConnectionFactoryConfiguration {
+
+        @Bean(name = CONSUMER_CONNECTION_FACTORY_BEAN_NAME, destroyMethod = "stop", defaultCandidate = false)
+        JmsPoolConnectionFactory amqp10JmsConsumerConnectionFactory(
+            AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers,
+            ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
+
+            // Each pooled connection would claim the client ID and all but the first would be refused
+            Assert.state(!StringUtils.hasText(properties.getClientId()) || properties.getConsumerPool().getMaxConnections() <= 1,
+                         "A client ID can only be configured when the consumer pool is limited to one connection");
+
+            // Unlike the jmsConnectionFactory the consumer pool keeps the configured client ID
+            final ConnectionFactory cf = new AMQP10JMSConnectionFactoryFactory(properties, factoryCustomizers, prefetchController.getIfUnique())
+                .createConnectionFactory(JmsConnectionFactory.class);
+
+            // The pool listener only observes the jmsConnectionFactory pool
+            return new AMQP10JMSJmsPoolConnectionFactoryFactory(properties.getConsumerPool()).createPooledConnectionFactory(cf);
+        }
+    }
+
+    private static ConnectionFactory createTargetConnectionFactory(AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers,
+                                                                   ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
+        if (properties.getSharding().isEnabled()) {
+            return createShardedConnectionFactory(properties, factoryCustomizers, prefetchController);
+        } else {
+            return createQpidJMSConnectionFactory(properties, factoryCustomizers, prefetchController);
+        }
+    }
+
+    private static AMQP10JMSShardedConnectionFactory createShardedConnectionFactory(AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers,
+                                                                                    ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
+        // Each underlying connection would claim the same client ID and all but the first would be refused
+        Assert.state(!StringUtils.hasText(properties.getClientId()) || isClientIdHeldByConsumerPool(properties),
+                     "A client ID cannot be configured when the connection factory is sharded");
+
+        final AMQP10JMSProperties.Sharding sharding = properties.getSharding();
+        final List<JmsConnectionFactory> shards = new ArrayList<>(sharding.getShards());
+
+        for (int i = 0; i < sharding.getShards(); ++i) {
+            shards.add(createQpidJMSConnectionFactory(properties, factoryCustomizers, prefetchController));
+        }
+
+        return new AMQP10JMSShardedConnectionFactory(shards, sharding.getStrategy());
+    }
+
+    private static JmsConnectionFactory createQpidJMSConnectionFactory(AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers,
+                                                                       ObjectProvider<AMQP10JMSAdaptivePrefetchController> prefetchController) {
+        final JmsConnectionFactory factory = new AMQP10JMSConnectionFactoryFactory(properties, factoryCustomizers, prefetchController.getIfUnique())
             .createConnectionFactory(JmsConnectionFactory.class);
+
+        if (isClientIdHeldByConsumerPool(properties)) {
+            factory.setClientID(null);
+        }
+
+        return factory;
+    }
+
+    private static boolean isClientIdHeldByConsumerPool(AMQP10JMSProperties properties) {
+        return POOLED_JMS_PRESENT && properties.getConsumerPool().isEnabled() && StringUtils.hasText(properties.getClientId());
     }
 }
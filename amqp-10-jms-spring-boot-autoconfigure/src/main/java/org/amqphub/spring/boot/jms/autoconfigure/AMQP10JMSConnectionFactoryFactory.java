@@ -16,8 +16,17 @@
  */
 package org.amqphub.spring.boot.jms.autoconfigure;
 
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
 import org.apache.qpid.jms.JmsConnectionFactory;
 import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.apache.qpid.jms.policy.JmsDefaultPresettlePolicy;
+import org.apache.qpid.jms.policy.JmsDeserializationPolicy;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.ObjectProvider;
@@ -32,10 +41,17 @@ public class AMQP10JMSConnectionFactoryFactory {
 
     private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSConnectionFactoryFactory.class);
 
+    private static final String FAILOVER_SCHEME = "failover:";
+    private static final String TRANSPORT_OPTION_PREFIX = "transport.";
+    private static final String FAILOVER_NESTED_OPTION_PREFIX = "failover.nested.";
+    private static final String DESERIALIZATION_POLICY_OPTION_PREFIX = "jms.deserializationPolicy.";
+
     private final AMQP10JMSProperties properties;
 
     private final ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers;
 
+    private final AMQP10JMSAdaptivePrefetchController prefetchController;
+
     /**
      * Creates a new QpidJMSConnectionFactoryFactory instance
      *
@@ -45,9 +61,25 @@ public class AMQP10JMSConnectionFactoryFactory {
      *      Optional list of customizers used to let users override configuration settings.
      */
     public AMQP10JMSConnectionFactoryFactory(AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers) {
+        this(properties, factoryCustomizers, null);
+    }
+
+    /**
+     * Creates a new QpidJMSConnectionFactoryFactory instance
+     *
+     * @param properties
+     *      The QpidJMSProperties to use when building new factories.
+     * @param factoryCustomizers
+     *      Optional list of customizers used to let users override configuration settings.
+     * @param prefetchController
+     *      Optional controller that chooses the prefetch of new consumers when adaptive prefetch is enabled.
+     */
+    public AMQP10JMSConnectionFactoryFactory(AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers,
+                                             AMQP10JMSAdaptivePrefetchController prefetchController) {
         Assert.notNull(properties, "Properties must not be null");
         this.properties = properties;
         this.factoryCustomizers = factoryCustomizers;
+        this.prefetchController = prefetchController;
     }
 
     /**
@@ -63,7 +95,7 @@ public class AMQP10JMSConnectionFactoryFactory {
         try {
             JmsConnectionFactory factory = factoryClass.getConstructor().newInstance();
 
-            factory.setRemoteURI(properties.getRemoteUrl());
+            factory.setRemoteURI(configureTransportOptions(properties.getRemoteUrl(), properties.getTransport()));
 
             if (StringUtils.hasLength(properties.getUsername())) {
                 factory.setUsername(properties.getUsername());
@@ -83,6 +115,10 @@ public class AMQP10JMSConnectionFactoryFactory {
 
             configureDeserializationPolicy(properties, factory);
 
+            configurePrefetchPolicy(properties, factory);
+
+            configurePresettlePolicy(properties, factory);
+
             // User callback point to allow for control over Qpid JMS ConnectionFactory
             // configuration that overrides the properties previously set
             customizeFactoryConfiguration(factory);
@@ -95,9 +131,129 @@ public class AMQP10JMSConnectionFactoryFactory {
         }
     }
 
-    private void configureDeserializationPolicy(AMQP10JMSProperties properties, JmsConnectionFactory factory) {
-        JmsDefaultDeserializationPolicy deserializationPolicy =
-            (JmsDefaultDeserializationPolicy) factory.getDeserializationPolicy();
+    /**
+     * Merges the configured transport options into the given remote URL. The options of a
+     * failover URL are applied to every nested URL using the failover nested options prefix,
+     * configured options replace any value for the same option already present in the URL.
+     *
+     * @param remoteUrl
+     *      The remote URL that the transport options should be applied to.
+     * @param transport
+     *      The configured transport options.
+     *
+     * @return the remote URL with the configured transport options applied.
+     */
+    static String configureTransportOptions(String remoteUrl, AMQP10JMSProperties.Transport transport) {
+        final Map<String, Object> options = new LinkedHashMap<>();
+
+        options.put("tcpNoDelay", transport.getTcpNoDelay());
+        options.put("tcpKeepAlive", transport.getTcpKeepAlive());
+        options.put("sendBufferSize", transport.getSendBufferSize());
+        options.put("receiveBufferSize", transport.getReceiveBufferSize());
+        options.put("trafficClass", transport.getTrafficClass());
+        options.put("connectTimeout", transport.getConnectTimeout() != null ? transport.getConnectTimeout().toMillis() : null);
+        options.put("useEpoll", transport.getUseEpoll());
+        options.put("useKQueue", transport.getUseKQueue());
+        options.put("sharedEventLoopThreads", transport.getSharedEventLoopThreads());
+
+        options.values().removeIf(Objects::isNull);
+
+        if (options.isEmpty() || !StringUtils.hasText(remoteUrl)) {
+            return remoteUrl;
+        }
+
+        final String optionPrefix = isFailover(remoteUrl) ? FAILOVER_NESTED_OPTION_PREFIX + TRANSPORT_OPTION_PREFIX : TRANSPORT_OPTION_PREFIX;
+        final int queryStart = queryStart(remoteUrl);
+        final String baseUrl = queryStart < 0 ? remoteUrl : remoteUrl.substring(0, queryStart);
+        final Map<String, String> query = parseQuery(remoteUrl);
+
+        options.forEach((key, value) -> query.put(optionPrefix + key, String.valueOf(value)));
+
+        final StringBuilder result = new StringBuilder(baseUrl).append('?');
+        query.forEach((key, value) -> {
+            if (result.charAt(result.length() - 1) != '?') {
+                result.append('&');
+            }
+            result.append(key);
+            if (value != null) {
+                result.append('=').append(value);
+            }
+        });
+
+        return result.toString();
+    }
+
+    private static boolean isFailover(String remoteUrl) {
+        return remoteUrl.regionMatches(true, 0, FAILOVER_SCHEME, 0, FAILOVER_SCHEME.length());
+    }
+
+    private static int queryStart(String remoteUrl) {
+        if (isFailover(remoteUrl)) {
+            // Any query on the nested URIs is contained within the parenthesis
+            return remoteUrl.indexOf('?', Math.max(0, remoteUrl.lastIndexOf(')')));
+        } else {
+            return remoteUrl.indexOf('?');
+        }
+    }
+
+    private static Map<String, String> parseQuery(String remoteUrl) {
+        final int queryStart = queryStart(remoteUrl);
+        final Map<String, String> query = new LinkedHashMap<>();
+
+        if (queryStart >= 0) {
+            for (String parameter : StringUtils.delimitedListToStringArray(remoteUrl.substring(queryStart + 1), "&")) {
+                if (StringUtils.hasLength(parameter)) {
+                    final int separator = parameter.indexOf('=');
+                    if (separator < 0) {
+                        query.put(parameter, null);
+                    } else {
+                        query.put(parameter.substring(0, separator), parameter.substring(separator + 1));
+                    }
+                }
+            }
+        }
+
+        return query;
+    }
+
+    private static String decode(String value) {
+        return URLDecoder.decode(value, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Creates the deserialization policy configured by the given properties without creating a connection
+     * factory, the allow and deny lists given on the remote URL are merged in as they would be by the
+     * connection factories created from the same properties. Connection factory customizers are not applied.
+     *
+     * @param properties
+     *      The properties that configure the deserialization policy.
+     *
+     * @return a newly created deserialization policy.
+     */
+    static AMQP10JMSDeserializationPolicy createDeserializationPolicy(AMQP10JMSProperties properties) {
+        final AMQP10JMSDeserializationPolicy uriPolicy = new AMQP10JMSDeserializationPolicy();
+        final String remoteUrl = properties.getRemoteUrl();
+
+        if (StringUtils.hasText(remoteUrl)) {
+            final Map<String, String> query = parseQuery(remoteUrl);
+
+            if (query.get(DESERIALIZATION_POLICY_OPTION_PREFIX + "allowList") != null) {
+                uriPolicy.setAllowList(decode(query.get(DESERIALIZATION_POLICY_OPTION_PREFIX + "allowList")));
+            }
+            if (query.get(DESERIALIZATION_POLICY_OPTION_PREFIX + "denyList") != null) {
+                uriPolicy.setDenyList(decode(query.get(DESERIALIZATION_POLICY_OPTION_PREFIX + "denyList")));
+            }
+        }
+
+        return createDeserializationPolicy(properties, uriPolicy);
+    }
+
+    private static AMQP10JMSDeserializationPolicy createDeserializationPolicy(AMQP10JMSProperties properties, JmsDeserializationPolicy current) {
+        // Start from the current policy so that allow and deny lists given on the remote URL are retained
+        final AMQP10JMSDeserializationPolicy deserializationPolicy = current instanceof JmsDefaultDeserializationPolicy ?
+            new AMQP10JMSDeserializationPolicy((JmsDefaultDeserializationPolicy) current) : new AMQP10JMSDeserializationPolicy();
+
+        deserializationPolicy.setCacheSize(properties.getDeserializationPolicy().getCacheSize());
 
         if (!ObjectUtils.isEmpty(properties.getDeserializationPolicy().getAllowList())) {
             deserializationPolicy.setAllowList(StringUtils.collectionToCommaDelimitedString(
@@ -108,9 +264,87 @@ public class AMQP10JMSConnectionFactoryFactory {
             deserializationPolicy.setDenyList(StringUtils.collectionToCommaDelimitedString(
                 properties.getDeserializationPolicy().getDenyList()));
         }
+
+        return deserializationPolicy;
+    }
+
+    private void configureDeserializationPolicy(AMQP10JMSProperties properties, JmsConnectionFactory factory) {
+        factory.setDeserializationPolicy(createDeserializationPolicy(properties, factory.getDeserializationPolicy()));
+    }
+
+    private void configurePrefetchPolicy(AMQP10JMSProperties properties, JmsConnectionFactory factory) {
+        final AMQP10JMSProperties.Prefetch prefetch = properties.getPrefetch();
+
+        if (!prefetch.isConfigured()) {
+            return;
+        }
+
+        // Start from the current policy so that prefetch options given on the remote URL are retained
+        final AMQP10JMSPrefetchPolicy prefetchPolicy = factory.getPrefetchPolicy() instanceof JmsDefaultPrefetchPolicy ?
+            new AMQP10JMSPrefetchPolicy((JmsDefaultPrefetchPolicy) factory.getPrefetchPolicy()) : new AMQP10JMSPrefetchPolicy();
+
+        if (prefetch.getAll() != null) {
+            prefetchPolicy.setAll(prefetch.getAll());
+        }
+        if (prefetch.getQueue() != null) {
+            prefetchPolicy.setQueuePrefetch(prefetch.getQueue());
+        }
+        if (prefetch.getTopic() != null) {
+            prefetchPolicy.setTopicPrefetch(prefetch.getTopic());
+        }
+        if (prefetch.getDurableTopic() != null) {
+            prefetchPolicy.setDurableTopicPrefetch(prefetch.getDurableTopic());
+        }
+        if (prefetch.getQueueBrowser() != null) {
+            prefetchPolicy.setQueueBrowserPrefetch(prefetch.getQueueBrowser());
+        }
+        if (prefetch.getDestinations() != null) {
+            prefetch.getDestinations().forEach(prefetchPolicy::setDestinationPrefetch);
+        }
+
+        if (prefetch.getAdaptive().isEnabled() && prefetchController != null) {
+            factory.setPrefetchPolicy(new AMQP10JMSAdaptivePrefetchPolicy(prefetchPolicy, prefetchController));
+        } else {
+            factory.setPrefetchPolicy(prefetchPolicy);
+        }
+    }
+
+    private void configurePresettlePolicy(AMQP10JMSProperties properties, JmsConnectionFactory factory) {
+        final AMQP10JMSProperties.Presettle presettle = properties.getPresettle();
+
+        if (!presettle.isConfigured()) {
+            return;
+        }
+
+        // Start from the current policy so that presettle options given on the remote URL are retained
+        final AMQP10JMSPresettlePolicy presettlePolicy = factory.getPresettlePolicy() instanceof JmsDefaultPresettlePolicy ?
+            new AMQP10JMSPresettlePolicy((JmsDefaultPresettlePolicy) factory.getPresettlePolicy()) : new AMQP10JMSPresettlePolicy();
+
+        if (presettle.isAll()) {
+            presettlePolicy.setPresettleAll(true);
+        }
+        if (presettle.isProducers()) {
+            presettlePolicy.setPresettleProducers(true);
+        }
+        if (presettle.isConsumers()) {
+            presettlePolicy.setPresettleConsumers(true);
+        }
+        if (presettle.isTransactedProducers()) {
+            presettlePolicy.setPresettleTransactedProducers(true);
+        }
+        if (!ObjectUtils.isEmpty(presettle.getProducerDestinations())) {
+            presettlePolicy.addProducerDestinations(presettle.getProducerDestinations());
+        }
+        if (!ObjectUtils.isEmpty(presettle.getConsumerDestinations())) {
+            presettlePolicy.addConsumerDestinations(presettle.getConsumerDestinations());
+        }
+
+        factory.setPresettlePolicy(presettlePolicy);
     }
 
     private void customizeFactoryConfiguration(JmsConnectionFactory connectionFactory) {
-        factoryCustomizers.orderedStream().forEach((customizer) -> customizer.customize(connectionFactory));
+        if (factoryCustomizers != null) {
+            factoryCustomizers.orderedStream().forEach((customizer) -> customizer.customize(connectionFactory));
+        }
     }
 }
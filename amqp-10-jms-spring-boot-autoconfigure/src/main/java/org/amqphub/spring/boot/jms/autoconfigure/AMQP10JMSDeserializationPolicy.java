@@ -0,0 +1,236 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.qpid.jms.JmsDestination;
+import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.apache.qpid.jms.policy.JmsDeserializationPolicy;
+import org.springframework.util.Assert;
+import org.springframework.util.StringUtils;
+
+/**
+ * {@link JmsDeserializationPolicy} that makes the same decisions as the Qpid JMS default policy
+ * without scanning the allow and deny lists for every class that is resolved.
+ * <p>
+ * The lists are compiled into a trie of package and class name segments when first used after they
+ * change, such that deciding on a class walks its name once whatever the length of the lists, and
+ * the decision for each class name is then cached in a concurrent map holding at most the configured
+ * number of entries, which is cleared when it fills.
+ */
+public class AMQP10JMSDeserializationPolicy extends JmsDefaultDeserializationPolicy {
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private static final String CATCH_ALL_WILDCARD = "*";
+
+    private int cacheSize = DEFAULT_CACHE_SIZE;
+
+    // Set from the super class constructor, so these are all created on first use
+    private volatile Node compiled;
+    private volatile Map<String, Boolean> decisions;
+
+    public AMQP10JMSDeserializationPolicy() {
+    }
+
+    /**
+     * Creates a new policy that starts from the allow and deny lists of the given default policy.
+     *
+     * @param source
+     *      The policy whose allow and deny lists are copied.
+     */
+    public AMQP10JMSDeserializationPolicy(JmsDefaultDeserializationPolicy source) {
+        super(source);
+
+        if (source instanceof AMQP10JMSDeserializationPolicy) {
+            this.cacheSize = ((AMQP10JMSDeserializationPolicy) source).cacheSize;
+            this.compiled = ((AMQP10JMSDeserializationPolicy) source).compiled;
+        }
+    }
+
+    @Override
+    public AMQP10JMSDeserializationPolicy copy() {
+        return new AMQP10JMSDeserializationPolicy(this);
+    }
+
+    @Override
+    public boolean isTrustedType(JmsDestination destination, Class<?> clazz) {
+        if (clazz == null) {
+            return true;
+        }
+
+        final Map<String, Boolean> decisions = decisions();
+        final String name = clazz.getName();
+
+        Boolean trusted = decisions.get(name);
+        if (trusted == null) {
+            trusted = compiled().isTrusted(canonicalName(clazz));
+
+            if (decisions.size() >= cacheSize) {
+                decisions.clear();
+            }
+            if (cacheSize > 0) {
+                decisions.put(name, trusted);
+            }
+        }
+
+        return trusted;
+    }
+
+    @Override
+    public void setAllowList(String allowList) {
+        super.setAllowList(allowList);
+        invalidate();
+    }
+
+    @Override
+    public void setDenyList(String denyList) {
+        super.setDenyList(denyList);
+        invalidate();
+    }
+
+    /**
+     * @return the maximum number of class decisions that are cached.
+     */
+    public int getCacheSize() {
+        return cacheSize;
+    }
+
+    /**
+     * Sets the maximum number of class decisions that are cached, zero disables caching.
+     *
+     * @param cacheSize
+     *      The maximum number of cached class decisions.
+     */
+    public void setCacheSize(int cacheSize) {
+        Assert.isTrue(cacheSize >= 0, "Cache size must not be negative");
+        this.cacheSize = cacheSize;
+        invalidate();
+    }
+
+    private void invalidate() {
+        compiled = null;
+        if (decisions != null) {
+            decisions.clear();
+        }
+    }
+
+    private Map<String, Boolean> decisions() {
+        Map<String, Boolean> current = decisions;
+        if (current == null) {
+            synchronized (this) {
+                current = decisions;
+                if (current == null) {
+                    decisions = current = new ConcurrentHashMap<>();
+                }
+            }
+        }
+
+        return current;
+    }
+
+    private Node compiled() {
+        Node current = compiled;
+        if (current == null) {
+            compiled = current = compile(getAllowList(), getDenyList());
+        }
+
+        return current;
+    }
+
+    private static String canonicalName(Class<?> clazz) {
+        final String canonicalName = clazz.getCanonicalName();
+        return canonicalName != null ? canonicalName : clazz.getName();
+    }
+
+    private static Node compile(String allowList, String denyList) {
+        final Node root = new Node();
+
+        for (String entry : StringUtils.commaDelimitedListToStringArray(allowList)) {
+            add(root, entry.trim(), false);
+        }
+        for (String entry : StringUtils.commaDelimitedListToStringArray(denyList)) {
+            add(root, entry.trim(), true);
+        }
+
+        return root;
+    }
+
+    private static void add(Node root, String entry, boolean deny) {
+        if (entry.isEmpty()) {
+            return;
+        }
+
+        Node node = root;
+        if (!CATCH_ALL_WILDCARD.equals(entry)) {
+            for (String segment : StringUtils.delimitedListToStringArray(entry, ".")) {
+                node = node.children.computeIfAbsent(segment, (key) -> new Node());
+            }
+        }
+
+        if (deny) {
+            node.deny = true;
+        } else {
+            node.allow = true;
+        }
+    }
+
+    /**
+     * A package or class name segment of the compiled lists, the root node holds the catch all entries.
+     * An entry matches a class whose name equals the entry or that lies in a package below it, so a
+     * class is denied if any node along the path of its name is denied and otherwise allowed if any is.
+     */
+    private static final class Node {
+
+        private final Map<String, Node> children = new HashMap<>();
+
+        private boolean allow;
+        private boolean deny;
+
+        boolean isTrusted(String className) {
+            Node node = this;
+            boolean allowed = allow;
+
+            if (deny) {
+                return false;
+            }
+
+            int start = 0;
+            while (start <= className.length()) {
+                int end = className.indexOf('.', start);
+                if (end < 0) {
+                    end = className.length();
+                }
+
+                node = node.children.get(className.substring(start, end));
+                if (node == null) {
+                    break;
+                } else if (node.deny) {
+                    return false;
+                }
+
+                allowed |= node.allow;
+                start = end + 1;
+            }
+
+            return allowed;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.health.autoconfigure.contributor.ConditionalOnEnabledHealthIndicator;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Auto Configuration class that registers an {@link AMQP10JMSHealthIndicator} as the JMS health
+ * indicator in place of the generic Spring Boot JMS health indicator, which opens a new connection
+ * for every health check, when the AMQP 1.0 JMS auto configuration provides the connection factory.
+ *
+ * @see AMQP10JMSProperties.HealthMonitor
+ */
+@AutoConfiguration(after = AMQP10JMSAutoConfiguration.class,
+                   beforeName = "org.springframework.boot.jms.autoconfigure.health.JmsHealthContributorAutoConfiguration")
+@ConditionalOnClass({ HealthIndicator.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+@ConditionalOnEnabledHealthIndicator("jms")
+public class AMQP10JMSHealthContributorAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean(name = { "jmsHealthIndicator", "jmsHealthContributor" })
+    AMQP10JMSHealthIndicator jmsHealthIndicator(AMQP10JMSProperties properties, ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers) {
+        final JmsConnectionFactory connectionFactory = new AMQP10JMSConnectionFactoryFactory(properties, factoryCustomizers)
+            .createConnectionFactory(JmsConnectionFactory.class);
+
+        // The monitor connection must not claim the client ID used by the application's connections
+        connectionFactory.setClientID(null);
+
+        return new AMQP10JMSHealthIndicator(connectionFactory, properties.getHealth().getReconnectDelay());
+    }
+}
@@ -0,0 +1,215 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.jms.JmsConnection;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.JmsConnectionListener;
+import org.apache.qpid.jms.message.JmsInboundMessageDispatch;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.HealthIndicator;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * {@link HealthIndicator} that reports the state of a long lived monitor connection to the
+ * remote peer rather than opening a new connection for every health check.
+ * <p>
+ * The monitor connection is created from its own Qpid JMS connection factory and a
+ * {@link JmsConnectionListener} tracks when it is established, interrupted, restored or
+ * fails, each change updating a cached {@link Health} that records the time of the change.
+ * A health check only returns the cached value and never performs any network I/O. A monitor
+ * connection that fails is re-established in the background after the configured delay.
+ */
+public class AMQP10JMSHealthIndicator implements HealthIndicator, JmsConnectionListener, SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSHealthIndicator.class);
+
+    private final JmsConnectionFactory connectionFactory;
+    private final Duration reconnectDelay;
+
+    private volatile Health health;
+    private volatile boolean running;
+
+    private ScheduledExecutorService monitor;
+    private JmsConnection connection;
+    private boolean reconnectScheduled;
+
+    /**
+     * Creates a new health indicator.
+     *
+     * @param connectionFactory
+     *      The factory used to create the monitor connection, it must not assign a client ID.
+     * @param reconnectDelay
+     *      The time to wait before re-establishing a failed monitor connection.
+     */
+    public AMQP10JMSHealthIndicator(JmsConnectionFactory connectionFactory, Duration reconnectDelay) {
+        Assert.notNull(connectionFactory, "ConnectionFactory must not be null");
+        Assert.isTrue(reconnectDelay != null && !reconnectDelay.isNegative(), "Reconnect delay must not be negative");
+
+        this.connectionFactory = connectionFactory;
+        this.reconnectDelay = reconnectDelay;
+        this.health = Health.unknown().withDetail("since", Instant.now()).build();
+    }
+
+    @Override
+    public Health health() {
+        return health;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+        monitor = Executors.newSingleThreadScheduledExecutor(new CustomizableThreadFactory("amqp10jms-health-monitor-"));
+        monitor.execute(this::connect);
+    }
+
+    @Override
+    public void stop() {
+        final ScheduledExecutorService toShutdown;
+        final JmsConnection toClose;
+
+        synchronized (this) {
+            running = false;
+            toShutdown = monitor;
+            toClose = connection;
+            monitor = null;
+            connection = null;
+        }
+
+        if (toShutdown != null) {
+            toShutdown.shutdownNow();
+        }
+
+        JmsUtils.closeConnection(toClose);
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void connect() {
+        synchronized (this) {
+            reconnectScheduled = false;
+        }
+
+        JmsConnection created = null;
+
+        try {
+            created = (JmsConnection) connectionFactory.createConnection();
+
+            // Assigned before the listener is added so that a failure reported while starting closes it
+            synchronized (this) {
+                if (!running) {
+                    JmsUtils.closeConnection(created);
+                    return;
+                }
+
+                connection = created;
+            }
+
+            created.addConnectionListener(this);
+            // Starting the connection is what triggers the connect to the remote peer
+            created.start();
+        } catch (Exception ex) {
+            synchronized (this) {
+                if (connection == created) {
+                    connection = null;
+                }
+            }
+
+            JmsUtils.closeConnection(created);
+            onConnectionFailure(ex);
+        }
+    }
+
+    private synchronized void scheduleReconnect() {
+        if (!running || monitor == null || reconnectScheduled) {
+            return;
+        }
+
+        final JmsConnection failed = connection;
+        connection = null;
+        reconnectScheduled = true;
+
+        // Closing the failed connection from the client's own event thread could deadlock
+        monitor.execute(() -> JmsUtils.closeConnection(failed));
+        monitor.schedule(this::connect, reconnectDelay.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void onConnectionEstablished(URI remoteURI) {
+        health = Health.up().withDetail("remoteUri", String.valueOf(remoteURI)).withDetail("since", Instant.now()).build();
+    }
+
+    @Override
+    public void onConnectionFailure(Throwable error) {
+        LOG.debug("Health monitor connection failed: {}", error.getMessage());
+        health = Health.down().withException(error).withDetail("since", Instant.now()).build();
+        scheduleReconnect();
+    }
+
+    @Override
+    public void onConnectionInterrupted(URI remoteURI) {
+        health = Health.down().withDetail("remoteUri", String.valueOf(remoteURI))
+                              .withDetail("state", "interrupted")
+                              .withDetail("since", Instant.now()).build();
+    }
+
+    @Override
+    public void onConnectionRestored(URI remoteURI) {
+        health = Health.up().withDetail("remoteUri", String.valueOf(remoteURI))
+                            .withDetail("state", "restored")
+                            .withDetail("since", Instant.now()).build();
+    }
+
+    @Override
+    public void onInboundMessage(JmsInboundMessageDispatch envelope) {
+    }
+
+    @Override
+    public void onSessionClosed(Session session, Throwable cause) {
+    }
+
+    @Override
+    public void onConsumerClosed(MessageConsumer consumer, Throwable cause) {
+    }
+
+    @Override
+    public void onProducerClosed(MessageProducer producer, Throwable cause) {
+    }
+}
@@ -0,0 +1,133 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.messaginghub.pooled.jms.pool.PooledConnection;
+import org.springframework.util.Assert;
+
+import jakarta.jms.Connection;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+
+/**
+ * {@link JmsPoolConnectionFactory} extension that reports session borrow activity to an
+ * {@link AMQP10JMSJmsPoolConnectionFactoryListener}.
+ * <p>
+ * Each provider connection is held by a {@link PooledConnection} that is created through the
+ * {@link #createPooledConnection(Connection)} hook of the pool, the instrumented form times the
+ * borrow of a session from its session pool and otherwise leaves the pooling behavior to the
+ * pool. Every session handed out by the pool is borrowed there, including those of the pooled
+ * {@link jakarta.jms.JMSContext} instances, so no connection or session returned to the caller
+ * is wrapped. The sessions on loan are read from the session pool of each pooled connection.
+ */
+class AMQP10JMSInstrumentedJmsPoolConnectionFactory extends JmsPoolConnectionFactory {
+
+    private final AMQP10JMSJmsPoolConnectionFactoryListener listener;
+
+    // The pooled connections that have been created and not yet closed
+    private final Set<InstrumentedPooledConnection> pooledConnections = ConcurrentHashMap.newKeySet();
+
+    AMQP10JMSInstrumentedJmsPoolConnectionFactory(AMQP10JMSJmsPoolConnectionFactoryListener listener) {
+        Assert.notNull(listener, "Listener must not be null");
+        this.listener = listener;
+    }
+
+    @Override
+    protected PooledConnection createPooledConnection(Connection connection) {
+        final InstrumentedPooledConnection pooledConnection = new InstrumentedPooledConnection(connection);
+        pooledConnections.add(pooledConnection);
+        return pooledConnection;
+    }
+
+    /**
+     * @return the number of sessions on loan from the session pools of all open pooled connections.
+     */
+    int getActiveSessions() {
+        int active = 0;
+
+        for (InstrumentedPooledConnection pooledConnection : pooledConnections) {
+            active += pooledConnection.getNumActiveSessions();
+        }
+
+        return active;
+    }
+
+    /**
+     * @return the most sessions on loan from the session pool of any one open pooled connection.
+     */
+    int getMaxActiveSessionsPerConnection() {
+        int max = 0;
+
+        for (InstrumentedPooledConnection pooledConnection : pooledConnections) {
+            max = Math.max(max, pooledConnection.getNumActiveSessions());
+        }
+
+        return max;
+    }
+
+    private static boolean isSessionPoolExhausted(Throwable error) {
+        Throwable cause = error;
+        while (cause != null) {
+            if (cause instanceof NoSuchElementException) {
+                return true;
+            }
+            cause = cause.getCause();
+        }
+
+        return false;
+    }
+
+    private final class InstrumentedPooledConnection extends PooledConnection {
+
+        InstrumentedPooledConnection(Connection connection) {
+            super(connection);
+        }
+
+        @Override
+        public Session createSession(boolean transacted, int ackMode) throws JMSException {
+            final int maxSessions = getMaxSessionsPerConnection();
+            final boolean poolFull = maxSessions > 0 && getNumActiveSessions() >= maxSessions;
+            final long startTime = System.nanoTime();
+            final Session session;
+
+            try {
+                session = super.createSession(transacted, ackMode);
+            } catch (JMSException | RuntimeException error) {
+                listener.onSessionBorrowFailed(System.nanoTime() - startTime, isSessionPoolExhausted(error));
+                throw error;
+            }
+
+            listener.onSessionBorrowed(System.nanoTime() - startTime, poolFull);
+
+            return session;
+        }
+
+        @Override
+        public synchronized void close() {
+            try {
+                super.close();
+            } finally {
+                pooledConnections.remove(this);
+            }
+        }
+    }
+}
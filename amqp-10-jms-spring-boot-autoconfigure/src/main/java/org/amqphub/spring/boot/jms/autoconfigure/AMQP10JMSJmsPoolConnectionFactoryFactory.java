@@ -30,10 +30,24 @@ public class AMQP10JMSJmsPoolConnectionFactoryFactory extends JmsPoolConnectionF
 
     private final AMQP10JMSJmsPoolConnectionFactoryProperties properties;
 
+    private final AMQP10JMSJmsPoolConnectionFactoryListener listener;
+
     public AMQP10JMSJmsPoolConnectionFactoryFactory(AMQP10JMSJmsPoolConnectionFactoryProperties properties) {
+        this(properties, null);
+    }
+
+    /**
+     * Creates a new pooled connection factory builder which will produce an instrumented
+     * pool that reports its activity to the given listener when one is provided.
+     *
+     * @param properties the pooled connection factory properties to apply.
+     * @param listener the optional listener that should observe the created pool.
+     */
+    public AMQP10JMSJmsPoolConnectionFactoryFactory(AMQP10JMSJmsPoolConnectionFactoryProperties properties, AMQP10JMSJmsPoolConnectionFactoryListener listener) {
         super(properties);
 
         this.properties = properties;
+        this.listener = listener;
     }
 
     /**
@@ -47,7 +61,8 @@ public class AMQP10JMSJmsPoolConnectionFactoryFactory extends JmsPoolConnectionF
      */
     @Override
     public JmsPoolConnectionFactory createPooledConnectionFactory(ConnectionFactory connectionFactory) {
-        final JmsPoolConnectionFactory cf = new JmsPoolConnectionFactory();
+        final JmsPoolConnectionFactory cf = listener != null ?
+            new AMQP10JMSInstrumentedJmsPoolConnectionFactory(listener) : new JmsPoolConnectionFactory();
 
         cf.setConnectionFactory(connectionFactory);
         cf.setUseProviderJMSContext(properties.isUseProviderJMSContext());
@@ -67,6 +82,10 @@ public class AMQP10JMSJmsPoolConnectionFactoryFactory extends JmsPoolConnectionF
             cf.setConnectionCheckInterval(properties.getTimeBetweenExpirationCheck().toMillis());
         }
 
+        if (listener != null) {
+            listener.onPoolCreated(cf);
+        }
+
         return cf;
     }
 }
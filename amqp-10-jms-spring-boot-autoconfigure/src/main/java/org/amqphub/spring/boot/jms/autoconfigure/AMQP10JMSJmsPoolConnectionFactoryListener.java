@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+
+/**
+ * Listener interface that is notified of the events that occur within a {@link JmsPoolConnectionFactory}
+ * created by this starter. When a listener bean is present the pooled connection factory is created in
+ * an instrumented form which reports session borrow activity to the listener.
+ */
+public interface AMQP10JMSJmsPoolConnectionFactoryListener {
+
+    /**
+     * Called once the pooled connection factory has been created and configured.
+     *
+     * @param connectionFactory
+     *      the {@link JmsPoolConnectionFactory} that will report to this listener.
+     */
+    void onPoolCreated(JmsPoolConnectionFactory connectionFactory);
+
+    /**
+     * Called when a session has been successfully borrowed from the pool.
+     *
+     * @param waitNanos
+     *      the time in nanoseconds the caller waited for the session.
+     * @param poolFull
+     *      true if every session of the pooled connection was on loan when the session was requested.
+     */
+    void onSessionBorrowed(long waitNanos, boolean poolFull);
+
+    /**
+     * Called when a session could not be borrowed from the pool.
+     *
+     * @param waitNanos
+     *      the time in nanoseconds the caller waited before the failure.
+     * @param exhausted
+     *      true if the failure was due to the session pool being exhausted.
+     */
+    void onSessionBorrowFailed(long waitNanos, boolean exhausted);
+
+}
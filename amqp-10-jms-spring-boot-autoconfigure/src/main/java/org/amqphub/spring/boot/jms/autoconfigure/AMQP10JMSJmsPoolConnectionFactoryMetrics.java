@@ -0,0 +1,172 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToIntFunction;
+
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Micrometer {@link MeterBinder} that exposes the state and activity of the {@link JmsPoolConnectionFactory}
+ * created by this starter when connection pooling is enabled.
+ * <p>
+ * The following meters are registered, all carrying any configured common tags:
+ * <ul>
+ *   <li>{@code amqphub.amqp10jms.pool.connections} open pooled connections and
+ *       {@code amqphub.amqp10jms.pool.connections.max} the configured limit.</li>
+ *   <li>{@code amqphub.amqp10jms.pool.sessions.active} sessions currently on loan,
+ *       {@code amqphub.amqp10jms.pool.sessions.active.per.connection} the average per open connection,
+ *       {@code amqphub.amqp10jms.pool.sessions.active.per.connection.max} the most on loan from any one
+ *       connection and {@code amqphub.amqp10jms.pool.sessions.max.per.connection} the configured limit.</li>
+ *   <li>{@code amqphub.amqp10jms.pool.sessions.borrow} timer of the time spent waiting for a session,
+ *       tagged with the {@code outcome} of the borrow.</li>
+ *   <li>{@code amqphub.amqp10jms.pool.sessions.blocked} borrows made while every pooled session was on loan and
+ *       {@code amqphub.amqp10jms.pool.sessions.exhausted} borrows that failed because the pool stayed exhausted.</li>
+ * </ul>
+ * The sessions on loan are read from the session pools of the instrumented pool, the gauges report NaN
+ * until the pool has been created.
+ */
+public class AMQP10JMSJmsPoolConnectionFactoryMetrics implements MeterBinder, AMQP10JMSJmsPoolConnectionFactoryListener {
+
+    private static final String METRIC_PREFIX = "amqphub.amqp10jms.pool.";
+
+    private final Tags tags;
+
+    private volatile JmsPoolConnectionFactory connectionFactory;
+
+    private volatile Timer borrowSuccess;
+    private volatile Timer borrowFailure;
+    private volatile Counter blocked;
+    private volatile Counter exhausted;
+
+    public AMQP10JMSJmsPoolConnectionFactoryMetrics() {
+        this(Tags.empty());
+    }
+
+    /**
+     * Create a new metrics binder that applies the given tags to each registered meter.
+     *
+     * @param tags
+     *      The tags to apply to all meters registered by this binder.
+     */
+    public AMQP10JMSJmsPoolConnectionFactoryMetrics(Iterable<Tag> tags) {
+        this.tags = Tags.of(tags);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder(METRIC_PREFIX + "connections", this, (metrics) -> metrics.withPool(JmsPoolConnectionFactory::getNumConnections))
+             .description("The number of open pooled connections")
+             .tags(tags)
+             .register(registry);
+        Gauge.builder(METRIC_PREFIX + "connections.max", this, (metrics) -> metrics.withPool(JmsPoolConnectionFactory::getMaxConnections))
+             .description("The maximum number of pooled connections")
+             .tags(tags)
+             .register(registry);
+        Gauge.builder(METRIC_PREFIX + "sessions.active", this, (metrics) -> metrics.withInstrumentedPool(AMQP10JMSInstrumentedJmsPoolConnectionFactory::getActiveSessions))
+             .description("The number of pooled sessions currently on loan")
+             .tags(tags)
+             .register(registry);
+        Gauge.builder(METRIC_PREFIX + "sessions.active.per.connection", this, AMQP10JMSJmsPoolConnectionFactoryMetrics::activeSessionsPerConnection)
+             .description("The average number of pooled sessions on loan from each open connection")
+             .tags(tags)
+             .register(registry);
+        Gauge.builder(METRIC_PREFIX + "sessions.active.per.connection.max", this, (metrics) -> metrics.withInstrumentedPool(AMQP10JMSInstrumentedJmsPoolConnectionFactory::getMaxActiveSessionsPerConnection))
+             .description("The most pooled sessions on loan from any one connection")
+             .tags(tags)
+             .register(registry);
+        Gauge.builder(METRIC_PREFIX + "sessions.max.per.connection", this, (metrics) -> metrics.withPool(JmsPoolConnectionFactory::getMaxSessionsPerConnection))
+             .description("The maximum number of pooled sessions per connection")
+             .tags(tags)
+             .register(registry);
+
+        borrowSuccess = Timer.builder(METRIC_PREFIX + "sessions.borrow")
+                             .description("Time spent waiting to borrow a session from the pool")
+                             .tags(tags).tag("outcome", "success")
+                             .register(registry);
+        borrowFailure = Timer.builder(METRIC_PREFIX + "sessions.borrow")
+                             .description("Time spent waiting to borrow a session from the pool")
+                             .tags(tags).tag("outcome", "failure")
+                             .register(registry);
+        blocked = Counter.builder(METRIC_PREFIX + "sessions.blocked")
+                         .description("Session borrows requested while every pooled session was on loan")
+                         .tags(tags)
+                         .register(registry);
+        exhausted = Counter.builder(METRIC_PREFIX + "sessions.exhausted")
+                           .description("Session borrows that failed because the session pool remained exhausted")
+                           .tags(tags)
+                           .register(registry);
+    }
+
+    @Override
+    public void onPoolCreated(JmsPoolConnectionFactory connectionFactory) {
+        this.connectionFactory = connectionFactory;
+    }
+
+    @Override
+    public void onSessionBorrowed(long waitNanos, boolean poolFull) {
+        if (borrowSuccess != null) {
+            borrowSuccess.record(waitNanos, TimeUnit.NANOSECONDS);
+        }
+        if (poolFull && blocked != null) {
+            blocked.increment();
+        }
+    }
+
+    @Override
+    public void onSessionBorrowFailed(long waitNanos, boolean exhausted) {
+        if (borrowFailure != null) {
+            borrowFailure.record(waitNanos, TimeUnit.NANOSECONDS);
+        }
+        if (exhausted && this.exhausted != null) {
+            this.exhausted.increment();
+        }
+    }
+
+    private double withPool(ToIntFunction<JmsPoolConnectionFactory> accessor) {
+        final JmsPoolConnectionFactory pool = connectionFactory;
+        return pool != null ? accessor.applyAsInt(pool) : Double.NaN;
+    }
+
+    private double withInstrumentedPool(ToIntFunction<AMQP10JMSInstrumentedJmsPoolConnectionFactory> accessor) {
+        final JmsPoolConnectionFactory pool = connectionFactory;
+        if (pool instanceof AMQP10JMSInstrumentedJmsPoolConnectionFactory) {
+            return accessor.applyAsInt((AMQP10JMSInstrumentedJmsPoolConnectionFactory) pool);
+        }
+
+        return Double.NaN;
+    }
+
+    private double activeSessionsPerConnection() {
+        final double connections = withPool(JmsPoolConnectionFactory::getNumConnections);
+        final double active = withInstrumentedPool(AMQP10JMSInstrumentedJmsPoolConnectionFactory::getActiveSessions);
+        if (Double.isNaN(connections) || Double.isNaN(active) || connections == 0) {
+            return 0;
+        }
+
+        return active / connections;
+    }
+}
@@ -17,8 +17,12 @@
 package org.amqphub.spring.boot.jms.autoconfigure;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
 
+import org.springframework.boot.context.properties.NestedConfigurationProperty;
 import org.springframework.boot.jms.autoconfigure.JmsPoolConnectionFactoryProperties;
+import org.springframework.util.Assert;
 
 import jakarta.jms.JMSContext;
 
@@ -42,6 +46,9 @@ public final class AMQP10JMSJmsPoolConnectionFactoryProperties extends JmsPoolCo
      */
     private boolean useProviderJMSContext = false;
 
+    @NestedConfigurationProperty
+    private final Warmup warmup = new Warmup();
+
     /**
      * @return if the session pool blocks when full.
      */
@@ -190,4 +197,99 @@ public final class AMQP10JMSJmsPoolConnectionFactoryProperties extends JmsPoolCo
     public void setExplicitProducerCacheSize(int explicitProducerCacheSize) {
         this.explicitProducerCacheSize = explicitProducerCacheSize;
     }
+
+    /**
+     * @return the pool warm-up configuration.
+     */
+    public Warmup getWarmup() {
+        return warmup;
+    }
+
+    /**
+     * Configuration of the connections, sessions and producers opened when the application
+     * starts such that the first messages sent do not pay for establishing them.
+     */
+    public static class Warmup {
+
+        /**
+         * Whether the pool is warmed up when the application starts.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of pooled connections to open, limited by the maximum number of pooled connections.
+         */
+        private int connections = 1;
+
+        /**
+         * Number of sessions to open on each warmed connection, limited by the maximum sessions per connection.
+         */
+        private int sessionsPerConnection = 1;
+
+        /**
+         * Names of the queues for which each warmed session creates a producer.
+         */
+        private List<String> producerQueues = new ArrayList<>();
+
+        /**
+         * Names of the topics for which each warmed session creates a producer.
+         */
+        private List<String> producerTopics = new ArrayList<>();
+
+        /**
+         * Maximum time the application start waits for the warm-up to complete.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getConnections() {
+            return connections;
+        }
+
+        public void setConnections(int connections) {
+            Assert.isTrue(connections > 0, "Warm-up connections must be greater than zero");
+            this.connections = connections;
+        }
+
+        public int getSessionsPerConnection() {
+            return sessionsPerConnection;
+        }
+
+        public void setSessionsPerConnection(int sessionsPerConnection) {
+            Assert.isTrue(sessionsPerConnection >= 0, "Warm-up sessions per connection must not be negative");
+            this.sessionsPerConnection = sessionsPerConnection;
+        }
+
+        public List<String> getProducerQueues() {
+            return producerQueues;
+        }
+
+        public void setProducerQueues(List<String> producerQueues) {
+            this.producerQueues = producerQueues;
+        }
+
+        public List<String> getProducerTopics() {
+            return producerTopics;
+        }
+
+        public void setProducerTopics(List<String> producerTopics) {
+            this.producerTopics = producerTopics;
+        }
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            Assert.isTrue(timeout != null && !timeout.isNegative() && !timeout.isZero(), "Warm-up timeout must be positive");
+            this.timeout = timeout;
+        }
+    }
 }
@@ -0,0 +1,225 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.util.Assert;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * {@link SmartLifecycle} that warms up a {@link JmsPoolConnectionFactory} while the application
+ * starts, before it reports itself as ready, by opening the configured number of pooled connections
+ * and sessions and creating producers for the configured destinations.
+ * <p>
+ * Each connection is warmed in parallel, the sessions are returned to the pool once warmed while the
+ * connections are held open until the application stops so that they are not evicted from the pool
+ * as idle before the first traffic arrives. A warm-up that fails or does not complete within the
+ * configured timeout is logged and does not prevent the application from starting.
+ * <p>
+ * When the pool uses anonymous producers, as it does by default, every pooled session shares one
+ * anonymous producer that is not bound to a destination, so no per destination producer links can
+ * be warmed. The configured producer destinations then only cause the anonymous producer of each
+ * session to be created and a warning is logged suggesting to disable anonymous producers.
+ */
+public class AMQP10JMSJmsPoolConnectionFactoryWarmup implements SmartLifecycle {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSJmsPoolConnectionFactoryWarmup.class);
+
+    /**
+     * Started ahead of the default phase used by listener containers.
+     */
+    public static final int PHASE = SmartLifecycle.DEFAULT_PHASE - 1024;
+
+    private final ConnectionFactory connectionFactory;
+    private final AMQP10JMSJmsPoolConnectionFactoryProperties.Warmup warmup;
+
+    private final List<Connection> warmConnections = new ArrayList<>();
+
+    private volatile boolean running;
+
+    /**
+     * Creates a new warm-up for the given pooled connection factory.
+     *
+     * @param connectionFactory
+     *      The pooled connection factory to warm up.
+     * @param warmup
+     *      The warm-up configuration.
+     */
+    public AMQP10JMSJmsPoolConnectionFactoryWarmup(ConnectionFactory connectionFactory, AMQP10JMSJmsPoolConnectionFactoryProperties.Warmup warmup) {
+        Assert.notNull(connectionFactory, "ConnectionFactory must not be null");
+        Assert.notNull(warmup, "Warm-up configuration must not be null");
+
+        this.connectionFactory = connectionFactory;
+        this.warmup = warmup;
+    }
+
+    @Override
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+
+        running = true;
+
+        final long startTime = System.nanoTime();
+        final int connections = getConnectionCount();
+        final int sessions = getSessionsPerConnection();
+
+        if (isUseAnonymousProducers() && hasProducerDestinations()) {
+            LOG.warn("The pool uses anonymous producers so the warm-up producer queues and topics only create the anonymous " +
+                     "producer of each session, set amqphub.amqp10jms.pool.useAnonymousProducers=false to warm per destination producers");
+        }
+        final ExecutorService executor = Executors.newFixedThreadPool(connections, new CustomizableThreadFactory("amqp10jms-pool-warmup-"));
+
+        try {
+            final List<CompletableFuture<Void>> warming = new ArrayList<>(connections);
+
+            // Pooled connections are cheap to create as the provider connects on first use, each
+            // call opens a new pooled connection until the pool's connection limit is reached.
+            for (int i = 0; i < connections; ++i) {
+                final Connection connection = connectionFactory.createConnection();
+                warmConnections.add(connection);
+                warming.add(CompletableFuture.runAsync(() -> warmConnection(connection, sessions), executor));
+            }
+
+            CompletableFuture.allOf(warming.toArray(new CompletableFuture[0])).get(warmup.getTimeout().toMillis(), TimeUnit.MILLISECONDS);
+
+            LOG.info("Warmed up {} pooled connection(s) with {} session(s) each in {} ms",
+                connections, sessions, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startTime));
+        } catch (TimeoutException ex) {
+            LOG.warn("Pooled connection warm-up did not complete within {}", warmup.getTimeout());
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            LOG.warn("Pooled connection warm-up was interrupted");
+        } catch (ExecutionException ex) {
+            LOG.warn("Pooled connection warm-up failed: {}", ex.getCause().getMessage());
+            LOG.debug("Pooled connection warm-up failure", ex.getCause());
+        } catch (Exception ex) {
+            LOG.warn("Pooled connection warm-up failed: {}", ex.getMessage());
+            LOG.debug("Pooled connection warm-up failure", ex);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Override
+    public synchronized void stop() {
+        running = false;
+
+        warmConnections.forEach(JmsUtils::closeConnection);
+        warmConnections.clear();
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public int getPhase() {
+        return PHASE;
+    }
+
+    private void warmConnection(Connection connection, int sessionCount) {
+        final List<Session> sessions = new ArrayList<>(sessionCount);
+
+        try {
+            // All sessions are held at once so that distinct pooled sessions are opened
+            for (int i = 0; i < sessionCount; ++i) {
+                sessions.add(connection.createSession(Session.AUTO_ACKNOWLEDGE));
+            }
+
+            for (Session session : sessions) {
+                warmProducers(session);
+            }
+        } catch (JMSException ex) {
+            throw JmsUtils.convertJmsAccessException(ex);
+        } finally {
+            sessions.forEach(JmsUtils::closeSession);
+        }
+    }
+
+    private void warmProducers(Session session) throws JMSException {
+        if (!hasProducerDestinations()) {
+            return;
+        }
+
+        if (isUseAnonymousProducers()) {
+            // Producers for any destination would all wrap the one anonymous producer of the session
+            closeProducer(session.createProducer(null));
+            return;
+        }
+
+        for (String queue : warmup.getProducerQueues()) {
+            closeProducer(session.createProducer(session.createQueue(queue)));
+        }
+        for (String topic : warmup.getProducerTopics()) {
+            closeProducer(session.createProducer(session.createTopic(topic)));
+        }
+    }
+
+    private static void closeProducer(MessageProducer producer) {
+        // Closing a pooled producer leaves the cached provider producer attached
+        JmsUtils.closeMessageProducer(producer);
+    }
+
+    private boolean hasProducerDestinations() {
+        return !warmup.getProducerQueues().isEmpty() || !warmup.getProducerTopics().isEmpty();
+    }
+
+    private boolean isUseAnonymousProducers() {
+        return connectionFactory instanceof JmsPoolConnectionFactory && ((JmsPoolConnectionFactory) connectionFactory).isUseAnonymousProducers();
+    }
+
+    private int getConnectionCount() {
+        if (connectionFactory instanceof JmsPoolConnectionFactory) {
+            return Math.min(warmup.getConnections(), Math.max(1, ((JmsPoolConnectionFactory) connectionFactory).getMaxConnections()));
+        }
+
+        return warmup.getConnections();
+    }
+
+    private int getSessionsPerConnection() {
+        if (connectionFactory instanceof JmsPoolConnectionFactory) {
+            final int maxSessions = ((JmsPoolConnectionFactory) connectionFactory).getMaxSessionsPerConnection();
+            if (maxSessions > 0) {
+                return Math.min(warmup.getSessionsPerConnection(), maxSessions);
+            }
+        }
+
+        return warmup.getSessionsPerConnection();
+    }
+}
@@ -0,0 +1,209 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.jms.message.facade.JmsMessageFacade;
+import org.apache.qpid.jms.tracing.JmsTracer;
+import org.apache.qpid.jms.tracing.TraceableMessage;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+
+/**
+ * Micrometer {@link MeterBinder} that separates the end to end latency of the messages sent and
+ * received through the connection factory created by this starter into three timers.
+ * <p>
+ * Send and broker transit times are recorded by installing this binder as the {@link JmsTracer} of the
+ * Qpid JMS connection factory, listener processing time is recorded from the {@code jms.message.process}
+ * observations made by the Spring listener containers when an observation registry is configured.
+ * <ul>
+ *   <li>{@code amqphub.amqp10jms.send} time from the start of a send until the remote peer settles it.</li>
+ *   <li>{@code amqphub.amqp10jms.transit} time from the send until the message is dispatched to a consumer,
+ *       tagged with the {@code source} of the send time, either the send timestamp {@code annotation}
+ *       or the JMS {@code timestamp} of the message.</li>
+ *   <li>{@code amqphub.amqp10jms.process} time spent in the listener tagged with the {@code outcome}
+ *       of the processing.</li>
+ * </ul>
+ * Broker transit time compares clocks of the sending and receiving hosts and is only as accurate as
+ * their synchronization, negative transit times caused by clock skew are not recorded.
+ */
+public class AMQP10JMSLatencyMetrics implements MeterBinder, JmsTracer, ObservationHandler<JmsProcessObservationContext> {
+
+    /**
+     * Message annotation carrying the time the message was sent in microseconds since the epoch.
+     */
+    public static final String SEND_TIMESTAMP_ANNOTATION = "x-opt-amqphub-send-time";
+
+    private static final String METRIC_PREFIX = "amqphub.amqp10jms.";
+
+    private static final String SEND_START_CONTEXT = "amqphub.amqp10jms.send.start";
+
+    private static final Object PROCESS_START_KEY = new Object();
+
+    private final Tags tags;
+    private final boolean sendTimestampAnnotation;
+    private final Clock clock;
+
+    private volatile Timer send;
+    private volatile Timer transitFromAnnotation;
+    private volatile Timer transitFromTimestamp;
+    private volatile Timer processSuccess;
+    private volatile Timer processFailure;
+
+    public AMQP10JMSLatencyMetrics() {
+        this(false, Tags.empty());
+    }
+
+    /**
+     * Create a new latency metrics binder.
+     *
+     * @param sendTimestampAnnotation
+     *      Whether sent messages are annotated with a microsecond resolution send timestamp.
+     * @param tags
+     *      The tags to apply to all meters registered by this binder.
+     */
+    public AMQP10JMSLatencyMetrics(boolean sendTimestampAnnotation, Iterable<Tag> tags) {
+        this(sendTimestampAnnotation, tags, Clock.systemUTC());
+    }
+
+    AMQP10JMSLatencyMetrics(boolean sendTimestampAnnotation, Iterable<Tag> tags, Clock clock) {
+        this.sendTimestampAnnotation = sendTimestampAnnotation;
+        this.tags = Tags.of(tags);
+        this.clock = clock;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        send = Timer.builder(METRIC_PREFIX + "send")
+                    .description("Time from the start of a send until the remote peer settles the message")
+                    .tags(tags)
+                    .register(registry);
+        transitFromAnnotation = Timer.builder(METRIC_PREFIX + "transit")
+                                     .description("Time from the send of a message until it is dispatched to a consumer")
+                                     .tags(tags).tag("source", "annotation")
+                                     .register(registry);
+        transitFromTimestamp = Timer.builder(METRIC_PREFIX + "transit")
+                                    .description("Time from the send of a message until it is dispatched to a consumer")
+                                    .tags(tags).tag("source", "timestamp")
+                                    .register(registry);
+        processSuccess = Timer.builder(METRIC_PREFIX + "process")
+                              .description("Time spent processing a message in a listener")
+                              .tags(tags).tag("outcome", "success")
+                              .register(registry);
+        processFailure = Timer.builder(METRIC_PREFIX + "process")
+                              .description("Time spent processing a message in a listener")
+                              .tags(tags).tag("outcome", "failure")
+                              .register(registry);
+    }
+
+    @Override
+    public void initSend(TraceableMessage message, String address) {
+        message.setTracingContext(SEND_START_CONTEXT, System.nanoTime());
+
+        if (sendTimestampAnnotation) {
+            message.setTracingAnnotation(SEND_TIMESTAMP_ANNOTATION, currentTimeMicros());
+        }
+    }
+
+    @Override
+    public void completeSend(TraceableMessage message, String outcome) {
+        final Object startTime = message.removeTracingContext(SEND_START_CONTEXT);
+        final Timer timer = send;
+
+        if (startTime instanceof Long && timer != null) {
+            timer.record(System.nanoTime() - (Long) startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public void syncReceive(TraceableMessage message, String address, DeliveryOutcome outcome) {
+        if (outcome == DeliveryOutcome.DELIVERED) {
+            recordTransit(message);
+        }
+    }
+
+    @Override
+    public void asyncDeliveryInit(TraceableMessage message, String address) {
+        recordTransit(message);
+    }
+
+    @Override
+    public void asyncDeliveryComplete(TraceableMessage message, DeliveryOutcome outcome, Throwable throwable) {
+    }
+
+    @Override
+    public void close() {
+        // Called as each connection closes, the binder outlives the connections it is installed on
+    }
+
+    @Override
+    public void onStart(JmsProcessObservationContext context) {
+        context.put(PROCESS_START_KEY, System.nanoTime());
+    }
+
+    @Override
+    public void onStop(JmsProcessObservationContext context) {
+        final Long startTime = context.get(PROCESS_START_KEY);
+        final Timer timer = context.getError() == null ? processSuccess : processFailure;
+
+        if (startTime != null && timer != null) {
+            timer.record(System.nanoTime() - startTime, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @Override
+    public boolean supportsContext(Observation.Context context) {
+        return context instanceof JmsProcessObservationContext;
+    }
+
+    private void recordTransit(TraceableMessage message) {
+        final long receivedMicros = currentTimeMicros();
+        final Object annotation = message.getTracingAnnotation(SEND_TIMESTAMP_ANNOTATION);
+
+        final Timer timer;
+        final long sentMicros;
+
+        if (annotation instanceof Number) {
+            timer = transitFromAnnotation;
+            sentMicros = ((Number) annotation).longValue();
+        } else if (message instanceof JmsMessageFacade && ((JmsMessageFacade) message).getTimestamp() > 0) {
+            timer = transitFromTimestamp;
+            sentMicros = TimeUnit.MILLISECONDS.toMicros(((JmsMessageFacade) message).getTimestamp());
+        } else {
+            return;
+        }
+
+        if (timer != null && receivedMicros >= sentMicros) {
+            timer.record(receivedMicros - sentMicros, TimeUnit.MICROSECONDS);
+        }
+    }
+
+    private long currentTimeMicros() {
+        final Instant now = clock.instant();
+        return TimeUnit.SECONDS.toMicros(now.getEpochSecond()) + TimeUnit.NANOSECONDS.toMicros(now.getNano());
+    }
+}
@@ -0,0 +1,80 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+import org.springframework.util.StringUtils;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+/**
+ * Auto Configuration class that records send, broker transit and listener processing latency
+ * for the connection factory created by the AMQP 1.0 JMS auto configuration when a
+ * {@link MeterRegistry} is available.
+ * <p>
+ * The {@link AMQP10JMSLatencyMetrics} are installed as the tracer of the Qpid JMS connection factory
+ * such that both the JmsTemplate and the listener containers using it are measured, and registered as
+ * an observation handler which the observation registry applies to the listener containers. A tracer
+ * already set on the connection factory is kept and called ahead of the metrics, while a factory that
+ * creates its tracer from the {@code jms.tracing} URI option is left unchanged and only listener
+ * processing time is recorded.
+ *
+ * @see AMQP10JMSLatencyMetrics
+ */
+@AutoConfiguration(after = AMQP10JMSAutoConfiguration.class, afterName = {
+    "org.springframework.boot.micrometer.metrics.autoconfigure.MetricsAutoConfiguration",
+    "org.springframework.boot.micrometer.metrics.autoconfigure.CompositeMeterRegistryAutoConfiguration",
+    "org.springframework.boot.micrometer.metrics.autoconfigure.export.simple.SimpleMetricsExportAutoConfiguration" })
+@ConditionalOnClass({ MeterRegistry.class, JmsConnectionFactory.class, JmsProcessObservationContext.class })
+@ConditionalOnBean({ MeterRegistry.class, AMQP10JMSProperties.class })
+@ConditionalOnProperty(prefix = "amqphub.amqp10jms.latency", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AMQP10JMSLatencyMetricsAutoConfiguration {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSLatencyMetricsAutoConfiguration.class);
+
+    @Bean
+    @ConditionalOnMissingBean
+    AMQP10JMSLatencyMetrics amqp10jmsLatencyMetrics(AMQP10JMSProperties properties) {
+        return new AMQP10JMSLatencyMetrics(properties.getLatency().isSendTimestampAnnotation(), Tags.empty());
+    }
+
+    @Bean
+    AMQP10JMSConnectionFactoryCustomizer amqp10jmsLatencyTracerCustomizer(AMQP10JMSLatencyMetrics latencyMetrics) {
+        return (factory) -> installTracer(factory, latencyMetrics);
+    }
+
+    static void installTracer(JmsConnectionFactory factory, AMQP10JMSLatencyMetrics latencyMetrics) {
+        if (factory.getTracer() != null) {
+            factory.setTracer(new AMQP10JMSCompositeTracer(factory.getTracer(), latencyMetrics));
+        } else if (StringUtils.hasText(factory.getTracing())) {
+            // The tracer named by the jms.tracing URI option is only created with the connection, setting one would replace it
+            LOG.info("Send and transit latency is not recorded as the connection factory uses the {} tracing option", factory.getTracing());
+        } else {
+            factory.setTracer(latencyMetrics);
+        }
+    }
+}
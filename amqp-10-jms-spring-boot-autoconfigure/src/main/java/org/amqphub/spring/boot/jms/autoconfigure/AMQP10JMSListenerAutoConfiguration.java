@@ -0,0 +1,169 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnJava;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jms.autoconfigure.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.jms.autoconfigure.JmsProperties;
+import org.springframework.boot.system.JavaVersion;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jms.annotation.EnableJms;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.connection.CachingConnectionFactory;
+
+import jakarta.jms.ConnectionFactory;
+
+/**
+ * Auto Configuration class that creates the default {@link DefaultJmsListenerContainerFactory} with a
+ * task executor that runs each listener consumer on a virtual thread when enabled using the
+ * {@code amqphub.amqp10jms.listener.virtual-threads} property on Java 21 or later, or that consumes
+ * from the separate consumer connection pool when enabled using the
+ * {@code amqphub.amqp10jms.consumer-pool.enabled} property. When enabled using the
+ * {@code amqphub.amqp10jms.listener.commit-interval.enabled} property the factory creates
+ * {@link AMQP10JMSCommitIntervalMessageListenerContainer} instances which commit their sessions once
+ * per commit interval rather than after every message.
+ * <p>
+ * The factory is otherwise configured by Spring Boot from the {@code spring.jms.listener} properties.
+ * When enabled using the {@code amqphub.amqp10jms.listener.pool-sized-concurrency} property, listener
+ * consumers run on virtual threads, no maximum concurrency has been configured and connection pooling is
+ * enabled the maximum concurrency is sized to the sessions per connection limit of the pool the listeners
+ * consume from as the consumers of a listener container share a single connection. Enabling the consumer
+ * pool or the commit interval alone leaves the concurrency settings of Spring Boot untouched.
+ *
+ * @see AMQP10JMSProperties.Listener
+ */
+@AutoConfiguration(before = JmsAutoConfiguration.class, after = AMQP10JMSAutoConfiguration.class)
+@ConditionalOnClass({ EnableJms.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+@Conditional(AMQP10JMSListenerAutoConfiguration.ListenerContainerFactoryCondition.class)
+public class AMQP10JMSListenerAutoConfiguration {
+
+    static final String THREAD_NAME_PREFIX = "amqp10jms-listener-";
+
+    @Bean
+    @ConditionalOnMissingBean(name = "jmsListenerContainerFactory")
+    DefaultJmsListenerContainerFactory jmsListenerContainerFactory(DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                                                   ConnectionFactory connectionFactory,
+                                                                   @Qualifier(AMQP10JMSConnectionFactoryConfiguration.CONSUMER_CONNECTION_FACTORY_BEAN_NAME)
+                                                                   ObjectProvider<ConnectionFactory> consumerConnectionFactory,
+                                                                   AMQP10JMSProperties properties,
+                                                                   JmsProperties jmsProperties) {
+        final AMQP10JMSProperties.Listener.CommitInterval commitInterval = properties.getListener().getCommitInterval();
+        final DefaultJmsListenerContainerFactory factory;
+
+        if (commitInterval.isEnabled()) {
+            final AMQP10JMSCommitIntervalListenerContainerFactory commitIntervalFactory = new AMQP10JMSCommitIntervalListenerContainerFactory();
+            commitIntervalFactory.setCommitMessages(commitInterval.getMessages());
+            commitIntervalFactory.setCommitTime(commitInterval.getTime());
+            factory = commitIntervalFactory;
+        } else {
+            factory = new DefaultJmsListenerContainerFactory();
+        }
+
+        configureFactory(factory, configurer, connectionFactory, consumerConnectionFactory, properties, jmsProperties);
+
+        return factory;
+    }
+
+    /**
+     * Applies the Spring Boot listener settings and the listener options of this starter to the given factory,
+     * shared with the batch listener container factory so that both consume in the same way.
+     */
+    static void configureFactory(DefaultJmsListenerContainerFactory factory,
+                                 DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                 ConnectionFactory connectionFactory,
+                                 ObjectProvider<ConnectionFactory> consumerConnectionFactory,
+                                 AMQP10JMSProperties properties,
+                                 JmsProperties jmsProperties) {
+        // The listener container caches its own consumers so bypass any caching connection factory
+        configurer.configure(factory, consumerConnectionFactory.getIfAvailable(() -> unwrapCaching(connectionFactory)));
+
+        if (isVirtualThreads(properties)) {
+            final SimpleAsyncTaskExecutor taskExecutor = new SimpleAsyncTaskExecutor(THREAD_NAME_PREFIX);
+            taskExecutor.setVirtualThreads(true);
+            factory.setTaskExecutor(taskExecutor);
+        }
+
+        final String concurrency = poolSizedConcurrency(properties, jmsProperties);
+        if (concurrency != null) {
+            factory.setConcurrency(concurrency);
+        }
+    }
+
+    static String poolSizedConcurrency(AMQP10JMSProperties properties, JmsProperties jmsProperties) {
+        final AMQP10JMSJmsPoolConnectionFactoryProperties pool =
+            properties.getConsumerPool().isEnabled() ? properties.getConsumerPool() : properties.getPool();
+
+        // Hundreds of consumers are only affordable when each of them runs on a virtual thread
+        if (!properties.getListener().isPoolSizedConcurrency() || !isVirtualThreads(properties) ||
+            jmsProperties.getListener().getMaxConcurrency() != null || !pool.isEnabled() || pool.getMaxSessionsPerConnection() <= 0) {
+            return null;
+        }
+
+        final Integer minConcurrency = jmsProperties.getListener().getMinConcurrency();
+        final int maxConcurrency = pool.getMaxSessionsPerConnection();
+
+        return Math.min(minConcurrency != null ? minConcurrency : 1, maxConcurrency) + "-" + maxConcurrency;
+    }
+
+    private static boolean isVirtualThreads(AMQP10JMSProperties properties) {
+        return properties.getListener().isVirtualThreads() && JavaVersion.getJavaVersion().isEqualOrNewerThan(JavaVersion.TWENTY_ONE);
+    }
+
+    private static ConnectionFactory unwrapCaching(ConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof CachingConnectionFactory) {
+            final ConnectionFactory target = ((CachingConnectionFactory) connectionFactory).getTargetConnectionFactory();
+            if (target != null) {
+                return target;
+            }
+        }
+
+        return connectionFactory;
+    }
+
+    static final class ListenerContainerFactoryCondition extends AnyNestedCondition {
+
+        ListenerContainerFactoryCondition() {
+            super(ConfigurationPhase.PARSE_CONFIGURATION);
+        }
+
+        @ConditionalOnJava(JavaVersion.TWENTY_ONE)
+        @ConditionalOnProperty(prefix = "amqphub.amqp10jms.listener", name = "virtual-threads", havingValue = "true")
+        static class VirtualThreads {
+        }
+
+        @ConditionalOnProperty(prefix = "amqphub.amqp10jms.consumer-pool", name = "enabled", havingValue = "true")
+        static class ConsumerPool {
+        }
+
+        @ConditionalOnProperty(prefix = "amqphub.amqp10jms.listener.commit-interval", name = "enabled", havingValue = "true")
+        static class CommitInterval {
+        }
+    }
+}
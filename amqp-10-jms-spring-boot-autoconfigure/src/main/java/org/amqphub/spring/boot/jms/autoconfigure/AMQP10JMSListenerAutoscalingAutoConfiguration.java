@@ -0,0 +1,103 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.annotation.EnableJms;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.observation.ObservationHandler;
+
+/**
+ * Auto Configuration class that creates the {@link AMQP10JMSConcurrencyAutoscaler} which sizes the consumers
+ * of the queue listener containers from the queue backlog and the listener processing time when enabled using
+ * the {@code amqphub.amqp10jms.listener.autoscaling.enabled} property.
+ * <p>
+ * The backlog is read from the AMQP management node of the remote peer unless the application provides its
+ * own {@link AMQP10JMSBacklogProvider} bean. Listener processing time is reported to the autoscaler by an
+ * observation handler which the observation registry applies to the listener containers. When connection
+ * pooling is enabled the maximum consumers are bounded by the sessions per connection limit of the pool the
+ * listeners consume from, as the consumers of a listener container share a single connection.
+ *
+ * @see AMQP10JMSProperties.Listener.Autoscaling
+ */
+@AutoConfiguration(after = { AMQP10JMSAutoConfiguration.class, JmsAutoConfiguration.class })
+@ConditionalOnClass({ EnableJms.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+@ConditionalOnProperty(prefix = "amqphub.amqp10jms.listener.autoscaling", name = "enabled", havingValue = "true")
+public class AMQP10JMSListenerAutoscalingAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    AMQP10JMSBacklogProvider amqp10jmsBacklogProvider(JmsTemplate jmsTemplate, AMQP10JMSProperties properties,
+                                                      ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers) {
+        final AMQP10JMSProperties.Listener.Autoscaling autoscaling = properties.getListener().getAutoscaling();
+        final AMQP10JMSManagementBacklogProvider provider =
+            new AMQP10JMSManagementBacklogProvider(jmsTemplate, autoscaling.getManagementTimeout(),
+                                                   autoscaling.getManagementEntityType(),
+                                                   autoscaling.getManagementDepthAttribute());
+
+        provider.setReplyConnectionFactory(AMQP10JMSTemplateAutoConfiguration.createReplyConnectionFactory(properties, factoryCustomizers));
+
+        return provider;
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    AMQP10JMSConcurrencyAutoscaler amqp10jmsConcurrencyAutoscaler(JmsListenerEndpointRegistry registry,
+                                                                  AMQP10JMSBacklogProvider backlogProvider,
+                                                                  AMQP10JMSProperties properties) {
+        final AMQP10JMSProperties.Listener.Autoscaling autoscaling = properties.getListener().getAutoscaling();
+        final int maxConsumers = poolBoundedMaxConsumers(properties);
+
+        return new AMQP10JMSConcurrencyAutoscaler(registry, backlogProvider, Math.min(autoscaling.getMin(), maxConsumers),
+                                                  maxConsumers, autoscaling.getTargetDrainTime(), autoscaling.getPollInterval());
+    }
+
+    static int poolBoundedMaxConsumers(AMQP10JMSProperties properties) {
+        final AMQP10JMSJmsPoolConnectionFactoryProperties pool =
+            properties.getConsumerPool().isEnabled() ? properties.getConsumerPool() : properties.getPool();
+        final int maxConsumers = properties.getListener().getAutoscaling().getMax();
+
+        if (!pool.isEnabled() || pool.getMaxSessionsPerConnection() <= 0) {
+            return maxConsumers;
+        }
+
+        return Math.min(maxConsumers, pool.getMaxSessionsPerConnection());
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass({ ObservationHandler.class, JmsProcessObservationContext.class })
+    static class ObservationConfiguration {
+
+        @Bean
+        AMQP10JMSConcurrencyAutoscalerObservationHandler amqp10jmsConcurrencyAutoscalerObservationHandler(AMQP10JMSConcurrencyAutoscaler autoscaler) {
+            return new AMQP10JMSConcurrencyAutoscalerObservationHandler(autoscaler);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.util.Assert;
+
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.MapMessage;
+import jakarta.jms.Message;
+import jakarta.jms.ObjectMessage;
+
+/**
+ * {@link AMQP10JMSBacklogProvider} that reads the depth of a queue from the AMQP management node of
+ * the remote peer. A READ request naming the queue and the configured entity type is sent to the
+ * {@code $management} node and the depth is taken from the configured attribute of the reply.
+ * <p>
+ * The entity type and attribute names are defined by each broker, the defaults match the queue entity
+ * of Qpid Broker-J. Brokers that do not offer an AMQP management node, or that reject the request,
+ * leave the backlog unknown.
+ * <p>
+ * The provider holds a reply connection open between requests and should be closed once it is no longer
+ * used, when created as a bean the application context closes it on shutdown.
+ */
+public class AMQP10JMSManagementBacklogProvider implements AMQP10JMSBacklogProvider, AutoCloseable {
+
+    public static final String MANAGEMENT_NODE_ADDRESS = "$management";
+
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSManagementBacklogProvider.class);
+
+    private static final int STATUS_OK = 200;
+
+    private final AMQP10JMSRequestReplyTemplate requestReplyTemplate;
+    private final String entityType;
+    private final String depthAttribute;
+
+    /**
+     * Create a new provider.
+     *
+     * @param jmsTemplate
+     *      the {@link JmsTemplate} used to send management requests.
+     * @param replyTimeout
+     *      the time each request waits for the reply of the management node.
+     * @param entityType
+     *      the management entity type of a queue.
+     * @param depthAttribute
+     *      the name of the queue attribute that holds the number of messages on the queue.
+     */
+    public AMQP10JMSManagementBacklogProvider(JmsTemplate jmsTemplate, Duration replyTimeout, String entityType, String depthAttribute) {
+        Assert.hasText(entityType, "Entity type must not be empty");
+        Assert.hasText(depthAttribute, "Depth attribute must not be empty");
+
+        this.requestReplyTemplate = new AMQP10JMSRequestReplyTemplate(jmsTemplate, replyTimeout);
+        this.entityType = entityType;
+        this.depthAttribute = depthAttribute;
+    }
+
+    /**
+     * Sets the connection factory the reply connection is created from.
+     *
+     * @param replyConnectionFactory
+     *      The connection factory the reply connection is created from or null to use the target of
+     *      the {@link JmsTemplate}'s connection factory.
+     *
+     * @see AMQP10JMSRequestReplyTemplate#setReplyConnectionFactory(ConnectionFactory)
+     */
+    public void setReplyConnectionFactory(ConnectionFactory replyConnectionFactory) {
+        requestReplyTemplate.setReplyConnectionFactory(replyConnectionFactory);
+    }
+
+    @Override
+    public long getBacklog(String queueName) {
+        try {
+            final Message reply = requestReplyTemplate.sendAndReceive(MANAGEMENT_NODE_ADDRESS, (session) -> {
+                final Message request = session.createMessage();
+                request.setStringProperty("operation", "READ");
+                request.setStringProperty("type", entityType);
+                request.setStringProperty("name", queueName);
+                return request;
+            }).join();
+
+            return depthOf(reply, queueName);
+        } catch (CompletionException | JmsException | JMSException ex) {
+            final Throwable cause = ex instanceof CompletionException && ex.getCause() != null ? ex.getCause() : ex;
+            LOG.debug("Could not read the depth of queue {} from the management node: {}", queueName, cause.toString());
+            return -1;
+        }
+    }
+
+    /**
+     * Closes the reply consumer of the management requests.
+     */
+    @Override
+    public void close() {
+        requestReplyTemplate.close();
+    }
+
+    private long depthOf(Message reply, String queueName) throws JMSException {
+        if (reply.propertyExists("statusCode") && reply.getIntProperty("statusCode") != STATUS_OK) {
+            LOG.debug("Management node rejected the read of queue {} with status {}", queueName, reply.getIntProperty("statusCode"));
+            return -1;
+        }
+
+        final Object depth;
+        if (reply instanceof MapMessage) {
+            depth = ((MapMessage) reply).getObject(depthAttribute);
+        } else if (reply instanceof ObjectMessage && ((ObjectMessage) reply).getObject() instanceof Map) {
+            depth = ((Map<?, ?>) ((ObjectMessage) reply).getObject()).get(depthAttribute);
+        } else {
+            depth = null;
+        }
+
+        return depth instanceof Number ? ((Number) depth).longValue() : -1;
+    }
+}
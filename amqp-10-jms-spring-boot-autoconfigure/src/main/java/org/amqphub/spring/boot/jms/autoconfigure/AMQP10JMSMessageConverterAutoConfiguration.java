@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.List;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.policy.JmsDeserializationPolicy;
+import org.springframework.beans.factory.BeanFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jms.annotation.JmsListenerConfigurer;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Auto Configuration class that provides the {@link MessageConverter} used by the JmsTemplate and
+ * the listener containers created for the AMQP 1.0 JMS connection factory.
+ * <p>
+ * When compression is enabled an {@link AMQP10JMSCompressingMessageConverter} is registered as the
+ * primary message converter, it decorates the single other message converter bean or a
+ * {@link SimpleMessageConverter} when there is none.
+ * <p>
+ * When buffer conversion is enabled an {@link AMQP10JMSByteBufferMessageConverter} replaces the default
+ * message converter and {@link ByteBuf} and ByteBuffer listener method parameters are resolved by an
+ * {@link AMQP10JMSByteBufferArgumentResolver}, unless the application configures its own message
+ * handler method factory.
+ * <p>
+ * When serialization is enabled and Kryo is on the classpath an {@link AMQP10JMSKryoMessageConverter}
+ * replaces the default message converter, trusting the types allowed by the deserialization policy
+ * configured by the {@code amqphub.amqp10jms.deserialization-policy} properties and the remote URL.
+ * Other objects are converted by the buffer converter when that is enabled or otherwise by a
+ * {@link SimpleMessageConverter}.
+ *
+ * @see AMQP10JMSProperties.Compression
+ * @see AMQP10JMSProperties.ByteBuffers
+ * @see AMQP10JMSProperties.Serialization
+ */
+@AutoConfiguration(before = JmsAutoConfiguration.class, after = AMQP10JMSAutoConfiguration.class)
+@ConditionalOnClass({ MessageConverter.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+public class AMQP10JMSMessageConverterAutoConfiguration {
+
+    // Member configurations are processed before the bean methods below, so the buffer converter
+    // backs off in favor of the Kryo converter which then delegates to one of its own
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.esotericsoftware.kryo.Kryo")
+    @ConditionalOnProperty(prefix = "amqphub.amqp10jms.serialization", name = "enabled", havingValue = "true")
+    static class KryoConfiguration {
+
+        @Bean
+        @ConditionalOnMissingBean(value = MessageConverter.class, ignored = AMQP10JMSCompressingMessageConverter.class)
+        AMQP10JMSKryoMessageConverter amqp10jmsKryoMessageConverter(AMQP10JMSProperties properties) {
+            final JmsDeserializationPolicy deserializationPolicy = AMQP10JMSConnectionFactoryFactory.createDeserializationPolicy(properties);
+            final MessageConverter delegate = properties.getByteBuffers().isEnabled() ?
+                new AMQP10JMSByteBufferMessageConverter() : new SimpleMessageConverter();
+
+            return new AMQP10JMSKryoMessageConverter(delegate, deserializationPolicy, properties.getSerialization().getRegisteredTypes());
+        }
+    }
+
+    @Bean
+    @ConditionalOnMissingBean(value = MessageConverter.class, ignored = AMQP10JMSCompressingMessageConverter.class)
+    @ConditionalOnProperty(prefix = "amqphub.amqp10jms.byte-buffers", name = "enabled", havingValue = "true")
+    AMQP10JMSByteBufferMessageConverter amqp10jmsByteBufferMessageConverter() {
+        return new AMQP10JMSByteBufferMessageConverter();
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "amqphub.amqp10jms.byte-buffers", name = "enabled", havingValue = "true")
+    JmsListenerConfigurer amqp10jmsByteBufferListenerConfigurer(BeanFactory beanFactory) {
+        return (registrar) -> {
+            // Application configurers are applied first and take precedence
+            if (registrar.getMessageHandlerMethodFactory() == null) {
+                final DefaultMessageHandlerMethodFactory factory = new DefaultMessageHandlerMethodFactory();
+                factory.setCustomArgumentResolvers(List.of(new AMQP10JMSByteBufferArgumentResolver()));
+                factory.setBeanFactory(beanFactory);
+                factory.afterPropertiesSet();
+
+                registrar.setMessageHandlerMethodFactory(factory);
+            }
+        };
+    }
+
+    @Bean
+    @Primary
+    @ConditionalOnMissingBean(AMQP10JMSCompressingMessageConverter.class)
+    @ConditionalOnProperty(prefix = "amqphub.amqp10jms.compression", name = "enabled", havingValue = "true")
+    AMQP10JMSCompressingMessageConverter amqp10jmsCompressingMessageConverter(AMQP10JMSProperties properties, ObjectProvider<MessageConverter> messageConverters) {
+        // The stream excludes this bean so only the converter being decorated is seen
+        final List<MessageConverter> candidates = messageConverters.orderedStream().toList();
+        final MessageConverter delegate = candidates.size() == 1 ? candidates.get(0) : new SimpleMessageConverter();
+
+        return new AMQP10JMSCompressingMessageConverter(delegate,
+                                                        properties.getCompression().getCodec(),
+                                                        properties.getCompression().getThreshold().toBytes(),
+                                                        properties.getCompression().getMaxDecompressedSize().toBytes());
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.jms.autoconfigure.DefaultJmsListenerContainerFactoryConfigurer;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.jms.autoconfigure.JmsProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jms.annotation.EnableJms;
+
+import jakarta.jms.ConnectionFactory;
+
+/**
+ * Auto Configuration class that creates the {@link AMQP10JMSPartitionedListenerContainerFactory} named
+ * {@value #PARTITIONED_LISTENER_CONTAINER_FACTORY_BEAN_NAME} for the connection factory created by the
+ * AMQP 1.0 JMS auto configuration. A {@code @JmsListener} method that names the factory as its
+ * {@code containerFactory} processes messages in parallel across partition keys and in order for each
+ * key as configured by the {@code amqphub.amqp10jms.listener.partitioned} properties.
+ *
+ * @see AMQP10JMSProperties.Listener.Partitioned
+ */
+@AutoConfiguration(after = { AMQP10JMSAutoConfiguration.class, JmsAutoConfiguration.class })
+@ConditionalOnClass({ EnableJms.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+public class AMQP10JMSPartitionedListenerAutoConfiguration {
+
+    public static final String PARTITIONED_LISTENER_CONTAINER_FACTORY_BEAN_NAME = "amqp10JmsPartitionedListenerContainerFactory";
+
+    @Bean(name = PARTITIONED_LISTENER_CONTAINER_FACTORY_BEAN_NAME)
+    @ConditionalOnMissingBean(name = PARTITIONED_LISTENER_CONTAINER_FACTORY_BEAN_NAME)
+    AMQP10JMSPartitionedListenerContainerFactory amqp10JmsPartitionedListenerContainerFactory(DefaultJmsListenerContainerFactoryConfigurer configurer,
+                                                                                              ConnectionFactory connectionFactory,
+                                                                                              @Qualifier(AMQP10JMSConnectionFactoryConfiguration.CONSUMER_CONNECTION_FACTORY_BEAN_NAME)
+                                                                                              ObjectProvider<ConnectionFactory> consumerConnectionFactory,
+                                                                                              AMQP10JMSProperties properties,
+                                                                                              JmsProperties jmsProperties) {
+        final AMQP10JMSProperties.Listener.Partitioned partitioned = properties.getListener().getPartitioned();
+        final AMQP10JMSPartitionedListenerContainerFactory factory = new AMQP10JMSPartitionedListenerContainerFactory();
+
+        AMQP10JMSListenerAutoConfiguration.configureFactory(factory, configurer, connectionFactory,
+                                                            consumerConnectionFactory, properties, jmsProperties);
+
+        factory.setLanes(partitioned.getLanes());
+        factory.setLaneCapacity(partitioned.getLaneCapacity());
+        factory.setPartitionProperty(partitioned.getPartitionProperty());
+
+        return factory;
+    }
+}
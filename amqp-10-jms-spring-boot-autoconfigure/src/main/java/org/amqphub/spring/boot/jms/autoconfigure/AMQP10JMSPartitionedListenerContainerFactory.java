@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsSession;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.util.Assert;
+
+/**
+ * {@link DefaultJmsListenerContainerFactory} that creates {@link AMQP10JMSPartitionedMessageListenerContainer}
+ * instances. The created containers always run a single consumer with the individual acknowledge mode,
+ * overriding any concurrency, transaction or acknowledge mode settings of the factory.
+ */
+public class AMQP10JMSPartitionedListenerContainerFactory extends DefaultJmsListenerContainerFactory {
+
+    private Integer lanes;
+    private Integer laneCapacity;
+    private String partitionProperty;
+
+    /**
+     * @param lanes
+     *      the number of lanes messages are partitioned over.
+     */
+    public void setLanes(Integer lanes) {
+        Assert.isTrue(lanes == null || lanes > 0, "Lanes must be greater than zero");
+        this.lanes = lanes;
+    }
+
+    /**
+     * @param laneCapacity
+     *      the maximum number of messages each lane holds, including the message it is processing.
+     */
+    public void setLaneCapacity(Integer laneCapacity) {
+        Assert.isTrue(laneCapacity == null || laneCapacity > 0, "Lane capacity must be greater than zero");
+        this.laneCapacity = laneCapacity;
+    }
+
+    /**
+     * @param partitionProperty
+     *      the name of the message property whose value partitions messages over the lanes.
+     */
+    public void setPartitionProperty(String partitionProperty) {
+        this.partitionProperty = partitionProperty;
+    }
+
+    @Override
+    protected DefaultMessageListenerContainer createContainerInstance() {
+        return new AMQP10JMSPartitionedMessageListenerContainer();
+    }
+
+    @Override
+    protected void initializeContainer(DefaultMessageListenerContainer container) {
+        super.initializeContainer(container);
+
+        final AMQP10JMSPartitionedMessageListenerContainer partitionedContainer =
+            (AMQP10JMSPartitionedMessageListenerContainer) container;
+
+        partitionedContainer.setConcurrency("1");
+        partitionedContainer.setSessionTransacted(false);
+        partitionedContainer.setSessionAcknowledgeMode(JmsSession.INDIVIDUAL_ACKNOWLEDGE);
+
+        if (lanes != null) {
+            partitionedContainer.setLanes(lanes);
+        }
+        if (laneCapacity != null) {
+            partitionedContainer.setLaneCapacity(laneCapacity);
+        }
+        if (partitionProperty != null) {
+            partitionedContainer.setPartitionProperty(partitionProperty);
+        }
+    }
+}
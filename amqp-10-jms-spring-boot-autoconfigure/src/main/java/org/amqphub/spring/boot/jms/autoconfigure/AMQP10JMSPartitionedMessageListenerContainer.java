@@ -0,0 +1,456 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.apache.qpid.jms.JmsSession;
+import org.springframework.jms.connection.JmsResourceHolder;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.SessionAwareMessageListener;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import io.micrometer.observation.Observation;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+
+/**
+ * Listener container that reads from a single consumer and hands each message to one of a number of
+ * lanes chosen from a hash of the message's partition key, the {@code JMSXGroupID} unless another message
+ * property is configured. Each lane invokes the listener from its own thread one message at a time, so
+ * that messages with the same key are processed in the order they were received while messages with
+ * different keys are processed in parallel. Messages without a partition key are spread over the lanes.
+ * <p>
+ * Each lane holds a bounded number of messages and the consumer waits for space in a lane before
+ * handing it another message, which bounds the messages held by the container and applies backpressure
+ * to the consumer. The session uses the Qpid JMS individual acknowledge mode and each message is
+ * acknowledged individually once the listener has processed it. Should the listener fail the lanes skip
+ * their remaining messages, and once every lane is idle the session is recovered such that the failed
+ * message and all unacknowledged messages are redelivered in their original order.
+ * <p>
+ * As a JMS session must not be used by several threads at once, the consumer session is only used while
+ * holding a lock: the consumer holds it while receiving and dispatching, and the lanes queue the messages
+ * they have processed and acknowledge them only when the lock is free, otherwise the consumer acknowledges
+ * them before its next receive. Listeners that are given a session are invoked with a session of their
+ * lane created on the shared connection, never with the consumer session, and the session of the lane is
+ * likewise exposed to the {@code JmsTemplate} operations of the listener. Each invocation is observed as a
+ * {@code jms.message.process} observation. Messages a lane starts once the container has stopped are
+ * rejected and redelivered once the container is started again. On shutdown the lanes skip the messages
+ * they have not yet started, which are redelivered, and the messages already processed are acknowledged
+ * before the consumer session is closed.
+ * <p>
+ * The container always runs a single consumer, the lane count determines its parallelism.
+ */
+public class AMQP10JMSPartitionedMessageListenerContainer extends DefaultMessageListenerContainer {
+
+    static final String THREAD_NAME_PREFIX = "amqp10jms-lane-";
+
+    private static final String DEFAULT_PARTITION_PROPERTY = "JMSXGroupID";
+
+    private int lanes = Runtime.getRuntime().availableProcessors();
+    private int laneCapacity = 100;
+    private String partitionProperty = DEFAULT_PARTITION_PROPERTY;
+
+    private final Object laneMonitor = new Object();
+    private final AtomicReference<Throwable> laneFailure = new AtomicReference<>();
+
+    // Guards every use of the consumer session, the lanes only acknowledge when it is free
+    private final ReentrantLock sessionLock = new ReentrantLock();
+    private final Queue<Message> processed = new ConcurrentLinkedQueue<>();
+
+    private volatile Lane[] activeLanes;
+    private volatile boolean draining;
+    private int nextUnkeyedLane;
+
+    public AMQP10JMSPartitionedMessageListenerContainer() {
+        setCacheLevel(CACHE_CONSUMER);
+        setConcurrentConsumers(1);
+        setSessionTransacted(false);
+        setSessionAcknowledgeMode(JmsSession.INDIVIDUAL_ACKNOWLEDGE);
+    }
+
+    /**
+     * @return the number of lanes messages are partitioned over.
+     */
+    public int getLanes() {
+        return lanes;
+    }
+
+    /**
+     * @param lanes
+     *      the number of lanes messages are partitioned over.
+     */
+    public void setLanes(int lanes) {
+        Assert.isTrue(lanes > 0, "Lanes must be greater than zero");
+        this.lanes = lanes;
+    }
+
+    /**
+     * @return the maximum number of messages each lane holds, including the message it is processing.
+     */
+    public int getLaneCapacity() {
+        return laneCapacity;
+    }
+
+    /**
+     * @param laneCapacity
+     *      the maximum number of messages each lane holds, including the message it is processing.
+     */
+    public void setLaneCapacity(int laneCapacity) {
+        Assert.isTrue(laneCapacity > 0, "Lane capacity must be greater than zero");
+        this.laneCapacity = laneCapacity;
+    }
+
+    /**
+     * @return the name of the message property whose value partitions messages over the lanes.
+     */
+    public String getPartitionProperty() {
+        return partitionProperty;
+    }
+
+    /**
+     * @param partitionProperty
+     *      the name of the message property whose value partitions messages over the lanes.
+     */
+    public void setPartitionProperty(String partitionProperty) {
+        Assert.hasText(partitionProperty, "Partition property must not be empty");
+        this.partitionProperty = partitionProperty;
+    }
+
+    @Override
+    protected void validateConfiguration() {
+        super.validateConfiguration();
+
+        Assert.state(getMaxConcurrentConsumers() == 1, "Partitioned listener containers run a single consumer");
+        Assert.state(!isSessionTransacted() && getSessionAcknowledgeMode() == JmsSession.INDIVIDUAL_ACKNOWLEDGE,
+                     "Partitioned listener containers require the individual acknowledge mode");
+        Assert.state(getCacheLevel() >= CACHE_CONSUMER, "Partitioned listener containers must cache their consumers");
+    }
+
+    @Override
+    protected boolean doReceiveAndExecute(Object invoker, Session session, MessageConsumer consumer, TransactionStatus status) throws JMSException {
+        Assert.state(session != null && consumer != null, "Partitioned listener containers must cache their consumers");
+
+        if (draining) {
+            awaitShutdown();
+            return false;
+        }
+
+        sessionLock.lock();
+        try {
+            return receiveAndDispatch(invoker, session, consumer);
+        } finally {
+            sessionLock.unlock();
+            acknowledgeProcessedIfPossible();
+        }
+    }
+
+    /**
+     * Stops the lanes from starting further messages and waits for the messages they are processing,
+     * so that the messages already processed are acknowledged before the consumer session is closed.
+     */
+    @Override
+    public void shutdown() {
+        draining = true;
+
+        final Lane[] active = activeLanes;
+        if (active != null) {
+            try {
+                for (Lane lane : active) {
+                    lane.awaitIdle();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        // Should the consumer hold the session it acknowledges the processed messages before it closes it
+        acknowledgeProcessedIfPossible();
+
+        super.shutdown();
+    }
+
+    @Override
+    protected void doShutdown() throws JMSException {
+        synchronized (laneMonitor) {
+            // The container is no longer active, wakes the invokers that super.doShutdown() waits for
+            laneMonitor.notifyAll();
+        }
+
+        try {
+            super.doShutdown();
+        } finally {
+            synchronized (laneMonitor) {
+                final Lane[] active = activeLanes;
+                if (active != null) {
+                    for (Lane lane : active) {
+                        lane.close();
+                    }
+                }
+
+                activeLanes = null;
+                processed.clear();
+                laneFailure.set(null);
+                draining = false;
+            }
+        }
+    }
+
+    static int laneOf(Object key, int lanes) {
+        return Math.floorMod(key.hashCode(), lanes);
+    }
+
+    private boolean receiveAndDispatch(Object invoker, Session session, MessageConsumer consumer) throws JMSException {
+        acknowledgeProcessed();
+
+        final Lane[] active = getActiveLanes();
+
+        if (draining || !recoverFailedLanes(session, active)) {
+            return false;
+        }
+
+        final Message message = receiveMessage(consumer);
+
+        if (message == null) {
+            if (invoker != null) {
+                noMessageReceived(invoker, session);
+            }
+            return false;
+        }
+
+        if (invoker != null) {
+            messageReceived(invoker, session);
+        }
+
+        if (draining) {
+            // The undispatched message is redelivered once the session is closed
+            return true;
+        }
+
+        final Object key = message.getObjectProperty(partitionProperty);
+        final int lane;
+
+        if (key != null) {
+            lane = laneOf(key, active.length);
+        } else {
+            lane = nextUnkeyedLane;
+            nextUnkeyedLane = (nextUnkeyedLane + 1) % active.length;
+        }
+
+        try {
+            active[lane].dispatch(session, message);
+        } catch (InterruptedException ex) {
+            // The undispatched message is redelivered once the session is recovered or closed
+            Thread.currentThread().interrupt();
+        }
+
+        return true;
+    }
+
+    private void awaitShutdown() {
+        synchronized (laneMonitor) {
+            try {
+                // Woken by doShutdown() once the container is no longer active
+                while (draining && isActive()) {
+                    laneMonitor.wait();
+                }
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private Lane[] getActiveLanes() {
+        final Lane[] active = activeLanes;
+        if (active != null) {
+            return active;
+        }
+
+        synchronized (laneMonitor) {
+            if (activeLanes == null) {
+                final ThreadFactory threadFactory = new CustomizableThreadFactory(THREAD_NAME_PREFIX);
+                final Lane[] created = new Lane[lanes];
+
+                for (int i = 0; i < created.length; ++i) {
+                    created[i] = new Lane(threadFactory, laneCapacity);
+                }
+
+                activeLanes = created;
+            }
+
+            return activeLanes;
+        }
+    }
+
+    private boolean recoverFailedLanes(Session session, Lane[] active) throws JMSException {
+        if (laneFailure.get() == null) {
+            return true;
+        }
+
+        try {
+            for (Lane lane : active) {
+                lane.awaitIdle();
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+
+        // Redelivers the failed message and every unacknowledged message after it in their original order
+        acknowledgeProcessed();
+        session.recover();
+        laneFailure.set(null);
+
+        return true;
+    }
+
+    private void acknowledgeProcessed() throws JMSException {
+        Message message;
+        while ((message = processed.poll()) != null) {
+            message.acknowledge();
+        }
+    }
+
+    private void acknowledgeProcessedIfPossible() {
+        // Checked again once the lock is released as a message may have been queued while it was held
+        while (!processed.isEmpty() && sessionLock.tryLock()) {
+            try {
+                acknowledgeProcessed();
+            } catch (JMSException ex) {
+                logger.debug("Could not acknowledge processed messages: " + ex.getMessage());
+                return;
+            } finally {
+                sessionLock.unlock();
+            }
+        }
+    }
+
+    private final class Lane {
+
+        private final ExecutorService executor;
+        private final Semaphore permits;
+        private final int capacity;
+
+        // Only used by the lane thread to invoke listeners that are given a session
+        private Session listenerSession;
+        private Connection listenerConnection;
+
+        Lane(ThreadFactory threadFactory, int capacity) {
+            this.executor = Executors.newSingleThreadExecutor(threadFactory);
+            this.permits = new Semaphore(capacity);
+            this.capacity = capacity;
+        }
+
+        void dispatch(Session session, Message message) throws InterruptedException {
+            permits.acquire();
+
+            try {
+                executor.execute(() -> process(session, message));
+            } catch (RejectedExecutionException ex) {
+                permits.release();
+                throw ex;
+            }
+        }
+
+        void awaitIdle() throws InterruptedException {
+            permits.acquire(capacity);
+            permits.release(capacity);
+        }
+
+        void close() {
+            executor.shutdownNow();
+            JmsUtils.closeSession(listenerSession);
+        }
+
+        private void process(Session session, Message message) {
+            try {
+                // Once a lane has failed or the container is shutting down the remaining messages are left for redelivery
+                if (laneFailure.get() == null && !draining) {
+                    executeObserved(session, message);
+                    processed.add(message);
+                }
+            } catch (Throwable ex) {
+                laneFailure.compareAndSet(null, ex);
+                handleListenerException(ex);
+            } finally {
+                // Acknowledged before the permit is released so that an idle lane has nothing left to acknowledge
+                acknowledgeProcessedIfPossible();
+                permits.release();
+            }
+        }
+
+        /**
+         * Executes the listener like the polling containers do for each message, rejecting the message once the
+         * container has stopped, within a {@code jms.message.process} observation and with the session of the
+         * lane exposed to the {@code JmsTemplate} operations of the listener.
+         */
+        private void executeObserved(Session consumerSession, Message message) throws JMSException {
+            final Session session = listenerSession(consumerSession);
+            final ConnectionFactory connectionFactory = obtainConnectionFactory();
+            final boolean exposeResource = isExposeListenerSession() && session != consumerSession && !TransactionSynchronizationManager.hasResource(connectionFactory);
+            final Observation observation = createObservation(message).start();
+
+            if (exposeResource) {
+                TransactionSynchronizationManager.bindResource(connectionFactory, new JmsResourceHolder(session));
+            }
+
+            try (Observation.Scope scope = observation.openScope()) {
+                doExecuteListener(session, message);
+            } catch (JMSException | RuntimeException | Error ex) {
+                observation.error(ex);
+                throw ex;
+            } finally {
+                if (exposeResource) {
+                    TransactionSynchronizationManager.unbindResource(connectionFactory);
+                }
+                observation.stop();
+            }
+        }
+
+        private Session listenerSession(Session consumerSession) throws JMSException {
+            if (!(getMessageListener() instanceof SessionAwareMessageListener) && !isExposeListenerSession()) {
+                // Plain message listeners are never given the session, which is only read to settle the message
+                return consumerSession;
+            }
+
+            final Connection connection = getSharedConnection();
+            if (listenerSession == null || listenerConnection != connection) {
+                JmsUtils.closeSession(listenerSession);
+                listenerSession = createSession(connection);
+                listenerConnection = connection;
+            }
+
+            return listenerSession;
+        }
+    }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.apache.qpid.jms.JmsDestination;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * {@link JmsPrefetchPolicy} that extends the Qpid JMS default policy with prefetch values
+ * assigned to destinations by name pattern. A value assigned to the exact address of the
+ * consumer destination takes precedence, otherwise the most specific matching pattern, the one
+ * with the fewest wildcards and then the most characters, determines the prefetch. When no
+ * pattern matches the per type defaults apply.
+ */
+public class AMQP10JMSPrefetchPolicy extends JmsDefaultPrefetchPolicy {
+
+    private final Map<String, Integer> destinationPrefetch = new LinkedHashMap<>();
+
+    public AMQP10JMSPrefetchPolicy() {
+    }
+
+    /**
+     * Creates a new policy that starts from the values of the given default policy.
+     *
+     * @param source
+     *      The policy whose per type prefetch values are copied.
+     */
+    public AMQP10JMSPrefetchPolicy(JmsDefaultPrefetchPolicy source) {
+        super(source);
+
+        if (source instanceof AMQP10JMSPrefetchPolicy) {
+            destinationPrefetch.putAll(((AMQP10JMSPrefetchPolicy) source).destinationPrefetch);
+        }
+    }
+
+    @Override
+    public AMQP10JMSPrefetchPolicy copy() {
+        return new AMQP10JMSPrefetchPolicy(this);
+    }
+
+    @Override
+    public int getConfiguredPrefetch(JmsSession session, JmsDestination destination, boolean durable, boolean browser) {
+        if (destination != null && destination.getAddress() != null) {
+            Integer prefetch = getDestinationPrefetch(destination.getAddress());
+            if (prefetch != null) {
+                return prefetch;
+            }
+        }
+
+        return super.getConfiguredPrefetch(session, destination, durable, browser);
+    }
+
+    private Integer getDestinationPrefetch(String address) {
+        Integer exact = destinationPrefetch.get(address);
+        if (exact != null) {
+            return exact;
+        }
+
+        String bestPattern = null;
+        Integer bestPrefetch = null;
+
+        for (Map.Entry<String, Integer> entry : destinationPrefetch.entrySet()) {
+            if (PatternMatchUtils.simpleMatch(entry.getKey(), address) &&
+                (bestPattern == null || isMoreSpecific(entry.getKey(), bestPattern))) {
+                bestPattern = entry.getKey();
+                bestPrefetch = entry.getValue();
+            }
+        }
+
+        return bestPrefetch;
+    }
+
+    private static boolean isMoreSpecific(String pattern, String other) {
+        int wildcards = countWildcards(pattern);
+        int otherWildcards = countWildcards(other);
+
+        if (wildcards != otherWildcards) {
+            return wildcards < otherWildcards;
+        }
+
+        // Equally specific patterns keep the one given first
+        return pattern.length() > other.length();
+    }
+
+    private static int countWildcards(String pattern) {
+        int count = 0;
+        for (int i = 0; i < pattern.length(); i++) {
+            if (pattern.charAt(i) == '*') {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    /**
+     * Assigns a prefetch value to all destinations whose name matches the given pattern.
+     *
+     * @param pattern
+     *      The destination name pattern which may use '*' wildcards.
+     * @param prefetch
+     *      The prefetch value to use for consumers of matching destinations.
+     */
+    public void setDestinationPrefetch(String pattern, int prefetch) {
+        destinationPrefetch.put(pattern, prefetch);
+    }
+
+    /**
+     * @return an unmodifiable view of the prefetch values keyed by destination name pattern.
+     */
+    public Map<String, Integer> getDestinationPrefetch() {
+        return Collections.unmodifiableMap(destinationPrefetch);
+    }
+}
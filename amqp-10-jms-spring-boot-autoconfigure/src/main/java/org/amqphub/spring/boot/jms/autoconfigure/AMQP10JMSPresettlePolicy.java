@@ -0,0 +1,130 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.qpid.jms.JmsDestination;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.policy.JmsDefaultPresettlePolicy;
+import org.apache.qpid.jms.policy.JmsPresettlePolicy;
+import org.springframework.util.PatternMatchUtils;
+
+/**
+ * {@link JmsPresettlePolicy} that extends the Qpid JMS default policy with presettled producers
+ * and consumers selected by destination name pattern. Consumers in transacted sessions are never
+ * presettled and producers in transacted sessions only when transacted producers are presettled.
+ */
+public class AMQP10JMSPresettlePolicy extends JmsDefaultPresettlePolicy {
+
+    private final List<String> producerDestinations = new ArrayList<>();
+    private final List<String> consumerDestinations = new ArrayList<>();
+
+    public AMQP10JMSPresettlePolicy() {
+    }
+
+    /**
+     * Creates a new policy that starts from the values of the given default policy.
+     *
+     * @param source
+     *      The policy whose presettle options are copied.
+     */
+    public AMQP10JMSPresettlePolicy(JmsDefaultPresettlePolicy source) {
+        super(source);
+
+        if (source instanceof AMQP10JMSPresettlePolicy) {
+            producerDestinations.addAll(((AMQP10JMSPresettlePolicy) source).producerDestinations);
+            consumerDestinations.addAll(((AMQP10JMSPresettlePolicy) source).consumerDestinations);
+        }
+    }
+
+    @Override
+    public AMQP10JMSPresettlePolicy copy() {
+        return new AMQP10JMSPresettlePolicy(this);
+    }
+
+    @Override
+    public boolean isProducerPresttled(JmsSession session, JmsDestination destination) {
+        if (super.isProducerPresttled(session, destination)) {
+            return true;
+        }
+
+        if (session != null && session.isTransacted() && !isPresettleTransactedProducers()) {
+            return false;
+        }
+
+        return matches(producerDestinations, destination);
+    }
+
+    @Override
+    public boolean isConsumerPresttled(JmsSession session, JmsDestination destination) {
+        if (super.isConsumerPresttled(session, destination)) {
+            return true;
+        }
+
+        if (session != null && session.isTransacted()) {
+            return false;
+        }
+
+        return matches(consumerDestinations, destination);
+    }
+
+    /**
+     * Adds destination name patterns whose producers send presettled messages.
+     *
+     * @param patterns
+     *      The destination name patterns which may use '*' wildcards.
+     */
+    public void addProducerDestinations(Collection<String> patterns) {
+        producerDestinations.addAll(patterns);
+    }
+
+    /**
+     * Adds destination name patterns whose non-transacted consumers receive presettled messages.
+     *
+     * @param patterns
+     *      The destination name patterns which may use '*' wildcards.
+     */
+    public void addConsumerDestinations(Collection<String> patterns) {
+        consumerDestinations.addAll(patterns);
+    }
+
+    /**
+     * @return an unmodifiable view of the presettled producer destination patterns.
+     */
+    public List<String> getProducerDestinations() {
+        return Collections.unmodifiableList(producerDestinations);
+    }
+
+    /**
+     * @return an unmodifiable view of the presettled consumer destination patterns.
+     */
+    public List<String> getConsumerDestinations() {
+        return Collections.unmodifiableList(consumerDestinations);
+    }
+
+    private static boolean matches(List<String> patterns, JmsDestination destination) {
+        if (destination == null || destination.getAddress() == null || patterns.isEmpty()) {
+            return false;
+        }
+
+        return PatternMatchUtils.simpleMatch(patterns.toArray(new String[0]), destination.getAddress());
+    }
+}
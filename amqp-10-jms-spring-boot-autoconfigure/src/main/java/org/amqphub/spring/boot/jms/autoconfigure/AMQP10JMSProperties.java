@@ -16,10 +16,17 @@
  */
 package org.amqphub.spring.boot.jms.autoconfigure;
 
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.context.properties.NestedConfigurationProperty;
+import org.springframework.util.Assert;
+import org.springframework.util.ObjectUtils;
+import org.springframework.util.unit.DataSize;
 
 /**
  * Configuration properties for the AMQP 1.0 JMS client
@@ -64,6 +71,48 @@ public class AMQP10JMSProperties {
     @NestedConfigurationProperty
     private final AMQP10JMSJmsPoolConnectionFactoryProperties pool = new AMQP10JMSJmsPoolConnectionFactoryProperties();
 
+    @NestedConfigurationProperty
+    private final AMQP10JMSJmsPoolConnectionFactoryProperties consumerPool = new AMQP10JMSJmsPoolConnectionFactoryProperties();
+
+    @NestedConfigurationProperty
+    private final Sharding sharding = new Sharding();
+
+    @NestedConfigurationProperty
+    private final Transport transport = new Transport();
+
+    @NestedConfigurationProperty
+    private final Prefetch prefetch = new Prefetch();
+
+    @NestedConfigurationProperty
+    private final Presettle presettle = new Presettle();
+
+    @NestedConfigurationProperty
+    private final AsyncSend asyncSend = new AsyncSend();
+
+    @NestedConfigurationProperty
+    private final Batch batch = new Batch();
+
+    @NestedConfigurationProperty
+    private final RequestReply requestReply = new RequestReply();
+
+    @NestedConfigurationProperty
+    private final Listener listener = new Listener();
+
+    @NestedConfigurationProperty
+    private final HealthMonitor health = new HealthMonitor();
+
+    @NestedConfigurationProperty
+    private final Latency latency = new Latency();
+
+    @NestedConfigurationProperty
+    private final Compression compression = new Compression();
+
+    @NestedConfigurationProperty
+    private final ByteBuffers byteBuffers = new ByteBuffers();
+
+    @NestedConfigurationProperty
+    private final Serialization serialization = new Serialization();
+
     public String getRemoteUrl() {
         return remoteUrl;
     }
@@ -120,6 +169,65 @@ public class AMQP10JMSProperties {
         return pool;
     }
 
+    /**
+     * @return the configuration of the separate connection pool used by listener containers when enabled.
+     */
+    public AMQP10JMSJmsPoolConnectionFactoryProperties getConsumerPool() {
+        return consumerPool;
+    }
+
+    public Sharding getSharding() {
+        return sharding;
+    }
+
+    public Transport getTransport() {
+        return transport;
+    }
+
+    public Prefetch getPrefetch() {
+        return prefetch;
+    }
+
+    public Presettle getPresettle() {
+        return presettle;
+    }
+
+    public AsyncSend getAsyncSend() {
+        return asyncSend;
+    }
+
+    public Batch getBatch() {
+        return batch;
+    }
+
+    public RequestReply getRequestReply() {
+        return requestReply;
+    }
+
+    public Listener getListener() {
+        return listener;
+    }
+
+    public HealthMonitor getHealth() {
+        return health;
+    }
+
+    public Latency getLatency() {
+        return latency;
+    }
+
+    public Compression getCompression() {
+        return compression;
+    }
+
+    public ByteBuffers getByteBuffers() {
+        return byteBuffers;
+    }
+
+    public Serialization getSerialization() {
+        return serialization;
+    }
+
     public static class DeserializationPolicy {
 
         /**
@@ -133,6 +241,11 @@ public class AMQP10JMSProperties {
          */
         private List<String> denyList;
 
+        /**
+         * Maximum number of per class trust decisions that are cached.
+         */
+        private int cacheSize = AMQP10JMSDeserializationPolicy.DEFAULT_CACHE_SIZE;
+
         public List<String> getAllowList() {
             return this.allowList;
         }
@@ -148,5 +261,1041 @@ public class AMQP10JMSProperties {
         public void setDenyList(List<String> denyList) {
             this.denyList = denyList;
         }
+
+        public int getCacheSize() {
+            return cacheSize;
+        }
+
+        public void setCacheSize(int cacheSize) {
+            Assert.isTrue(cacheSize >= 0, "Deserialization policy cache size must not be negative");
+            this.cacheSize = cacheSize;
+        }
+    }
+
+    /**
+     * Configuration of the sharding of the connection factory over several underlying connections.
+     */
+    public static class Sharding {
+
+        /**
+         * Whether each connection from the connection factory spreads its sessions over several underlying connections.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Number of underlying connections each connection from the connection factory opens.
+         */
+        private int shards = 4;
+
+        /**
+         * Strategy used to spread sessions across the underlying connections.
+         */
+        private AMQP10JMSShardingStrategy strategy = AMQP10JMSShardingStrategy.DESTINATION;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getShards() {
+            return shards;
+        }
+
+        public void setShards(int shards) {
+            Assert.isTrue(shards > 0, "Number of shards must be greater than zero");
+            this.shards = shards;
+        }
+
+        public AMQP10JMSShardingStrategy getStrategy() {
+            return strategy;
+        }
+
+        public void setStrategy(AMQP10JMSShardingStrategy strategy) {
+            Assert.notNull(strategy, "Sharding strategy must not be null");
+            this.strategy = strategy;
+        }
+    }
+
+    /**
+     * Socket and Netty transport options which are merged into the remote URL as
+     * {@code transport.*} query options, options left unset keep the client defaults.
+     */
+    public static class Transport {
+
+        /**
+         * Whether the TCP_NODELAY socket option is enabled.
+         */
+        private Boolean tcpNoDelay;
+
+        /**
+         * Whether the SO_KEEPALIVE socket option is enabled.
+         */
+        private Boolean tcpKeepAlive;
+
+        /**
+         * Size in bytes of the socket send buffer.
+         */
+        private Integer sendBufferSize;
+
+        /**
+         * Size in bytes of the socket receive buffer.
+         */
+        private Integer receiveBufferSize;
+
+        /**
+         * Traffic class (IP_TOS) value in the range 0 to 255 applied to the socket.
+         */
+        private Integer trafficClass;
+
+        /**
+         * Time to wait for the transport level connection to be established.
+         */
+        private Duration connectTimeout;
+
+        /**
+         * Whether the native epoll transport is used. When not set the client uses the
+         * epoll transport whenever the native library is available on the platform.
+         */
+        private Boolean useEpoll;
+
+        /**
+         * Whether the native KQueue transport is used when available.
+         */
+        private Boolean useKQueue;
+
+        /**
+         * Number of event loop threads shared between all connections created by the
+         * factory, a value of zero or less gives each connection its own event loop.
+         */
+        private Integer sharedEventLoopThreads;
+
+        public Boolean getTcpNoDelay() {
+            return tcpNoDelay;
+        }
+
+        public void setTcpNoDelay(Boolean tcpNoDelay) {
+            this.tcpNoDelay = tcpNoDelay;
+        }
+
+        public Boolean getTcpKeepAlive() {
+            return tcpKeepAlive;
+        }
+
+        public void setTcpKeepAlive(Boolean tcpKeepAlive) {
+            this.tcpKeepAlive = tcpKeepAlive;
+        }
+
+        public Integer getSendBufferSize() {
+            return sendBufferSize;
+        }
+
+        public void setSendBufferSize(Integer sendBufferSize) {
+            Assert.isTrue(sendBufferSize == null || sendBufferSize > 0, "Send buffer size must be greater than zero");
+            this.sendBufferSize = sendBufferSize;
+        }
+
+        public Integer getReceiveBufferSize() {
+            return receiveBufferSize;
+        }
+
+        public void setReceiveBufferSize(Integer receiveBufferSize) {
+            Assert.isTrue(receiveBufferSize == null || receiveBufferSize > 0, "Receive buffer size must be greater than zero");
+            this.receiveBufferSize = receiveBufferSize;
+        }
+
+        public Integer getTrafficClass() {
+            return trafficClass;
+        }
+
+        public void setTrafficClass(Integer trafficClass) {
+            Assert.isTrue(trafficClass == null || (trafficClass >= 0 && trafficClass <= 255), "Traffic class must be in the range 0 to 255");
+            this.trafficClass = trafficClass;
+        }
+
+        public Duration getConnectTimeout() {
+            return connectTimeout;
+        }
+
+        public void setConnectTimeout(Duration connectTimeout) {
+            Assert.isTrue(connectTimeout == null || !connectTimeout.isNegative(), "Connect timeout must not be negative");
+            this.connectTimeout = connectTimeout;
+        }
+
+        public Boolean getUseEpoll() {
+            return useEpoll;
+        }
+
+        public void setUseEpoll(Boolean useEpoll) {
+            this.useEpoll = useEpoll;
+        }
+
+        public Boolean getUseKQueue() {
+            return useKQueue;
+        }
+
+        public void setUseKQueue(Boolean useKQueue) {
+            this.useKQueue = useKQueue;
+        }
+
+        public Integer getSharedEventLoopThreads() {
+            return sharedEventLoopThreads;
+        }
+
+        public void setSharedEventLoopThreads(Integer sharedEventLoopThreads) {
+            this.sharedEventLoopThreads = sharedEventLoopThreads;
+        }
+    }
+
+    /**
+     * Consumer prefetch configuration, values left unset keep the client defaults.
+     */
+    public static class Prefetch {
+
+        /**
+         * Prefetch applied to all consumer types, the type specific values take precedence.
+         */
+        private Integer all;
+
+        /**
+         * Prefetch applied to queue consumers.
+         */
+        private Integer queue;
+
+        /**
+         * Prefetch applied to non-durable topic consumers.
+         */
+        private Integer topic;
+
+        /**
+         * Prefetch applied to durable topic subscribers.
+         */
+        private Integer durableTopic;
+
+        /**
+         * Prefetch applied to queue browsers.
+         */
+        private Integer queueBrowser;
+
+        /**
+         * Prefetch values keyed by destination name pattern, patterns may use '*' wildcards. An
+         * exact destination name is preferred, then the matching pattern with the fewest wildcards
+         * and then the longest, and the chosen value overrides the type defaults.
+         */
+        private Map<String, Integer> destinations = new LinkedHashMap<>();
+
+        @NestedConfigurationProperty
+        private final Adaptive adaptive = new Adaptive();
+
+        public Integer getAll() {
+            return all;
+        }
+
+        public void setAll(Integer all) {
+            this.all = validatePrefetch(all);
+        }
+
+        public Integer getQueue() {
+            return queue;
+        }
+
+        public void setQueue(Integer queue) {
+            this.queue = validatePrefetch(queue);
+        }
+
+        public Integer getTopic() {
+            return topic;
+        }
+
+        public void setTopic(Integer topic) {
+            this.topic = validatePrefetch(topic);
+        }
+
+        public Integer getDurableTopic() {
+            return durableTopic;
+        }
+
+        public void setDurableTopic(Integer durableTopic) {
+            this.durableTopic = validatePrefetch(durableTopic);
+        }
+
+        public Integer getQueueBrowser() {
+            return queueBrowser;
+        }
+
+        public void setQueueBrowser(Integer queueBrowser) {
+            this.queueBrowser = validatePrefetch(queueBrowser);
+        }
+
+        public Map<String, Integer> getDestinations() {
+            return destinations;
+        }
+
+        public void setDestinations(Map<String, Integer> destinations) {
+            if (destinations != null) {
+                destinations.values().forEach(Prefetch::validatePrefetch);
+            }
+            this.destinations = destinations;
+        }
+
+        public Adaptive getAdaptive() {
+            return adaptive;
+        }
+
+        /**
+         * @return true if any prefetch value has been configured or adaptive prefetch is enabled.
+         */
+        public boolean isConfigured() {
+            return all != null || queue != null || topic != null || durableTopic != null ||
+                   queueBrowser != null || !ObjectUtils.isEmpty(destinations) || adaptive.isEnabled();
+        }
+
+        private static Integer validatePrefetch(Integer prefetch) {
+            Assert.isTrue(prefetch == null || prefetch >= 0, "Prefetch values must not be negative");
+            return prefetch;
+        }
+
+        /**
+         * Configuration of the prefetch chosen for each destination from the measured listener processing time.
+         */
+        public static class Adaptive {
+
+            /**
+             * Whether the prefetch of new consumers is adapted to the measured listener processing time.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Lower bound of the adapted prefetch.
+             */
+            private int min = 1;
+
+            /**
+             * Upper bound of the adapted prefetch.
+             */
+            private int max = 1000;
+
+            /**
+             * Amount of listener work each consumer should hold in its local buffer.
+             */
+            private Duration targetBufferTime = Duration.ofSeconds(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMin() {
+                return min;
+            }
+
+            public void setMin(int min) {
+                Assert.isTrue(min >= 1, "Adaptive prefetch minimum must be at least one");
+                this.min = min;
+            }
+
+            public int getMax() {
+                return max;
+            }
+
+            public void setMax(int max) {
+                Assert.isTrue(max >= 1, "Adaptive prefetch maximum must be at least one");
+                this.max = max;
+            }
+
+            public Duration getTargetBufferTime() {
+                return targetBufferTime;
+            }
+
+            public void setTargetBufferTime(Duration targetBufferTime) {
+                Assert.isTrue(targetBufferTime != null && !targetBufferTime.isNegative() && !targetBufferTime.isZero(),
+                              "Adaptive prefetch target buffer time must be positive");
+                this.targetBufferTime = targetBufferTime;
+            }
+        }
+    }
+
+    /**
+     * Presettled (at-most-once) delivery configuration. Presettled messages are considered
+     * delivered as soon as they are sent and can be lost if the connection fails.
+     */
+    public static class Presettle {
+
+        /**
+         * Whether all producers and all non-transacted consumers are presettled.
+         */
+        private boolean all = false;
+
+        /**
+         * Whether all producers send presettled messages.
+         */
+        private boolean producers = false;
+
+        /**
+         * Whether all non-transacted consumers receive presettled messages.
+         */
+        private boolean consumers = false;
+
+        /**
+         * Whether producers in transacted sessions send presettled messages.
+         */
+        private boolean transactedProducers = false;
+
+        /**
+         * Destination name patterns whose producers send presettled messages, patterns may use '*' wildcards.
+         */
+        private List<String> producerDestinations;
+
+        /**
+         * Destination name patterns whose non-transacted consumers receive presettled messages, patterns may
+         * use '*' wildcards.
+         */
+        private List<String> consumerDestinations;
+
+        public boolean isAll() {
+            return all;
+        }
+
+        public void setAll(boolean all) {
+            this.all = all;
+        }
+
+        public boolean isProducers() {
+            return producers;
+        }
+
+        public void setProducers(boolean producers) {
+            this.producers = producers;
+        }
+
+        public boolean isConsumers() {
+            return consumers;
+        }
+
+        public void setConsumers(boolean consumers) {
+            this.consumers = consumers;
+        }
+
+        public boolean isTransactedProducers() {
+            return transactedProducers;
+        }
+
+        public void setTransactedProducers(boolean transactedProducers) {
+            this.transactedProducers = transactedProducers;
+        }
+
+        public List<String> getProducerDestinations() {
+            return producerDestinations;
+        }
+
+        public void setProducerDestinations(List<String> producerDestinations) {
+            this.producerDestinations = producerDestinations;
+        }
+
+        public List<String> getConsumerDestinations() {
+            return consumerDestinations;
+        }
+
+        public void setConsumerDestinations(List<String> consumerDestinations) {
+            this.consumerDestinations = consumerDestinations;
+        }
+
+        /**
+         * @return true if any presettle option has been enabled.
+         */
+        public boolean isConfigured() {
+            return all || producers || consumers || transactedProducers ||
+                   !ObjectUtils.isEmpty(producerDestinations) || !ObjectUtils.isEmpty(consumerDestinations);
+        }
+    }
+
+    /**
+     * Configuration of the asynchronous send template.
+     */
+    public static class AsyncSend {
+
+        /**
+         * Maximum number of sends that may be awaiting completion at any one time, further
+         * sends block the caller until an earlier send completes.
+         */
+        private int maxInFlight = 1000;
+
+        /**
+         * Maximum time a send waits for an in-flight slot before failing, when not set the
+         * send waits until a slot becomes available.
+         */
+        private Duration acquireTimeout;
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            Assert.isTrue(maxInFlight > 0, "Max in flight sends must be greater than zero");
+            this.maxInFlight = maxInFlight;
+        }
+
+        public Duration getAcquireTimeout() {
+            return acquireTimeout;
+        }
+
+        public void setAcquireTimeout(Duration acquireTimeout) {
+            Assert.isTrue(acquireTimeout == null || !acquireTimeout.isNegative(), "Acquire timeout must not be negative");
+            this.acquireTimeout = acquireTimeout;
+        }
+    }
+
+    /**
+     * Configuration of the transacted batch send template.
+     */
+    public static class Batch {
+
+        /**
+         * Maximum number of messages sent in a single transaction, larger batches are split
+         * across several transactions.
+         */
+        private int maxSize = 500;
+
+        /**
+         * Maximum combined body size of the messages sent in a single transaction, a message
+         * larger than this budget is sent in a transaction of its own.
+         */
+        private DataSize maxBytes = DataSize.ofMegabytes(1);
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            Assert.isTrue(maxSize > 0, "Max batch size must be greater than zero");
+            this.maxSize = maxSize;
+        }
+
+        public DataSize getMaxBytes() {
+            return maxBytes;
+        }
+
+        public void setMaxBytes(DataSize maxBytes) {
+            Assert.isTrue(maxBytes != null && maxBytes.toBytes() > 0, "Max batch bytes must be greater than zero");
+            this.maxBytes = maxBytes;
+        }
+    }
+
+    /**
+     * Configuration of the request reply template.
+     */
+    public static class RequestReply {
+
+        /**
+         * Time a request waits for its reply before the returned future fails with a timeout.
+         */
+        private Duration timeout = Duration.ofSeconds(30);
+
+        /**
+         * Name of the queue on which replies are consumed, when not set a temporary queue owned
+         * by the template's reply connection is used.
+         */
+        private String replyDestination;
+
+        public Duration getTimeout() {
+            return timeout;
+        }
+
+        public void setTimeout(Duration timeout) {
+            Assert.isTrue(timeout != null && timeout.toNanos() > 0, "Reply timeout must be greater than zero");
+            this.timeout = timeout;
+        }
+
+        public String getReplyDestination() {
+            return replyDestination;
+        }
+
+        public void setReplyDestination(String replyDestination) {
+            this.replyDestination = replyDestination;
+        }
+    }
+
+    /**
+     * Configuration of the listener containers created for the AMQP 1.0 JMS connection factory.
+     */
+    public static class Listener {
+
+        /**
+         * Whether listener containers run their consumers on virtual threads, requires Java 21 or later.
+         */
+        private boolean virtualThreads = false;
+
+        /**
+         * Whether the maximum listener concurrency defaults to the sessions per connection limit of the pool the
+         * listeners consume from when spring.jms.listener.max-concurrency is not set.
+         */
+        private boolean poolSizedConcurrency = false;
+
+        @NestedConfigurationProperty
+        private final Batch batch = new Batch();
+
+        @NestedConfigurationProperty
+        private final CommitInterval commitInterval = new CommitInterval();
+
+        @NestedConfigurationProperty
+        private final Partitioned partitioned = new Partitioned();
+
+        @NestedConfigurationProperty
+        private final Autoscaling autoscaling = new Autoscaling();
+
+        public boolean isVirtualThreads() {
+            return virtualThreads;
+        }
+
+        public void setVirtualThreads(boolean virtualThreads) {
+            this.virtualThreads = virtualThreads;
+        }
+
+        public boolean isPoolSizedConcurrency() {
+            return poolSizedConcurrency;
+        }
+
+        public void setPoolSizedConcurrency(boolean poolSizedConcurrency) {
+            this.poolSizedConcurrency = poolSizedConcurrency;
+        }
+
+        public Batch getBatch() {
+            return batch;
+        }
+
+        public CommitInterval getCommitInterval() {
+            return commitInterval;
+        }
+
+        public Partitioned getPartitioned() {
+            return partitioned;
+        }
+
+        public Autoscaling getAutoscaling() {
+            return autoscaling;
+        }
+
+        /**
+         * Configuration of the batch listener container factory.
+         */
+        public static class Batch {
+
+            /**
+             * Maximum number of messages delivered to a batch listener in one batch.
+             */
+            private int maxSize = 100;
+
+            /**
+             * Maximum time a batch waits for further messages after its first message.
+             */
+            private Duration maxWait = Duration.ofMillis(500);
+
+            public int getMaxSize() {
+                return maxSize;
+            }
+
+            public void setMaxSize(int maxSize) {
+                Assert.isTrue(maxSize > 0, "Batch listener max size must be greater than zero");
+                this.maxSize = maxSize;
+            }
+
+            public Duration getMaxWait() {
+                return maxWait;
+            }
+
+            public void setMaxWait(Duration maxWait) {
+                Assert.isTrue(maxWait != null && !maxWait.isNegative(), "Batch listener max wait must not be negative");
+                this.maxWait = maxWait;
+            }
+        }
+
+        /**
+         * Configuration of the commit interval of the default listener container factory.
+         */
+        public static class CommitInterval {
+
+            /**
+             * Whether listener sessions are committed once per commit interval rather than after every message.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Maximum number of messages processed within one commit interval.
+             */
+            private int messages = 100;
+
+            /**
+             * Maximum time a commit interval stays open after its first message.
+             */
+            private Duration time = Duration.ofSeconds(1);
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMessages() {
+                return messages;
+            }
+
+            public void setMessages(int messages) {
+                Assert.isTrue(messages > 0, "Commit interval messages must be greater than zero");
+                this.messages = messages;
+            }
+
+            public Duration getTime() {
+                return time;
+            }
+
+            public void setTime(Duration time) {
+                Assert.isTrue(time != null && !time.isNegative(), "Commit interval time must not be negative");
+                this.time = time;
+            }
+        }
+
+        /**
+         * Configuration of the partitioned listener container factory.
+         */
+        public static class Partitioned {
+
+            /**
+             * Number of lanes messages are partitioned over, defaults to the number of available processors.
+             */
+            private Integer lanes;
+
+            /**
+             * Maximum number of messages each lane holds before the consumer waits for the lane.
+             */
+            private int laneCapacity = 100;
+
+            /**
+             * Name of the message property whose value partitions messages over the lanes.
+             */
+            private String partitionProperty = "JMSXGroupID";
+
+            public Integer getLanes() {
+                return lanes;
+            }
+
+            public void setLanes(Integer lanes) {
+                Assert.isTrue(lanes == null || lanes > 0, "Partitioned listener lanes must be greater than zero");
+                this.lanes = lanes;
+            }
+
+            public int getLaneCapacity() {
+                return laneCapacity;
+            }
+
+            public void setLaneCapacity(int laneCapacity) {
+                Assert.isTrue(laneCapacity > 0, "Partitioned listener lane capacity must be greater than zero");
+                this.laneCapacity = laneCapacity;
+            }
+
+            public String getPartitionProperty() {
+                return partitionProperty;
+            }
+
+            public void setPartitionProperty(String partitionProperty) {
+                Assert.hasText(partitionProperty, "Partitioned listener partition property must not be empty");
+                this.partitionProperty = partitionProperty;
+            }
+        }
+
+        /**
+         * Configuration of the queue backlog driven scaling of the listener container consumers.
+         */
+        public static class Autoscaling {
+
+            /**
+             * Whether the consumers of queue listener containers are sized from the queue backlog and processing time.
+             */
+            private boolean enabled = false;
+
+            /**
+             * Lower bound of the consumers given to a listener container.
+             */
+            private int min = 1;
+
+            /**
+             * Upper bound of the consumers given to a listener container, further bounded by the sessions per
+             * connection limit of the connection pool the listeners consume from when pooling is enabled.
+             */
+            private int max = 10;
+
+            /**
+             * Time within which the consumers of a listener container should drain the backlog of its queue.
+             */
+            private Duration targetDrainTime = Duration.ofSeconds(10);
+
+            /**
+             * Interval between successive polls of the queue backlog.
+             */
+            private Duration pollInterval = Duration.ofSeconds(5);
+
+            /**
+             * Time each request to the AMQP management node waits for its reply, should be shorter than the poll interval.
+             */
+            private Duration managementTimeout = Duration.ofSeconds(2);
+
+            /**
+             * Management entity type of a queue, used to read the backlog from the AMQP management node.
+             */
+            private String managementEntityType = "org.apache.qpid.Queue";
+
+            /**
+             * Queue attribute holding the number of messages on the queue, read from the AMQP management node.
+             */
+            private String managementDepthAttribute = "queueDepthMessages";
+
+            public boolean isEnabled() {
+                return enabled;
+            }
+
+            public void setEnabled(boolean enabled) {
+                this.enabled = enabled;
+            }
+
+            public int getMin() {
+                return min;
+            }
+
+            public void setMin(int min) {
+                Assert.isTrue(min >= 1, "Autoscaling minimum must be at least one");
+                this.min = min;
+            }
+
+            public int getMax() {
+                return max;
+            }
+
+            public void setMax(int max) {
+                Assert.isTrue(max >= 1, "Autoscaling maximum must be at least one");
+                this.max = max;
+            }
+
+            public Duration getTargetDrainTime() {
+                return targetDrainTime;
+            }
+
+            public void setTargetDrainTime(Duration targetDrainTime) {
+                Assert.isTrue(targetDrainTime != null && !targetDrainTime.isNegative() && !targetDrainTime.isZero(),
+                              "Autoscaling target drain time must be positive");
+                this.targetDrainTime = targetDrainTime;
+            }
+
+            public Duration getPollInterval() {
+                return pollInterval;
+            }
+
+            public void setPollInterval(Duration pollInterval) {
+                Assert.isTrue(pollInterval != null && !pollInterval.isNegative() && !pollInterval.isZero(),
+                              "Autoscaling poll interval must be positive");
+                this.pollInterval = pollInterval;
+            }
+
+            public Duration getManagementTimeout() {
+                return managementTimeout;
+            }
+
+            public void setManagementTimeout(Duration managementTimeout) {
+                Assert.isTrue(managementTimeout != null && !managementTimeout.isNegative() && !managementTimeout.isZero(),
+                              "Autoscaling management timeout must be positive");
+                this.managementTimeout = managementTimeout;
+            }
+
+            public String getManagementEntityType() {
+                return managementEntityType;
+            }
+
+            public void setManagementEntityType(String managementEntityType) {
+                Assert.hasText(managementEntityType, "Autoscaling management entity type must not be empty");
+                this.managementEntityType = managementEntityType;
+            }
+
+            public String getManagementDepthAttribute() {
+                return managementDepthAttribute;
+            }
+
+            public void setManagementDepthAttribute(String managementDepthAttribute) {
+                Assert.hasText(managementDepthAttribute, "Autoscaling management depth attribute must not be empty");
+                this.managementDepthAttribute = managementDepthAttribute;
+            }
+        }
+    }
+
+    /**
+     * Configuration of the monitor connection used by the health indicator.
+     */
+    public static class HealthMonitor {
+
+        /**
+         * Time to wait before the monitor connection is re-established after it has failed.
+         */
+        private Duration reconnectDelay = Duration.ofSeconds(5);
+
+        public Duration getReconnectDelay() {
+            return reconnectDelay;
+        }
+
+        public void setReconnectDelay(Duration reconnectDelay) {
+            Assert.isTrue(reconnectDelay != null && !reconnectDelay.isNegative(), "Reconnect delay must not be negative");
+            this.reconnectDelay = reconnectDelay;
+        }
+    }
+
+    /**
+     * Configuration of the send, broker transit and listener processing latency metrics.
+     */
+    public static class Latency {
+
+        /**
+         * Whether latency metrics are recorded when a MeterRegistry is available.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Whether sent messages carry a microsecond resolution send timestamp in a message annotation,
+         * when disabled broker transit time is measured from the JMSTimestamp of the message.
+         */
+        private boolean sendTimestampAnnotation = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public boolean isSendTimestampAnnotation() {
+            return sendTimestampAnnotation;
+        }
+
+        public void setSendTimestampAnnotation(boolean sendTimestampAnnotation) {
+            this.sendTimestampAnnotation = sendTimestampAnnotation;
+        }
+    }
+
+    /**
+     * Configuration of the compression of large message bodies by the auto-configured message converter.
+     */
+    public static class Compression {
+
+        /**
+         * Whether text and bytes message bodies at or above the threshold are compressed.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Body size at which a message body is compressed.
+         */
+        private DataSize threshold = DataSize.ofKilobytes(8);
+
+        /**
+         * Codec used to compress message bodies, LZ4 requires lz4-java on the classpath.
+         */
+        private AMQP10JMSCompressionCodec codec = AMQP10JMSCompressionCodec.DEFLATE;
+
+        /**
+         * Maximum size a received message body may decompress to, larger bodies are rejected.
+         */
+        private DataSize maxDecompressedSize = DataSize.ofBytes(AMQP10JMSCompressingMessageConverter.DEFAULT_MAX_DECOMPRESSED_SIZE);
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public DataSize getThreshold() {
+            return threshold;
+        }
+
+        public void setThreshold(DataSize threshold) {
+            Assert.isTrue(threshold != null && !threshold.isNegative(), "Compression threshold must not be negative");
+            this.threshold = threshold;
+        }
+
+        public AMQP10JMSCompressionCodec getCodec() {
+            return codec;
+        }
+
+        public void setCodec(AMQP10JMSCompressionCodec codec) {
+            Assert.notNull(codec, "Compression codec must not be null");
+            this.codec = codec;
+        }
+
+        public DataSize getMaxDecompressedSize() {
+            return maxDecompressedSize;
+        }
+
+        public void setMaxDecompressedSize(DataSize maxDecompressedSize) {
+            Assert.isTrue(maxDecompressedSize != null && maxDecompressedSize.toBytes() > 0,
+                          "Compression maximum decompressed size must be greater than zero");
+            this.maxDecompressedSize = maxDecompressedSize;
+        }
+    }
+
+    /**
+     * Configuration of the conversion of bytes message bodies to and from buffers.
+     */
+    public static class ByteBuffers {
+
+        /**
+         * Whether ByteBuffer and Netty ByteBuf payloads are sent as bytes messages and bytes message
+         * bodies are received as ByteBuffer, replacing the default byte array conversion.
+         */
+        private boolean enabled = false;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    /**
+     * Configuration of the Kryo serialization of objects by the auto-configured message converter.
+     */
+    public static class Serialization {
+
+        /**
+         * Whether objects of the registered types are serialized with Kryo into bytes messages.
+         */
+        private boolean enabled = false;
+
+        /**
+         * Types registered with Kryo in registration order, which must match between producers and consumers.
+         */
+        private List<Class<?>> registeredTypes = new ArrayList<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public List<Class<?>> getRegisteredTypes() {
+            return registeredTypes;
+        }
+
+        public void setRegisteredTypes(List<Class<?>> registeredTypes) {
+            Assert.notNull(registeredTypes, "Registered types must not be null");
+            this.registeredTypes = registeredTypes;
+        }
     }
 }
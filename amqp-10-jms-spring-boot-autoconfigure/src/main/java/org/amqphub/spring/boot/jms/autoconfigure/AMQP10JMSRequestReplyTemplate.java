@@ -0,0 +1,386 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.util.Assert;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+
+/**
+ * Request reply template that sends each request through a {@link JmsTemplate} and receives
+ * every reply on a single long-lived consumer, the reply is matched to its request by the
+ * correlation ID the template assigns and each request returns a {@link CompletableFuture}
+ * that completes once the reply arrives or fails once the reply timeout expires.
+ * <p>
+ * Unlike {@link JmsTemplate#sendAndReceive(String, MessageCreator)} which creates a temporary
+ * queue and a consumer for every request, the template opens one reply connection on first use
+ * and keeps its reply queue and consumer for the lifetime of the template. The reply connection
+ * is created from the target of a {@link CachingConnectionFactory} or of a pooled-jms
+ * {@code JmsPoolConnectionFactory} so that it is not shared with the connections used to send,
+ * and is not counted against the connections of the pool. A connection factory of any other type
+ * is used as is, so its connections may be shared. The reply queue is a temporary queue unless a reply destination
+ * name is given, in which case a selector on the template's correlation ID prefix ensures that
+ * templates sharing the queue only consume their own replies.
+ * <p>
+ * A Qpid JMS connection factory that applies a client ID cannot create the reply connection, as the
+ * remote peer would refuse a second connection claiming the client ID of the connections the requests
+ * are sent on. In that case a reply connection factory without a client ID must be given using
+ * {@link #setReplyConnectionFactory(ConnectionFactory)}, otherwise requests fail with an
+ * {@link IllegalStateException}.
+ * <p>
+ * Should the reply connection fail, the outstanding requests fail and the next request opens a
+ * new reply connection. The returned futures are completed from the client's I/O thread,
+ * dependent work that could block should be run using the async variants of the
+ * {@link CompletableFuture} methods.
+ */
+public class AMQP10JMSRequestReplyTemplate implements AutoCloseable {
+
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSRequestReplyTemplate.class);
+
+    private static final boolean POOLED_JMS_PRESENT = ClassUtils.isPresent(
+        "org.messaginghub.pooled.jms.JmsPoolConnectionFactory", AMQP10JMSRequestReplyTemplate.class.getClassLoader());
+
+    private final JmsTemplate jmsTemplate;
+    private final Duration replyTimeout;
+    private final String replyDestinationName;
+
+    private final String correlationIdPrefix = UUID.randomUUID().toString() + ":";
+    private final AtomicLong correlationIdSequence = new AtomicLong();
+    private final Map<String, CompletableFuture<Message>> pendingReplies = new ConcurrentHashMap<>();
+
+    private ConnectionFactory replyConnectionFactory;
+
+    private final Object lock = new Object();
+    private volatile ReplyConsumer replyConsumer;
+    private volatile boolean closed;
+
+    /**
+     * Creates a new template that receives replies on a temporary queue.
+     *
+     * @param jmsTemplate
+     *      The {@link JmsTemplate} whose connection factory and settings are used.
+     * @param replyTimeout
+     *      The time a request waits for its reply.
+     */
+    public AMQP10JMSRequestReplyTemplate(JmsTemplate jmsTemplate, Duration replyTimeout) {
+        this(jmsTemplate, replyTimeout, null);
+    }
+
+    /**
+     * Creates a new template.
+     *
+     * @param jmsTemplate
+     *      The {@link JmsTemplate} whose connection factory and settings are used.
+     * @param replyTimeout
+     *      The time a request waits for its reply.
+     * @param replyDestinationName
+     *      The name of the queue replies are consumed from or null to use a temporary queue.
+     */
+    public AMQP10JMSRequestReplyTemplate(JmsTemplate jmsTemplate, Duration replyTimeout, String replyDestinationName) {
+        Assert.notNull(jmsTemplate, "JmsTemplate must not be null");
+        Assert.notNull(jmsTemplate.getConnectionFactory(), "JmsTemplate must have a ConnectionFactory");
+        Assert.isTrue(replyTimeout != null && replyTimeout.toNanos() > 0, "Reply timeout must be greater than zero");
+
+        this.jmsTemplate = jmsTemplate;
+        this.replyTimeout = replyTimeout;
+        this.replyDestinationName = replyDestinationName;
+    }
+
+    /**
+     * @return the {@link JmsTemplate} whose connection factory and settings this template uses.
+     */
+    public JmsTemplate getJmsTemplate() {
+        return jmsTemplate;
+    }
+
+    /**
+     * @return the time a request waits for its reply.
+     */
+    public Duration getReplyTimeout() {
+        return replyTimeout;
+    }
+
+    /**
+     * @return the connection factory the reply connection is created from, or null when it is created
+     *      from the target of the {@link JmsTemplate}'s connection factory.
+     */
+    public ConnectionFactory getReplyConnectionFactory() {
+        return replyConnectionFactory;
+    }
+
+    /**
+     * Sets the connection factory the reply connection is created from in place of the target of the
+     * {@link JmsTemplate}'s connection factory, it must not apply a client ID used by other connections.
+     *
+     * @param replyConnectionFactory
+     *      The connection factory the reply connection is created from or null to use the target of
+     *      the {@link JmsTemplate}'s connection factory.
+     */
+    public void setReplyConnectionFactory(ConnectionFactory replyConnectionFactory) {
+        this.replyConnectionFactory = replyConnectionFactory;
+    }
+
+    /**
+     * @return the number of requests currently awaiting a reply.
+     */
+    public int getPendingReplies() {
+        return pendingReplies.size();
+    }
+
+    public CompletableFuture<Message> sendAndReceive(Destination destination, MessageCreator messageCreator) {
+        return doSendAndReceive((creator) -> jmsTemplate.send(destination, creator), messageCreator);
+    }
+
+    public CompletableFuture<Message> sendAndReceive(String destinationName, MessageCreator messageCreator) {
+        return doSendAndReceive((creator) -> jmsTemplate.send(destinationName, creator), messageCreator);
+    }
+
+    public CompletableFuture<Object> convertSendAndReceive(Destination destination, Object request) {
+        return sendAndReceive(destination, (session) -> getRequiredMessageConverter().toMessage(request, session))
+            .thenApply(this::convertReply);
+    }
+
+    public CompletableFuture<Object> convertSendAndReceive(String destinationName, Object request) {
+        return sendAndReceive(destinationName, (session) -> getRequiredMessageConverter().toMessage(request, session))
+            .thenApply(this::convertReply);
+    }
+
+    /**
+     * Closes the reply connection and fails any request still awaiting its reply.
+     */
+    @Override
+    public void close() {
+        final ReplyConsumer consumer;
+
+        synchronized (lock) {
+            closed = true;
+            consumer = replyConsumer;
+            replyConsumer = null;
+        }
+
+        if (consumer != null) {
+            consumer.close();
+        }
+
+        failPendingReplies(new IllegalStateException("The request reply template has been closed"));
+    }
+
+    private CompletableFuture<Message> doSendAndReceive(Consumer<MessageCreator> sender, MessageCreator messageCreator) {
+        Assert.notNull(messageCreator, "MessageCreator must not be null");
+
+        final Destination replyTo;
+        try {
+            replyTo = getReplyConsumer().replyTo;
+        } catch (JMSException ex) {
+            return CompletableFuture.failedFuture(JmsUtils.convertJmsAccessException(ex));
+        }
+
+        final String correlationId = correlationIdPrefix + correlationIdSequence.incrementAndGet();
+        final CompletableFuture<Message> reply = new CompletableFuture<>();
+
+        pendingReplies.put(correlationId, reply);
+        reply.orTimeout(replyTimeout.toNanos(), TimeUnit.NANOSECONDS)
+             .whenComplete((message, error) -> pendingReplies.remove(correlationId, reply));
+
+        try {
+            sender.accept((session) -> {
+                final Message request = messageCreator.createMessage(session);
+                request.setJMSCorrelationID(correlationId);
+                request.setJMSReplyTo(replyTo);
+                return request;
+            });
+        } catch (RuntimeException ex) {
+            reply.completeExceptionally(ex);
+        }
+
+        return reply;
+    }
+
+    private ReplyConsumer getReplyConsumer() throws JMSException {
+        ReplyConsumer consumer = replyConsumer;
+        if (consumer != null) {
+            return consumer;
+        }
+
+        synchronized (lock) {
+            if (closed) {
+                throw new IllegalStateException("The request reply template has been closed");
+            }
+
+            if (replyConsumer == null) {
+                replyConsumer = new ReplyConsumer(getRequiredReplyConnectionFactory());
+            }
+
+            return replyConsumer;
+        }
+    }
+
+    private void onReplyConsumerFailed(ReplyConsumer consumer, JMSException error) {
+        synchronized (lock) {
+            if (replyConsumer == consumer) {
+                replyConsumer = null;
+            }
+        }
+
+        LOG.debug("Request reply connection failed: {}", error.getMessage());
+
+        consumer.close();
+        failPendingReplies(JmsUtils.convertJmsAccessException(error));
+    }
+
+    private void failPendingReplies(Throwable error) {
+        pendingReplies.values().forEach((reply) -> reply.completeExceptionally(error));
+    }
+
+    private Object convertReply(Message reply) {
+        try {
+            return getRequiredMessageConverter().fromMessage(reply);
+        } catch (JMSException ex) {
+            throw JmsUtils.convertJmsAccessException(ex);
+        }
+    }
+
+    private MessageConverter getRequiredMessageConverter() {
+        final MessageConverter converter = jmsTemplate.getMessageConverter();
+        if (converter == null) {
+            throw new IllegalStateException("No 'messageConverter' specified. Check configuration of JmsTemplate.");
+        }
+
+        return converter;
+    }
+
+    private ConnectionFactory getRequiredReplyConnectionFactory() {
+        if (replyConnectionFactory != null) {
+            return replyConnectionFactory;
+        }
+
+        final ConnectionFactory target = unwrapConnectionFactory(jmsTemplate.getConnectionFactory());
+
+        Assert.state(!(target instanceof JmsConnectionFactory) || !StringUtils.hasText(((JmsConnectionFactory) target).getClientID()),
+                     "The JmsTemplate's connection factory applies a client ID which the reply connection cannot claim, " +
+                     "a reply connection factory without a client ID must be set");
+
+        return target;
+    }
+
+    private static ConnectionFactory unwrapConnectionFactory(ConnectionFactory connectionFactory) {
+        if (connectionFactory instanceof CachingConnectionFactory) {
+            final ConnectionFactory target = ((CachingConnectionFactory) connectionFactory).getTargetConnectionFactory();
+            if (target != null) {
+                return target;
+            }
+        }
+
+        if (POOLED_JMS_PRESENT) {
+            return PooledConnectionFactoryUnwrapper.unwrap(connectionFactory);
+        }
+
+        return connectionFactory;
+    }
+
+    // Keeps pooled-jms, an optional dependency, from being loaded unless it is on the classpath
+    private static final class PooledConnectionFactoryUnwrapper {
+
+        static ConnectionFactory unwrap(ConnectionFactory connectionFactory) {
+            if (connectionFactory instanceof JmsPoolConnectionFactory) {
+                final Object target = ((JmsPoolConnectionFactory) connectionFactory).getConnectionFactory();
+                if (target instanceof ConnectionFactory) {
+                    return (ConnectionFactory) target;
+                }
+            }
+
+            return connectionFactory;
+        }
+    }
+
+    private final class ReplyConsumer {
+
+        private final Connection connection;
+        private final Destination replyTo;
+
+        ReplyConsumer(ConnectionFactory connectionFactory) throws JMSException {
+            connection = connectionFactory.createConnection();
+
+            try {
+                connection.setExceptionListener((error) -> onReplyConsumerFailed(this, error));
+
+                final Session session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+                final MessageConsumer consumer;
+
+                if (replyDestinationName != null) {
+                    replyTo = session.createQueue(replyDestinationName);
+                    consumer = session.createConsumer(replyTo, "JMSCorrelationID LIKE '" + correlationIdPrefix + "%'");
+                } else {
+                    replyTo = session.createTemporaryQueue();
+                    consumer = session.createConsumer(replyTo);
+                }
+
+                consumer.setMessageListener(this::onReply);
+                connection.start();
+            } catch (JMSException | RuntimeException ex) {
+                JmsUtils.closeConnection(connection);
+                throw ex;
+            }
+        }
+
+        private void onReply(Message message) {
+            String correlationId = null;
+            try {
+                correlationId = message.getJMSCorrelationID();
+            } catch (JMSException ex) {
+                LOG.debug("Could not read the correlation ID of a reply: {}", ex.getMessage());
+            }
+
+            final CompletableFuture<Message> reply = correlationId != null ? pendingReplies.remove(correlationId) : null;
+            if (reply != null) {
+                reply.complete(message);
+            } else {
+                LOG.debug("Discarding reply with correlation ID {} that matches no pending request", correlationId);
+            }
+        }
+
+        void close() {
+            JmsUtils.closeConnection(connection);
+        }
+    }
+}
@@ -0,0 +1,147 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.util.ClassUtils;
+
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * {@link RuntimeHintsRegistrar} that registers the reflection, resource and proxy hints that
+ * Qpid JMS, proton-j, Netty and pooled-jms need when the application is compiled to a GraalVM
+ * native image. The registrar is listed in {@code META-INF/spring/aot.factories} so that the
+ * hints also apply when the application defines its own connection factory and the auto
+ * configuration backs off.
+ * <p>
+ * Qpid JMS discovers its provider, transport, SASL mechanism and tracer factories from
+ * properties files under {@code META-INF/services/org/apache/qpid/jms} and creates them
+ * reflectively, and applies URI options to its connection factory, policies, providers and
+ * transport options through their bean setters. Netty creates socket channels through their
+ * no-arg constructors and commons-pool2, used by pooled-jms, creates its eviction policy by
+ * class name. The instrumented pooled connection factory proxies the pooled connections
+ * and sessions and the sharded connection factory proxies its sessions and anonymous producers.
+ */
+class AMQP10JMSRuntimeHints implements RuntimeHintsRegistrar {
+
+    private static final String QPID_SERVICES_PREFIX = "META-INF/services/org/apache/qpid/jms/";
+
+    private static final String[] QPID_SERVICES = {
+        "provider/amqp", "provider/amqps", "provider/amqpws", "provider/amqpwss",
+        "provider/failover", "provider/redirects/ws", "provider/redirects/wss",
+        "transports/tcp", "transports/ssl", "transports/ws", "transports/wss",
+        "sasl/PLAIN", "sasl/ANONYMOUS", "sasl/EXTERNAL", "sasl/CRAM-MD5", "sasl/GSSAPI",
+        "sasl/SCRAM-SHA-1", "sasl/SCRAM-SHA-256", "sasl/SCRAM-SHA-512", "sasl/XOAUTH2",
+        "tracing/noop"
+    };
+
+    private static final String[] QPID_TYPES = {
+        "org.apache.qpid.jms.JmsConnectionFactory",
+        "org.apache.qpid.jms.JmsConnectionInfo",
+        "org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy",
+        "org.apache.qpid.jms.policy.JmsDefaultMessageIDPolicy",
+        "org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy",
+        "org.apache.qpid.jms.policy.JmsDefaultPresettlePolicy",
+        "org.apache.qpid.jms.policy.JmsDefaultRedeliveryPolicy",
+        "org.apache.qpid.jms.provider.amqp.AmqpProviderFactory",
+        "org.apache.qpid.jms.provider.amqp.AmqpProvider",
+        "org.apache.qpid.jms.provider.failover.FailoverProviderFactory",
+        "org.apache.qpid.jms.provider.failover.FailoverProvider",
+        "org.apache.qpid.jms.transports.TransportOptions",
+        "org.apache.qpid.jms.transports.netty.NettyTcpTransport",
+        "org.apache.qpid.jms.transports.netty.NettyWsTransport",
+        "org.apache.qpid.jms.transports.netty.NettyTcpTransportFactory",
+        "org.apache.qpid.jms.transports.netty.NettySslTransportFactory",
+        "org.apache.qpid.jms.transports.netty.NettyWsTransportFactory",
+        "org.apache.qpid.jms.transports.netty.NettyWssTransportFactory",
+        "org.apache.qpid.jms.sasl.PlainMechanismFactory",
+        "org.apache.qpid.jms.sasl.PlainMechanism",
+        "org.apache.qpid.jms.sasl.AnonymousMechanismFactory",
+        "org.apache.qpid.jms.sasl.AnonymousMechanism",
+        "org.apache.qpid.jms.sasl.ExternalMechanismFactory",
+        "org.apache.qpid.jms.sasl.ExternalMechanism",
+        "org.apache.qpid.jms.sasl.CramMD5MechanismFactory",
+        "org.apache.qpid.jms.sasl.CramMD5Mechanism",
+        "org.apache.qpid.jms.sasl.GssapiMechanismFactory",
+        "org.apache.qpid.jms.sasl.GssapiMechanism",
+        "org.apache.qpid.jms.sasl.ScramSHA1MechanismFactory",
+        "org.apache.qpid.jms.sasl.ScramSHA1Mechanism",
+        "org.apache.qpid.jms.sasl.ScramSHA256MechanismFactory",
+        "org.apache.qpid.jms.sasl.ScramSHA256Mechanism",
+        "org.apache.qpid.jms.sasl.ScramSHA512MechanismFactory",
+        "org.apache.qpid.jms.sasl.ScramSHA512Mechanism",
+        "org.apache.qpid.jms.sasl.XOauth2MechanismFactory",
+        "org.apache.qpid.jms.sasl.XOauth2Mechanism",
+        "org.apache.qpid.jms.tracing.JmsNoOpTracerFactory",
+        "org.apache.qpid.jms.tracing.JmsNoOpTracer",
+        "org.apache.qpid.proton.engine.impl.TransportImpl",
+        "org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSPrefetchPolicy",
+        "org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSPresettlePolicy"
+    };
+
+    private static final String[] OPENTRACING_TYPES = {
+        "org.apache.qpid.jms.tracing.opentracing.OpenTracingTracerFactory",
+        "org.apache.qpid.jms.tracing.opentracing.OpenTracingTracer"
+    };
+
+    private static final String[] NETTY_CHANNEL_TYPES = {
+        "io.netty.channel.socket.nio.NioSocketChannel",
+        "io.netty.channel.epoll.EpollSocketChannel",
+        "io.netty.channel.kqueue.KQueueSocketChannel"
+    };
+
+    @Override
+    public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+        for (String service : QPID_SERVICES) {
+            hints.resources().registerPattern(QPID_SERVICES_PREFIX + service);
+        }
+
+        for (String type : QPID_TYPES) {
+            registerBeanType(hints, type, classLoader);
+        }
+
+        if (ClassUtils.isPresent("io.opentracing.util.GlobalTracer", classLoader)) {
+            hints.resources().registerPattern(QPID_SERVICES_PREFIX + "tracing/opentracing");
+
+            for (String type : OPENTRACING_TYPES) {
+                registerBeanType(hints, type, classLoader);
+            }
+        }
+
+        for (String type : NETTY_CHANNEL_TYPES) {
+            hints.reflection().registerTypeIfPresent(classLoader, type, MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+        }
+
+        hints.reflection().registerTypeIfPresent(classLoader, "org.apache.commons.pool2.impl.DefaultEvictionPolicy",
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS);
+
+        // See AMQP10JMSShardedConnectionFactory
+        hints.proxies().registerJdkProxy(Session.class);
+        hints.proxies().registerJdkProxy(MessageProducer.class);
+    }
+
+    private static void registerBeanType(RuntimeHints hints, String type, ClassLoader classLoader) {
+        hints.reflection().registerTypeIfPresent(classLoader, type,
+            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+            MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS,
+            MemberCategory.INVOKE_DECLARED_METHODS,
+            MemberCategory.INVOKE_PUBLIC_METHODS);
+    }
+}
@@ -0,0 +1,483 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.util.Assert;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionConsumer;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.ConnectionMetaData;
+import jakarta.jms.Destination;
+import jakarta.jms.ExceptionListener;
+import jakarta.jms.IllegalStateException;
+import jakarta.jms.JMSContext;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.ServerSessionPool;
+import jakarta.jms.Session;
+import jakarta.jms.TemporaryQueue;
+import jakarta.jms.TemporaryTopic;
+import jakarta.jms.Topic;
+
+/**
+ * {@link ConnectionFactory} whose connections spread their sessions over one underlying connection
+ * from each of several shard connection factories. A Qpid JMS connection performs all of its I/O on
+ * a single event loop thread so a busy publisher is limited to one core, spreading the sessions over
+ * several connections allows their I/O to proceed in parallel.
+ * <p>
+ * With the {@link AMQP10JMSShardingStrategy#ROUND_ROBIN} strategy each session is created on the next
+ * underlying connection in turn. With the {@link AMQP10JMSShardingStrategy#DESTINATION} strategy a
+ * session routes each producer, consumer, browser and anonymous producer send to the connection its
+ * destination name hashes to, opening a session on that connection when first needed, such that a
+ * destination is only ever written to over one connection and its messages keep their order. Messages
+ * are created by the session on the first connection and temporary destinations always map to the
+ * first connection as they can only be consumed on the connection that created them.
+ * <p>
+ * Committing, rolling back or recovering a session with the destination strategy does so on each of
+ * the underlying sessions in turn, which is not atomic when the work spans destinations that map to
+ * different connections. The client ID of the underlying connections cannot be set through the
+ * sharded connection.
+ */
+public class AMQP10JMSShardedConnectionFactory implements ConnectionFactory {
+
+    private final List<ConnectionFactory> shards;
+    private final AMQP10JMSShardingStrategy strategy;
+    private final AtomicInteger nextShard = new AtomicInteger();
+
+    /**
+     * Creates a new sharded connection factory.
+     *
+     * @param shards
+     *      The connection factories that each provide one of the underlying connections.
+     * @param strategy
+     *      The strategy used to spread sessions across the underlying connections.
+     */
+    public AMQP10JMSShardedConnectionFactory(List<? extends ConnectionFactory> shards, AMQP10JMSShardingStrategy strategy) {
+        Assert.notEmpty(shards, "At least one shard connection factory is required");
+        Assert.noNullElements(shards, "Shard connection factories must not be null");
+        Assert.notNull(strategy, "Sharding strategy must not be null");
+
+        this.shards = List.copyOf(shards);
+        this.strategy = strategy;
+    }
+
+    /**
+     * @return the connection factories that each provide one of the underlying connections.
+     */
+    public List<ConnectionFactory> getShards() {
+        return shards;
+    }
+
+    /**
+     * @return the strategy used to spread sessions across the underlying connections.
+     */
+    public AMQP10JMSShardingStrategy getStrategy() {
+        return strategy;
+    }
+
+    @Override
+    public Connection createConnection() throws JMSException {
+        return openConnection((factory) -> factory.createConnection());
+    }
+
+    @Override
+    public Connection createConnection(String userName, String password) throws JMSException {
+        return openConnection((factory) -> factory.createConnection(userName, password));
+    }
+
+    /**
+     * Creates a context on the next shard connection factory in turn.
+     */
+    @Override
+    public JMSContext createContext() {
+        return shards.get(nextShardIndex()).createContext();
+    }
+
+    @Override
+    public JMSContext createContext(String userName, String password) {
+        return shards.get(nextShardIndex()).createContext(userName, password);
+    }
+
+    @Override
+    public JMSContext createContext(String userName, String password, int sessionMode) {
+        return shards.get(nextShardIndex()).createContext(userName, password, sessionMode);
+    }
+
+    @Override
+    public JMSContext createContext(int sessionMode) {
+        return shards.get(nextShardIndex()).createContext(sessionMode);
+    }
+
+    /**
+     * Returns the index of the shard a destination is assigned to by the destination strategy.
+     *
+     * @param destination
+     *      The destination to assign or null for the anonymous destination.
+     * @param shardCount
+     *      The number of shards available.
+     *
+     * @return the index of the shard in the range zero to shard count minus one.
+     *
+     * @throws JMSException if the name of the destination cannot be read.
+     */
+    static int shardOf(Destination destination, int shardCount) throws JMSException {
+        if (shardCount == 1 || destination == null || destination instanceof TemporaryQueue || destination instanceof TemporaryTopic) {
+            return 0;
+        }
+
+        final String name;
+        if (destination instanceof Queue) {
+            name = ((Queue) destination).getQueueName();
+        } else if (destination instanceof Topic) {
+            name = ((Topic) destination).getTopicName();
+        } else {
+            name = destination.toString();
+        }
+
+        return name != null ? Math.floorMod(name.hashCode(), shardCount) : 0;
+    }
+
+    private int nextShardIndex() {
+        return Math.floorMod(nextShard.getAndIncrement(), shards.size());
+    }
+
+    private Connection openConnection(ConnectionOpener opener) throws JMSException {
+        final Connection[] connections = new Connection[shards.size()];
+
+        try {
+            for (int i = 0; i < connections.length; ++i) {
+                connections[i] = opener.open(shards.get(i));
+            }
+        } catch (JMSException | RuntimeException ex) {
+            for (Connection connection : connections) {
+                JmsUtils.closeConnection(connection);
+            }
+            throw ex;
+        }
+
+        return new ShardedConnection(connections);
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException ex) {
+            throw ex.getTargetException();
+        }
+    }
+
+    @FunctionalInterface
+    private interface ConnectionOpener {
+
+        Connection open(ConnectionFactory factory) throws JMSException;
+
+    }
+
+    private final class ShardedConnection implements Connection {
+
+        private final Connection[] connections;
+
+        private volatile ExceptionListener exceptionListener;
+
+        ShardedConnection(Connection[] connections) {
+            this.connections = connections;
+        }
+
+        @Override
+        public Session createSession(boolean transacted, int acknowledgeMode) throws JMSException {
+            if (strategy == AMQP10JMSShardingStrategy.ROUND_ROBIN) {
+                return connections[nextShardIndex()].createSession(transacted, acknowledgeMode);
+            }
+
+            return (Session) Proxy.newProxyInstance(AMQP10JMSShardedConnectionFactory.class.getClassLoader(),
+                new Class<?>[] { Session.class }, new ShardedSessionHandler(connections, transacted, acknowledgeMode));
+        }
+
+        @Override
+        public Session createSession(int sessionMode) throws JMSException {
+            return createSession(sessionMode == Session.SESSION_TRANSACTED, sessionMode);
+        }
+
+        @Override
+        public Session createSession() throws JMSException {
+            return createSession(false, Session.AUTO_ACKNOWLEDGE);
+        }
+
+        @Override
+        public String getClientID() throws JMSException {
+            return connections[0].getClientID();
+        }
+
+        @Override
+        public void setClientID(String clientID) throws JMSException {
+            throw new IllegalStateException("The client ID of a sharded connection must be configured on its shard connection factories");
+        }
+
+        @Override
+        public ConnectionMetaData getMetaData() throws JMSException {
+            return connections[0].getMetaData();
+        }
+
+        @Override
+        public ExceptionListener getExceptionListener() throws JMSException {
+            return exceptionListener;
+        }
+
+        @Override
+        public void setExceptionListener(ExceptionListener listener) throws JMSException {
+            for (Connection connection : connections) {
+                connection.setExceptionListener(listener);
+            }
+
+            exceptionListener = listener;
+        }
+
+        @Override
+        public void start() throws JMSException {
+            for (Connection connection : connections) {
+                connection.start();
+            }
+        }
+
+        @Override
+        public void stop() throws JMSException {
+            for (Connection connection : connections) {
+                connection.stop();
+            }
+        }
+
+        @Override
+        public void close() throws JMSException {
+            JMSException failure = null;
+
+            for (Connection connection : connections) {
+                try {
+                    connection.close();
+                } catch (JMSException ex) {
+                    if (failure == null) {
+                        failure = ex;
+                    }
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+
+        @Override
+        public ConnectionConsumer createConnectionConsumer(Destination destination, String messageSelector,
+                                                           ServerSessionPool sessionPool, int maxMessages) throws JMSException {
+            return connectionFor(destination).createConnectionConsumer(destination, messageSelector, sessionPool, maxMessages);
+        }
+
+        @Override
+        public ConnectionConsumer createSharedConnectionConsumer(Topic topic, String subscriptionName, String messageSelector,
+                                                                 ServerSessionPool sessionPool, int maxMessages) throws JMSException {
+            return connectionFor(topic).createSharedConnectionConsumer(topic, subscriptionName, messageSelector, sessionPool, maxMessages);
+        }
+
+        @Override
+        public ConnectionConsumer createDurableConnectionConsumer(Topic topic, String subscriptionName, String messageSelector,
+                                                                  ServerSessionPool sessionPool, int maxMessages) throws JMSException {
+            return connectionFor(topic).createDurableConnectionConsumer(topic, subscriptionName, messageSelector, sessionPool, maxMessages);
+        }
+
+        @Override
+        public ConnectionConsumer createSharedDurableConnectionConsumer(Topic topic, String subscriptionName, String messageSelector,
+                                                                        ServerSessionPool sessionPool, int maxMessages) throws JMSException {
+            return connectionFor(topic).createSharedDurableConnectionConsumer(topic, subscriptionName, messageSelector, sessionPool, maxMessages);
+        }
+
+        private Connection connectionFor(Destination destination) throws JMSException {
+            return connections[shardOf(destination, connections.length)];
+        }
+    }
+
+    private static final class ShardedSessionHandler implements InvocationHandler {
+
+        private final Connection[] connections;
+        private final boolean transacted;
+        private final int acknowledgeMode;
+        private final Session[] sessions;
+
+        private boolean closed;
+
+        ShardedSessionHandler(Connection[] connections, boolean transacted, int acknowledgeMode) {
+            this.connections = connections;
+            this.transacted = transacted;
+            this.acknowledgeMode = acknowledgeMode;
+            this.sessions = new Session[connections.length];
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ShardedSession over " + connections.length + " connections";
+                case "getTransacted":
+                    return transacted;
+                case "getAcknowledgeMode":
+                    return transacted ? Session.SESSION_TRANSACTED : acknowledgeMode;
+                case "close":
+                    close();
+                    return null;
+                case "commit":
+                case "rollback":
+                case "recover":
+                    for (Session session : sessions) {
+                        if (session != null) {
+                            invokeTarget(session, method, args);
+                        }
+                    }
+                    return null;
+                case "createProducer":
+                    if (args[0] == null) {
+                        return Proxy.newProxyInstance(AMQP10JMSShardedConnectionFactory.class.getClassLoader(),
+                            new Class<?>[] { MessageProducer.class }, new ShardedProducerHandler(this));
+                    }
+                    break;
+                default:
+                    break;
+            }
+
+            if (args != null && args.length > 0 && args[0] instanceof Destination) {
+                return invokeTarget(session(shardOf((Destination) args[0], sessions.length)), method, args);
+            }
+
+            return invokeTarget(session(0), method, args);
+        }
+
+        Session session(int shard) throws JMSException {
+            if (closed) {
+                throw new IllegalStateException("The Session is closed");
+            }
+
+            if (sessions[shard] == null) {
+                sessions[shard] = connections[shard].createSession(transacted, acknowledgeMode);
+            }
+
+            return sessions[shard];
+        }
+
+        private void close() throws JMSException {
+            closed = true;
+
+            JMSException failure = null;
+
+            for (int i = 0; i < sessions.length; ++i) {
+                if (sessions[i] != null) {
+                    try {
+                        sessions[i].close();
+                    } catch (JMSException ex) {
+                        if (failure == null) {
+                            failure = ex;
+                        }
+                    }
+
+                    sessions[i] = null;
+                }
+            }
+
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+    private static final class ShardedProducerHandler implements InvocationHandler {
+
+        private final ShardedSessionHandler session;
+        private final MessageProducer[] producers;
+
+        // Settings applied to the anonymous producer which are replayed onto each underlying producer
+        private final Map<Method, Object[]> settings = new LinkedHashMap<>();
+
+        ShardedProducerHandler(ShardedSessionHandler session) {
+            this.session = session;
+            this.producers = new MessageProducer[session.sessions.length];
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "equals":
+                    return proxy == args[0];
+                case "hashCode":
+                    return System.identityHashCode(proxy);
+                case "toString":
+                    return "ShardedMessageProducer over " + producers.length + " connections";
+                case "close":
+                    for (MessageProducer producer : producers) {
+                        if (producer != null) {
+                            producer.close();
+                        }
+                    }
+                    return null;
+                default:
+                    break;
+            }
+
+            if (method.getName().startsWith("set")) {
+                invokeTarget(producer(0), method, args);
+                for (int i = 1; i < producers.length; ++i) {
+                    if (producers[i] != null) {
+                        invokeTarget(producers[i], method, args);
+                    }
+                }
+
+                settings.put(method, args);
+                return null;
+            }
+
+            if (args != null && args.length > 0 && args[0] instanceof Destination) {
+                return invokeTarget(producer(shardOf((Destination) args[0], producers.length)), method, args);
+            }
+
+            return invokeTarget(producer(0), method, args);
+        }
+
+        private MessageProducer producer(int shard) throws Throwable {
+            if (producers[shard] == null) {
+                final MessageProducer producer = session.session(shard).createProducer(null);
+                for (Map.Entry<Method, Object[]> setting : settings.entrySet()) {
+                    invokeTarget(producer, setting.getKey(), setting.getValue());
+                }
+
+                producers[shard] = producer;
+            }
+
+            return producers[shard];
+        }
+    }
+}
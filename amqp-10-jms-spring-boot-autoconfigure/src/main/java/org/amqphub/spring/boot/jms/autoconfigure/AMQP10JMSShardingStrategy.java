@@ -0,0 +1,38 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+/**
+ * The ways in which the {@link AMQP10JMSShardedConnectionFactory} spreads work across its
+ * underlying connections.
+ */
+public enum AMQP10JMSShardingStrategy {
+
+    /**
+     * Each destination is assigned to one connection by the hash of its name, such that all
+     * messages sent to a destination travel in order over the same connection. Sessions open a
+     * session on each connection they use as the destinations they address become known.
+     */
+    DESTINATION,
+
+    /**
+     * Each new session is created on the next connection in turn. Messages sent to the same
+     * destination from different sessions may be delivered out of order.
+     */
+    ROUND_ROBIN
+
+}
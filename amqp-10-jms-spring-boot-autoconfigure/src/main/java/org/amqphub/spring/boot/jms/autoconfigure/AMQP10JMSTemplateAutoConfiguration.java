@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnSingleCandidate;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.util.StringUtils;
+
+/**
+ * Auto Configuration class that creates the {@link AMQP10JMSAsyncTemplate}, {@link AMQP10JMSBatchTemplate}
+ * and {@link AMQP10JMSRequestReplyTemplate} from the {@link JmsTemplate} configured for the AMQP 1.0 JMS
+ * connection factory. When a client ID is configured the request reply template is given a reply connection
+ * factory configured from the same properties without the client ID, which remains with the application's
+ * connections.
+ *
+ * @see AMQP10JMSProperties.AsyncSend
+ * @see AMQP10JMSProperties.Batch
+ * @see AMQP10JMSProperties.RequestReply
+ */
+@AutoConfiguration(after = { AMQP10JMSAutoConfiguration.class, JmsAutoConfiguration.class })
+@ConditionalOnClass({ JmsTemplate.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+public class AMQP10JMSTemplateAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnSingleCandidate(JmsTemplate.class)
+    AMQP10JMSAsyncTemplate amqp10JmsAsyncTemplate(JmsTemplate jmsTemplate, AMQP10JMSProperties properties) {
+        return new AMQP10JMSAsyncTemplate(jmsTemplate,
+                                          properties.getAsyncSend().getMaxInFlight(),
+                                          properties.getAsyncSend().getAcquireTimeout());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnSingleCandidate(JmsTemplate.class)
+    AMQP10JMSBatchTemplate amqp10JmsBatchTemplate(JmsTemplate jmsTemplate, AMQP10JMSProperties properties) {
+        return new AMQP10JMSBatchTemplate(jmsTemplate,
+                                          properties.getBatch().getMaxSize(),
+                                          properties.getBatch().getMaxBytes().toBytes());
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnSingleCandidate(JmsTemplate.class)
+    AMQP10JMSRequestReplyTemplate amqp10JmsRequestReplyTemplate(JmsTemplate jmsTemplate, AMQP10JMSProperties properties,
+                                                                ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers) {
+        final AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(jmsTemplate,
+                                                                                         properties.getRequestReply().getTimeout(),
+                                                                                         properties.getRequestReply().getReplyDestination());
+        template.setReplyConnectionFactory(createReplyConnectionFactory(properties, factoryCustomizers));
+        return template;
+    }
+
+    static JmsConnectionFactory createReplyConnectionFactory(AMQP10JMSProperties properties,
+                                                             ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers) {
+        if (!StringUtils.hasText(properties.getClientId())) {
+            return null;
+        }
+
+        final JmsConnectionFactory connectionFactory = new AMQP10JMSConnectionFactoryFactory(properties, factoryCustomizers)
+            .createConnectionFactory(JmsConnectionFactory.class);
+
+        // The reply connection must not claim the client ID used by the application's connections
+        connectionFactory.setClientID(null);
+
+        return connectionFactory;
+    }
+}
@@ -0,0 +1,291 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.jms.connection.JmsResourceHolder;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.Assert;
+
+import io.micrometer.observation.Observation;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+
+/**
+ * {@link DefaultMessageListenerContainer} base that settles the messages it receives in windows
+ * rather than one at a time, a window is committed with one transaction commit when the session is
+ * transacted or with one {@link Message#acknowledge()} when the session uses client acknowledgement.
+ * <p>
+ * A window is started by the first message received within the receive timeout and is closed once it
+ * holds the maximum window size or the maximum window time has passed since its first message, unless
+ * {@link #isWindowFilledAfterTime()} is overridden to keep adding the messages that are immediately
+ * available once the window time has passed. Should the listener fail the session
+ * is rolled back or recovered such that the whole window is redelivered. Should the container stop
+ * while the window is open the window is likewise redelivered unless {@link #isWindowSettledOnStop()}
+ * is overridden to close the window and settle it as usual. The consumer used to receive a window must
+ * remain open until the window is settled, so the container caches its consumers.
+ * <p>
+ * Subclasses invoke their listener through {@link #invokeObserved(Session, Message, int, ListenerInvocation)}
+ * which, like the polling containers do for each message, exposes the session to the {@code JmsTemplate}
+ * operations of the listener, such that messages the listener sends are settled with the window, and makes
+ * a {@code jms.message.process} observation of the invocation.
+ */
+abstract class AMQP10JMSWindowedMessageListenerContainer extends DefaultMessageListenerContainer {
+
+    /**
+     * Key of the observation context entry that holds the number of messages processed by an observed
+     * listener invocation when it is more than one.
+     */
+    static final String MESSAGE_COUNT_KEY = AMQP10JMSWindowedMessageListenerContainer.class.getName() + ".messageCount";
+
+    private int windowSize;
+    private Duration windowTime;
+
+    protected AMQP10JMSWindowedMessageListenerContainer(int windowSize, Duration windowTime) {
+        this.windowSize = windowSize;
+        this.windowTime = windowTime;
+
+        setCacheLevel(CACHE_CONSUMER);
+    }
+
+    protected int getWindowSize() {
+        return windowSize;
+    }
+
+    protected void setWindowSize(int windowSize) {
+        Assert.isTrue(windowSize > 0, "Window size must be greater than zero");
+        this.windowSize = windowSize;
+    }
+
+    protected Duration getWindowTime() {
+        return windowTime;
+    }
+
+    protected void setWindowTime(Duration windowTime) {
+        Assert.isTrue(windowTime != null && !windowTime.isNegative(), "Window time must not be negative");
+        this.windowTime = windowTime;
+    }
+
+    /**
+     * Called for each message as it is added to the open window.
+     *
+     * @param session
+     *      the session the message was received on.
+     * @param message
+     *      the message that was received.
+     *
+     * @throws JMSException if an error occurs while processing the message.
+     */
+    protected abstract void onWindowMessage(Session session, Message message) throws JMSException;
+
+    /**
+     * Called once the window is closed and before it is committed or acknowledged.
+     *
+     * @param session
+     *      the session the messages were received on.
+     * @param messages
+     *      the messages of the window in the order they were received.
+     *
+     * @throws JMSException if an error occurs while processing the messages.
+     */
+    protected abstract void onWindowClosed(Session session, List<Message> messages) throws JMSException;
+
+    /**
+     * Whether a window that is open when the container stops is closed and settled as usual, with the
+     * message received last added to it, rather than left to be redelivered. Defaults to {@code false}
+     * which suits containers that only hand the window to the listener once it has closed.
+     *
+     * @return true if an open window is settled when the container stops.
+     */
+    protected boolean isWindowSettledOnStop() {
+        return false;
+    }
+
+    /**
+     * Whether a window whose time has passed keeps adding the messages that {@link MessageConsumer#receiveNoWait()}
+     * returns until it holds the maximum window size, rather than being closed. Defaults to {@code false}
+     * which suits containers that invoke their listener as each message is added, as under a backlog there
+     * is always a message available and the window would only close once full.
+     *
+     * @return true if a window is filled with the immediately available messages once its time has passed.
+     */
+    protected boolean isWindowFilledAfterTime() {
+        return false;
+    }
+
+    /**
+     * Invokes the listener with the session exposed to the {@code JmsTemplate} operations of the listener,
+     * when {@link #isExposeListenerSession()} and no transaction manager has already bound a session, and
+     * within a {@code jms.message.process} observation made for the given message.
+     *
+     * @param session
+     *      the session the messages were received on.
+     * @param message
+     *      the message the observation is made for.
+     * @param messageCount
+     *      the number of messages processed by the invocation.
+     * @param invocation
+     *      the invocation of the listener.
+     *
+     * @throws JMSException if an error occurs while processing the messages.
+     */
+    final void invokeObserved(Session session, Message message, int messageCount, ListenerInvocation invocation) throws JMSException {
+        final ConnectionFactory connectionFactory = obtainConnectionFactory();
+        final boolean exposeResource = isExposeListenerSession() && !TransactionSynchronizationManager.hasResource(connectionFactory);
+        final Observation observation = createObservation(message);
+
+        if (messageCount > 1 && !observation.isNoop()) {
+            observation.getContext().put(MESSAGE_COUNT_KEY, messageCount);
+        }
+
+        observation.start();
+
+        // Bound only while the listener runs, the container settles the window once the session is no longer
+        // bound so that it still regards the session as locally transacted
+        if (exposeResource) {
+            TransactionSynchronizationManager.bindResource(connectionFactory, new JmsResourceHolder(session));
+        }
+
+        try (Observation.Scope scope = observation.openScope()) {
+            invocation.invoke();
+        } catch (JMSException | RuntimeException | Error ex) {
+            observation.error(ex);
+            throw ex;
+        } finally {
+            if (exposeResource) {
+                TransactionSynchronizationManager.unbindResource(connectionFactory);
+            }
+            observation.stop();
+        }
+    }
+
+    /**
+     * Returns the number of messages processed by the listener invocation of an observation.
+     *
+     * @param context
+     *      the context of a {@code jms.message.process} observation.
+     *
+     * @return the number of messages processed within the observation, one unless a window was processed.
+     */
+    static int observedMessageCount(Observation.Context context) {
+        final Integer messageCount = context.get(MESSAGE_COUNT_KEY);
+        return messageCount != null && messageCount > 0 ? messageCount : 1;
+    }
+
+    @Override
+    protected void validateConfiguration() {
+        super.validateConfiguration();
+
+        Assert.state(getCacheLevel() >= CACHE_CONSUMER, "Windowed listener containers must cache their consumers");
+    }
+
+    @Override
+    protected boolean doReceiveAndExecute(Object invoker, Session session, MessageConsumer consumer, TransactionStatus status) throws JMSException {
+        Assert.state(session != null && consumer != null, "Windowed listener containers must cache their consumers");
+
+        final Message first = receiveMessage(consumer);
+
+        if (first == null) {
+            if (invoker != null) {
+                noMessageReceived(invoker, session);
+            }
+            return false;
+        }
+
+        if (invoker != null) {
+            messageReceived(invoker, session);
+        }
+
+        try {
+            executeWindow(session, consumer, first);
+        } catch (Throwable ex) {
+            if (status != null) {
+                status.setRollbackOnly();
+            }
+            handleListenerException(ex);
+
+            if (ex instanceof JMSException) {
+                throw (JMSException) ex;
+            }
+        }
+
+        return true;
+    }
+
+    private void executeWindow(Session session, MessageConsumer consumer, Message first) throws JMSException {
+        final List<Message> window = new ArrayList<>(Math.min(windowSize, 1024));
+        final long deadline = System.nanoTime() + windowTime.toNanos();
+
+        try {
+            Message message = first;
+
+            while (message != null) {
+                final boolean stopping = !isAcceptMessagesWhileStopping() && !isRunning();
+
+                if (stopping && !isWindowSettledOnStop()) {
+                    // Leave the window to be redelivered once the container is running again
+                    rollbackIfNecessary(session);
+                    return;
+                }
+
+                window.add(message);
+                onWindowMessage(session, message);
+
+                if (stopping || window.size() >= windowSize) {
+                    break;
+                }
+
+                final long remainingMillis = TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime());
+
+                if (remainingMillis > 0) {
+                    message = consumer.receive(remainingMillis);
+                } else if (isWindowFilledAfterTime()) {
+                    // Checks the remote peer as well unless the client is configured to receiveNoWaitLocalOnly
+                    message = consumer.receiveNoWait();
+                } else {
+                    break;
+                }
+            }
+
+            onWindowClosed(session, window);
+        } catch (JMSException | RuntimeException | Error ex) {
+            rollbackOnExceptionIfNecessary(session, ex);
+            throw ex;
+        }
+
+        commitIfNecessary(session, window.get(window.size() - 1));
+    }
+
+    /**
+     * An invocation of the listener of a windowed container.
+     */
+    @FunctionalInterface
+    interface ListenerInvocation {
+
+        void invoke() throws JMSException;
+
+    }
+}
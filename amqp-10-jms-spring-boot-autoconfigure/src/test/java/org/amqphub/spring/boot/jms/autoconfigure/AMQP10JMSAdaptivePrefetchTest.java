@@ -0,0 +1,174 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.JmsQueue;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.JmsTemporaryQueue;
+import org.apache.qpid.jms.JmsTopic;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+
+/**
+ * Tests for the adaptive prefetch controller, its prefetch policy and auto configuration.
+ */
+public class AMQP10JMSAdaptivePrefetchTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSAdaptivePrefetchAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    @Test
+    public void testAdaptivePrefetchNotConfiguredByDefault() {
+        this.contextRunner.withPropertyValues("spring.jms.cache.enabled=false").run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSAdaptivePrefetchController.class);
+
+            JmsConnectionFactory factory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+            assertThat(factory.getPrefetchPolicy()).isNotInstanceOf(AMQP10JMSAdaptivePrefetchPolicy.class);
+        });
+    }
+
+    @Test
+    public void testAdaptivePrefetchPolicyInstalled() {
+        this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class)
+            .withPropertyValues("spring.jms.cache.enabled=false",
+                                "amqphub.amqp10jms.prefetch.queue=50",
+                                "amqphub.amqp10jms.prefetch.adaptive.enabled=true",
+                                "amqphub.amqp10jms.prefetch.adaptive.min=5",
+                                "amqphub.amqp10jms.prefetch.adaptive.max=500").run((context) -> {
+
+            AMQP10JMSAdaptivePrefetchController controller = context.getBean(AMQP10JMSAdaptivePrefetchController.class);
+            assertThat(context).hasSingleBean(AMQP10JMSAdaptivePrefetchObservationHandler.class);
+            assertThat(controller.getMinPrefetch()).isEqualTo(5);
+            assertThat(controller.getMaxPrefetch()).isEqualTo(500);
+
+            JmsConnectionFactory factory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+            AMQP10JMSAdaptivePrefetchPolicy policy = (AMQP10JMSAdaptivePrefetchPolicy) factory.getPrefetchPolicy();
+            assertThat(policy.getController()).isSameAs(controller);
+
+            JmsSession session = mock(JmsSession.class);
+            assertThat(policy.getConfiguredPrefetch(session, new JmsQueue("orders"), false, false)).isEqualTo(50);
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            context.getBean(AMQP10JMSAdaptivePrefetchMetrics.class).bindTo(registry);
+            assertThat(registry.get("amqphub.amqp10jms.prefetch").tag("destination", "orders").gauge().value()).isEqualTo(50);
+        });
+    }
+
+    @Test
+    public void testPrefetchFollowsProcessingTime() {
+        List<Integer> changes = new ArrayList<>();
+        AMQP10JMSAdaptivePrefetchController controller =
+            new AMQP10JMSAdaptivePrefetchController(1, 1000, Duration.ofSeconds(1), (address, prefetch) -> changes.add(prefetch));
+        JmsQueue queue = new JmsQueue("orders");
+
+        assertThat(controller.getPrefetch(queue, 5000)).isEqualTo(1000);
+
+        controller.recordProcessingTime(queue, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(controller.getPrefetch(queue, 5000)).isEqualTo(100);
+
+        for (int i = 0; i < 50; ++i) {
+            controller.recordProcessingTime(queue, TimeUnit.SECONDS.toNanos(10));
+        }
+        assertThat(controller.getPrefetch(queue, 5000)).isEqualTo(1);
+
+        for (int i = 0; i < 100; ++i) {
+            controller.recordProcessingTime(queue, TimeUnit.MICROSECONDS.toNanos(1));
+        }
+        assertThat(controller.getPrefetch(queue, 5000)).isEqualTo(1000);
+
+        assertThat(changes).startsWith(1000, 100).endsWith(1000);
+        assertThat(controller.getPrefetchValues()).containsEntry("orders", 1000);
+    }
+
+    @Test
+    public void testTemporaryDestinationsNotTracked() {
+        AMQP10JMSAdaptivePrefetchController controller = new AMQP10JMSAdaptivePrefetchController(1, 100, Duration.ofSeconds(1), null);
+        JmsTemporaryQueue queue = new JmsTemporaryQueue("reply");
+
+        controller.recordProcessingTime(queue, TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(controller.getPrefetch(queue, 500)).isEqualTo(100);
+        assertThat(controller.getPrefetchValues()).isEmpty();
+    }
+
+    @Test
+    public void testPolicyLeavesBrowsersAndCopiesShareController() {
+        AMQP10JMSAdaptivePrefetchController controller = new AMQP10JMSAdaptivePrefetchController(1, 1000, Duration.ofSeconds(1), null);
+        JmsDefaultPrefetchPolicy source = new JmsDefaultPrefetchPolicy();
+        source.setAll(20);
+
+        AMQP10JMSAdaptivePrefetchPolicy policy = new AMQP10JMSAdaptivePrefetchPolicy(source, controller);
+        JmsSession session = mock(JmsSession.class);
+        JmsTopic topic = new JmsTopic("prices");
+
+        controller.recordProcessingTime(topic, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(policy.getConfiguredPrefetch(session, topic, false, false)).isEqualTo(10);
+        assertThat(policy.getConfiguredPrefetch(session, new JmsQueue("orders"), false, true)).isEqualTo(20);
+        assertThat(policy.copy().getConfiguredPrefetch(session, topic, false, false)).isEqualTo(10);
+    }
+
+    @Test
+    public void testObservationHandlerRecordsProcessingTime() throws Exception {
+        AMQP10JMSAdaptivePrefetchController controller = new AMQP10JMSAdaptivePrefetchController(1, 1000, Duration.ofMillis(1), null);
+        AMQP10JMSAdaptivePrefetchObservationHandler handler = new AMQP10JMSAdaptivePrefetchObservationHandler(controller);
+
+        Message message = mock(Message.class);
+        when(message.getJMSDestination()).thenReturn(new JmsQueue("orders"));
+
+        JmsProcessObservationContext context = new JmsProcessObservationContext(message);
+        assertThat(handler.supportsContext(context)).isTrue();
+
+        handler.onStart(context);
+        Thread.sleep(5);
+        handler.onStop(context);
+
+        assertThat(controller.getPrefetchValues()).containsEntry("orders", 1);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MeterRegistryConfiguration {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,158 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.ResourceAllocationException;
+import org.springframework.jms.core.JmsTemplate;
+
+import jakarta.jms.CompletionListener;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the asynchronous send template and its auto configuration.
+ */
+public class AMQP10JMSAsyncTemplateTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSTemplateAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private final List<CompletionListener> pendingCompletions = new ArrayList<>();
+
+    @Test
+    public void testAsyncTemplateIsConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.asyncSend.maxInFlight=64").run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSAsyncTemplate.class);
+
+            AMQP10JMSAsyncTemplate template = context.getBean(AMQP10JMSAsyncTemplate.class);
+
+            assertEquals(64, template.getMaxInFlight());
+            assertEquals(0, template.getInFlight());
+            assertThat(template.getJmsTemplate()).isSameAs(context.getBean(JmsTemplate.class));
+        });
+    }
+
+    @Test
+    public void testInvalidMaxInFlightFailsStartup() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.asyncSend.maxInFlight=0").run((context) -> {
+            assertThat(context).hasFailed();
+        });
+    }
+
+    @Test
+    public void testSendCompletesWhenMessageSettled() throws Exception {
+        AMQP10JMSAsyncTemplate template = new AMQP10JMSAsyncTemplate(createJmsTemplate(), 2);
+
+        CompletableFuture<Void> result = template.convertAndSend("queue", "Hello World");
+
+        assertFalse(result.isDone());
+        assertEquals(1, template.getInFlight());
+
+        pendingCompletions.remove(0).onCompletion(mock(Message.class));
+
+        assertTrue(result.isDone());
+        assertFalse(result.isCompletedExceptionally());
+        assertEquals(0, template.getInFlight());
+    }
+
+    @Test
+    public void testSendFailsWhenMessageRejected() throws Exception {
+        AMQP10JMSAsyncTemplate template = new AMQP10JMSAsyncTemplate(createJmsTemplate(), 2);
+
+        CompletableFuture<Void> result = template.convertAndSend("queue", "Hello World");
+
+        pendingCompletions.remove(0).onException(mock(Message.class), new JMSException("rejected"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+        assertThat(error.getCause()).isInstanceOf(JmsException.class);
+        assertEquals(0, template.getInFlight());
+    }
+
+    @Test
+    public void testInFlightSendsAreCapped() throws Exception {
+        AMQP10JMSAsyncTemplate template = new AMQP10JMSAsyncTemplate(createJmsTemplate(), 2, Duration.ofMillis(10));
+
+        CompletableFuture<Void> first = template.convertAndSend("queue", "1");
+        CompletableFuture<Void> second = template.convertAndSend("queue", "2");
+        CompletableFuture<Void> third = template.convertAndSend("queue", "3");
+
+        assertEquals(2, template.getInFlight());
+        assertTrue(third.isCompletedExceptionally());
+        assertThat(third.handle((v, error) -> error).get()).isInstanceOf(ResourceAllocationException.class);
+
+        pendingCompletions.remove(0).onCompletion(mock(Message.class));
+
+        CompletableFuture<Void> fourth = template.convertAndSend("queue", "4");
+
+        assertTrue(first.isDone());
+        assertFalse(second.isDone());
+        assertFalse(fourth.isCompletedExceptionally());
+        assertEquals(2, template.getInFlight());
+    }
+
+    private JmsTemplate createJmsTemplate() throws Exception {
+        ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        Session session = mock(Session.class);
+        MessageProducer producer = mock(MessageProducer.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createQueue(any())).thenReturn(mock(Queue.class));
+        when(session.createProducer(any(Destination.class))).thenReturn(producer);
+        when(session.createTextMessage(any())).thenReturn(mock(TextMessage.class));
+
+        doAnswer((invocation) -> {
+            pendingCompletions.add(invocation.getArgument(1));
+            return null;
+        }).when(producer).send(any(Message.class), any(CompletionListener.class));
+
+        return new JmsTemplate(connectionFactory);
+    }
+}
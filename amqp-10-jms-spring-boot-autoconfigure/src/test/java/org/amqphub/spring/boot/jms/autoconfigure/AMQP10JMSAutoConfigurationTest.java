@@ -18,15 +18,25 @@ package org.amqphub.spring.boot.jms.autoconfigure;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
 
 import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.JmsQueue;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.JmsTopic;
 import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.apache.qpid.jms.policy.JmsDefaultPresettlePolicy;
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
 import org.springframework.boot.autoconfigure.AutoConfigurations;
 import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
 import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.boot.test.system.CapturedOutput;
+import org.springframework.boot.test.system.OutputCaptureExtension;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.jms.connection.CachingConnectionFactory;
@@ -153,6 +163,148 @@ public class AMQP10JMSAutoConfigurationTest {
         });
     }
 
+    @Test
+    public void testTransportOptionsAppliedToRemoteURI() {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues(
+                "spring.jms.cache.enabled=false",
+                "amqphub.amqp10jms.remote-url=amqp://127.0.0.1:5672",
+                "amqphub.amqp10jms.transport.tcpNoDelay=true",
+                "amqphub.amqp10jms.transport.receiveBufferSize=32768").run((context) -> {
+
+            JmsConnectionFactory qpidJmsFactory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+
+            assertThat(qpidJmsFactory.getRemoteURI()).startsWith("amqp://127.0.0.1:5672?")
+                .contains("transport.tcpNoDelay=true")
+                .contains("transport.receiveBufferSize=32768");
+        });
+    }
+
+    @Test
+    public void testInvalidTransportOptionFailsStartup() {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues(
+                "spring.jms.cache.enabled=false",
+                "amqphub.amqp10jms.transport.trafficClass=1024").run((context) -> {
+
+            assertThat(context).hasFailed();
+        });
+    }
+
+    @Test
+    public void testPrefetchPolicyNotReplacedByDefault() {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues("spring.jms.cache.enabled=false").run((context) -> {
+
+            JmsConnectionFactory factory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+
+            assertThat(factory.getPrefetchPolicy()).isExactlyInstanceOf(JmsDefaultPrefetchPolicy.class);
+        });
+    }
+
+    @Test
+    public void testPrefetchPolicyValuesAreApplied() {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues("spring.jms.cache.enabled=false",
+                                "amqphub.amqp10jms.remote-url=amqp://127.0.0.1:5672?jms.prefetchPolicy.queueBrowserPrefetch=7",
+                                "amqphub.amqp10jms.prefetch.queue=2000",
+                                "amqphub.amqp10jms.prefetch.topic=500",
+                                "amqphub.amqp10jms.prefetch.durableTopic=100",
+                                "amqphub.amqp10jms.prefetch.destinations[work.*]=1",
+                                "amqphub.amqp10jms.prefetch.destinations[work.bulk]=50",
+                                "amqphub.amqp10jms.prefetch.destinations[work.bulk.*]=20"
+                ).run((context) -> {
+
+            JmsConnectionFactory factory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+
+            assertThat(factory.getPrefetchPolicy()).isInstanceOf(AMQP10JMSPrefetchPolicy.class);
+
+            AMQP10JMSPrefetchPolicy policy = (AMQP10JMSPrefetchPolicy) factory.getPrefetchPolicy();
+
+            assertEquals(2000, policy.getQueuePrefetch());
+            assertEquals(500, policy.getTopicPrefetch());
+            assertEquals(100, policy.getDurableTopicPrefetch());
+            assertEquals(7, policy.getQueueBrowserPrefetch());
+
+            assertEquals(2000, policy.getConfiguredPrefetch(null, new JmsQueue("orders"), false, false));
+            assertEquals(500, policy.getConfiguredPrefetch(null, new JmsTopic("events"), false, false));
+            assertEquals(1, policy.getConfiguredPrefetch(null, new JmsQueue("work.slow"), false, false));
+            // The exact address wins over earlier patterns, then the most specific pattern
+            assertEquals(50, policy.getConfiguredPrefetch(null, new JmsQueue("work.bulk"), false, false));
+            assertEquals(20, policy.getConfiguredPrefetch(null, new JmsQueue("work.bulk.eu"), false, false));
+            assertEquals(1, policy.copy().getConfiguredPrefetch(null, new JmsQueue("work.slow"), false, false));
+        });
+    }
+
+    @Test
+    public void testPresettlePolicyNotReplacedByDefault() {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues("spring.jms.cache.enabled=false").run((context) -> {
+
+            JmsConnectionFactory factory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+
+            assertThat(factory.getPresettlePolicy()).isExactlyInstanceOf(JmsDefaultPresettlePolicy.class);
+        });
+    }
+
+    @Test
+    public void testPresettlePolicyValuesAreApplied() {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues("spring.jms.cache.enabled=false",
+                                "amqphub.amqp10jms.remote-url=amqp://127.0.0.1:5672?jms.presettlePolicy.presettleTopicConsumers=true",
+                                "amqphub.amqp10jms.presettle.transactedProducers=true",
+                                "amqphub.amqp10jms.presettle.producerDestinations=metrics.*,audit",
+                                "amqphub.amqp10jms.presettle.consumerDestinations=events.*"
+                ).run((context) -> {
+
+            JmsConnectionFactory factory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+
+            assertThat(factory.getPresettlePolicy()).isInstanceOf(AMQP10JMSPresettlePolicy.class);
+
+            AMQP10JMSPresettlePolicy policy = (AMQP10JMSPresettlePolicy) factory.getPresettlePolicy();
+            JmsSession session = mock(JmsSession.class);
+
+            assertTrue(policy.isPresettleTopicConsumers());
+            assertTrue(policy.isPresettleTransactedProducers());
+            assertFalse(policy.isPresettleAll());
+            assertFalse(policy.isPresettleProducers());
+
+            assertTrue(policy.isProducerPresttled(session, new JmsQueue("metrics.cpu")));
+            assertTrue(policy.isProducerPresttled(session, new JmsTopic("audit")));
+            assertFalse(policy.isProducerPresttled(session, new JmsQueue("orders")));
+            assertTrue(policy.isConsumerPresttled(session, new JmsQueue("events.created")));
+            assertFalse(policy.isConsumerPresttled(session, new JmsQueue("orders")));
+            assertTrue(policy.copy().isProducerPresttled(session, new JmsQueue("metrics.cpu")));
+        });
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    public void testPresettleProducerDestinationsWarnedWithAnonymousProducers(CapturedOutput output) {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues("amqphub.amqp10jms.pool.enabled=true",
+                                "amqphub.amqp10jms.presettle.producerDestinations=metrics.*"
+                ).run((context) -> {
+
+            assertThat(context).hasSingleBean(ConnectionFactory.class);
+            assertThat(output).contains("amqphub.amqp10jms.presettle.producerDestinations");
+        });
+    }
+
+    @Test
+    @ExtendWith(OutputCaptureExtension.class)
+    public void testPresettleProducerDestinationsNotWarnedWithoutAnonymousProducers(CapturedOutput output) {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues("amqphub.amqp10jms.pool.enabled=true",
+                                "amqphub.amqp10jms.pool.useAnonymousProducers=false",
+                                "amqphub.amqp10jms.presettle.producerDestinations=metrics.*"
+                ).run((context) -> {
+
+            assertThat(context).hasSingleBean(ConnectionFactory.class);
+            assertThat(output).doesNotContain("amqphub.amqp10jms.presettle.producerDestinations");
+        });
+    }
+
     @Test
     public void testAllowListDefaultToNonEmpty() {
         this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
@@ -198,6 +350,27 @@ public class AMQP10JMSAutoConfigurationTest {
             });
     }
 
+    @Test
+    public void testCompiledDeserializationPolicyIsInstalled() {
+        this.contextRunner.withUserConfiguration(EmptyConfiguration.class)
+            .withPropertyValues("spring.jms.cache.enabled=false",
+                                "amqphub.amqp10jms.remote-url=amqp://127.0.0.1:5672?jms.deserializationPolicy.denyList=java.net",
+                                "amqphub.amqp10jms.deserializationPolicy.allowList=java.lang,java.util",
+                                "amqphub.amqp10jms.deserializationPolicy.cacheSize=16"
+                ).run((context) -> {
+
+                JmsConnectionFactory factory = (JmsConnectionFactory) context.getBean(ConnectionFactory.class);
+                AMQP10JMSDeserializationPolicy policy = (AMQP10JMSDeserializationPolicy) factory.getDeserializationPolicy();
+
+                assertEquals("java.lang,java.util", policy.getAllowList());
+                assertEquals("java.net", policy.getDenyList());
+                assertEquals(16, policy.getCacheSize());
+                assertTrue(policy.isTrustedType(null, String.class));
+                assertFalse(policy.isTrustedType(null, java.net.URI.class));
+                assertFalse(policy.copy().isTrustedType(null, java.io.File.class));
+            });
+    }
+
     @Test
     public void testCreateWithCustomArtemisConfiguration() {
         this.contextRunner.withUserConfiguration(CustomAMQP10JMSConfiguration.class)
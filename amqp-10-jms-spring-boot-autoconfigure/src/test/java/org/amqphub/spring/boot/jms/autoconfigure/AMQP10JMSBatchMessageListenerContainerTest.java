@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.spy;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.annotation.JmsListenerConfigurer;
+import org.springframework.jms.config.JmsListenerEndpointRegistrar;
+import org.springframework.jms.config.MethodJmsListenerEndpoint;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+import org.springframework.messaging.handler.annotation.support.DefaultMessageHandlerMethodFactory;
+import org.springframework.messaging.handler.invocation.InvocableHandlerMethod;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the batch listener container and its auto configuration.
+ */
+public class AMQP10JMSBatchMessageListenerContainerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSBatchListenerAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private AMQP10JMSBatchMessageListenerContainer container;
+    private Session session;
+    private MessageConsumer consumer;
+
+    @BeforeEach
+    public void setUp() {
+        container = new AMQP10JMSBatchMessageListenerContainer();
+        container.setConnectionFactory(mock(ConnectionFactory.class));
+        container.setAcceptMessagesWhileStopping(true);
+        container.setMaxWait(Duration.ofSeconds(5));
+
+        session = mock(Session.class);
+        consumer = mock(MessageConsumer.class);
+    }
+
+    @Test
+    public void testBatchLimitedToMaxBatchSize() throws Exception {
+        List<List<Message>> batches = new ArrayList<>();
+        Message[] messages = { mock(Message.class), mock(Message.class), mock(Message.class) };
+
+        container.setMaxBatchSize(2);
+        container.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> batches.add(batch));
+
+        when(consumer.receive(anyLong())).thenReturn(messages[0], messages[1], messages[2], null);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        assertFalse(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertEquals(2, batches.size());
+        assertThat(batches.get(0)).containsExactly(messages[0], messages[1]);
+        assertThat(batches.get(1)).containsExactly(messages[2]);
+    }
+
+    @Test
+    public void testBatchCompletedFromBufferedMessagesOnceWaitExpired() throws Exception {
+        List<List<Message>> batches = new ArrayList<>();
+        Message[] messages = { mock(Message.class), mock(Message.class) };
+
+        container.setMaxWait(Duration.ZERO);
+        container.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> batches.add(batch));
+
+        when(consumer.receive(anyLong())).thenReturn(messages[0]);
+        when(consumer.receiveNoWait()).thenReturn(messages[1], (Message) null);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertThat(batches).hasSize(1);
+        assertThat(batches.get(0)).containsExactly(messages[0], messages[1]);
+        verify(consumer, times(1)).receive(anyLong());
+    }
+
+    @Test
+    public void testBatchObservedOnce() throws Exception {
+        List<Observation.Context> observed = new ArrayList<>();
+        Message[] messages = { mock(Message.class), mock(Message.class), mock(Message.class) };
+
+        container.setMaxBatchSize(3);
+        container.setObservationRegistry(observationRegistry(observed));
+        container.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> { });
+
+        when(consumer.receive(anyLong())).thenReturn(messages[0], messages[1], messages[2]);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertThat(observed).hasSize(1);
+        assertThat(((JmsProcessObservationContext) observed.get(0)).getCarrier()).isSameAs(messages[0]);
+        assertThat(AMQP10JMSWindowedMessageListenerContainer.observedMessageCount(observed.get(0))).isEqualTo(3);
+    }
+
+    @Test
+    public void testTransactedBatchCommittedOnce() throws Exception {
+        container.setSessionTransacted(true);
+        container.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> { });
+
+        when(session.getTransacted()).thenReturn(true);
+        when(consumer.receive(anyLong())).thenReturn(mock(Message.class), mock(Message.class), mock(Message.class), null);
+
+        container.doReceiveAndExecute(null, session, consumer, null);
+
+        verify(session, times(1)).commit();
+        verify(session, never()).rollback();
+    }
+
+    @Test
+    public void testOpenBatchRolledBackWhenStopping() throws Exception {
+        List<List<Message>> batches = new ArrayList<>();
+
+        container.setAcceptMessagesWhileStopping(false);
+        container.setSessionTransacted(true);
+        container.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> batches.add(batch));
+
+        when(session.getTransacted()).thenReturn(true);
+        when(consumer.receive(anyLong())).thenReturn(mock(Message.class), mock(Message.class));
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertThat(batches).isEmpty();
+        verify(session, times(1)).rollback();
+        verify(session, never()).commit();
+    }
+
+    @Test
+    public void testClientAcknowledgeBatchAcknowledgedOnce() throws Exception {
+        Message first = mock(Message.class);
+        Message last = mock(Message.class);
+
+        container.setSessionAcknowledgeMode(Session.CLIENT_ACKNOWLEDGE);
+        container.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> { });
+
+        when(session.getAcknowledgeMode()).thenReturn(Session.CLIENT_ACKNOWLEDGE);
+        when(consumer.receive(anyLong())).thenReturn(first, last, null);
+
+        container.doReceiveAndExecute(null, session, consumer, null);
+
+        verify(first, never()).acknowledge();
+        verify(last, times(1)).acknowledge();
+    }
+
+    @Test
+    public void testFailedBatchRolledBack() throws Exception {
+        Message message = mock(Message.class);
+
+        container.setSessionTransacted(true);
+        container.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> {
+            throw new IllegalStateException("Expected");
+        });
+
+        when(session.getTransacted()).thenReturn(true);
+        when(consumer.receive(anyLong())).thenReturn(message, (Message) null);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        verify(session, times(1)).rollback();
+        verify(session, never()).commit();
+    }
+
+    @Test
+    public void testListenerMethodReceivesConvertedPayloads() throws Exception {
+        BatchListener listener = new BatchListener();
+
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+
+        MethodJmsListenerEndpoint endpoint = new MethodJmsListenerEndpoint();
+        endpoint.setId("batch");
+        endpoint.setDestination("queue");
+        endpoint.setBean(listener);
+        endpoint.setMethod(BatchListener.class.getMethod("onBatch", List.class, Session.class));
+        endpoint.setMessageHandlerMethodFactory(handlerMethodFactory);
+
+        AMQP10JMSBatchListenerContainerFactory factory = new AMQP10JMSBatchListenerContainerFactory();
+        factory.setConnectionFactory(mock(ConnectionFactory.class));
+        factory.setMaxWait(Duration.ofSeconds(5));
+
+        AMQP10JMSBatchMessageListenerContainer methodContainer = (AMQP10JMSBatchMessageListenerContainer) factory.createListenerContainer(endpoint);
+        methodContainer.setAcceptMessagesWhileStopping(true);
+
+        assertThat(methodContainer.getMessageListener()).isInstanceOf(AMQP10JMSBatchMethodListener.class);
+
+        when(consumer.receive(anyLong())).thenReturn(textMessage("a"), textMessage("b"), null);
+
+        methodContainer.doReceiveAndExecute(null, session, consumer, null);
+
+        assertThat(listener.payloads).containsExactly("a", "b");
+        assertThat(listener.session).isSameAs(session);
+    }
+
+    @Test
+    public void testListenerMethodReceivesJmsMessages() throws Exception {
+        BatchListener listener = new BatchListener();
+        Message[] messages = { mock(Message.class), mock(Message.class) };
+
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+
+        container.setMessageListener(new AMQP10JMSBatchMethodListener(
+            handlerMethodFactory.createInvocableHandlerMethod(listener, BatchListener.class.getMethod("onMessages", List.class)),
+            new SimpleMessageConverter()));
+
+        when(consumer.receive(anyLong())).thenReturn(messages[0], messages[1], null);
+
+        container.doReceiveAndExecute(null, session, consumer, null);
+
+        assertThat(listener.messages).containsExactly(messages);
+    }
+
+    @Test
+    public void testListenerMethodWithoutListParameterRejected() throws Exception {
+        DefaultMessageHandlerMethodFactory handlerMethodFactory = new DefaultMessageHandlerMethodFactory();
+        handlerMethodFactory.afterPropertiesSet();
+
+        InvocableHandlerMethod method =
+            handlerMethodFactory.createInvocableHandlerMethod(new BatchListener(), BatchListener.class.getMethod("onMessage", String.class));
+
+        assertThrows(IllegalStateException.class, () -> new AMQP10JMSBatchMethodListener(method, new SimpleMessageConverter()));
+    }
+
+    @Test
+    public void testBatchListenerContainerFactoryConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.batch.max-size=25",
+                                              "amqphub.amqp10jms.listener.batch.max-wait=50ms").run((context) -> {
+            assertThat(context).hasBean(AMQP10JMSBatchListenerAutoConfiguration.BATCH_LISTENER_CONTAINER_FACTORY_BEAN_NAME);
+
+            SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+            endpoint.setId("test");
+            endpoint.setDestination("queue");
+            endpoint.setMessageListener((AMQP10JMSBatchMessageListener) (batch, session) -> { });
+
+            DefaultMessageListenerContainer listenerContainer =
+                context.getBean(AMQP10JMSBatchListenerContainerFactory.class).createListenerContainer(endpoint);
+
+            assertThat(listenerContainer).isInstanceOf(AMQP10JMSBatchMessageListenerContainer.class);
+            assertEquals(25, ((AMQP10JMSBatchMessageListenerContainer) listenerContainer).getMaxBatchSize());
+            assertEquals(Duration.ofMillis(50), ((AMQP10JMSBatchMessageListenerContainer) listenerContainer).getMaxWait());
+            assertEquals(DefaultMessageListenerContainer.CACHE_CONSUMER, listenerContainer.getCacheLevel());
+        });
+    }
+
+    @Test
+    public void testBatchListenerMethodsUseRegistrarHandlerMethodFactory() {
+        this.contextRunner.run((context) -> {
+            JmsListenerConfigurer configurer = context.getBean("amqp10JmsBatchListenerConfigurer", JmsListenerConfigurer.class);
+            JmsListenerEndpointRegistrar registrar = new JmsListenerEndpointRegistrar();
+
+            configurer.configureJmsListeners(registrar);
+
+            // Set once the batch configurer has run, as an application configurer ordered after it would
+            DefaultMessageHandlerMethodFactory registrarFactory = spy(new DefaultMessageHandlerMethodFactory());
+            registrarFactory.afterPropertiesSet();
+            registrar.setMessageHandlerMethodFactory(registrarFactory);
+
+            MethodJmsListenerEndpoint endpoint = new MethodJmsListenerEndpoint();
+            endpoint.setId("batch");
+            endpoint.setDestination("queue");
+            endpoint.setBean(new BatchListener());
+            endpoint.setMethod(BatchListener.class.getMethod("onMessages", List.class));
+
+            DefaultMessageListenerContainer listenerContainer =
+                context.getBean(AMQP10JMSBatchListenerContainerFactory.class).createListenerContainer(endpoint);
+
+            assertThat(listenerContainer.getMessageListener()).isInstanceOf(AMQP10JMSBatchMethodListener.class);
+            verify(registrarFactory).createInvocableHandlerMethod(endpoint.getBean(), endpoint.getMethod());
+        });
+    }
+
+    private static TextMessage textMessage(String text) throws JMSException {
+        TextMessage message = mock(TextMessage.class);
+        when(message.getText()).thenReturn(text);
+        return message;
+    }
+
+    private static ObservationRegistry observationRegistry(List<Observation.Context> observed) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<Observation.Context>() {
+
+            @Override
+            public void onStop(Observation.Context context) {
+                observed.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return context instanceof JmsProcessObservationContext;
+            }
+        });
+
+        return registry;
+    }
+
+    public static class BatchListener {
+
+        private final List<String> payloads = new ArrayList<>();
+        private final List<Message> messages = new ArrayList<>();
+        private Session session;
+
+        public void onBatch(List<String> batch, Session session) {
+            this.payloads.addAll(batch);
+            this.session = session;
+        }
+
+        public void onMessages(List<Message> batch) {
+            this.messages.addAll(batch);
+        }
+
+        public void onMessage(String payload) {
+            this.payloads.add(payload);
+        }
+    }
+}
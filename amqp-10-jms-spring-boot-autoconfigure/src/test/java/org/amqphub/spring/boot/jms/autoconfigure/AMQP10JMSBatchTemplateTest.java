@@ -0,0 +1,176 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.JmsException;
+import org.springframework.jms.core.JmsTemplate;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the transacted batch send template and its auto configuration.
+ */
+public class AMQP10JMSBatchTemplateTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSTemplateAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private ConnectionFactory connectionFactory;
+    private Connection connection;
+    private Session session;
+    private MessageProducer producer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connectionFactory = mock(ConnectionFactory.class);
+        connection = mock(Connection.class);
+        session = mock(Session.class);
+        producer = mock(MessageProducer.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(true, Session.SESSION_TRANSACTED)).thenReturn(session);
+        when(session.getTransacted()).thenReturn(true);
+        when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(session.createProducer(any(Destination.class))).thenReturn(producer);
+        when(session.createTextMessage(anyString())).thenAnswer((invocation) -> {
+            TextMessage message = mock(TextMessage.class);
+            when(message.getText()).thenReturn(invocation.getArgument(0));
+            return message;
+        });
+    }
+
+    @Test
+    public void testBatchTemplateIsConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.batch.maxSize=100",
+                                              "amqphub.amqp10jms.batch.maxBytes=64KB").run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSBatchTemplate.class);
+
+            AMQP10JMSBatchTemplate template = context.getBean(AMQP10JMSBatchTemplate.class);
+
+            assertEquals(100, template.getMaxBatchSize());
+            assertEquals(64 * 1024, template.getMaxBatchBytes());
+            assertThat(template.getJmsTemplate()).isSameAs(context.getBean(JmsTemplate.class));
+        });
+    }
+
+    @Test
+    public void testBatchSentInSingleTransaction() throws Exception {
+        AMQP10JMSBatchTemplate template = new AMQP10JMSBatchTemplate(new JmsTemplate(connectionFactory), 10, 1024);
+
+        assertEquals(1, template.sendBatch("queue", Arrays.asList("1", "2", "3")));
+
+        verify(session, times(1)).createProducer(any(Destination.class));
+        verify(producer, times(3)).send(any(Message.class));
+        verify(session, times(1)).commit();
+        verify(session).close();
+    }
+
+    @Test
+    public void testBatchSplitByMaxSize() throws Exception {
+        AMQP10JMSBatchTemplate template = new AMQP10JMSBatchTemplate(new JmsTemplate(connectionFactory), 2, 1024);
+
+        assertEquals(3, template.sendBatch("queue", Arrays.asList("1", "2", "3", "4", "5")));
+
+        verify(producer, times(5)).send(any(Message.class));
+        verify(session, times(3)).commit();
+    }
+
+    @Test
+    public void testBatchSplitByMaxBytes() throws Exception {
+        AMQP10JMSBatchTemplate template = new AMQP10JMSBatchTemplate(new JmsTemplate(connectionFactory), 100, 10);
+
+        // Messages of 6, 4, 6 and 12 bytes, the oversized last message is sent on its own
+        assertEquals(3, template.sendBatch("queue", Arrays.asList("aaaaaa", "bbbb", "cccccc", "dddddddddddd")));
+
+        verify(producer, times(4)).send(any(Message.class));
+        verify(session, times(3)).commit();
+    }
+
+    @Test
+    public void testBatchSplitByEncodedTextBytes() throws Exception {
+        AMQP10JMSBatchTemplate template = new AMQP10JMSBatchTemplate(new JmsTemplate(connectionFactory), 100, 10);
+
+        // Three characters that each encode to two UTF-8 bytes, so two messages exceed the budget
+        assertEquals(2, template.sendBatch("queue", Arrays.asList("\u00e9\u00e9\u00e9", "\u00e9\u00e9\u00e9")));
+
+        verify(producer, times(2)).send(any(Message.class));
+        verify(session, times(2)).commit();
+    }
+
+    @Test
+    public void testTextSizeMatchesUtf8Encoding() {
+        String[] texts = { "", "ascii", "\u00e9", "\u20ac", "\ud83d\ude00", "a\ud83d\ude00\u20ac\u00e9",
+                           "\ud83d", "\ude00", "\ude00\ud83d", "\ud83dx" };
+
+        for (String text : texts) {
+            assertEquals(text.getBytes(StandardCharsets.UTF_8).length, AMQP10JMSBatchTemplate.utf8Length(text), text);
+        }
+    }
+
+    @Test
+    public void testEmptyBatchSendsNothing() throws Exception {
+        AMQP10JMSBatchTemplate template = new AMQP10JMSBatchTemplate(new JmsTemplate(connectionFactory), 10, 1024);
+
+        assertEquals(0, template.sendBatch("queue", Collections.emptyList()));
+
+        verify(connectionFactory, never()).createConnection();
+    }
+
+    @Test
+    public void testFailedSendRollsBackTransaction() throws Exception {
+        AMQP10JMSBatchTemplate template = new AMQP10JMSBatchTemplate(new JmsTemplate(connectionFactory), 10, 1024);
+
+        doThrow(new JMSException("failed")).when(producer).send(any(Message.class));
+
+        assertThrows(JmsException.class, () -> template.sendBatch("queue", Arrays.asList("1", "2")));
+
+        verify(session, never()).commit();
+        verify(session).rollback();
+        verify(session).close();
+    }
+}
@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.MethodParameter;
+import org.springframework.jms.annotation.JmsListenerConfigurer;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import jakarta.jms.BytesMessage;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the buffer message converter, argument resolver and their auto configuration.
+ */
+public class AMQP10JMSByteBufferMessageConverterTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSMessageConverterAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private final AMQP10JMSByteBufferMessageConverter converter = new AMQP10JMSByteBufferMessageConverter();
+
+    private Session session;
+    private BytesMessage message;
+    private ByteArrayOutputStream written;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        session = mock(Session.class);
+        message = mock(BytesMessage.class);
+        written = new ByteArrayOutputStream();
+
+        when(session.createBytesMessage()).thenReturn(message);
+        doAnswer((invocation) -> {
+            written.write((byte[]) invocation.getArgument(0), (int) invocation.getArgument(1), (int) invocation.getArgument(2));
+            return null;
+        }).when(message).writeBytes(any(byte[].class), anyInt(), anyInt());
+    }
+
+    @Test
+    public void testConverterNotConfiguredByDefault() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSByteBufferMessageConverter.class);
+            assertThat(context).doesNotHaveBean(JmsListenerConfigurer.class);
+        });
+    }
+
+    @Test
+    public void testConverterAppliedToJmsTemplate() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.byte-buffers.enabled=true").run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSByteBufferMessageConverter.class);
+            assertThat(context).hasSingleBean(JmsListenerConfigurer.class);
+            assertThat(context.getBean(JmsTemplate.class).getMessageConverter())
+                .isSameAs(context.getBean(AMQP10JMSByteBufferMessageConverter.class));
+        });
+    }
+
+    @Test
+    public void testConverterDecoratedWhenCompressionEnabled() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.byte-buffers.enabled=true",
+                                              "amqphub.amqp10jms.compression.enabled=true").run((context) -> {
+            AMQP10JMSCompressingMessageConverter compressing = context.getBean(AMQP10JMSCompressingMessageConverter.class);
+
+            assertThat(context.getBean(JmsTemplate.class).getMessageConverter()).isSameAs(compressing);
+            assertThat(compressing.getDelegate()).isSameAs(context.getBean(AMQP10JMSByteBufferMessageConverter.class));
+        });
+    }
+
+    @Test
+    public void testHeapByteBufferWrittenFromBackingArray() throws Exception {
+        byte[] array = new byte[] { 0, 1, 2, 3, 4, 5 };
+        ByteBuffer buffer = ByteBuffer.wrap(array, 2, 3);
+
+        assertThat(converter.toMessage(buffer, session)).isSameAs(message);
+
+        verify(message).writeBytes(array, 2, 3);
+        assertThat(buffer.position()).isEqualTo(2);
+    }
+
+    @Test
+    public void testDirectByteBufferWrittenInChunks() throws Exception {
+        byte[] payload = payload(20000);
+        ByteBuffer buffer = ByteBuffer.allocateDirect(payload.length).put(payload).flip();
+
+        converter.toMessage(buffer, session);
+
+        assertThat(written.toByteArray()).isEqualTo(payload);
+        assertThat(buffer.remaining()).isEqualTo(payload.length);
+    }
+
+    @Test
+    public void testHeapByteBufWrittenFromBackingArray() throws Exception {
+        byte[] array = payload(100);
+        ByteBuf buffer = Unpooled.wrappedBuffer(array).readerIndex(10);
+
+        converter.toMessage(buffer, session);
+
+        verify(message).writeBytes(array, 10, 90);
+        assertThat(buffer.readerIndex()).isEqualTo(10);
+    }
+
+    @Test
+    public void testDirectByteBufWrittenInChunks() throws Exception {
+        byte[] payload = payload(20000);
+        ByteBuf buffer = Unpooled.directBuffer(payload.length).writeBytes(payload);
+
+        try {
+            converter.toMessage(buffer, session);
+
+            assertThat(written.toByteArray()).isEqualTo(payload);
+            assertThat(buffer.readableBytes()).isEqualTo(payload.length);
+        } finally {
+            buffer.release();
+        }
+    }
+
+    @Test
+    public void testBytesMessageReadAsByteBuffer() throws Exception {
+        byte[] body = payload(64);
+        when(message.getBody(byte[].class)).thenReturn(body);
+
+        ByteBuffer result = (ByteBuffer) converter.fromMessage(message);
+
+        assertThat(result.array()).isSameAs(body);
+        assertThat(result.remaining()).isEqualTo(64);
+    }
+
+    @Test
+    public void testOtherMessagesConvertedAsSimpleConverter() throws Exception {
+        TextMessage textMessage = mock(TextMessage.class);
+        when(textMessage.getText()).thenReturn("text");
+
+        assertThat(converter.fromMessage(textMessage)).isEqualTo("text");
+    }
+
+    @Test
+    public void testArgumentResolverWrapsPayload() throws Exception {
+        AMQP10JMSByteBufferArgumentResolver resolver = new AMQP10JMSByteBufferArgumentResolver();
+        Method listener = getClass().getDeclaredMethod("listener", ByteBuf.class, ByteBuffer.class, byte[].class);
+        MethodParameter byteBufParameter = new MethodParameter(listener, 0);
+        MethodParameter byteBufferParameter = new MethodParameter(listener, 1);
+
+        assertThat(resolver.supportsParameter(byteBufParameter)).isTrue();
+        assertThat(resolver.supportsParameter(byteBufferParameter)).isTrue();
+        assertThat(resolver.supportsParameter(new MethodParameter(listener, 2))).isFalse();
+
+        byte[] body = payload(32);
+
+        ByteBuf byteBuf = (ByteBuf) resolver.resolveArgument(byteBufParameter, MessageBuilder.withPayload(ByteBuffer.wrap(body)).build());
+        assertThat(byteBuf.array()).isSameAs(body);
+
+        ByteBuffer byteBuffer = (ByteBuffer) resolver.resolveArgument(byteBufferParameter, MessageBuilder.withPayload(body).build());
+        assertThat(byteBuffer.array()).isSameAs(body);
+    }
+
+    void listener(ByteBuf byteBuf, ByteBuffer byteBuffer, byte[] bytes) {
+    }
+
+    private static byte[] payload(int size) {
+        byte[] payload = new byte[size];
+        for (int i = 0; i < size; ++i) {
+            payload[i] = (byte) i;
+        }
+        return payload;
+    }
+}
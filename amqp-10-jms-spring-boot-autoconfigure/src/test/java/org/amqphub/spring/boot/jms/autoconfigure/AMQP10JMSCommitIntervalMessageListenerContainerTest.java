@@ -0,0 +1,294 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the commit interval listener container and its auto configuration.
+ */
+public class AMQP10JMSCommitIntervalMessageListenerContainerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSListenerAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private AMQP10JMSCommitIntervalMessageListenerContainer container;
+    private ConnectionFactory connectionFactory;
+    private Session session;
+    private MessageConsumer consumer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connectionFactory = mock(ConnectionFactory.class);
+
+        container = new AMQP10JMSCommitIntervalMessageListenerContainer();
+        container.setConnectionFactory(connectionFactory);
+        container.setAcceptMessagesWhileStopping(true);
+        container.setSessionTransacted(true);
+        container.setCommitTime(Duration.ofSeconds(5));
+
+        session = mock(Session.class);
+        consumer = mock(MessageConsumer.class);
+
+        when(session.getTransacted()).thenReturn(true);
+    }
+
+    @Test
+    public void testMessagesDeliveredSinglyAndCommittedPerInterval() throws Exception {
+        List<Message> received = new ArrayList<>();
+        Message[] messages = { mock(Message.class), mock(Message.class), mock(Message.class) };
+
+        container.setCommitMessages(2);
+        container.setMessageListener((MessageListener) received::add);
+
+        when(consumer.receive(anyLong())).thenReturn(messages[0], messages[1], messages[2], null);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        verify(session, times(1)).commit();
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        verify(session, times(2)).commit();
+
+        assertFalse(container.doReceiveAndExecute(null, session, consumer, null));
+        verify(session, times(2)).commit();
+
+        assertThat(received).containsExactly(messages);
+    }
+
+    @Test
+    public void testIntervalCommittedOnceTimePassedWithSlowListener() throws Exception {
+        List<Message> received = new ArrayList<>();
+
+        container.setCommitMessages(100);
+        container.setCommitTime(Duration.ofMillis(50));
+        container.setMessageListener((MessageListener) (message) -> {
+            received.add(message);
+            try {
+                Thread.sleep(30);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // A backlog, a message is always available whether waited for or not
+        when(consumer.receive(anyLong())).thenAnswer((invocation) -> mock(Message.class));
+        when(consumer.receiveNoWait()).thenAnswer((invocation) -> mock(Message.class));
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertThat(received).hasSizeBetween(1, 2);
+        verify(consumer, never()).receiveNoWait();
+        verify(session, times(1)).commit();
+    }
+
+    @Test
+    public void testFailureRollsBackWholeInterval() throws Exception {
+        List<Message> received = new ArrayList<>();
+        Message first = mock(Message.class);
+        Message failing = mock(Message.class);
+
+        container.setMessageListener((MessageListener) (message) -> {
+            received.add(message);
+            if (message == failing) {
+                throw new IllegalStateException("Expected");
+            }
+        });
+
+        when(consumer.receive(anyLong())).thenReturn(first, failing, mock(Message.class));
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertThat(received).containsExactly(first, failing);
+        verify(session, times(1)).rollback();
+        verify(session, never()).commit();
+    }
+
+    @Test
+    public void testJmsTemplateSendsRolledBackWithInterval() throws Exception {
+        Message first = mock(Message.class);
+        Message failing = mock(Message.class);
+        Queue replies = mock(Queue.class);
+        MessageProducer producer = mock(MessageProducer.class);
+        JmsTemplate jmsTemplate = new JmsTemplate(connectionFactory);
+
+        when(session.createQueue("replies")).thenReturn(replies);
+        when(session.createProducer(replies)).thenReturn(producer);
+        when(session.createTextMessage("reply")).thenReturn(mock(TextMessage.class));
+
+        container.setMessageListener((MessageListener) (message) -> {
+            jmsTemplate.send("replies", (listenerSession) -> listenerSession.createTextMessage("reply"));
+            if (message == failing) {
+                throw new IllegalStateException("Expected");
+            }
+        });
+
+        when(consumer.receive(anyLong())).thenReturn(first, failing, mock(Message.class));
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        // Both sends used the listener session and so are discarded with the interval
+        verify(producer, times(2)).send(any(Message.class));
+        verify(connectionFactory, never()).createConnection();
+        verify(session, times(1)).rollback();
+        verify(session, never()).commit();
+        assertFalse(TransactionSynchronizationManager.hasResource(connectionFactory));
+    }
+
+    @Test
+    public void testEachMessageObserved() throws Exception {
+        List<Observation.Context> observed = new ArrayList<>();
+        Message[] messages = { mock(Message.class), mock(Message.class) };
+
+        container.setCommitMessages(2);
+        container.setObservationRegistry(observationRegistry(observed));
+        container.setMessageListener((MessageListener) (message) -> { });
+
+        when(consumer.receive(anyLong())).thenReturn(messages[0], messages[1]);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertThat(observed).hasSize(2);
+        assertThat(((JmsProcessObservationContext) observed.get(0)).getCarrier()).isSameAs(messages[0]);
+        assertThat(((JmsProcessObservationContext) observed.get(1)).getCarrier()).isSameAs(messages[1]);
+        assertThat(AMQP10JMSWindowedMessageListenerContainer.observedMessageCount(observed.get(0))).isEqualTo(1);
+        verify(session, times(1)).commit();
+    }
+
+    @Test
+    public void testProcessedMessagesCommittedWhenStopping() throws Exception {
+        List<Message> received = new ArrayList<>();
+        Message first = mock(Message.class);
+
+        container.setAcceptMessagesWhileStopping(false);
+        container.setMessageListener((MessageListener) received::add);
+
+        when(consumer.receive(anyLong())).thenReturn(first, mock(Message.class));
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        assertThat(received).containsExactly(first);
+        verify(consumer, times(1)).receive(anyLong());
+        verify(session, times(1)).commit();
+        verify(session, never()).rollback();
+    }
+
+    @Test
+    public void testCommitIntervalDoesNotSizeConcurrencyFromPool() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.commit-interval.enabled=true",
+                                              "amqphub.amqp10jms.listener.pool-sized-concurrency=true",
+                                              "amqphub.amqp10jms.pool.enabled=true").run((context) -> {
+            DefaultMessageListenerContainer listenerContainer = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertEquals(1, listenerContainer.getConcurrentConsumers());
+            assertEquals(1, listenerContainer.getMaxConcurrentConsumers());
+        });
+    }
+
+    @Test
+    public void testCommitIntervalNotEnabledByDefault() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.consumer-pool.enabled=true").run((context) -> {
+            DefaultMessageListenerContainer listenerContainer = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertThat(listenerContainer).isExactlyInstanceOf(DefaultMessageListenerContainer.class);
+        });
+    }
+
+    @Test
+    public void testCommitIntervalListenerContainerFactory() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.commit-interval.enabled=true",
+                                              "amqphub.amqp10jms.listener.commit-interval.messages=50",
+                                              "amqphub.amqp10jms.listener.commit-interval.time=200ms").run((context) -> {
+            assertThat(context).hasSingleBean(DefaultJmsListenerContainerFactory.class);
+            assertThat(context.getBean(DefaultJmsListenerContainerFactory.class))
+                .isInstanceOf(AMQP10JMSCommitIntervalListenerContainerFactory.class);
+
+            DefaultMessageListenerContainer listenerContainer = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertThat(listenerContainer).isInstanceOf(AMQP10JMSCommitIntervalMessageListenerContainer.class);
+            assertEquals(50, ((AMQP10JMSCommitIntervalMessageListenerContainer) listenerContainer).getCommitMessages());
+            assertEquals(Duration.ofMillis(200), ((AMQP10JMSCommitIntervalMessageListenerContainer) listenerContainer).getCommitTime());
+            assertEquals(DefaultMessageListenerContainer.CACHE_CONSUMER, listenerContainer.getCacheLevel());
+        });
+    }
+
+    private static ObservationRegistry observationRegistry(List<Observation.Context> observed) {
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<Observation.Context>() {
+
+            @Override
+            public void onStop(Observation.Context context) {
+                observed.add(context);
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return context instanceof JmsProcessObservationContext;
+            }
+        });
+
+        return registry;
+    }
+
+    private static DefaultMessageListenerContainer createContainer(DefaultJmsListenerContainerFactory factory) {
+        SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+        endpoint.setId("test");
+        endpoint.setDestination("queue");
+        endpoint.setMessageListener((message) -> { });
+
+        return factory.createListenerContainer(endpoint);
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.MessageConverter;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the compressing message converter and its auto configuration.
+ */
+public class AMQP10JMSCompressingMessageConverterTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSMessageConverterAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private Session session;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        session = mock(Session.class);
+
+        when(session.createBytesMessage()).thenAnswer((invocation) -> bytesMessage());
+        when(session.createTextMessage(anyString())).thenAnswer((invocation) -> textMessage(invocation.getArgument(0)));
+    }
+
+    @Test
+    public void testConverterNotConfiguredByDefault() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSCompressingMessageConverter.class);
+        });
+    }
+
+    @Test
+    public void testConverterAppliedToJmsTemplate() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.compression.enabled=true",
+                                              "amqphub.amqp10jms.compression.threshold=1KB").run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSCompressingMessageConverter.class);
+
+            MessageConverter converter = context.getBean(JmsTemplate.class).getMessageConverter();
+            assertThat(converter).isInstanceOf(AMQP10JMSCompressingMessageConverter.class);
+            assertThat(((AMQP10JMSCompressingMessageConverter) converter).getDelegate()).isInstanceOf(SimpleMessageConverter.class);
+        });
+    }
+
+    @Test
+    public void testConverterDecoratesApplicationConverter() {
+        this.contextRunner.withUserConfiguration(MessageConverterConfiguration.class)
+            .withPropertyValues("amqphub.amqp10jms.compression.enabled=true").run((context) -> {
+                MessageConverter converter = context.getBean(JmsTemplate.class).getMessageConverter();
+                assertThat(converter).isInstanceOf(AMQP10JMSCompressingMessageConverter.class);
+                assertThat(((AMQP10JMSCompressingMessageConverter) converter).getDelegate())
+                    .isSameAs(context.getBean("applicationMessageConverter"));
+            });
+    }
+
+    @Test
+    public void testSmallBodiesAreNotCompressed() throws Exception {
+        AMQP10JMSCompressingMessageConverter converter = new AMQP10JMSCompressingMessageConverter(
+            new SimpleMessageConverter(), AMQP10JMSCompressionCodec.DEFLATE, 1024);
+
+        Message message = converter.toMessage("small payload", session);
+
+        assertThat(message).isInstanceOf(TextMessage.class);
+        verify(session, never()).createBytesMessage();
+        assertThat(converter.fromMessage(message)).isEqualTo("small payload");
+    }
+
+    @Test
+    public void testTextBodyRoundTripWithDeflate() throws Exception {
+        doTestTextBodyRoundTrip(AMQP10JMSCompressionCodec.DEFLATE);
+    }
+
+    @Test
+    public void testTextBodyRoundTripWithLz4() throws Exception {
+        doTestTextBodyRoundTrip(AMQP10JMSCompressionCodec.LZ4);
+    }
+
+    private void doTestTextBodyRoundTrip(AMQP10JMSCompressionCodec codec) throws Exception {
+        MessageConverter delegate = new SimpleMessageConverter() {
+
+            @Override
+            public Message toMessage(Object object, Session session) throws JMSException {
+                Message message = super.toMessage(object, session);
+                message.setStringProperty("documentType", "order");
+                return message;
+            }
+        };
+
+        AMQP10JMSCompressingMessageConverter converter = new AMQP10JMSCompressingMessageConverter(delegate, codec, 1024);
+        String document = "{\"order\":\"12345\",\"items\":[\"a\",\"b\",\"c\"]},".repeat(500);
+
+        Message message = converter.toMessage(document, session);
+
+        assertThat(message).isInstanceOf(BytesMessage.class);
+        assertThat(((BytesMessage) message).getBodyLength()).isLessThan(document.length());
+        assertThat(message.getStringProperty(AMQP10JMSCompressingMessageConverter.CONTENT_ENCODING_PROPERTY)).isEqualTo(codec.getEncoding());
+        assertThat(message.getStringProperty("documentType")).isEqualTo("order");
+
+        ((BytesMessage) message).reset();
+
+        assertThat(converter.fromMessage(message)).isEqualTo(document);
+    }
+
+    @Test
+    public void testBytesBodyRoundTrip() throws Exception {
+        AMQP10JMSCompressingMessageConverter converter = new AMQP10JMSCompressingMessageConverter(
+            new SimpleMessageConverter(), AMQP10JMSCompressionCodec.DEFLATE, 1024);
+        byte[] payload = new byte[64 * 1024];
+
+        Message message = converter.toMessage(payload, session);
+
+        assertThat(((BytesMessage) message).getBodyLength()).isLessThan(payload.length);
+        assertThat(message.getStringProperty(AMQP10JMSCompressingMessageConverter.CONTENT_ENCODING_PROPERTY)).isEqualTo("deflate");
+
+        ((BytesMessage) message).reset();
+
+        assertThat(converter.fromMessage(message)).isEqualTo(payload);
+    }
+
+    @Test
+    public void testIncompressibleBodyIsSentUncompressed() throws Exception {
+        AMQP10JMSCompressingMessageConverter converter = new AMQP10JMSCompressingMessageConverter(
+            new SimpleMessageConverter(), AMQP10JMSCompressionCodec.DEFLATE, 1024);
+        byte[] payload = new byte[4096];
+        new Random(42).nextBytes(payload);
+
+        Message message = converter.toMessage(payload, session);
+
+        assertThat(message.propertyExists(AMQP10JMSCompressingMessageConverter.CONTENT_ENCODING_PROPERTY)).isFalse();
+        assertThat(((BytesMessage) message).getBodyLength()).isEqualTo(payload.length);
+    }
+
+    @Test
+    public void testUncompressedMessageFromPeerIsPassedToDelegate() throws Exception {
+        AMQP10JMSCompressingMessageConverter converter = new AMQP10JMSCompressingMessageConverter(
+            new SimpleMessageConverter(), AMQP10JMSCompressionCodec.DEFLATE, 1024);
+        BytesMessage message = bytesMessage();
+        message.writeBytes(new byte[] { 1, 2, 3 });
+        message.reset();
+
+        assertThat(converter.fromMessage(message)).isEqualTo(new byte[] { 1, 2, 3 });
+    }
+
+    @Test
+    public void testUnsupportedContentEncodingIsRejected() throws Exception {
+        AMQP10JMSCompressingMessageConverter converter = new AMQP10JMSCompressingMessageConverter(
+            new SimpleMessageConverter(), AMQP10JMSCompressionCodec.DEFLATE, 1024);
+        BytesMessage message = bytesMessage();
+        message.writeBytes(new byte[] { 1, 2, 3 });
+        message.setStringProperty(AMQP10JMSCompressingMessageConverter.CONTENT_ENCODING_PROPERTY, "zstd");
+        message.reset();
+
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+    }
+
+    @Test
+    public void testBodyExceedingMaxDecompressedSizeIsRejected() throws Exception {
+        AMQP10JMSCompressingMessageConverter converter = new AMQP10JMSCompressingMessageConverter(
+            new SimpleMessageConverter(), AMQP10JMSCompressionCodec.DEFLATE, 1024, 4096);
+
+        Message message = converter.toMessage(new byte[64 * 1024], session);
+        ((BytesMessage) message).reset();
+
+        assertThrows(MessageConversionException.class, () -> converter.fromMessage(message));
+    }
+
+    @Test
+    public void testCodecStopsDecompressingAtMaxSize() throws Exception {
+        for (AMQP10JMSCompressionCodec codec : AMQP10JMSCompressionCodec.values()) {
+            byte[] compressed = codec.compress(new byte[1024 * 1024]);
+
+            assertThat(codec.decompress(compressed, 1024 * 1024)).hasSize(1024 * 1024);
+            assertThrows(IOException.class, () -> codec.decompress(compressed, 1024 * 1024 - 1));
+        }
+    }
+
+    @Test
+    public void testMaxDecompressedSizeConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.compression.enabled=true",
+                                              "amqphub.amqp10jms.compression.maxDecompressedSize=1MB").run((context) -> {
+            assertThat(context.getBean(AMQP10JMSCompressingMessageConverter.class).getMaxDecompressedSize()).isEqualTo(1024 * 1024);
+        });
+    }
+
+    private static TextMessage textMessage(String text) throws JMSException {
+        TextMessage message = mock(TextMessage.class);
+        when(message.getText()).thenReturn(text);
+        stubProperties(message);
+        return message;
+    }
+
+    private static BytesMessage bytesMessage() throws JMSException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        AtomicReference<ByteArrayInputStream> reading = new AtomicReference<>();
+        BytesMessage message = mock(BytesMessage.class);
+
+        doAnswer((invocation) -> {
+            written.write((byte[]) invocation.getArgument(0));
+            return null;
+        }).when(message).writeBytes(any(byte[].class));
+        doAnswer((invocation) -> {
+            reading.set(new ByteArrayInputStream(written.toByteArray()));
+            return null;
+        }).when(message).reset();
+        when(message.getBodyLength()).thenAnswer((invocation) -> (long) written.size());
+        when(message.readBytes(any(byte[].class))).thenAnswer((invocation) -> reading.get().read((byte[]) invocation.getArgument(0)));
+
+        stubProperties(message);
+        return message;
+    }
+
+    private static void stubProperties(Message message) throws JMSException {
+        Map<String, Object> properties = new HashMap<>();
+
+        doAnswer((invocation) -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(message).setStringProperty(anyString(), any());
+        doAnswer((invocation) -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(message).setObjectProperty(anyString(), any());
+        when(message.getStringProperty(anyString())).thenAnswer((invocation) -> (String) properties.get(invocation.getArgument(0)));
+        when(message.getObjectProperty(anyString())).thenAnswer((invocation) -> properties.get(invocation.getArgument(0)));
+        when(message.propertyExists(anyString())).thenAnswer((invocation) -> properties.containsKey(invocation.getArgument(0)));
+        when(message.getPropertyNames()).thenAnswer((invocation) -> Collections.enumeration(properties.keySet()));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MessageConverterConfiguration {
+
+        @Bean
+        MessageConverter applicationMessageConverter() {
+            return new SimpleMessageConverter();
+        }
+    }
+}
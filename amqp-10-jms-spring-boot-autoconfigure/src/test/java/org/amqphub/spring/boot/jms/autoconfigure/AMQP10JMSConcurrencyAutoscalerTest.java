@@ -0,0 +1,354 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertTimeoutPreemptively;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.listener.MessageListenerContainer;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.MapMessage;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TemporaryQueue;
+
+/**
+ * Tests for the listener concurrency autoscaler, the management backlog provider and their auto configuration.
+ */
+public class AMQP10JMSConcurrencyAutoscalerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSListenerAutoscalingAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    @Test
+    public void testAutoscalerNotConfiguredByDefault() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSConcurrencyAutoscaler.class);
+            assertThat(context).doesNotHaveBean(AMQP10JMSBacklogProvider.class);
+        });
+    }
+
+    @Test
+    public void testAutoscalerConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.autoscaling.enabled=true",
+                                              "amqphub.amqp10jms.listener.autoscaling.min=2",
+                                              "amqphub.amqp10jms.listener.autoscaling.max=20").run((context) -> {
+
+            AMQP10JMSConcurrencyAutoscaler autoscaler = context.getBean(AMQP10JMSConcurrencyAutoscaler.class);
+            assertThat(context).hasSingleBean(AMQP10JMSConcurrencyAutoscalerObservationHandler.class);
+            assertThat(context.getBean(AMQP10JMSBacklogProvider.class)).isInstanceOf(AMQP10JMSManagementBacklogProvider.class);
+            assertThat(autoscaler.getMinConsumers()).isEqualTo(2);
+            assertThat(autoscaler.getMaxConsumers()).isEqualTo(20);
+            assertThat(autoscaler.isRunning()).isTrue();
+        });
+    }
+
+    @Test
+    public void testAutoscalerBoundedByPoolSessions() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.pool.enabled=true",
+                                              "amqphub.amqp10jms.pool.maxSessionsPerConnection=8",
+                                              "amqphub.amqp10jms.listener.autoscaling.enabled=true",
+                                              "amqphub.amqp10jms.listener.autoscaling.min=10",
+                                              "amqphub.amqp10jms.listener.autoscaling.max=50").run((context) -> {
+
+            AMQP10JMSConcurrencyAutoscaler autoscaler = context.getBean(AMQP10JMSConcurrencyAutoscaler.class);
+            assertThat(autoscaler.getMinConsumers()).isEqualTo(8);
+            assertThat(autoscaler.getMaxConsumers()).isEqualTo(8);
+        });
+    }
+
+    @Test
+    public void testAutoscalerBoundedByConsumerPoolSessions() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.pool.enabled=true",
+                                              "amqphub.amqp10jms.pool.maxSessionsPerConnection=100",
+                                              "amqphub.amqp10jms.consumer-pool.enabled=true",
+                                              "amqphub.amqp10jms.consumer-pool.maxSessionsPerConnection=6",
+                                              "amqphub.amqp10jms.listener.autoscaling.enabled=true").run((context) -> {
+
+            AMQP10JMSConcurrencyAutoscaler autoscaler = context.getBean(AMQP10JMSConcurrencyAutoscaler.class);
+            assertThat(autoscaler.getMinConsumers()).isEqualTo(1);
+            assertThat(autoscaler.getMaxConsumers()).isEqualTo(6);
+        });
+    }
+
+    @Test
+    public void testCustomBacklogProviderUsed() {
+        AMQP10JMSBacklogProvider provider = (queueName) -> 0;
+
+        this.contextRunner.withBean(AMQP10JMSBacklogProvider.class, () -> provider)
+            .withPropertyValues("amqphub.amqp10jms.listener.autoscaling.enabled=true").run((context) -> {
+
+            assertThat(context.getBean(AMQP10JMSBacklogProvider.class)).isSameAs(provider);
+        });
+    }
+
+    @Test
+    public void testManagementBacklogProviderClosedWithContext() throws Exception {
+        MapMessage reply = mock(MapMessage.class);
+
+        when(reply.getObject("queueDepthMessages")).thenReturn(42L);
+
+        ManagementNode managementNode = new ManagementNode(reply);
+
+        this.contextRunner.withBean(JmsTemplate.class, () -> new JmsTemplate(managementNode.connectionFactory))
+            .withPropertyValues("amqphub.amqp10jms.listener.autoscaling.enabled=true").run((context) -> {
+
+            assertThat(context.getBean(AMQP10JMSBacklogProvider.class).getBacklog("orders")).isEqualTo(42);
+
+            // The reply connection stays open until the provider is closed
+            clearInvocations(managementNode.connection);
+        });
+
+        verify(managementNode.connection).close();
+    }
+
+    @Test
+    public void testDesiredConsumers() {
+        long target = TimeUnit.SECONDS.toNanos(10);
+
+        assertThat(AMQP10JMSConcurrencyAutoscaler.desiredConsumers(0, 1_000_000, target, 1, 10)).isEqualTo(1);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.desiredConsumers(10_000, 1_000_000, target, 1, 10)).isEqualTo(1);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.desiredConsumers(40_000, 1_000_000, target, 1, 10)).isEqualTo(4);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.desiredConsumers(40_001, 1_000_000, target, 1, 10)).isEqualTo(5);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.desiredConsumers(1_000_000, 1_000_000, target, 1, 10)).isEqualTo(10);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.desiredConsumers(0, 1_000_000, target, 3, 10)).isEqualTo(3);
+    }
+
+    @Test
+    public void testNextConsumersScalesUpImmediatelyAndDownGradually() {
+        assertThat(AMQP10JMSConcurrencyAutoscaler.nextConsumers(1, 8)).isEqualTo(8);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.nextConsumers(8, 8)).isEqualTo(8);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.nextConsumers(8, 2)).isEqualTo(5);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.nextConsumers(5, 2)).isEqualTo(4);
+        assertThat(AMQP10JMSConcurrencyAutoscaler.nextConsumers(3, 2)).isEqualTo(2);
+    }
+
+    @Test
+    public void testPollScalesQueueContainer() {
+        DefaultMessageListenerContainer container = queueContainer("orders");
+        AMQP10JMSConcurrencyAutoscaler autoscaler = createAutoscaler(container, (queueName) -> 50_000);
+
+        autoscaler.recordProcessingTime("orders", TimeUnit.MILLISECONDS.toNanos(1));
+        autoscaler.poll();
+
+        assertThat(container.getConcurrentConsumers()).isEqualTo(5);
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(5);
+    }
+
+    @Test
+    public void testPollScalesDownGradually() {
+        DefaultMessageListenerContainer container = queueContainer("orders");
+        container.setConcurrency("10-10");
+
+        AMQP10JMSConcurrencyAutoscaler autoscaler = createAutoscaler(container, (queueName) -> 0);
+
+        autoscaler.recordProcessingTime("orders", TimeUnit.MILLISECONDS.toNanos(1));
+        autoscaler.poll();
+
+        assertThat(container.getConcurrentConsumers()).isEqualTo(6);
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(6);
+
+        autoscaler.poll();
+
+        assertThat(container.getConcurrentConsumers()).isEqualTo(4);
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(4);
+    }
+
+    @Test
+    public void testPollLeavesContainerWithoutProcessingTime() {
+        DefaultMessageListenerContainer container = queueContainer("orders");
+        AMQP10JMSBacklogProvider provider = mock(AMQP10JMSBacklogProvider.class);
+        AMQP10JMSConcurrencyAutoscaler autoscaler = createAutoscaler(container, provider);
+
+        autoscaler.recordProcessingTime("invoices", TimeUnit.MILLISECONDS.toNanos(1));
+        autoscaler.poll();
+
+        assertThat(container.getConcurrentConsumers()).isEqualTo(1);
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(1);
+        verify(provider, never()).getBacklog(any());
+    }
+
+    @Test
+    public void testPollLeavesContainerWithUnknownBacklog() {
+        DefaultMessageListenerContainer container = queueContainer("orders");
+        container.setConcurrency("3-3");
+
+        AMQP10JMSConcurrencyAutoscaler autoscaler = createAutoscaler(container, (queueName) -> -1);
+
+        autoscaler.recordProcessingTime("orders", TimeUnit.MILLISECONDS.toNanos(1));
+        autoscaler.poll();
+
+        assertThat(container.getConcurrentConsumers()).isEqualTo(3);
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(3);
+    }
+
+    @Test
+    public void testPollLeavesTopicContainer() {
+        DefaultMessageListenerContainer container = queueContainer("prices");
+        container.setPubSubDomain(true);
+
+        AMQP10JMSBacklogProvider provider = mock(AMQP10JMSBacklogProvider.class);
+        AMQP10JMSConcurrencyAutoscaler autoscaler = createAutoscaler(container, provider);
+
+        autoscaler.recordProcessingTime("prices", TimeUnit.MILLISECONDS.toNanos(1));
+        autoscaler.poll();
+
+        assertThat(container.getMaxConcurrentConsumers()).isEqualTo(1);
+        verify(provider, never()).getBacklog(any());
+    }
+
+    @Test
+    public void testManagementBacklogProviderReadsQueueDepth() throws Exception {
+        MapMessage reply = mock(MapMessage.class);
+
+        when(reply.propertyExists("statusCode")).thenReturn(true);
+        when(reply.getIntProperty("statusCode")).thenReturn(200);
+        when(reply.getObject("queueDepthMessages")).thenReturn(42L);
+
+        ManagementNode managementNode = new ManagementNode(reply);
+
+        try (AMQP10JMSManagementBacklogProvider provider = new AMQP10JMSManagementBacklogProvider(
+                new JmsTemplate(managementNode.connectionFactory), Duration.ofSeconds(10), "org.apache.qpid.Queue", "queueDepthMessages")) {
+
+            assertThat(provider.getBacklog("orders")).isEqualTo(42);
+            assertThat(provider.getBacklog("orders")).isEqualTo(42);
+        }
+
+        verify(managementNode.session).createQueue(AMQP10JMSManagementBacklogProvider.MANAGEMENT_NODE_ADDRESS);
+        verify(managementNode.request, times(2)).setStringProperty("operation", "READ");
+        verify(managementNode.request, times(2)).setStringProperty("type", "org.apache.qpid.Queue");
+        verify(managementNode.request, times(2)).setStringProperty("name", "orders");
+
+        // Every reply is received on the one reply queue
+        verify(managementNode.session, times(1)).createTemporaryQueue();
+    }
+
+    @Test
+    public void testManagementBacklogProviderReportsUnknownDepthWhenRejected() throws Exception {
+        MapMessage rejected = mock(MapMessage.class);
+
+        when(rejected.propertyExists("statusCode")).thenReturn(true);
+        when(rejected.getIntProperty("statusCode")).thenReturn(404);
+
+        ManagementNode managementNode = new ManagementNode(rejected);
+
+        try (AMQP10JMSManagementBacklogProvider provider = new AMQP10JMSManagementBacklogProvider(
+                new JmsTemplate(managementNode.connectionFactory), Duration.ofSeconds(10), "org.apache.qpid.Queue", "queueDepthMessages")) {
+
+            assertThat(provider.getBacklog("orders")).isEqualTo(-1);
+        }
+    }
+
+    @Test
+    public void testManagementBacklogProviderReportsUnknownDepthWhenNoReply() throws Exception {
+        ManagementNode managementNode = new ManagementNode(null);
+
+        try (AMQP10JMSManagementBacklogProvider provider = new AMQP10JMSManagementBacklogProvider(
+                new JmsTemplate(managementNode.connectionFactory), Duration.ofMillis(50), "org.apache.qpid.Queue", "queueDepthMessages")) {
+
+            assertTimeoutPreemptively(Duration.ofSeconds(10), () -> assertThat(provider.getBacklog("orders")).isEqualTo(-1));
+        }
+    }
+
+    private static DefaultMessageListenerContainer queueContainer(String destinationName) {
+        DefaultMessageListenerContainer container = new DefaultMessageListenerContainer();
+        container.setDestinationName(destinationName);
+        return container;
+    }
+
+    private static AMQP10JMSConcurrencyAutoscaler createAutoscaler(MessageListenerContainer container, AMQP10JMSBacklogProvider provider) {
+        JmsListenerEndpointRegistry registry = mock(JmsListenerEndpointRegistry.class);
+        when(registry.getListenerContainers()).thenReturn(List.of(container));
+
+        return new AMQP10JMSConcurrencyAutoscaler(registry, provider, 1, 10, Duration.ofSeconds(10), Duration.ofSeconds(5));
+    }
+
+    private static final class ManagementNode {
+
+        private final ConnectionFactory connectionFactory = mock(ConnectionFactory.class);
+        private final Connection connection = mock(Connection.class);
+        private final Session session = mock(Session.class);
+        private final Message request = mock(Message.class);
+
+        private MessageListener replyListener;
+        private String correlationId;
+
+        /**
+         * Mocks a management node that answers each request with the given reply, or never answers when null.
+         */
+        ManagementNode(Message reply) throws Exception {
+            MessageConsumer consumer = mock(MessageConsumer.class);
+            MessageProducer producer = mock(MessageProducer.class);
+
+            when(connectionFactory.createConnection()).thenReturn(connection);
+            when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+            when(session.createQueue(any())).thenReturn(mock(Queue.class));
+            when(session.createTemporaryQueue()).thenReturn(mock(TemporaryQueue.class));
+            when(session.createConsumer(any(Destination.class))).thenReturn(consumer);
+            when(session.createProducer(any(Destination.class))).thenReturn(producer);
+            when(session.createMessage()).thenReturn(request);
+
+            doAnswer((invocation) -> {
+                replyListener = invocation.getArgument(0);
+                return null;
+            }).when(consumer).setMessageListener(any());
+
+            doAnswer((invocation) -> {
+                correlationId = invocation.getArgument(0);
+                return null;
+            }).when(request).setJMSCorrelationID(any());
+
+            if (reply != null) {
+                when(reply.getJMSCorrelationID()).thenAnswer((invocation) -> correlationId);
+                doAnswer((invocation) -> {
+                    replyListener.onMessage(reply);
+                    return null;
+                }).when(producer).send(any(Message.class));
+            }
+        }
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.List;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test for the AMQP 1.0 JMS ConnectionFactory builder.
+ */
+public class AMQP10JMSConnectionFactoryFactoryTest {
+
+    private final AMQP10JMSProperties.Transport transport = new AMQP10JMSProperties.Transport();
+
+    @Test
+    public void testRemoteURLUnchangedWithoutTransportOptions() {
+        final String remoteUrl = "amqp://localhost:5672?amqp.idleTimeout=1000";
+
+        assertSame(remoteUrl, AMQP10JMSConnectionFactoryFactory.configureTransportOptions(remoteUrl, transport));
+    }
+
+    @Test
+    public void testTransportOptionsAppendedToRemoteURL() {
+        transport.setTcpNoDelay(true);
+        transport.setSendBufferSize(65536);
+        transport.setConnectTimeout(Duration.ofSeconds(5));
+
+        assertEquals("amqp://localhost:5672?transport.tcpNoDelay=true&transport.sendBufferSize=65536&transport.connectTimeout=5000",
+            AMQP10JMSConnectionFactoryFactory.configureTransportOptions("amqp://localhost:5672", transport));
+    }
+
+    @Test
+    public void testTransportOptionsMergedWithExistingQuery() {
+        transport.setTcpNoDelay(false);
+        transport.setTrafficClass(16);
+
+        assertEquals("amqp://localhost:5672?amqp.idleTimeout=1000&transport.tcpNoDelay=false&transport.trafficClass=16",
+            AMQP10JMSConnectionFactoryFactory.configureTransportOptions(
+                "amqp://localhost:5672?amqp.idleTimeout=1000&transport.tcpNoDelay=true", transport));
+    }
+
+    @Test
+    public void testTransportOptionsAppliedToFailoverNestedURIs() {
+        transport.setUseEpoll(false);
+        transport.setSharedEventLoopThreads(4);
+
+        assertEquals("failover:(amqp://host1:5672?amqp.idleTimeout=1000,amqp://host2:5672)?failover.maxReconnectAttempts=10" +
+                     "&failover.nested.transport.useEpoll=false&failover.nested.transport.sharedEventLoopThreads=4",
+            AMQP10JMSConnectionFactoryFactory.configureTransportOptions(
+                "failover:(amqp://host1:5672?amqp.idleTimeout=1000,amqp://host2:5672)?failover.maxReconnectAttempts=10", transport));
+
+        assertEquals("failover:(amqp://host1:5672,amqp://host2:5672)?failover.nested.transport.useEpoll=false" +
+                     "&failover.nested.transport.sharedEventLoopThreads=4",
+            AMQP10JMSConnectionFactoryFactory.configureTransportOptions(
+                "failover:(amqp://host1:5672,amqp://host2:5672)", transport));
+    }
+
+    @Test
+    public void testTransportOptionsAreValidated() {
+        assertThrows(IllegalArgumentException.class, () -> transport.setSendBufferSize(0));
+        assertThrows(IllegalArgumentException.class, () -> transport.setReceiveBufferSize(-1));
+        assertThrows(IllegalArgumentException.class, () -> transport.setTrafficClass(256));
+        assertThrows(IllegalArgumentException.class, () -> transport.setConnectTimeout(Duration.ofMillis(-1)));
+    }
+
+    @Test
+    public void testDeserializationPolicyMatchesConnectionFactoryPolicy() {
+        final AMQP10JMSProperties properties = new AMQP10JMSProperties();
+        properties.setRemoteUrl("failover:(amqp://a:5672,amqp://b:5672)?jms.deserializationPolicy.denyList=com.example.unsafe%2Corg.example");
+        properties.getDeserializationPolicy().setAllowList(List.of("com.example", "java.util"));
+
+        final AMQP10JMSDeserializationPolicy policy = AMQP10JMSConnectionFactoryFactory.createDeserializationPolicy(properties);
+        final JmsDefaultDeserializationPolicy factoryPolicy = (JmsDefaultDeserializationPolicy) new AMQP10JMSConnectionFactoryFactory(properties, null)
+            .createConnectionFactory(JmsConnectionFactory.class).getDeserializationPolicy();
+
+        assertEquals("com.example.unsafe,org.example", policy.getDenyList());
+        assertEquals(factoryPolicy.getAllowList(), policy.getAllowList());
+        assertEquals(factoryPolicy.getDenyList(), policy.getDenyList());
+    }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test that the compiled deserialization policy makes the same decisions as the Qpid JMS default policy.
+ */
+public class AMQP10JMSDeserializationPolicyTest {
+
+    private static final List<Class<?>> TYPES = List.of(
+        String.class, Integer.class, Map.class, Map.Entry.class, ConcurrentHashMap.class, UUID.class,
+        File.class, URI.class, String[].class, int.class, AMQP10JMSDeserializationPolicyTest.class,
+        JmsDefaultDeserializationPolicy.class);
+
+    @Test
+    public void testDefaultListsTrustEverything() {
+        assertSameDecisions("*", "");
+    }
+
+    @Test
+    public void testPackageAndClassEntries() {
+        assertSameDecisions("java.lang,java.util.Map,org.amqphub", "");
+        assertSameDecisions("java", "java.util.concurrent,java.io.File");
+        assertSameDecisions("*", "java.net,org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy");
+    }
+
+    @Test
+    public void testEntriesOnlyMatchWholeSegments() {
+        assertSameDecisions("java.la,java.util.Ma,java.lang.String,org.amqphub.spring.boot.jms.autoconfigure..*", "");
+        assertSameDecisions("*", "java.lang.Str,java.lang.String");
+    }
+
+    @Test
+    public void testCatchAllDeny() {
+        assertSameDecisions("java.lang", "*");
+    }
+
+    @Test
+    public void testListChangesAreApplied() {
+        AMQP10JMSDeserializationPolicy policy = new AMQP10JMSDeserializationPolicy();
+
+        assertThat(policy.isTrustedType(null, URI.class)).isTrue();
+
+        policy.setDenyList("java.net");
+        assertThat(policy.isTrustedType(null, URI.class)).isFalse();
+
+        policy.setAllowList("java.lang");
+        policy.setDenyList("");
+        assertThat(policy.isTrustedType(null, URI.class)).isFalse();
+        assertThat(policy.isTrustedType(null, String.class)).isTrue();
+        assertThat(policy.isTrustedType(null, null)).isTrue();
+    }
+
+    @Test
+    public void testCacheDisabled() {
+        AMQP10JMSDeserializationPolicy policy = new AMQP10JMSDeserializationPolicy();
+        policy.setCacheSize(0);
+        policy.setAllowList("java.util");
+
+        assertThat(policy.isTrustedType(null, UUID.class)).isTrue();
+        assertThat(policy.isTrustedType(null, UUID.class)).isTrue();
+        assertThat(policy.isTrustedType(null, String.class)).isFalse();
+    }
+
+    @Test
+    public void testCopyRetainsListsAndCacheSize() {
+        AMQP10JMSDeserializationPolicy policy = new AMQP10JMSDeserializationPolicy();
+        policy.setAllowList("java.util");
+        policy.setCacheSize(8);
+
+        AMQP10JMSDeserializationPolicy copy = policy.copy();
+
+        assertThat(copy.getAllowList()).isEqualTo("java.util");
+        assertThat(copy.getCacheSize()).isEqualTo(8);
+        assertThat(copy.isTrustedType(null, UUID.class)).isTrue();
+        assertThat(copy.isTrustedType(null, String.class)).isFalse();
+    }
+
+    private static void assertSameDecisions(String allowList, String denyList) {
+        JmsDefaultDeserializationPolicy expected = new JmsDefaultDeserializationPolicy();
+        expected.setAllowList(allowList);
+        expected.setDenyList(denyList);
+
+        AMQP10JMSDeserializationPolicy policy = new AMQP10JMSDeserializationPolicy();
+        policy.setAllowList(allowList);
+        policy.setDenyList(denyList);
+
+        for (Class<?> type : TYPES) {
+            // Repeated to check the cached decision as well as the compiled one
+            for (int i = 0; i < 2; ++i) {
+                assertThat(policy.isTrustedType(null, type))
+                    .as("allow=%s deny=%s type=%s", allowList, denyList, type.getName())
+                    .isEqualTo(expected.isTrustedType(null, type));
+            }
+        }
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.URI;
+import java.time.Duration;
+import java.time.Instant;
+
+import org.apache.qpid.jms.JmsConnection;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.health.contributor.Health;
+import org.springframework.boot.health.contributor.Status;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+/**
+ * Test the cached AMQP 1.0 JMS health indicator.
+ */
+public class AMQP10JMSHealthIndicatorTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSHealthContributorAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    @Test
+    public void testHealthIndicatorIsConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.clientId=application",
+                                              "amqphub.amqp10jms.health.reconnectDelay=1m").run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSHealthIndicator.class);
+            assertThat(context).hasBean("jmsHealthIndicator");
+        });
+    }
+
+    @Test
+    public void testHealthIndicatorNotConfiguredWhenDisabled() {
+        this.contextRunner.withPropertyValues("management.health.jms.enabled=false").run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSHealthIndicator.class);
+        });
+    }
+
+    @Test
+    public void testHealthTracksConnectionState() {
+        AMQP10JMSHealthIndicator indicator = new AMQP10JMSHealthIndicator(mock(JmsConnectionFactory.class), Duration.ofSeconds(5));
+        URI remoteURI = URI.create("amqp://localhost:5672");
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UNKNOWN);
+
+        indicator.onConnectionEstablished(remoteURI);
+
+        Health established = indicator.health();
+        assertThat(established.getStatus()).isEqualTo(Status.UP);
+        assertThat(established.getDetails()).containsEntry("remoteUri", remoteURI.toString());
+
+        // Probes return the cached value until the connection state changes
+        assertThat(indicator.health()).isSameAs(established);
+
+        indicator.onConnectionInterrupted(remoteURI);
+
+        Health interrupted = indicator.health();
+        assertThat(interrupted.getStatus()).isEqualTo(Status.DOWN);
+        assertThat(interrupted.getDetails()).containsEntry("state", "interrupted");
+        assertThat((Instant) interrupted.getDetails().get("since")).isAfterOrEqualTo((Instant) established.getDetails().get("since"));
+
+        indicator.onConnectionRestored(remoteURI);
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.UP);
+        assertThat(indicator.health().getDetails()).containsEntry("state", "restored");
+
+        indicator.onConnectionFailure(new IllegalStateException("Connection lost"));
+
+        assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+        assertThat(indicator.health().getDetails()).containsKey("error");
+    }
+
+    @Test
+    public void testConnectionFailingWhileStartingIsClosed() throws Exception {
+        JmsConnectionFactory connectionFactory = mock(JmsConnectionFactory.class);
+        JmsConnection connection = mock(JmsConnection.class);
+        AMQP10JMSHealthIndicator indicator = new AMQP10JMSHealthIndicator(connectionFactory, Duration.ofMinutes(1));
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        // The failure is reported by the client before start returns
+        doAnswer((invocation) -> {
+            indicator.onConnectionFailure(new IllegalStateException("Connection refused"));
+            return null;
+        }).when(connection).start();
+
+        indicator.start();
+
+        try {
+            verify(connection, timeout(5000)).close();
+            assertThat(indicator.health().getStatus()).isEqualTo(Status.DOWN);
+        } finally {
+            indicator.stop();
+        }
+    }
+}
@@ -0,0 +1,162 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.Topic;
+
+/**
+ * Test the warm-up of the pooled connection factory.
+ */
+public class AMQP10JMSJmsPoolConnectionFactoryWarmupTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class, JmsAutoConfiguration.class));
+
+    private ConnectionFactory connectionFactory;
+    private Connection connection;
+    private Session session;
+    private MessageProducer producer;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connectionFactory = mock(ConnectionFactory.class);
+        connection = mock(Connection.class);
+        session = mock(Session.class);
+        producer = mock(MessageProducer.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyInt())).thenReturn(session);
+        when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(session.createTopic(anyString())).thenReturn(mock(Topic.class));
+        when(session.createProducer(any(Destination.class))).thenReturn(producer);
+    }
+
+    @Test
+    public void testWarmupNotConfiguredByDefault() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.pool.enabled=true").run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSJmsPoolConnectionFactoryWarmup.class);
+        });
+    }
+
+    @Test
+    public void testWarmupConfiguredWhenEnabled() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.pool.enabled=true",
+                                              "amqphub.amqp10jms.pool.warmup.enabled=true",
+                                              "amqphub.amqp10jms.pool.warmup.timeout=1s").run((context) -> {
+            // No broker is running, the failed warm-up must not prevent the context starting
+            assertThat(context).hasNotFailed();
+            assertThat(context).hasSingleBean(AMQP10JMSJmsPoolConnectionFactoryWarmup.class);
+        });
+    }
+
+    @Test
+    public void testWarmupOpensConnectionsSessionsAndProducers() throws Exception {
+        AMQP10JMSJmsPoolConnectionFactoryProperties.Warmup warmup = new AMQP10JMSJmsPoolConnectionFactoryProperties.Warmup();
+        warmup.setConnections(2);
+        warmup.setSessionsPerConnection(3);
+        warmup.setProducerQueues(Arrays.asList("orders", "invoices"));
+        warmup.setProducerTopics(Collections.singletonList("events"));
+
+        AMQP10JMSJmsPoolConnectionFactoryWarmup warmer = new AMQP10JMSJmsPoolConnectionFactoryWarmup(connectionFactory, warmup);
+
+        warmer.start();
+
+        assertTrue(warmer.isRunning());
+        verify(connectionFactory, times(2)).createConnection();
+        verify(connection, times(6)).createSession(Session.AUTO_ACKNOWLEDGE);
+        verify(session, times(18)).createProducer(any(Destination.class));
+        verify(producer, times(18)).close();
+        verify(session, times(6)).close();
+
+        // Connections are held until the application stops
+        verify(connection, never()).close();
+
+        warmer.stop();
+
+        assertFalse(warmer.isRunning());
+        verify(connection, times(2)).close();
+    }
+
+    @Test
+    public void testWarmupCreatesOnlyAnonymousProducersWhenPoolUsesThem() throws Exception {
+        JmsPoolConnectionFactory poolConnectionFactory = mock(JmsPoolConnectionFactory.class);
+
+        when(poolConnectionFactory.createConnection()).thenReturn(connection);
+        when(poolConnectionFactory.getMaxConnections()).thenReturn(1);
+        when(poolConnectionFactory.isUseAnonymousProducers()).thenReturn(true);
+        when(session.createProducer(null)).thenReturn(producer);
+
+        AMQP10JMSJmsPoolConnectionFactoryProperties.Warmup warmup = new AMQP10JMSJmsPoolConnectionFactoryProperties.Warmup();
+        warmup.setSessionsPerConnection(2);
+        warmup.setProducerQueues(Arrays.asList("orders", "invoices"));
+
+        AMQP10JMSJmsPoolConnectionFactoryWarmup warmer = new AMQP10JMSJmsPoolConnectionFactoryWarmup(poolConnectionFactory, warmup);
+
+        warmer.start();
+
+        verify(session, times(2)).createProducer(null);
+        verify(session, never()).createQueue(anyString());
+        verify(producer, times(2)).close();
+
+        warmer.stop();
+    }
+
+    @Test
+    public void testWarmupFailureDoesNotFailStart() throws Exception {
+        when(connection.createSession(anyInt())).thenThrow(new JMSException("Connection refused"));
+
+        AMQP10JMSJmsPoolConnectionFactoryWarmup warmer =
+            new AMQP10JMSJmsPoolConnectionFactoryWarmup(connectionFactory, new AMQP10JMSJmsPoolConnectionFactoryProperties.Warmup());
+
+        warmer.start();
+
+        assertTrue(warmer.isRunning());
+
+        warmer.stop();
+
+        verify(connection).close();
+    }
+}
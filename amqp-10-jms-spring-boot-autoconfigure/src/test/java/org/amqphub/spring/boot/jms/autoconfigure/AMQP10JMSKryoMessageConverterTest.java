@@ -0,0 +1,223 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.MessageConversionException;
+import org.springframework.jms.support.converter.SimpleMessageConverter;
+
+import jakarta.jms.BytesMessage;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the Kryo message converter and its auto configuration.
+ */
+public class AMQP10JMSKryoMessageConverterTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSMessageConverterAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private Session session;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        session = mock(Session.class);
+
+        when(session.createBytesMessage()).thenAnswer((invocation) -> bytesMessage());
+    }
+
+    @Test
+    public void testConverterNotConfiguredByDefault() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSKryoMessageConverter.class);
+        });
+    }
+
+    @Test
+    public void testConverterAppliedToJmsTemplate() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.serialization.enabled=true",
+                                              "amqphub.amqp10jms.serialization.registeredTypes=" +
+                                                  Order.class.getName() + "," + OrderLine.class.getName() + ",java.util.ArrayList").run((context) -> {
+            AMQP10JMSKryoMessageConverter converter = context.getBean(AMQP10JMSKryoMessageConverter.class);
+
+            assertThat(context.getBean(JmsTemplate.class).getMessageConverter()).isSameAs(converter);
+            assertThat(converter.getRegisteredTypes()).containsExactly(Order.class, OrderLine.class, ArrayList.class);
+            assertThat(converter.getDelegate()).isExactlyInstanceOf(SimpleMessageConverter.class);
+        });
+    }
+
+    @Test
+    public void testConverterTrustsTypesAllowedByDeserializationPolicy() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.serialization.enabled=true",
+                                              "amqphub.amqp10jms.serialization.registeredTypes=" +
+                                                  Order.class.getName() + "," + OrderLine.class.getName(),
+                                              "amqphub.amqp10jms.deserialization-policy.deny-list=" + Order.class.getCanonicalName(),
+                                              "amqphub.amqp10jms.byte-buffers.enabled=true").run((context) -> {
+            AMQP10JMSKryoMessageConverter converter = context.getBean(AMQP10JMSKryoMessageConverter.class);
+
+            assertThat(context).doesNotHaveBean(AMQP10JMSByteBufferMessageConverter.class);
+            assertThat(converter.getRegisteredTypes()).containsExactly(OrderLine.class);
+            assertThat(converter.getDelegate()).isInstanceOf(AMQP10JMSByteBufferMessageConverter.class);
+        });
+    }
+
+    @Test
+    public void testRegisteredTypeRoundTrip() throws Exception {
+        AMQP10JMSKryoMessageConverter converter = new AMQP10JMSKryoMessageConverter(
+            new SimpleMessageConverter(), new JmsDefaultDeserializationPolicy(), List.of(Order.class, OrderLine.class, ArrayList.class));
+
+        Order order = new Order("order-1", 3);
+        order.lines.add(new OrderLine("sku-1", 2));
+        order.lines.add(new OrderLine("sku-2", 5));
+
+        BytesMessage message = (BytesMessage) converter.toMessage(order, session);
+
+        assertThat(message.getStringProperty(AMQP10JMSKryoMessageConverter.TYPE_PROPERTY)).isEqualTo(Order.class.getName());
+        assertThat(converter.fromMessage(message)).isEqualTo(order);
+    }
+
+    @Test
+    public void testUnregisteredTypeConvertedByDelegate() throws Exception {
+        AMQP10JMSKryoMessageConverter converter = new AMQP10JMSKryoMessageConverter(
+            new SimpleMessageConverter(), new JmsDefaultDeserializationPolicy(), List.of(OrderLine.class));
+
+        TextMessage textMessage = mock(TextMessage.class);
+        when(session.createTextMessage("text")).thenReturn(textMessage);
+        when(textMessage.getText()).thenReturn("text");
+
+        assertThat(converter.toMessage("text", session)).isSameAs(textMessage);
+        assertThat(converter.fromMessage(textMessage)).isEqualTo("text");
+        verify(session, never()).createBytesMessage();
+    }
+
+    @Test
+    public void testDeniedTypeIsNotDeserialized() throws Exception {
+        AMQP10JMSKryoMessageConverter producer = new AMQP10JMSKryoMessageConverter(
+            new SimpleMessageConverter(), new JmsDefaultDeserializationPolicy(), List.of(Order.class, OrderLine.class, ArrayList.class));
+
+        JmsDefaultDeserializationPolicy policy = new JmsDefaultDeserializationPolicy();
+        policy.setDenyList(Order.class.getCanonicalName());
+
+        AMQP10JMSKryoMessageConverter consumer = new AMQP10JMSKryoMessageConverter(
+            new SimpleMessageConverter(), policy, List.of(Order.class, OrderLine.class, ArrayList.class));
+
+        BytesMessage message = (BytesMessage) producer.toMessage(new Order("order-1", 1), session);
+
+        assertThat(consumer.getRegisteredTypes()).containsExactly(OrderLine.class, ArrayList.class);
+        assertThrows(MessageConversionException.class, () -> consumer.fromMessage(message));
+
+        // The remaining types keep the identifiers they are given by the producer
+        OrderLine line = new OrderLine("sku-1", 1);
+        assertThat(consumer.fromMessage(producer.toMessage(line, session))).isEqualTo(line);
+    }
+
+    private static BytesMessage bytesMessage() throws JMSException {
+        ByteArrayOutputStream written = new ByteArrayOutputStream();
+        Map<String, Object> properties = new HashMap<>();
+        BytesMessage message = mock(BytesMessage.class);
+
+        doAnswer((invocation) -> {
+            written.write((byte[]) invocation.getArgument(0), (int) invocation.getArgument(1), (int) invocation.getArgument(2));
+            return null;
+        }).when(message).writeBytes(any(byte[].class), anyInt(), anyInt());
+        when(message.getBody(byte[].class)).thenAnswer((invocation) -> written.toByteArray());
+        doAnswer((invocation) -> properties.put(invocation.getArgument(0), invocation.getArgument(1)))
+            .when(message).setStringProperty(anyString(), any());
+        when(message.getStringProperty(anyString())).thenAnswer((invocation) -> (String) properties.get(invocation.getArgument(0)));
+
+        return message;
+    }
+
+    static class Order {
+
+        String id;
+        int priority;
+        List<OrderLine> lines = new ArrayList<>();
+
+        Order() {
+        }
+
+        Order(String id, int priority) {
+            this.id = id;
+            this.priority = priority;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof Order && Objects.equals(id, ((Order) other).id) &&
+                   priority == ((Order) other).priority && Objects.equals(lines, ((Order) other).lines);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(id, priority, lines);
+        }
+    }
+
+    static class OrderLine {
+
+        String sku;
+        int quantity;
+
+        OrderLine() {
+        }
+
+        OrderLine(String sku, int quantity) {
+            this.sku = sku;
+            this.quantity = quantity;
+        }
+
+        @Override
+        public boolean equals(Object other) {
+            return other instanceof OrderLine && Objects.equals(sku, ((OrderLine) other).sku) &&
+                   quantity == ((OrderLine) other).quantity;
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(sku, quantity);
+        }
+    }
+}
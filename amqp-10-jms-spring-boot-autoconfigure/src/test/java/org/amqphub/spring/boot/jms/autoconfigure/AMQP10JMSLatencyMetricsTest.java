@@ -0,0 +1,242 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.message.facade.JmsMessageFacade;
+import org.apache.qpid.jms.tracing.JmsTracer;
+import org.apache.qpid.jms.tracing.JmsTracer.DeliveryOutcome;
+import org.apache.qpid.jms.tracing.TraceableMessage;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Message;
+
+/**
+ * Test the send, broker transit and listener processing latency metrics.
+ */
+public class AMQP10JMSLatencyMetricsTest {
+
+    private static final Instant NOW = Instant.parse("2026-01-01T00:00:00.000500Z");
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSLatencyMetricsAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    @Test
+    public void testTracerInstalledOnConnectionFactory() {
+        this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class).run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSLatencyMetrics.class);
+
+            ConnectionFactory connectionFactory = context.getBean(ConnectionFactory.class);
+            JmsConnectionFactory qpidFactory = (JmsConnectionFactory) ((CachingConnectionFactory) connectionFactory).getTargetConnectionFactory();
+
+            assertThat(qpidFactory.getTracer()).isSameAs(context.getBean(AMQP10JMSLatencyMetrics.class));
+        });
+    }
+
+    @Test
+    public void testSendTimestampAnnotationOffByDefault() {
+        this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class).run((context) -> {
+            TraceableMessage message = mock(TraceableMessage.class);
+
+            context.getBean(AMQP10JMSLatencyMetrics.class).initSend(message, "queue");
+
+            verify(message, never()).setTracingAnnotation(eq(AMQP10JMSLatencyMetrics.SEND_TIMESTAMP_ANNOTATION), anyLong());
+        });
+    }
+
+    @Test
+    public void testTracingUriOptionIsNotReplaced() {
+        this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class)
+            .withPropertyValues("amqphub.amqp10jms.remoteUrl=amqp://127.0.0.1:5672?jms.tracing=opentracing").run((context) -> {
+                ConnectionFactory connectionFactory = context.getBean(ConnectionFactory.class);
+                JmsConnectionFactory qpidFactory = (JmsConnectionFactory) ((CachingConnectionFactory) connectionFactory).getTargetConnectionFactory();
+
+                assertThat(qpidFactory.getTracing()).isEqualTo("opentracing");
+                assertThat(qpidFactory.getTracer()).isNull();
+            });
+    }
+
+    @Test
+    public void testConfiguredTracerIsWrapped() {
+        JmsConnectionFactory factory = new JmsConnectionFactory();
+        JmsTracer applicationTracer = mock(JmsTracer.class);
+        AMQP10JMSLatencyMetrics metrics = new AMQP10JMSLatencyMetrics();
+        TraceableMessage message = mock(TraceableMessage.class);
+
+        factory.setTracer(applicationTracer);
+
+        AMQP10JMSLatencyMetricsAutoConfiguration.installTracer(factory, metrics);
+
+        assertThat(factory.getTracer()).isInstanceOf(AMQP10JMSCompositeTracer.class);
+        assertThat(((AMQP10JMSCompositeTracer) factory.getTracer()).getFirst()).isSameAs(applicationTracer);
+        assertThat(((AMQP10JMSCompositeTracer) factory.getTracer()).getSecond()).isSameAs(metrics);
+
+        factory.getTracer().initSend(message, "queue");
+        factory.getTracer().asyncDeliveryComplete(message, DeliveryOutcome.DELIVERED, null);
+
+        verify(applicationTracer).initSend(message, "queue");
+        verify(applicationTracer).asyncDeliveryComplete(message, DeliveryOutcome.DELIVERED, null);
+        verify(message).setTracingContext(eq("amqphub.amqp10jms.send.start"), any());
+    }
+
+    @Test
+    public void testMetricsNotConfiguredWhenDisabled() {
+        this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class)
+            .withPropertyValues("amqphub.amqp10jms.latency.enabled=false").run((context) -> {
+                assertThat(context).doesNotHaveBean(AMQP10JMSLatencyMetrics.class);
+            });
+    }
+
+    @Test
+    public void testMetricsNotConfiguredWithoutMeterRegistry() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSLatencyMetrics.class);
+        });
+    }
+
+    @Test
+    public void testSendTimeRecordedAndMessageAnnotated() {
+        AMQP10JMSLatencyMetrics metrics = new AMQP10JMSLatencyMetrics(true, Tags.empty(), Clock.fixed(NOW, ZoneOffset.UTC));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TraceableMessage message = mock(TraceableMessage.class);
+
+        metrics.bindTo(registry);
+        metrics.initSend(message, "queue");
+
+        verify(message).setTracingAnnotation(AMQP10JMSLatencyMetrics.SEND_TIMESTAMP_ANNOTATION, 1767225600000500L);
+
+        when(message.removeTracingContext("amqphub.amqp10jms.send.start")).thenReturn(System.nanoTime());
+        metrics.completeSend(message, "Accepted");
+
+        assertThat(registry.get("amqphub.amqp10jms.send").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSendTimestampAnnotationDisabled() {
+        AMQP10JMSLatencyMetrics metrics = new AMQP10JMSLatencyMetrics(false, Tags.empty());
+        TraceableMessage message = mock(TraceableMessage.class);
+
+        metrics.initSend(message, "queue");
+
+        verify(message, never()).setTracingAnnotation(eq(AMQP10JMSLatencyMetrics.SEND_TIMESTAMP_ANNOTATION), anyLong());
+    }
+
+    @Test
+    public void testTransitTimeRecordedFromAnnotation() {
+        AMQP10JMSLatencyMetrics metrics = new AMQP10JMSLatencyMetrics(true, Tags.empty(), Clock.fixed(NOW, ZoneOffset.UTC));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TraceableMessage message = mock(TraceableMessage.class);
+
+        when(message.getTracingAnnotation(AMQP10JMSLatencyMetrics.SEND_TIMESTAMP_ANNOTATION)).thenReturn(1767225600000200L);
+
+        metrics.bindTo(registry);
+        metrics.asyncDeliveryInit(message, "queue");
+
+        assertThat(registry.get("amqphub.amqp10jms.transit").tag("source", "annotation").timer().totalTime(TimeUnit.MICROSECONDS)).isEqualTo(300);
+        assertThat(registry.get("amqphub.amqp10jms.transit").tag("source", "timestamp").timer().count()).isZero();
+    }
+
+    @Test
+    public void testTransitTimeRecordedFromTimestamp() {
+        AMQP10JMSLatencyMetrics metrics = new AMQP10JMSLatencyMetrics(true, Tags.empty(), Clock.fixed(NOW, ZoneOffset.UTC));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        JmsMessageFacade message = mock(JmsMessageFacade.class);
+
+        when(message.getTimestamp()).thenReturn(NOW.toEpochMilli() - 2);
+
+        metrics.bindTo(registry);
+        metrics.syncReceive(message, "queue", DeliveryOutcome.DELIVERED);
+        metrics.syncReceive(message, "queue", DeliveryOutcome.EXPIRED);
+
+        assertThat(registry.get("amqphub.amqp10jms.transit").tag("source", "timestamp").timer().count()).isEqualTo(1);
+        assertThat(registry.get("amqphub.amqp10jms.transit").tag("source", "timestamp").timer().totalTime(TimeUnit.MICROSECONDS)).isEqualTo(2500);
+    }
+
+    @Test
+    public void testTransitTimeNotRecordedForClockSkew() {
+        AMQP10JMSLatencyMetrics metrics = new AMQP10JMSLatencyMetrics(true, Tags.empty(), Clock.fixed(NOW, ZoneOffset.UTC));
+        MeterRegistry registry = new SimpleMeterRegistry();
+        TraceableMessage message = mock(TraceableMessage.class);
+
+        when(message.getTracingAnnotation(AMQP10JMSLatencyMetrics.SEND_TIMESTAMP_ANNOTATION)).thenReturn(1767225600001000L);
+
+        metrics.bindTo(registry);
+        metrics.asyncDeliveryInit(message, "queue");
+
+        assertThat(registry.get("amqphub.amqp10jms.transit").tag("source", "annotation").timer().count()).isZero();
+    }
+
+    @Test
+    public void testProcessTimeRecordedFromObservations() {
+        AMQP10JMSLatencyMetrics metrics = new AMQP10JMSLatencyMetrics();
+        MeterRegistry registry = new SimpleMeterRegistry();
+        ObservationRegistry observationRegistry = ObservationRegistry.create();
+
+        metrics.bindTo(registry);
+        observationRegistry.observationConfig().observationHandler(metrics);
+
+        Message message = mock(Message.class);
+
+        Observation.createNotStarted("jms.message.process", () -> new JmsProcessObservationContext(message), observationRegistry)
+                   .observe(() -> { });
+
+        Observation failed = Observation.createNotStarted("jms.message.process", () -> new JmsProcessObservationContext(message), observationRegistry).start();
+        failed.error(new IllegalStateException("Listener failed"));
+        failed.stop();
+
+        assertThat(registry.get("amqphub.amqp10jms.process").tag("outcome", "success").timer().count()).isEqualTo(1);
+        assertThat(registry.get("amqphub.amqp10jms.process").tag("outcome", "failure").timer().count()).isEqualTo(1);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MeterRegistryConfiguration {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledForJreRange;
+import org.junit.jupiter.api.condition.JRE;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jms.config.DefaultJmsListenerContainerFactory;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import jakarta.jms.ConnectionFactory;
+
+/**
+ * Test the virtual thread and consumer pool listener container factory auto configuration.
+ */
+public class AMQP10JMSListenerAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSListenerAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    @Test
+    public void testVirtualThreadsNotEnabledByDefault() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).hasSingleBean(DefaultJmsListenerContainerFactory.class);
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertThat(ReflectionTestUtils.getField(container, "taskExecutor")).isNull();
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testVirtualThreadListenerContainerFactory() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.virtual-threads=true").run((context) -> {
+            assertThat(context).hasSingleBean(DefaultJmsListenerContainerFactory.class);
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            Object taskExecutor = ReflectionTestUtils.getField(container, "taskExecutor");
+            assertThat(taskExecutor).isInstanceOf(SimpleAsyncTaskExecutor.class);
+            assertTrue(((SimpleAsyncTaskExecutor) taskExecutor).getThreadNamePrefix().startsWith(AMQP10JMSListenerAutoConfiguration.THREAD_NAME_PREFIX));
+
+            // The caching connection factory is bypassed in favor of the container's own caching
+            assertThat(container.getConnectionFactory()).isInstanceOf(JmsConnectionFactory.class);
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testConcurrencySizedFromPoolSessionLimit() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.virtual-threads=true",
+                                              "amqphub.amqp10jms.listener.pool-sized-concurrency=true",
+                                              "amqphub.amqp10jms.pool.enabled=true",
+                                              "amqphub.amqp10jms.pool.maxSessionsPerConnection=64").run((context) -> {
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertEquals(1, container.getConcurrentConsumers());
+            assertEquals(64, container.getMaxConcurrentConsumers());
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testConcurrencyNotSizedFromPoolByDefault() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.virtual-threads=true",
+                                              "amqphub.amqp10jms.pool.enabled=true").run((context) -> {
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertEquals(1, container.getConcurrentConsumers());
+            assertEquals(1, container.getMaxConcurrentConsumers());
+        });
+    }
+
+    @Test
+    @EnabledForJreRange(min = JRE.JAVA_21)
+    public void testConfiguredConcurrencyIsRetained() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.virtual-threads=true",
+                                              "amqphub.amqp10jms.pool.enabled=true",
+                                              "spring.jms.listener.min-concurrency=2",
+                                              "spring.jms.listener.max-concurrency=8").run((context) -> {
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertEquals(2, container.getConcurrentConsumers());
+            assertEquals(8, container.getMaxConcurrentConsumers());
+        });
+    }
+
+    @Test
+    public void testConsumerPoolDoesNotSizeConcurrencyWithoutVirtualThreads() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.pool-sized-concurrency=true",
+                                              "amqphub.amqp10jms.consumer-pool.enabled=true",
+                                              "amqphub.amqp10jms.consumer-pool.maxSessionsPerConnection=32").run((context) -> {
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertEquals(1, container.getConcurrentConsumers());
+            assertEquals(1, container.getMaxConcurrentConsumers());
+        });
+    }
+
+    @Test
+    public void testListenersUseSeparateConsumerPool() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.pool.enabled=true",
+                                              "amqphub.amqp10jms.pool.maxConnections=1",
+                                              "amqphub.amqp10jms.consumer-pool.enabled=true",
+                                              "amqphub.amqp10jms.consumer-pool.maxConnections=4",
+                                              "amqphub.amqp10jms.consumer-pool.maxSessionsPerConnection=32").run((context) -> {
+
+            JmsPoolConnectionFactory producerPool = (JmsPoolConnectionFactory) context.getBean(ConnectionFactory.class);
+            JmsPoolConnectionFactory consumerPool = context.getBean(
+                AMQP10JMSConnectionFactoryConfiguration.CONSUMER_CONNECTION_FACTORY_BEAN_NAME, JmsPoolConnectionFactory.class);
+
+            assertThat(consumerPool).isNotSameAs(producerPool);
+            assertEquals(1, producerPool.getMaxConnections());
+            assertEquals(4, consumerPool.getMaxConnections());
+            assertEquals(32, consumerPool.getMaxSessionsPerConnection());
+
+            assertThat(context.getBean(JmsTemplate.class).getConnectionFactory()).isSameAs(producerPool);
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertThat(container.getConnectionFactory()).isSameAs(consumerPool);
+            assertEquals(1, container.getMaxConcurrentConsumers());
+            assertThat(ReflectionTestUtils.getField(container, "taskExecutor")).isNull();
+        });
+    }
+
+    @Test
+    public void testConsumerPoolWithCachingProducerFactory() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.consumer-pool.enabled=true").run((context) -> {
+            assertThat(context.getBean(JmsTemplate.class).getConnectionFactory()).isInstanceOf(CachingConnectionFactory.class);
+
+            DefaultMessageListenerContainer container = createContainer(context.getBean(DefaultJmsListenerContainerFactory.class));
+
+            assertThat(container.getConnectionFactory()).isSameAs(
+                context.getBean(AMQP10JMSConnectionFactoryConfiguration.CONSUMER_CONNECTION_FACTORY_BEAN_NAME));
+        });
+    }
+
+    @Test
+    public void testClientIdKeptOnlyByConsumerPool() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.clientId=application",
+                                              "amqphub.amqp10jms.pool.enabled=true",
+                                              "amqphub.amqp10jms.consumer-pool.enabled=true").run((context) -> {
+
+            JmsPoolConnectionFactory producerPool = (JmsPoolConnectionFactory) context.getBean(ConnectionFactory.class);
+            JmsPoolConnectionFactory consumerPool = context.getBean(
+                AMQP10JMSConnectionFactoryConfiguration.CONSUMER_CONNECTION_FACTORY_BEAN_NAME, JmsPoolConnectionFactory.class);
+
+            assertThat(((JmsConnectionFactory) producerPool.getConnectionFactory()).getClientID()).isNull();
+            assertThat(((JmsConnectionFactory) consumerPool.getConnectionFactory()).getClientID()).isEqualTo("application");
+        });
+    }
+
+    @Test
+    public void testClientIdKeptOnlyByConsumerPoolWithCachingProducerFactory() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.clientId=application",
+                                              "amqphub.amqp10jms.consumer-pool.enabled=true").run((context) -> {
+
+            CachingConnectionFactory producerFactory = context.getBean(CachingConnectionFactory.class);
+            JmsPoolConnectionFactory consumerPool = context.getBean(
+                AMQP10JMSConnectionFactoryConfiguration.CONSUMER_CONNECTION_FACTORY_BEAN_NAME, JmsPoolConnectionFactory.class);
+
+            assertThat(((JmsConnectionFactory) producerFactory.getTargetConnectionFactory()).getClientID()).isNull();
+            assertThat(((JmsConnectionFactory) consumerPool.getConnectionFactory()).getClientID()).isEqualTo("application");
+        });
+    }
+
+    @Test
+    public void testClientIdRejectedWithMultipleConsumerPoolConnections() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.clientId=application",
+                                              "amqphub.amqp10jms.consumer-pool.enabled=true",
+                                              "amqphub.amqp10jms.consumer-pool.maxConnections=4").run((context) -> {
+            assertThat(context).hasFailed();
+        });
+    }
+
+    private static DefaultMessageListenerContainer createContainer(DefaultJmsListenerContainerFactory factory) {
+        SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+        endpoint.setId("test");
+        endpoint.setDestination("queue");
+        endpoint.setMessageListener((message) -> { });
+
+        return factory.createListenerContainer(endpoint);
+    }
+}
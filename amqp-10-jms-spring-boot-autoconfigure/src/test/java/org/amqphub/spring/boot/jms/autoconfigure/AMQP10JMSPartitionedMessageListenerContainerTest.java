@@ -0,0 +1,392 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.apache.qpid.jms.JmsSession;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.listener.DefaultMessageListenerContainer;
+import org.springframework.jms.support.micrometer.JmsProcessObservationContext;
+
+import io.micrometer.observation.Observation;
+import io.micrometer.observation.ObservationHandler;
+import io.micrometer.observation.ObservationRegistry;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.Session;
+
+/**
+ * Tests for the partitioned listener container and its auto configuration.
+ */
+public class AMQP10JMSPartitionedMessageListenerContainerTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSPartitionedListenerAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private AMQP10JMSPartitionedMessageListenerContainer container;
+    private Session session;
+    private MessageConsumer consumer;
+
+    @BeforeEach
+    public void setUp() {
+        container = new AMQP10JMSPartitionedMessageListenerContainer();
+        container.setConnectionFactory(mock(ConnectionFactory.class));
+        container.setAcceptMessagesWhileStopping(true);
+        container.setExposeListenerSession(false);
+
+        session = mock(Session.class);
+        consumer = mock(MessageConsumer.class);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        container.shutdown();
+    }
+
+    @Test
+    public void testLaneOfIsStableAndInRange() {
+        for (int i = 0; i < 1000; ++i) {
+            String key = "account-" + i;
+            int lane = AMQP10JMSPartitionedMessageListenerContainer.laneOf(key, 8);
+
+            assertThat(lane).isBetween(0, 7);
+            assertEquals(lane, AMQP10JMSPartitionedMessageListenerContainer.laneOf(key, 8));
+        }
+
+        assertThat(AMQP10JMSPartitionedMessageListenerContainer.laneOf(Integer.MIN_VALUE, 3)).isBetween(0, 2);
+    }
+
+    @Test
+    public void testMessagesProcessedInOrderPerKey() throws Exception {
+        int messageCount = 200;
+        CountDownLatch processed = new CountDownLatch(messageCount);
+        Map<String, List<Integer>> processedByKey = new ConcurrentHashMap<>();
+        List<Message> messages = new ArrayList<>();
+
+        container.setLanes(4);
+        container.setMessageListener((MessageListener) (message) -> {
+            try {
+                processedByKey.computeIfAbsent(message.getStringProperty("JMSXGroupID"), (key) -> Collections.synchronizedList(new ArrayList<>()))
+                              .add(message.getIntProperty("sequence"));
+            } catch (JMSException ex) {
+                throw new IllegalStateException(ex);
+            }
+            processed.countDown();
+        });
+
+        for (int i = 0; i < messageCount; ++i) {
+            messages.add(keyedMessage("account-" + (i % 10), i));
+        }
+
+        Iterator<Message> received = messages.iterator();
+        when(consumer.receive(anyLong())).thenAnswer((invocation) -> received.hasNext() ? received.next() : null);
+
+        for (int i = 0; i < messageCount; ++i) {
+            assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        }
+
+        assertTrue(processed.await(10, TimeUnit.SECONDS));
+
+        assertEquals(10, processedByKey.size());
+        processedByKey.values().forEach((sequence) -> assertThat(sequence).isSorted());
+
+        for (Message message : messages) {
+            verify(message, timeout(5000)).acknowledge();
+        }
+    }
+
+    @Test
+    public void testLaneCapacityAppliesBackpressure() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+
+        container.setLanes(1);
+        container.setLaneCapacity(1);
+        container.setMessageListener((MessageListener) (message) -> {
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Message first = keyedMessage("a", 1);
+        Message second = keyedMessage("a", 2);
+
+        when(consumer.receive(anyLong())).thenReturn(first, second);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        CompletableFuture<Boolean> dispatched = CompletableFuture.supplyAsync(() -> {
+            try {
+                return container.doReceiveAndExecute(null, session, consumer, null);
+            } catch (JMSException ex) {
+                throw new IllegalStateException(ex);
+            }
+        });
+
+        Thread.sleep(100);
+        assertFalse(dispatched.isDone());
+
+        release.countDown();
+
+        assertTrue(dispatched.get(10, TimeUnit.SECONDS));
+    }
+
+    @Test
+    public void testFailedMessageRecoversSession() throws Exception {
+        CountDownLatch failed = new CountDownLatch(1);
+        Message failing = keyedMessage("a", 1);
+
+        container.setLanes(2);
+        container.setMessageListener((MessageListener) (message) -> {
+            if (message == failing) {
+                failed.countDown();
+                throw new IllegalStateException("Expected");
+            }
+        });
+
+        when(consumer.receive(anyLong())).thenReturn(failing, (Message) null);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        assertTrue(failed.await(10, TimeUnit.SECONDS));
+
+        assertFalse(container.doReceiveAndExecute(null, session, consumer, null));
+
+        verify(session).recover();
+        verify(failing, never()).acknowledge();
+    }
+
+    @Test
+    public void testMessagesRejectedOnceStopped() throws Exception {
+        List<Message> invoked = Collections.synchronizedList(new ArrayList<>());
+        AtomicBoolean recovered = new AtomicBoolean();
+        Message rejected = keyedMessage("a", 1);
+
+        // The container was never started so it is not running
+        container.setAcceptMessagesWhileStopping(false);
+        container.setLanes(1);
+        container.setMessageListener((MessageListener) invoked::add);
+
+        doAnswer((invocation) -> {
+            recovered.set(true);
+            return null;
+        }).when(session).recover();
+
+        when(consumer.receive(anyLong())).thenReturn(rejected, (Message) null);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+
+        // The rejection fails the lane so the session is recovered before a following receive
+        for (int i = 0; i < 500 && !recovered.get(); ++i) {
+            assertFalse(container.doReceiveAndExecute(null, session, consumer, null));
+            Thread.sleep(10);
+        }
+
+        assertTrue(recovered.get());
+        verify(rejected, never()).acknowledge();
+        assertThat(invoked).isEmpty();
+    }
+
+    @Test
+    public void testEachMessageObserved() throws Exception {
+        List<Observation.Context> observed = Collections.synchronizedList(new ArrayList<>());
+        CountDownLatch stopped = new CountDownLatch(2);
+        Message[] messages = { keyedMessage("a", 1), keyedMessage("b", 2) };
+
+        ObservationRegistry registry = ObservationRegistry.create();
+        registry.observationConfig().observationHandler(new ObservationHandler<Observation.Context>() {
+
+            @Override
+            public void onStop(Observation.Context context) {
+                observed.add(context);
+                stopped.countDown();
+            }
+
+            @Override
+            public boolean supportsContext(Observation.Context context) {
+                return context instanceof JmsProcessObservationContext;
+            }
+        });
+
+        container.setLanes(2);
+        container.setObservationRegistry(registry);
+        container.setMessageListener((MessageListener) (message) -> { });
+
+        when(consumer.receive(anyLong())).thenReturn(messages[0], messages[1]);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        assertTrue(stopped.await(10, TimeUnit.SECONDS));
+
+        assertThat(observed).extracting((context) -> ((JmsProcessObservationContext) context).getCarrier())
+                            .containsExactlyInAnyOrder((Object[]) messages);
+    }
+
+    @Test
+    public void testMessagesNotAcknowledgedWhileReceiving() throws Exception {
+        int messageCount = 100;
+        AtomicBoolean receiving = new AtomicBoolean();
+        AtomicBoolean overlapped = new AtomicBoolean();
+        CountDownLatch processed = new CountDownLatch(messageCount);
+        List<Message> messages = new ArrayList<>();
+
+        container.setLanes(4);
+        container.setMessageListener((MessageListener) (message) -> processed.countDown());
+
+        for (int i = 0; i < messageCount; ++i) {
+            Message message = keyedMessage("account-" + (i % 8), i);
+            doAnswer((invocation) -> {
+                if (receiving.get()) {
+                    overlapped.set(true);
+                }
+                return null;
+            }).when(message).acknowledge();
+            messages.add(message);
+        }
+
+        Iterator<Message> received = messages.iterator();
+        when(consumer.receive(anyLong())).thenAnswer((invocation) -> {
+            receiving.set(true);
+            try {
+                // Gives the lanes time to process messages while the receive is in progress
+                Thread.sleep(1);
+                return received.hasNext() ? received.next() : null;
+            } finally {
+                receiving.set(false);
+            }
+        });
+
+        while (processed.getCount() > 0) {
+            container.doReceiveAndExecute(null, session, consumer, null);
+        }
+
+        for (Message message : messages) {
+            verify(message, timeout(5000)).acknowledge();
+        }
+
+        assertFalse(overlapped.get());
+    }
+
+    @Test
+    public void testShutdownAcknowledgesProcessedMessagesAndSkipsTheRest() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        List<Message> invoked = Collections.synchronizedList(new ArrayList<>());
+
+        container.setLanes(1);
+        container.setMessageListener((MessageListener) (message) -> {
+            invoked.add(message);
+            started.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        Message first = keyedMessage("a", 1);
+        Message second = keyedMessage("a", 2);
+
+        when(consumer.receive(anyLong())).thenReturn(first, second);
+
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        assertTrue(container.doReceiveAndExecute(null, session, consumer, null));
+        assertTrue(started.await(10, TimeUnit.SECONDS));
+
+        CompletableFuture<Void> shutdown = CompletableFuture.runAsync(container::shutdown);
+
+        Thread.sleep(100);
+        assertFalse(shutdown.isDone());
+
+        release.countDown();
+        shutdown.get(10, TimeUnit.SECONDS);
+
+        verify(first).acknowledge();
+        verify(second, never()).acknowledge();
+        assertEquals(List.of(first), invoked);
+    }
+
+    @Test
+    public void testPartitionedListenerContainerFactoryConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.listener.partitioned.lanes=6",
+                                              "amqphub.amqp10jms.listener.partitioned.lane-capacity=20",
+                                              "amqphub.amqp10jms.listener.partitioned.partition-property=accountId",
+                                              "spring.jms.listener.max-concurrency=10").run((context) -> {
+            assertThat(context).hasBean(AMQP10JMSPartitionedListenerAutoConfiguration.PARTITIONED_LISTENER_CONTAINER_FACTORY_BEAN_NAME);
+
+            SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+            endpoint.setId("test");
+            endpoint.setDestination("queue");
+            endpoint.setMessageListener((message) -> { });
+
+            DefaultMessageListenerContainer listenerContainer =
+                context.getBean(AMQP10JMSPartitionedListenerContainerFactory.class).createListenerContainer(endpoint);
+
+            assertThat(listenerContainer).isInstanceOf(AMQP10JMSPartitionedMessageListenerContainer.class);
+
+            AMQP10JMSPartitionedMessageListenerContainer partitioned = (AMQP10JMSPartitionedMessageListenerContainer) listenerContainer;
+
+            assertEquals(6, partitioned.getLanes());
+            assertEquals(20, partitioned.getLaneCapacity());
+            assertEquals("accountId", partitioned.getPartitionProperty());
+            assertEquals(1, partitioned.getMaxConcurrentConsumers());
+            assertFalse(partitioned.isSessionTransacted());
+            assertEquals(JmsSession.INDIVIDUAL_ACKNOWLEDGE, partitioned.getSessionAcknowledgeMode());
+        });
+    }
+
+    private static Message keyedMessage(String key, int sequence) throws JMSException {
+        Message message = mock(Message.class);
+        when(message.getObjectProperty("JMSXGroupID")).thenReturn(key);
+        when(message.getStringProperty("JMSXGroupID")).thenReturn(key);
+        when(message.getIntProperty("sequence")).thenReturn(sequence);
+        return message;
+    }
+}
@@ -0,0 +1,276 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.messaginghub.pooled.jms.JmsPoolConnection;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.messaginghub.pooled.jms.JmsPoolSession;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.ConnectionMetaData;
+import jakarta.jms.JMSContext;
+import jakarta.jms.JMSException;
+import jakarta.jms.Session;
+
+/**
+ * Test that the pooled connection factory metrics are configured when pooling is enabled.
+ */
+public class AMQP10JMSPoolMetricsAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSPoolMetricsAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    @Test
+    public void testMetricsNotConfiguredWhenPoolingDisabled() {
+        this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class).run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSJmsPoolConnectionFactoryMetrics.class);
+            assertThat(context).doesNotHaveBean(JmsPoolConnectionFactory.class);
+        });
+    }
+
+    @Test
+    public void testMetricsNotConfiguredWithoutMeterRegistry() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.pool.enabled=true").run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSJmsPoolConnectionFactoryMetrics.class);
+            assertThat(context.getBean(ConnectionFactory.class))
+                .isExactlyInstanceOf(JmsPoolConnectionFactory.class);
+        });
+    }
+
+    @Test
+    public void testPooledConnectionFactoryIsInstrumented() {
+        this.contextRunner.withUserConfiguration(MeterRegistryConfiguration.class)
+            .withPropertyValues("amqphub.amqp10jms.pool.enabled=true",
+                                "amqphub.amqp10jms.pool.maxConnections=2",
+                                "amqphub.amqp10jms.pool.maxSessionsPerConnection=100").run((context) -> {
+
+            assertThat(context).hasSingleBean(AMQP10JMSJmsPoolConnectionFactoryMetrics.class);
+
+            ConnectionFactory connectionFactory = context.getBean(ConnectionFactory.class);
+            assertThat(connectionFactory).isInstanceOf(AMQP10JMSInstrumentedJmsPoolConnectionFactory.class);
+
+            MeterRegistry registry = context.getBean(MeterRegistry.class);
+            context.getBean(AMQP10JMSJmsPoolConnectionFactoryMetrics.class).bindTo(registry);
+
+            assertThat(registry.get("amqphub.amqp10jms.pool.connections").gauge().value()).isZero();
+            assertThat(registry.get("amqphub.amqp10jms.pool.connections.max").gauge().value()).isEqualTo(2);
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.max.per.connection").gauge().value()).isEqualTo(100);
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active").gauge().value()).isZero();
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.borrow").tag("outcome", "success").timer().count()).isZero();
+        });
+    }
+
+    @Test
+    public void testMetricsRecordListenerEvents() {
+        AMQP10JMSJmsPoolConnectionFactoryMetrics metrics = new AMQP10JMSJmsPoolConnectionFactoryMetrics();
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        metrics.bindTo(registry);
+
+        metrics.onSessionBorrowed(1000, false);
+        metrics.onSessionBorrowed(1000, true);
+        metrics.onSessionBorrowFailed(1000, true);
+
+        // Sessions on loan are read from the pool, which has not been created
+        assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active").gauge().value()).isNaN();
+        assertThat(registry.get("amqphub.amqp10jms.pool.sessions.borrow").tag("outcome", "success").timer().count()).isEqualTo(2);
+        assertThat(registry.get("amqphub.amqp10jms.pool.sessions.borrow").tag("outcome", "failure").timer().count()).isEqualTo(1);
+        assertThat(registry.get("amqphub.amqp10jms.pool.sessions.blocked").counter().count()).isEqualTo(1);
+        assertThat(registry.get("amqphub.amqp10jms.pool.sessions.exhausted").counter().count()).isEqualTo(1);
+        assertThat(registry.find("amqphub.amqp10jms.pool.producers").meters()).isEmpty();
+    }
+
+    @Test
+    public void testSessionsReturnedWhenConnectionCloses() throws Exception {
+        AMQP10JMSJmsPoolConnectionFactoryMetrics metrics = new AMQP10JMSJmsPoolConnectionFactoryMetrics();
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        metrics.bindTo(registry);
+
+        AMQP10JMSInstrumentedJmsPoolConnectionFactory pool = createInstrumentedPool(metrics, 1, 10);
+        metrics.onPoolCreated(pool);
+
+        try {
+            Connection connection = pool.createConnection();
+            Session first = connection.createSession(Session.AUTO_ACKNOWLEDGE);
+            connection.createSession(Session.AUTO_ACKNOWLEDGE);
+
+            // The sessions are the pool's own, nothing handed out is wrapped
+            assertThat(connection).isInstanceOf(JmsPoolConnection.class);
+            assertThat(first).isInstanceOf(JmsPoolSession.class);
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active").gauge().value()).isEqualTo(2);
+
+            // Closing the pooled connection returns the sessions still on loan
+            connection.close();
+
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active").gauge().value()).isZero();
+
+            first.close();
+
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active").gauge().value()).isZero();
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    public void testContextSessionBorrowIsRecorded() throws Exception {
+        AMQP10JMSJmsPoolConnectionFactoryMetrics metrics = new AMQP10JMSJmsPoolConnectionFactoryMetrics();
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        metrics.bindTo(registry);
+
+        AMQP10JMSInstrumentedJmsPoolConnectionFactory pool = createInstrumentedPool(metrics, 1, 10);
+        metrics.onPoolCreated(pool);
+
+        try {
+            JMSContext context = pool.createContext();
+
+            // The pooled context borrows its session on first use
+            context.createTextMessage("test");
+
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.borrow").tag("outcome", "success").timer().count()).isEqualTo(1);
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active").gauge().value()).isEqualTo(1);
+
+            context.close();
+
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active").gauge().value()).isZero();
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    public void testMostSessionsOnLoanFromOneConnection() throws Exception {
+        AMQP10JMSJmsPoolConnectionFactoryMetrics metrics = new AMQP10JMSJmsPoolConnectionFactoryMetrics();
+        MeterRegistry registry = new SimpleMeterRegistry();
+
+        metrics.bindTo(registry);
+
+        AMQP10JMSInstrumentedJmsPoolConnectionFactory pool = createInstrumentedPool(metrics, 1, 10);
+        metrics.onPoolCreated(pool);
+
+        try {
+            Connection connection = pool.createConnection();
+            Session first = connection.createSession(Session.AUTO_ACKNOWLEDGE);
+            connection.createSession(Session.AUTO_ACKNOWLEDGE);
+            connection.createSession(Session.AUTO_ACKNOWLEDGE);
+
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active.per.connection.max").gauge().value()).isEqualTo(3);
+
+            first.close();
+
+            assertThat(registry.get("amqphub.amqp10jms.pool.sessions.active.per.connection.max").gauge().value()).isEqualTo(2);
+        } finally {
+            pool.stop();
+        }
+    }
+
+    @Test
+    public void testBlockedOnSaturatedConnectionIsCounted() throws Exception {
+        AMQP10JMSJmsPoolConnectionFactoryListener listener = mock(AMQP10JMSJmsPoolConnectionFactoryListener.class);
+        AMQP10JMSInstrumentedJmsPoolConnectionFactory pool = createInstrumentedPool(listener, 2, 1);
+
+        pool.setBlockIfSessionPoolIsFullTimeout(5000);
+
+        try {
+            Connection connection = pool.createConnection();
+            Session first = connection.createSession(Session.AUTO_ACKNOWLEDGE);
+
+            verify(listener).onSessionBorrowed(anyLong(), eq(false));
+
+            // The single session of this connection is on loan while the pool could hold two
+            AtomicReference<Session> second = new AtomicReference<>();
+            Thread borrower = new Thread(() -> {
+                try {
+                    second.set(connection.createSession(Session.AUTO_ACKNOWLEDGE));
+                } catch (JMSException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+
+            borrower.start();
+            await().atMost(Duration.ofSeconds(5)).until(() -> borrower.getState() == Thread.State.TIMED_WAITING);
+
+            first.close();
+            borrower.join(5000);
+
+            assertThat(second.get()).isNotNull();
+            verify(listener).onSessionBorrowed(anyLong(), eq(true));
+        } finally {
+            pool.stop();
+        }
+    }
+
+    private static AMQP10JMSInstrumentedJmsPoolConnectionFactory createInstrumentedPool(
+            AMQP10JMSJmsPoolConnectionFactoryListener listener, int maxConnections, int maxSessionsPerConnection) throws JMSException {
+
+        ConnectionFactory providerFactory = mock(ConnectionFactory.class);
+        when(providerFactory.createConnection()).thenAnswer((invocation) -> createProviderConnection());
+
+        AMQP10JMSInstrumentedJmsPoolConnectionFactory pool = new AMQP10JMSInstrumentedJmsPoolConnectionFactory(listener);
+        pool.setConnectionFactory(providerFactory);
+        pool.setMaxConnections(maxConnections);
+        pool.setMaxSessionsPerConnection(maxSessionsPerConnection);
+
+        return pool;
+    }
+
+    private static Connection createProviderConnection() throws JMSException {
+        ConnectionMetaData metaData = mock(ConnectionMetaData.class);
+        when(metaData.getJMSMajorVersion()).thenReturn(2);
+
+        Connection connection = mock(Connection.class);
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(connection.createSession(anyBoolean(), anyInt())).thenAnswer((invocation) -> mock(Session.class));
+
+        return connection;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class MeterRegistryConfiguration {
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+    }
+}
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.messaginghub.pooled.jms.JmsPoolConnectionFactory;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.connection.CachingConnectionFactory;
+import org.springframework.jms.core.JmsTemplate;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import jakarta.jms.TemporaryQueue;
+import jakarta.jms.TextMessage;
+
+/**
+ * Tests for the request reply template and its auto configuration.
+ */
+public class AMQP10JMSRequestReplyTemplateTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 AMQP10JMSTemplateAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class));
+
+    private final List<String> correlationIds = new ArrayList<>();
+
+    private ConnectionFactory connectionFactory;
+    private Session session;
+    private TemporaryQueue replyQueue;
+    private MessageListener replyListener;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connectionFactory = mock(ConnectionFactory.class);
+        Connection connection = mock(Connection.class);
+        session = mock(Session.class);
+        replyQueue = mock(TemporaryQueue.class);
+        MessageConsumer consumer = mock(MessageConsumer.class);
+        MessageProducer producer = mock(MessageProducer.class);
+        TextMessage request = mock(TextMessage.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+        when(session.createQueue(any())).thenReturn(mock(Queue.class));
+        when(session.createTemporaryQueue()).thenReturn(replyQueue);
+        when(session.createConsumer(any(Destination.class))).thenReturn(consumer);
+        when(session.createConsumer(any(Destination.class), anyString())).thenReturn(consumer);
+        when(session.createProducer(any(Destination.class))).thenReturn(producer);
+        when(session.createTextMessage(any())).thenReturn(request);
+
+        doAnswer((invocation) -> {
+            replyListener = invocation.getArgument(0);
+            return null;
+        }).when(consumer).setMessageListener(any());
+
+        doAnswer((invocation) -> {
+            correlationIds.add(invocation.getArgument(0));
+            return null;
+        }).when(request).setJMSCorrelationID(any());
+    }
+
+    @Test
+    public void testRequestReplyTemplateIsConfigured() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.requestReply.timeout=5s").run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSRequestReplyTemplate.class);
+
+            AMQP10JMSRequestReplyTemplate template = context.getBean(AMQP10JMSRequestReplyTemplate.class);
+
+            assertEquals(Duration.ofSeconds(5), template.getReplyTimeout());
+            assertEquals(0, template.getPendingReplies());
+            assertThat(template.getJmsTemplate()).isSameAs(context.getBean(JmsTemplate.class));
+        });
+    }
+
+    @Test
+    public void testReplyConnectionFactoryConfiguredWithoutClientId() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.clientId=application").run((context) -> {
+            ConnectionFactory replyConnectionFactory = context.getBean(AMQP10JMSRequestReplyTemplate.class).getReplyConnectionFactory();
+
+            assertThat(replyConnectionFactory).isInstanceOf(JmsConnectionFactory.class);
+            assertThat(((JmsConnectionFactory) replyConnectionFactory).getClientID()).isNull();
+        });
+    }
+
+    @Test
+    public void testNoReplyConnectionFactoryConfiguredByDefault() {
+        this.contextRunner.run((context) -> {
+            assertThat(context.getBean(AMQP10JMSRequestReplyTemplate.class).getReplyConnectionFactory()).isNull();
+        });
+    }
+
+    @Test
+    public void testInvalidTimeoutFailsStartup() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.requestReply.timeout=0s").run((context) -> {
+            assertThat(context).hasFailed();
+        });
+    }
+
+    @Test
+    public void testReplyCompletesRequest() throws Exception {
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(new JmsTemplate(connectionFactory), Duration.ofSeconds(30));
+
+        CompletableFuture<Message> result = template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World"));
+
+        assertFalse(result.isDone());
+        assertEquals(1, template.getPendingReplies());
+        assertEquals(1, correlationIds.size());
+        assertNotNull(replyListener);
+
+        Message reply = createReply(correlationIds.get(0));
+        replyListener.onMessage(reply);
+
+        assertTrue(result.isDone());
+        assertThat(result.get()).isSameAs(reply);
+        assertEquals(0, template.getPendingReplies());
+    }
+
+    @Test
+    public void testRepliesAreMatchedByCorrelationId() throws Exception {
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(new JmsTemplate(connectionFactory), Duration.ofSeconds(30));
+
+        CompletableFuture<Message> first = template.sendAndReceive("queue", (session) -> session.createTextMessage("1"));
+        CompletableFuture<Message> second = template.sendAndReceive("queue", (session) -> session.createTextMessage("2"));
+
+        assertEquals(2, correlationIds.size());
+        assertFalse(correlationIds.get(0).equals(correlationIds.get(1)));
+
+        replyListener.onMessage(createReply("unknown"));
+        replyListener.onMessage(createReply(correlationIds.get(1)));
+
+        assertFalse(first.isDone());
+        assertTrue(second.isDone());
+
+        // Both requests share the one reply queue and consumer
+        verify(session, times(1)).createTemporaryQueue();
+        verify(session, times(1)).createConsumer(any(Destination.class));
+
+        template.close();
+    }
+
+    @Test
+    public void testRequestFailsWhenReplyTimesOut() throws Exception {
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(new JmsTemplate(connectionFactory), Duration.ofMillis(10));
+
+        CompletableFuture<Message> result = template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World"));
+
+        ExecutionException error = assertThrows(ExecutionException.class, result::get);
+        assertThat(error.getCause()).isInstanceOf(TimeoutException.class);
+        assertEquals(0, template.getPendingReplies());
+
+        // A late reply is discarded
+        replyListener.onMessage(createReply(correlationIds.get(0)));
+    }
+
+    @Test
+    public void testNamedReplyDestinationUsesSelector() throws Exception {
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(new JmsTemplate(connectionFactory), Duration.ofSeconds(30), "replies");
+
+        template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World"));
+
+        verify(session, times(0)).createTemporaryQueue();
+        verify(session).createConsumer(any(Destination.class), anyString());
+
+        template.close();
+    }
+
+    @Test
+    public void testReplyConnectionNotTakenFromPool() throws Exception {
+        JmsPoolConnectionFactory pool = mock(JmsPoolConnectionFactory.class);
+
+        when(pool.getConnectionFactory()).thenReturn(connectionFactory);
+        when(pool.createConnection()).thenAnswer((invocation) -> connectionFactory.createConnection());
+
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(new JmsTemplate(pool), Duration.ofSeconds(30));
+
+        template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World"));
+
+        // The request is sent on a pooled connection while the reply connection is created from the pool's factory
+        verify(pool, times(1)).createConnection();
+        verify(connectionFactory, times(2)).createConnection();
+
+        template.close();
+    }
+
+    @Test
+    public void testReplyConnectionCreatedFromReplyConnectionFactory() throws Exception {
+        ConnectionFactory replyConnectionFactory = mock(ConnectionFactory.class);
+
+        when(replyConnectionFactory.createConnection()).thenAnswer((invocation) -> connectionFactory.createConnection());
+
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(new JmsTemplate(connectionFactory), Duration.ofSeconds(30));
+        template.setReplyConnectionFactory(replyConnectionFactory);
+
+        template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World"));
+
+        // The reply connection is created from the reply connection factory and the request connection from the template's
+        verify(replyConnectionFactory, times(1)).createConnection();
+        verify(connectionFactory, times(2)).createConnection();
+
+        template.close();
+    }
+
+    @Test
+    public void testReplyConnectionDoesNotClaimClientId() {
+        JmsConnectionFactory target = new JmsConnectionFactory("amqp://localhost:5672");
+        target.setClientID("application");
+
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(
+            new JmsTemplate(new CachingConnectionFactory(target)), Duration.ofSeconds(30));
+
+        assertThrows(IllegalStateException.class, () -> template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World")));
+
+        template.close();
+    }
+
+    @Test
+    public void testCloseFailsPendingRequests() throws Exception {
+        AMQP10JMSRequestReplyTemplate template = new AMQP10JMSRequestReplyTemplate(new JmsTemplate(connectionFactory), Duration.ofSeconds(30));
+
+        CompletableFuture<Message> result = template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World"));
+
+        template.close();
+
+        assertTrue(result.isCompletedExceptionally());
+        assertEquals(0, template.getPendingReplies());
+        assertThrows(IllegalStateException.class, () -> template.sendAndReceive("queue", (session) -> session.createTextMessage("Hello World")));
+    }
+
+    private static Message createReply(String correlationId) throws Exception {
+        Message reply = mock(TextMessage.class);
+        when(reply.getJMSCorrelationID()).thenReturn(correlationId);
+        return reply;
+    }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.apache.commons.pool2.impl.DefaultEvictionPolicy;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.apache.qpid.jms.provider.amqp.AmqpProviderFactory;
+import org.apache.qpid.jms.transports.TransportOptions;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+import org.springframework.core.io.support.SpringFactoriesLoader;
+
+import io.netty.channel.socket.nio.NioSocketChannel;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * Test the runtime hints registered for native image compilation.
+ */
+public class AMQP10JMSRuntimeHintsTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    public AMQP10JMSRuntimeHintsTest() {
+        new AMQP10JMSRuntimeHints().registerHints(hints, getClass().getClassLoader());
+    }
+
+    @Test
+    public void testRegistrarListedInAotFactories() {
+        assertThat(SpringFactoriesLoader.forResourceLocation("META-INF/spring/aot.factories").load(RuntimeHintsRegistrar.class))
+            .anyMatch(AMQP10JMSRuntimeHints.class::isInstance);
+    }
+
+    @Test
+    public void testQpidJmsFactoryResourcesRegistered() {
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/org/apache/qpid/jms/provider/amqp")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/org/apache/qpid/jms/provider/failover")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/org/apache/qpid/jms/transports/tcp")).accepts(hints);
+        assertThat(RuntimeHintsPredicates.resource().forResource("META-INF/services/org/apache/qpid/jms/sasl/PLAIN")).accepts(hints);
+    }
+
+    @Test
+    public void testQpidJmsTypesRegistered() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(AmqpProviderFactory.class)
+            .withMemberCategory(MemberCategory.INVOKE_DECLARED_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(JmsConnectionFactory.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(TransportOptions.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(JmsDefaultPrefetchPolicy.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_METHODS)).accepts(hints);
+    }
+
+    @Test
+    public void testNettyAndPoolTypesRegistered() {
+        assertThat(RuntimeHintsPredicates.reflection().onType(NioSocketChannel.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.reflection().onType(DefaultEvictionPolicy.class)
+            .withMemberCategory(MemberCategory.INVOKE_PUBLIC_CONSTRUCTORS)).accepts(hints);
+    }
+
+    @Test
+    public void testShardedConnectionProxiesRegistered() {
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(Session.class)).accepts(hints);
+        assertThat(RuntimeHintsPredicates.proxies().forInterfaces(MessageProducer.class)).accepts(hints);
+    }
+}
@@ -0,0 +1,214 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.autoconfigure;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.JmsQueue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.jms.connection.CachingConnectionFactory;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+
+/**
+ * Tests for the sharded connection factory and its auto configuration.
+ */
+public class AMQP10JMSShardedConnectionFactoryTest {
+
+    private static final int SHARDS = 2;
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class, JmsAutoConfiguration.class));
+
+    private final List<ConnectionFactory> factories = new ArrayList<>();
+    private final List<Connection> connections = new ArrayList<>();
+    private final List<Session> sessions = new ArrayList<>();
+    private final List<MessageProducer> producers = new ArrayList<>();
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        for (int i = 0; i < SHARDS; ++i) {
+            ConnectionFactory factory = mock(ConnectionFactory.class);
+            Connection connection = mock(Connection.class);
+            Session session = mock(Session.class);
+            MessageProducer producer = mock(MessageProducer.class);
+
+            when(factory.createConnection()).thenReturn(connection);
+            when(connection.createSession(anyBoolean(), anyInt())).thenReturn(session);
+            when(session.createProducer(any())).thenReturn(producer);
+
+            factories.add(factory);
+            connections.add(connection);
+            sessions.add(session);
+            producers.add(producer);
+        }
+    }
+
+    @Test
+    public void testShardingNotEnabledByDefault() {
+        this.contextRunner.withPropertyValues("spring.jms.cache.enabled=false").run((context) -> {
+            assertThat(context.getBean(ConnectionFactory.class)).isExactlyInstanceOf(JmsConnectionFactory.class);
+        });
+    }
+
+    @Test
+    public void testShardedConnectionFactoryIsConfigured() {
+        this.contextRunner.withPropertyValues("spring.jms.cache.enabled=false",
+                                              "amqphub.amqp10jms.sharding.enabled=true",
+                                              "amqphub.amqp10jms.sharding.shards=3",
+                                              "amqphub.amqp10jms.sharding.strategy=ROUND_ROBIN").run((context) -> {
+
+            AMQP10JMSShardedConnectionFactory factory = context.getBean(AMQP10JMSShardedConnectionFactory.class);
+
+            assertEquals(3, factory.getShards().size());
+            assertEquals(AMQP10JMSShardingStrategy.ROUND_ROBIN, factory.getStrategy());
+            assertThat(factory.getShards()).allMatch(JmsConnectionFactory.class::isInstance);
+        });
+    }
+
+    @Test
+    public void testCachingConnectionFactoryWrapsShardedFactory() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.sharding.enabled=true").run((context) -> {
+            CachingConnectionFactory factory = context.getBean(CachingConnectionFactory.class);
+
+            assertThat(factory.getTargetConnectionFactory()).isInstanceOf(AMQP10JMSShardedConnectionFactory.class);
+        });
+    }
+
+    @Test
+    public void testClientIdCannotBeUsedWithSharding() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.sharding.enabled=true",
+                                              "amqphub.amqp10jms.clientId=client").run((context) -> {
+            assertThat(context).hasFailed();
+        });
+    }
+
+    @Test
+    public void testRoundRobinSpreadsSessions() throws Exception {
+        AMQP10JMSShardedConnectionFactory factory = new AMQP10JMSShardedConnectionFactory(factories, AMQP10JMSShardingStrategy.ROUND_ROBIN);
+
+        Connection connection = factory.createConnection();
+
+        assertSame(sessions.get(0), connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+        assertSame(sessions.get(1), connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+        assertSame(sessions.get(0), connection.createSession(false, Session.AUTO_ACKNOWLEDGE));
+
+        connection.close();
+
+        verify(connections.get(0)).close();
+        verify(connections.get(1)).close();
+    }
+
+    @Test
+    public void testDestinationStrategyRoutesProducersByDestination() throws Exception {
+        AMQP10JMSShardedConnectionFactory factory = new AMQP10JMSShardedConnectionFactory(factories, AMQP10JMSShardingStrategy.DESTINATION);
+
+        Queue first = queueOnShard(0);
+        Queue second = queueOnShard(1);
+
+        Connection connection = factory.createConnection();
+        Session session = connection.createSession(true, Session.SESSION_TRANSACTED);
+
+        assertSame(producers.get(0), session.createProducer(first));
+        verify(connections.get(1), never()).createSession(anyBoolean(), anyInt());
+
+        assertSame(producers.get(1), session.createProducer(second));
+        assertSame(producers.get(0), session.createProducer(first));
+
+        // Each underlying session is opened once and committed with the sharded session
+        session.commit();
+
+        verify(connections.get(0), times(1)).createSession(true, Session.SESSION_TRANSACTED);
+        verify(connections.get(1), times(1)).createSession(true, Session.SESSION_TRANSACTED);
+        verify(sessions.get(0)).commit();
+        verify(sessions.get(1)).commit();
+
+        session.close();
+
+        verify(sessions.get(0)).close();
+        verify(sessions.get(1)).close();
+    }
+
+    @Test
+    public void testAnonymousProducerRoutesSends() throws Exception {
+        AMQP10JMSShardedConnectionFactory factory = new AMQP10JMSShardedConnectionFactory(factories, AMQP10JMSShardingStrategy.DESTINATION);
+
+        Queue first = queueOnShard(0);
+        Queue second = queueOnShard(1);
+        Message message = mock(Message.class);
+
+        Session session = factory.createConnection().createSession(false, Session.AUTO_ACKNOWLEDGE);
+        MessageProducer producer = session.createProducer(null);
+
+        producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        producer.send(second, message);
+        producer.send(first, message);
+
+        verify(sessions.get(0)).createProducer(isNull());
+        verify(sessions.get(1)).createProducer(isNull());
+        verify(producers.get(0)).send(first, message);
+        verify(producers.get(1)).send(second, message);
+
+        // Settings made before an underlying producer is created are replayed onto it
+        verify(producers.get(1)).setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+    }
+
+    @Test
+    public void testDestinationShardIsStable() throws Exception {
+        Queue queue = new JmsQueue("orders");
+
+        assertEquals(AMQP10JMSShardedConnectionFactory.shardOf(queue, 8), AMQP10JMSShardedConnectionFactory.shardOf(new JmsQueue("orders"), 8));
+        assertEquals(0, AMQP10JMSShardedConnectionFactory.shardOf(queue, 1));
+        assertEquals(0, AMQP10JMSShardedConnectionFactory.shardOf(null, 8));
+        assertFalse(AMQP10JMSShardedConnectionFactory.shardOf(queue, 8) < 0);
+    }
+
+    private static Queue queueOnShard(int shard) throws Exception {
+        for (int i = 0; ; ++i) {
+            Queue queue = new JmsQueue("queue-" + i);
+            if (AMQP10JMSShardedConnectionFactory.shardOf(queue, SHARDS) == shard) {
+                return queue;
+            }
+        }
+    }
+}
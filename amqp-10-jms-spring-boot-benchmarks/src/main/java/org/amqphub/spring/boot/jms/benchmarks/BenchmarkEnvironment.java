@@ -0,0 +1,116 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import jakarta.jms.ConnectionFactory;
+
+/**
+ * Manages the embedded Artemis broker and the Spring application context that
+ * provide the JMS resources used by a benchmark trial.
+ */
+public class BenchmarkEnvironment implements AutoCloseable {
+
+    /**
+     * The URI of the AMQP acceptor configured in the benchmark broker.xml
+     */
+    public static final String BROKER_URI = "amqp://127.0.0.1:5682";
+
+    private final EmbeddedActiveMQ broker;
+    private final ConfigurableApplicationContext context;
+
+    private BenchmarkEnvironment(EmbeddedActiveMQ broker, ConfigurableApplicationContext context) {
+        this.broker = broker;
+        this.context = context;
+    }
+
+    /**
+     * Starts an embedded broker and a Spring Boot application that uses the given
+     * application properties in addition to those needed to reach the broker.
+     *
+     * @param properties
+     *      The application properties that configure the connection factory under test.
+     *
+     * @return a new started benchmark environment.
+     *
+     * @throws Exception if an error occurs while starting the broker or application.
+     */
+    public static BenchmarkEnvironment start(List<String> properties) throws Exception {
+        final EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.start();
+
+        final List<String> applicationProperties = new ArrayList<>(properties);
+        applicationProperties.add("amqphub.amqp10jms.remote-url=" + BROKER_URI);
+        applicationProperties.add("spring.jms.template.receive-timeout=5s");
+
+        try {
+            final ConfigurableApplicationContext context = new SpringApplicationBuilder(BenchmarkApplication.class)
+                .web(WebApplicationType.NONE)
+                .logStartupInfo(false)
+                .properties(applicationProperties.toArray(new String[0]))
+                .run();
+
+            return new BenchmarkEnvironment(broker, context);
+        } catch (Exception ex) {
+            broker.stop();
+            throw ex;
+        }
+    }
+
+    /**
+     * Convenience method to start an environment from individual property values.
+     *
+     * @param properties
+     *      The application properties that configure the connection factory under test.
+     *
+     * @return a new started benchmark environment.
+     *
+     * @throws Exception if an error occurs while starting the broker or application.
+     */
+    public static BenchmarkEnvironment start(String... properties) throws Exception {
+        return start(Arrays.asList(properties));
+    }
+
+    public ConfigurableApplicationContext getContext() {
+        return context;
+    }
+
+    public <T> T getBean(Class<T> type) {
+        return context.getBean(type);
+    }
+
+    public ConnectionFactory getConnectionFactory() {
+        return context.getBean(ConnectionFactory.class);
+    }
+
+    @Override
+    public void close() throws Exception {
+        try {
+            context.close();
+        } finally {
+            broker.stop();
+        }
+    }
+}
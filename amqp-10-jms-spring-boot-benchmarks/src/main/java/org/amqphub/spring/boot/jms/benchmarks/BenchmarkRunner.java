@@ -0,0 +1,58 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.util.StringUtils;
+
+/**
+ * Entry point of the benchmarks jar which runs the selected benchmarks once for each of
+ * the thread counts given in the {@code benchmark.threads} system property (default is
+ * "1,4,16"). All other arguments are passed on to JMH unchanged.
+ */
+public final class BenchmarkRunner {
+
+    public static final String THREADS_PROPERTY = "benchmark.threads";
+
+    private static final String DEFAULT_THREADS = "1,4,16";
+
+    private BenchmarkRunner() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        final CommandLineOptions commandLine = new CommandLineOptions(args);
+
+        for (String threads : StringUtils.commaDelimitedListToStringArray(System.getProperty(THREADS_PROPERTY, DEFAULT_THREADS))) {
+            final int threadCount = Integer.parseInt(threads.trim());
+
+            final ChainedOptionsBuilder options = new OptionsBuilder()
+                .parent(commandLine)
+                .threads(threadCount);
+
+            if (!commandLine.getResult().hasValue()) {
+                options.result("jmh-result-" + threadCount + "-threads.json")
+                       .resultFormat(ResultFormatType.JSON);
+            }
+
+            new Runner(options.build()).run();
+        }
+    }
+}
@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.core.JmsTemplate;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+
+/**
+ * Measures the send and receive of large binary payloads held in a direct Netty {@link ByteBuf}
+ * with and without the buffer aware message converter enabled by amqphub.amqp10jms.byte-buffers,
+ * without it the payload must first be copied to a byte array for the default message converter.
+ * Run with the JMH gc profiler (-prof gc) to compare the bytes allocated per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ByteBufferConversionBenchmark {
+
+    @State(Scope.Benchmark)
+    public static class TemplateState {
+
+        @Param({ "65536", "1048576" })
+        public int payloadSize;
+
+        @Param({ "false", "true" })
+        public boolean byteBuffers;
+
+        private BenchmarkEnvironment environment;
+
+        private JmsTemplate template;
+
+        private ByteBuf payload;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            final List<String> properties = ConnectionFactoryMode.CACHING.toProperties(10, true);
+
+            properties.add("amqphub.amqp10jms.byte-buffers.enabled=" + byteBuffers);
+
+            environment = BenchmarkEnvironment.start(properties);
+
+            template = environment.getBean(JmsTemplate.class);
+
+            payload = Unpooled.directBuffer(payloadSize);
+            for (int i = 0; i < payloadSize; ++i) {
+                payload.writeByte(i);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (payload != null) {
+                payload.release();
+            }
+            if (environment != null) {
+                environment.close();
+            }
+        }
+
+        private Object body() {
+            return byteBuffers ? payload : ByteBufUtil.getBytes(payload);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DestinationState {
+
+        public final String queue = "buffers-queue-" + UUID.randomUUID();
+
+    }
+
+    @Benchmark
+    public Object sendAndReceive(TemplateState state, DestinationState destinations) {
+        state.template.convertAndSend(destinations.queue, state.body());
+        return state.template.receiveAndConvert(destinations.queue);
+    }
+}
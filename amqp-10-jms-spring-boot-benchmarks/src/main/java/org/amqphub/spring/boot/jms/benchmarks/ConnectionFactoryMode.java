@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * The connection factory types that the AMQP 1.0 JMS auto configuration can produce
+ * along with the application properties that select each of them.
+ */
+public enum ConnectionFactoryMode {
+
+    /**
+     * A Qpid JMS ConnectionFactory with no caching or pooling applied.
+     */
+    RAW,
+
+    /**
+     * A Spring CachingConnectionFactory wrapping the Qpid JMS ConnectionFactory.
+     */
+    CACHING,
+
+    /**
+     * A pooled-jms JmsPoolConnectionFactory wrapping the Qpid JMS ConnectionFactory.
+     */
+    POOLED;
+
+    /**
+     * Creates the application properties that configure the auto configuration to create
+     * a connection factory of this type.
+     *
+     * @param sessionCacheSize
+     *      The session cache size applied when the caching connection factory is used.
+     * @param useAnonymousProducers
+     *      Whether the pooled connection factory should use anonymous producers.
+     *
+     * @return the list of application properties for this connection factory mode.
+     */
+    public List<String> toProperties(int sessionCacheSize, boolean useAnonymousProducers) {
+        final List<String> properties = new ArrayList<>();
+
+        switch (this) {
+            case RAW:
+                properties.add("spring.jms.cache.enabled=false");
+                properties.add("amqphub.amqp10jms.pool.enabled=false");
+                break;
+            case CACHING:
+                properties.add("spring.jms.cache.enabled=true");
+                properties.add("spring.jms.cache.session-cache-size=" + sessionCacheSize);
+                properties.add("amqphub.amqp10jms.pool.enabled=false");
+                break;
+            case POOLED:
+                properties.add("amqphub.amqp10jms.pool.enabled=true");
+                properties.add("amqphub.amqp10jms.pool.useAnonymousProducers=" + useAnonymousProducers);
+                break;
+        }
+
+        return properties;
+    }
+}
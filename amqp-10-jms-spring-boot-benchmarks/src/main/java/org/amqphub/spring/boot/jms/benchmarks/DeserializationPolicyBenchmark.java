@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSDeserializationPolicy;
+import org.apache.qpid.jms.policy.JmsDefaultDeserializationPolicy;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures the cost of the class trust decision made by the deserialization policy for each class
+ * resolved when reading an ObjectMessage, comparing the Qpid JMS default policy with the compiled
+ * and cached policy installed by the auto-configuration as the allow and deny lists grow.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class DeserializationPolicyBenchmark {
+
+    private static final Class<?>[] TYPES = {
+        String.class, Integer.class, Long.class, java.util.ArrayList.class, java.util.HashMap.class,
+        java.util.UUID.class, java.math.BigDecimal.class, java.time.Instant.class,
+        java.time.LocalDate.class, java.net.URI.class, SerializationBenchmark.Order.class,
+        SerializationBenchmark.OrderLine.class
+    };
+
+    public enum Policy {
+        DEFAULT,
+        COMPILED
+    }
+
+    @State(Scope.Benchmark)
+    public static class PolicyState {
+
+        @Param({ "DEFAULT", "COMPILED" })
+        public Policy policy;
+
+        @Param({ "10", "100", "500" })
+        public int listSize;
+
+        private JmsDefaultDeserializationPolicy deserializationPolicy;
+
+        @Setup(Level.Trial)
+        public void setUp() {
+            deserializationPolicy = policy == Policy.COMPILED ?
+                new AMQP10JMSDeserializationPolicy() : new JmsDefaultDeserializationPolicy();
+
+            // Application packages that never match come first, as is the case for most
+            // classes resolved by a consumer with a long allow list
+            final List<String> allowList = new ArrayList<>();
+            for (int i = 0; i < listSize; ++i) {
+                allowList.add("com.example.application" + i + ".model");
+            }
+            allowList.add("java.lang");
+            allowList.add("java.util");
+            allowList.add("java.math");
+            allowList.add("java.time");
+            allowList.add(SerializationBenchmark.class.getPackageName());
+
+            final List<String> denyList = new ArrayList<>();
+            for (int i = 0; i < listSize / 10; ++i) {
+                denyList.add("com.example.denied" + i);
+            }
+            denyList.add("java.net");
+
+            deserializationPolicy.setAllowList(String.join(",", allowList));
+            deserializationPolicy.setDenyList(String.join(",", denyList));
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class TypeState {
+
+        private int next;
+
+        Class<?> nextType() {
+            final Class<?> type = TYPES[next];
+            next = (next + 1) % TYPES.length;
+            return type;
+        }
+    }
+
+    @Benchmark
+    public boolean isTrustedType(PolicyState state, TypeState types) {
+        return state.deserializationPolicy.isTrustedType(null, types.nextType());
+    }
+}
@@ -0,0 +1,131 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Measures the throughput and latency of {@link JmsTemplate} send and receive operations
+ * for each of the connection factory types the auto configuration can produce.
+ * <p>
+ * Each {@link Scenario} is a distinct connection factory configuration, the session cache size
+ * is only varied for the caching connection factory and the anonymous producers setting only
+ * for the pooled connection factory. The number of benchmark threads is controlled by the
+ * {@link BenchmarkRunner}.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class JmsTemplateBenchmark {
+
+    private static final String PAYLOAD = "Hello World";
+
+    /**
+     * The connection factory configurations measured by this benchmark.
+     */
+    public enum Scenario {
+
+        RAW(ConnectionFactoryMode.RAW, 1, true),
+        CACHING_1(ConnectionFactoryMode.CACHING, 1, true),
+        CACHING_10(ConnectionFactoryMode.CACHING, 10, true),
+        POOLED_ANONYMOUS(ConnectionFactoryMode.POOLED, 1, true),
+        POOLED_NAMED(ConnectionFactoryMode.POOLED, 1, false);
+
+        private final ConnectionFactoryMode mode;
+        private final int sessionCacheSize;
+        private final boolean useAnonymousProducers;
+
+        Scenario(ConnectionFactoryMode mode, int sessionCacheSize, boolean useAnonymousProducers) {
+            this.mode = mode;
+            this.sessionCacheSize = sessionCacheSize;
+            this.useAnonymousProducers = useAnonymousProducers;
+        }
+
+        public List<String> toProperties() {
+            return mode.toProperties(sessionCacheSize, useAnonymousProducers);
+        }
+    }
+
+    @State(Scope.Benchmark)
+    public static class TemplateState {
+
+        @Param({ "RAW", "CACHING_1", "CACHING_10", "POOLED_ANONYMOUS", "POOLED_NAMED" })
+        public Scenario scenario;
+
+        private BenchmarkEnvironment environment;
+
+        private JmsTemplate queueTemplate;
+        private JmsTemplate topicTemplate;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            environment = BenchmarkEnvironment.start(scenario.toProperties());
+
+            queueTemplate = environment.getBean(JmsTemplate.class);
+
+            // Messages sent to a topic without subscribers are discarded by the broker which
+            // allows the send only benchmark to run without building up a backlog.
+            topicTemplate = new JmsTemplate(environment.getConnectionFactory());
+            topicTemplate.setPubSubDomain(true);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (environment != null) {
+                environment.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DestinationState {
+
+        public final String queue = "benchmark-queue-" + UUID.randomUUID();
+        public final String topic = "benchmark-topic-" + UUID.randomUUID();
+
+    }
+
+    @Benchmark
+    public void send(TemplateState state, DestinationState destinations) {
+        state.topicTemplate.convertAndSend(destinations.topic, PAYLOAD);
+    }
+
+    @Benchmark
+    public Object sendAndReceive(TemplateState state, DestinationState destinations) {
+        state.queueTemplate.convertAndSend(destinations.queue, PAYLOAD);
+        return state.queueTemplate.receiveAndConvert(destinations.queue);
+    }
+}
@@ -0,0 +1,149 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.config.JmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+
+import jakarta.jms.Connection;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * Measures the rate at which a listener container consumes messages when each message is
+ * handled by an I/O bound listener, simulated by sleeping for a fixed time, with the listener
+ * consumers running on platform threads or on virtual threads. The prefetch is set to one so
+ * that each message burst is spread across all of the listener consumers.
+ * <p>
+ * Virtual threads require Java 21 or later, on older runtimes the virtual thread trials run
+ * with the default platform thread executor.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 20)
+@Fork(1)
+@Threads(1)
+public class ListenerBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+
+    @State(Scope.Benchmark)
+    public static class ListenerState {
+
+        @Param({ "false", "true" })
+        public boolean virtualThreads;
+
+        @Param({ "50", "500" })
+        public int concurrency;
+
+        @Param({ "20" })
+        public long handlerDelayMillis;
+
+        private BenchmarkEnvironment environment;
+
+        private Connection connection;
+        private Session session;
+        private MessageProducer producer;
+
+        private volatile CountDownLatch handled;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            environment = BenchmarkEnvironment.start(
+                "spring.jms.cache.enabled=false",
+                "spring.jms.listener.min-concurrency=" + concurrency,
+                "spring.jms.listener.max-concurrency=" + concurrency,
+                "amqphub.amqp10jms.prefetch.queue=1",
+                "amqphub.amqp10jms.listener.virtual-threads=" + virtualThreads);
+
+            final String queue = "listener-queue-" + UUID.randomUUID();
+
+            final SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+            endpoint.setId(queue);
+            endpoint.setDestination(queue);
+            endpoint.setMessageListener((message) -> {
+                try {
+                    Thread.sleep(handlerDelayMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+
+                handled.countDown();
+            });
+
+            final JmsListenerContainerFactory<?> factory =
+                environment.getContext().getBean("jmsListenerContainerFactory", JmsListenerContainerFactory.class);
+
+            environment.getBean(JmsListenerEndpointRegistry.class).registerListenerContainer(endpoint, factory, true);
+
+            connection = environment.getConnectionFactory().createConnection();
+            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            producer = session.createProducer(session.createQueue(queue));
+            producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            try {
+                if (connection != null) {
+                    connection.close();
+                }
+            } finally {
+                if (environment != null) {
+                    environment.close();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public void consume(ListenerState state) throws Exception {
+        final CountDownLatch handled = new CountDownLatch(BURST_SIZE);
+        state.handled = handled;
+
+        for (int i = 0; i < BURST_SIZE; ++i) {
+            state.producer.send(state.session.createTextMessage("Hello World"));
+        }
+
+        if (!handled.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Listener did not handle the message burst in time");
+        }
+    }
+}
@@ -0,0 +1,152 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSBatchListenerAutoConfiguration;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSBatchMessageListener;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.config.JmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+
+import jakarta.jms.Connection;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * Measures the rate at which a transacted listener container consumes persistent messages when
+ * its session is committed after every message, once per commit interval or once per batch
+ * delivered to a batch listener. The prefetch is raised so that commit intervals and batches
+ * can fill from the client's local buffer.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 20)
+@Fork(1)
+@Threads(1)
+public class ListenerCommitBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+
+    public enum CommitMode {
+        PER_MESSAGE, COMMIT_INTERVAL, BATCH
+    }
+
+    @State(Scope.Benchmark)
+    public static class ListenerCommitState {
+
+        @Param({ "PER_MESSAGE", "COMMIT_INTERVAL", "BATCH" })
+        public CommitMode commitMode;
+
+        @Param({ "10", "100" })
+        public int windowSize;
+
+        private BenchmarkEnvironment environment;
+
+        private Connection connection;
+        private Session session;
+        private MessageProducer producer;
+
+        private volatile CountDownLatch handled;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            environment = BenchmarkEnvironment.start(
+                "spring.jms.cache.enabled=false",
+                "spring.jms.listener.session.transacted=true",
+                "amqphub.amqp10jms.prefetch.queue=" + Math.max(windowSize, 100),
+                "amqphub.amqp10jms.listener.commit-interval.enabled=" + (commitMode == CommitMode.COMMIT_INTERVAL),
+                "amqphub.amqp10jms.listener.commit-interval.messages=" + windowSize,
+                "amqphub.amqp10jms.listener.batch.max-size=" + windowSize);
+
+            final String queue = "listener-commit-queue-" + UUID.randomUUID();
+
+            final SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+            endpoint.setId(queue);
+            endpoint.setDestination(queue);
+
+            final String factoryName;
+            if (commitMode == CommitMode.BATCH) {
+                endpoint.setMessageListener((AMQP10JMSBatchMessageListener) (messages, session) -> {
+                    messages.forEach((message) -> handled.countDown());
+                });
+                factoryName = AMQP10JMSBatchListenerAutoConfiguration.BATCH_LISTENER_CONTAINER_FACTORY_BEAN_NAME;
+            } else {
+                endpoint.setMessageListener((message) -> handled.countDown());
+                factoryName = "jmsListenerContainerFactory";
+            }
+
+            final JmsListenerContainerFactory<?> factory =
+                environment.getContext().getBean(factoryName, JmsListenerContainerFactory.class);
+
+            environment.getBean(JmsListenerEndpointRegistry.class).registerListenerContainer(endpoint, factory, true);
+
+            connection = environment.getConnectionFactory().createConnection();
+            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            producer = session.createProducer(session.createQueue(queue));
+            producer.setDeliveryMode(DeliveryMode.PERSISTENT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            try {
+                if (connection != null) {
+                    connection.close();
+                }
+            } finally {
+                if (environment != null) {
+                    environment.close();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public void consume(ListenerCommitState state) throws Exception {
+        final CountDownLatch handled = new CountDownLatch(BURST_SIZE);
+        state.handled = handled;
+
+        for (int i = 0; i < BURST_SIZE; ++i) {
+            state.producer.send(state.session.createTextMessage("Hello World"));
+        }
+
+        if (!handled.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Listener did not handle the message burst in time");
+        }
+    }
+}
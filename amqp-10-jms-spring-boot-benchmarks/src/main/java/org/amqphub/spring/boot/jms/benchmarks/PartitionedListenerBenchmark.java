@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSPartitionedListenerAutoConfiguration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.config.JmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+
+import jakarta.jms.Connection;
+import jakarta.jms.DeliveryMode;
+import jakarta.jms.Message;
+import jakarta.jms.MessageProducer;
+import jakarta.jms.Session;
+
+/**
+ * Measures the rate at which messages carrying one of a number of group keys are consumed by an
+ * ordered listener, either a default listener container with a single consumer or a partitioned
+ * listener container which processes the keys in parallel over its lanes. Each listener spins for
+ * a fixed time to simulate CPU bound work.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 10)
+@Measurement(iterations = 5, time = 20)
+@Fork(1)
+@Threads(1)
+public class PartitionedListenerBenchmark {
+
+    private static final int BURST_SIZE = 1000;
+    private static final int KEYS = 64;
+
+    @State(Scope.Benchmark)
+    public static class PartitionedListenerState {
+
+        @Param({ "1", "4", "8" })
+        public int lanes;
+
+        @Param({ "50" })
+        public long handlerWorkMicros;
+
+        private BenchmarkEnvironment environment;
+
+        private Connection connection;
+        private Session session;
+        private MessageProducer producer;
+
+        private volatile CountDownLatch handled;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            environment = BenchmarkEnvironment.start(
+                "spring.jms.cache.enabled=false",
+                "spring.jms.listener.min-concurrency=1",
+                "spring.jms.listener.max-concurrency=1",
+                "amqphub.amqp10jms.prefetch.queue=1000",
+                "amqphub.amqp10jms.listener.partitioned.lanes=" + lanes);
+
+            final String queue = "partitioned-queue-" + UUID.randomUUID();
+
+            final SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+            endpoint.setId(queue);
+            endpoint.setDestination(queue);
+            endpoint.setMessageListener((message) -> {
+                final long end = System.nanoTime() + TimeUnit.MICROSECONDS.toNanos(handlerWorkMicros);
+                while (System.nanoTime() < end) {
+                    Thread.onSpinWait();
+                }
+
+                handled.countDown();
+            });
+
+            // A single lane is measured with the default single consumer container
+            final String factoryName = lanes == 1 ? "jmsListenerContainerFactory" :
+                AMQP10JMSPartitionedListenerAutoConfiguration.PARTITIONED_LISTENER_CONTAINER_FACTORY_BEAN_NAME;
+            final JmsListenerContainerFactory<?> factory =
+                environment.getContext().getBean(factoryName, JmsListenerContainerFactory.class);
+
+            environment.getBean(JmsListenerEndpointRegistry.class).registerListenerContainer(endpoint, factory, true);
+
+            connection = environment.getConnectionFactory().createConnection();
+            session = connection.createSession(false, Session.AUTO_ACKNOWLEDGE);
+            producer = session.createProducer(session.createQueue(queue));
+            producer.setDeliveryMode(DeliveryMode.NON_PERSISTENT);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            try {
+                if (connection != null) {
+                    connection.close();
+                }
+            } finally {
+                if (environment != null) {
+                    environment.close();
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BURST_SIZE)
+    public void consume(PartitionedListenerState state) throws Exception {
+        final CountDownLatch handled = new CountDownLatch(BURST_SIZE);
+        state.handled = handled;
+
+        for (int i = 0; i < BURST_SIZE; ++i) {
+            final Message message = state.session.createTextMessage("Hello World");
+            message.setStringProperty("JMSXGroupID", "account-" + (i % KEYS));
+            state.producer.send(message);
+        }
+
+        if (!handled.await(5, TimeUnit.MINUTES)) {
+            throw new IllegalStateException("Listener did not handle the message burst in time");
+        }
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Measures the throughput and latency of {@link JmsTemplate} send and receive operations with
+ * and without presettled (at-most-once) delivery configured through the amqphub.amqp10jms.presettle
+ * options, using a caching or pooled connection factory.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class PresettleBenchmark {
+
+    private static final String PAYLOAD = "Hello World";
+
+    @State(Scope.Benchmark)
+    public static class TemplateState {
+
+        @Param({ "CACHING", "POOLED" })
+        public ConnectionFactoryMode mode;
+
+        @Param({ "false", "true" })
+        public boolean presettle;
+
+        private BenchmarkEnvironment environment;
+
+        private JmsTemplate queueTemplate;
+        private JmsTemplate topicTemplate;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            final List<String> properties = mode.toProperties(10, true);
+
+            properties.add("amqphub.amqp10jms.presettle.all=" + presettle);
+
+            environment = BenchmarkEnvironment.start(properties);
+
+            queueTemplate = environment.getBean(JmsTemplate.class);
+
+            topicTemplate = new JmsTemplate(environment.getConnectionFactory());
+            topicTemplate.setPubSubDomain(true);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (environment != null) {
+                environment.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DestinationState {
+
+        public final String queue = "presettle-queue-" + UUID.randomUUID();
+        public final String topic = "presettle-topic-" + UUID.randomUUID();
+
+    }
+
+    @Benchmark
+    public void send(TemplateState state, DestinationState destinations) {
+        state.topicTemplate.convertAndSend(destinations.topic, PAYLOAD);
+    }
+
+    @Benchmark
+    public Object sendAndReceive(TemplateState state, DestinationState destinations) {
+        state.queueTemplate.convertAndSend(destinations.queue, PAYLOAD);
+        return state.queueTemplate.receiveAndConvert(destinations.queue);
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSRequestReplyTemplate;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.config.JmsListenerContainerFactory;
+import org.springframework.jms.config.JmsListenerEndpointRegistry;
+import org.springframework.jms.config.SimpleJmsListenerEndpoint;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.listener.adapter.MessageListenerAdapter;
+
+/**
+ * Measures the round trip latency of requests answered by a listener that behaves like the
+ * reply-service example, replying to each request with its upper cased text, when the reply
+ * is awaited with {@link JmsTemplate#sendAndReceive} which creates a temporary queue and a
+ * consumer for every request and when it is awaited through the long-lived reply consumer of
+ * the {@link AMQP10JMSRequestReplyTemplate}.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class RequestReplyBenchmark {
+
+    private static final String PAYLOAD = "Hello World";
+
+    private static final int PIPELINE_DEPTH = 100;
+
+    @State(Scope.Benchmark)
+    public static class RequestReplyState {
+
+        @Param({ "CACHING", "POOLED" })
+        public ConnectionFactoryMode mode;
+
+        private BenchmarkEnvironment environment;
+
+        private String requestQueue;
+        private JmsTemplate jmsTemplate;
+        private AMQP10JMSRequestReplyTemplate requestReplyTemplate;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            environment = BenchmarkEnvironment.start(mode.toProperties(10, true));
+
+            requestQueue = "request-queue-" + UUID.randomUUID();
+
+            final SimpleJmsListenerEndpoint endpoint = new SimpleJmsListenerEndpoint();
+            endpoint.setId(requestQueue);
+            endpoint.setDestination(requestQueue);
+            endpoint.setMessageListener(new MessageListenerAdapter(new ReplyService()));
+
+            final JmsListenerContainerFactory<?> factory =
+                environment.getContext().getBean("jmsListenerContainerFactory", JmsListenerContainerFactory.class);
+
+            environment.getBean(JmsListenerEndpointRegistry.class).registerListenerContainer(endpoint, factory, true);
+
+            jmsTemplate = environment.getBean(JmsTemplate.class);
+            requestReplyTemplate = environment.getBean(AMQP10JMSRequestReplyTemplate.class);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (environment != null) {
+                environment.close();
+            }
+        }
+    }
+
+    /**
+     * Replies to each request in the same way as the reply-service example listener.
+     */
+    public static class ReplyService {
+
+        public String handleMessage(String message) {
+            return message.toUpperCase();
+        }
+    }
+
+    @Benchmark
+    public Object sendAndReceive(RequestReplyState state) throws Exception {
+        return state.jmsTemplate.sendAndReceive(state.requestQueue, (session) -> session.createTextMessage(PAYLOAD));
+    }
+
+    @Benchmark
+    public Object requestReply(RequestReplyState state) throws Exception {
+        return state.requestReplyTemplate.convertSendAndReceive(state.requestQueue, PAYLOAD).get(5, TimeUnit.SECONDS);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PIPELINE_DEPTH)
+    public void requestReplyPipelined(RequestReplyState state) throws Exception {
+        final CompletableFuture<?>[] replies = new CompletableFuture<?>[PIPELINE_DEPTH];
+        for (int i = 0; i < PIPELINE_DEPTH; ++i) {
+            replies[i] = state.requestReplyTemplate.convertSendAndReceive(state.requestQueue, PAYLOAD);
+        }
+
+        CompletableFuture.allOf(replies).get(5, TimeUnit.SECONDS);
+    }
+}
@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.support.converter.JacksonJsonMessageConverter;
+import org.springframework.jms.support.converter.MessageType;
+
+/**
+ * Measures the send and receive of an object payload serialized with Java serialization into an
+ * ObjectMessage, with Jackson into a JSON bytes message or with the Kryo converter enabled by the
+ * amqphub.amqp10jms.serialization options. Run with the JMH gc profiler (-prof gc) to also compare
+ * the bytes allocated per operation.
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class SerializationBenchmark {
+
+    public enum Serializer {
+        JAVA,
+        JACKSON,
+        KRYO
+    }
+
+    @State(Scope.Benchmark)
+    public static class TemplateState {
+
+        @Param({ "JAVA", "JACKSON", "KRYO" })
+        public Serializer serializer;
+
+        @Param({ "10" })
+        public int orderLines;
+
+        private BenchmarkEnvironment environment;
+
+        private JmsTemplate template;
+
+        private Order order;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            final List<String> properties = ConnectionFactoryMode.CACHING.toProperties(10, true);
+
+            if (serializer == Serializer.KRYO) {
+                properties.add("amqphub.amqp10jms.serialization.enabled=true");
+                properties.add("amqphub.amqp10jms.serialization.registered-types=" +
+                    Order.class.getName() + "," + OrderLine.class.getName() + "," + ArrayList.class.getName());
+            }
+
+            environment = BenchmarkEnvironment.start(properties);
+
+            if (serializer == Serializer.JACKSON) {
+                final JacksonJsonMessageConverter converter = new JacksonJsonMessageConverter();
+                converter.setTargetType(MessageType.BYTES);
+                converter.setTypeIdPropertyName("_type");
+
+                template = new JmsTemplate(environment.getConnectionFactory());
+                template.setMessageConverter(converter);
+            } else {
+                template = environment.getBean(JmsTemplate.class);
+            }
+
+            order = new Order();
+            order.id = UUID.randomUUID().toString();
+            order.customer = "benchmark-customer";
+            order.priority = 5;
+            for (int i = 0; i < orderLines; ++i) {
+                final OrderLine line = new OrderLine();
+                line.sku = "sku-" + i;
+                line.quantity = i + 1;
+                line.price = 9.99 * (i + 1);
+                order.lines.add(line);
+            }
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (environment != null) {
+                environment.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DestinationState {
+
+        public final String queue = "serialization-queue-" + UUID.randomUUID();
+
+    }
+
+    @Benchmark
+    public Object sendAndReceive(TemplateState state, DestinationState destinations) {
+        state.template.convertAndSend(destinations.queue, state.order);
+        return state.template.receiveAndConvert(destinations.queue);
+    }
+
+    @SuppressWarnings("serial")
+    public static class Order implements Serializable {
+
+        public String id;
+        public String customer;
+        public int priority;
+        public List<OrderLine> lines = new ArrayList<>();
+
+    }
+
+    @SuppressWarnings("serial")
+    public static class OrderLine implements Serializable {
+
+        public String sku;
+        public int quantity;
+        public double price;
+
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.jms.core.JmsTemplate;
+
+/**
+ * Measures the send throughput of the auto-configured {@link JmsTemplate} as the number of
+ * connections the sharded connection factory spreads its sessions across grows. Each benchmark
+ * thread sends to its own topic so that the destination strategy spreads the threads across the
+ * shards, the benchmark should be run with several threads for example -Dbenchmark.threads=8.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+public class ShardingBenchmark {
+
+    private static final String PAYLOAD = "x".repeat(1024);
+
+    @State(Scope.Benchmark)
+    public static class ShardingState {
+
+        @Param({ "1", "2", "4", "8" })
+        public int shards;
+
+        @Param({ "DESTINATION", "ROUND_ROBIN" })
+        public String strategy;
+
+        private BenchmarkEnvironment environment;
+
+        private JmsTemplate topicTemplate;
+
+        @Setup(Level.Trial)
+        public void setUp() throws Exception {
+            final List<String> properties = ConnectionFactoryMode.CACHING.toProperties(64, true);
+            properties.add("amqphub.amqp10jms.sharding.enabled=true");
+            properties.add("amqphub.amqp10jms.sharding.shards=" + shards);
+            properties.add("amqphub.amqp10jms.sharding.strategy=" + strategy);
+
+            environment = BenchmarkEnvironment.start(properties);
+
+            // Messages sent to a topic without subscribers are discarded by the broker which
+            // allows the benchmark to run without building up a backlog.
+            topicTemplate = new JmsTemplate(environment.getConnectionFactory());
+            topicTemplate.setPubSubDomain(true);
+        }
+
+        @TearDown(Level.Trial)
+        public void tearDown() throws Exception {
+            if (environment != null) {
+                environment.close();
+            }
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class DestinationState {
+
+        public final String topic = "sharding-topic-" + UUID.randomUUID();
+
+    }
+
+    @Benchmark
+    public void send(ShardingState state, DestinationState destinations) {
+        state.topicTemplate.convertAndSend(destinations.topic, PAYLOAD);
+    }
+}
@@ -0,0 +1,182 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.benchmarks;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToLongFunction;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.apache.activemq.artemis.core.server.embedded.EmbeddedActiveMQ;
+import org.springframework.util.StringUtils;
+
+/**
+ * Compares the startup time and memory footprint of the JVM and GraalVM native image builds
+ * of an application that uses the AMQP 1.0 JMS starter, such as the example applications.
+ * <p>
+ * Each argument is the command line that launches one build of the application, the command
+ * is split on white space and the remote URL of an embedded broker is appended to it. Every
+ * command is launched the number of times given in the {@code startup.runs} system property
+ * (default is 10) and measured until Spring Boot logs that the application has started:
+ * <ul>
+ *   <li><b>startup</b> wall clock time from launching the process to the started log message.</li>
+ *   <li><b>process</b> the process uptime reported by Spring Boot in the started log message.</li>
+ *   <li><b>rss</b> and <b>peak rss</b> the resident set size of the process at that time,
+ *       read from /proc and so only available on Linux.</li>
+ * </ul>
+ */
+public final class StartupComparison {
+
+    public static final String RUNS_PROPERTY = "startup.runs";
+
+    private static final int DEFAULT_RUNS = 10;
+
+    private static final long STARTUP_TIMEOUT_SECONDS = 60;
+
+    private static final Pattern STARTED = Pattern.compile("Started .* in [0-9.]+ seconds \\(process running for ([0-9.]+)\\)");
+
+    private StartupComparison() {
+    }
+
+    public static void main(String[] args) throws Exception {
+        if (args.length == 0) {
+            System.err.println("Usage: StartupComparison \"<command>\" [\"<command>\" ...]");
+            System.exit(1);
+        }
+
+        final int runs = Integer.getInteger(RUNS_PROPERTY, DEFAULT_RUNS);
+        final EmbeddedActiveMQ broker = new EmbeddedActiveMQ();
+        broker.start();
+
+        try {
+            System.out.printf("%-60s %12s %12s %10s %14s%n", "command", "startup ms", "process ms", "rss MB", "peak rss MB");
+
+            for (String command : args) {
+                final List<String> commandLine = new ArrayList<>(Arrays.asList(StringUtils.tokenizeToStringArray(command, " \t")));
+                commandLine.add("--amqphub.amqp10jms.remote-url=" + BenchmarkEnvironment.BROKER_URI);
+
+                final List<Sample> samples = new ArrayList<>(runs);
+                for (int run = 0; run < runs; ++run) {
+                    samples.add(measure(commandLine));
+                }
+
+                System.out.printf("%-60s %12s %12s %10s %14s%n", abbreviate(command),
+                    summarize(samples, (sample) -> TimeUnit.NANOSECONDS.toMillis(sample.startupNanos)),
+                    summarize(samples, (sample) -> sample.processMillis),
+                    summarize(samples, (sample) -> toMiB(sample.rssKiB)),
+                    summarize(samples, (sample) -> toMiB(sample.peakRssKiB)));
+            }
+        } finally {
+            broker.stop();
+        }
+    }
+
+    private static Sample measure(List<String> commandLine) throws Exception {
+        final long startTime = System.nanoTime();
+        final Process process = new ProcessBuilder(commandLine).redirectErrorStream(true).start();
+        final CompletableFuture<Long> started = new CompletableFuture<>();
+
+        final Thread outputReader = new Thread(() -> awaitStarted(process, started), "startup-output-reader");
+        outputReader.setDaemon(true);
+        outputReader.start();
+
+        try {
+            final long processMillis = started.get(STARTUP_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+            final long startupNanos = System.nanoTime() - startTime;
+
+            return new Sample(startupNanos, processMillis,
+                readProcessStatus(process.pid(), "VmRSS"), readProcessStatus(process.pid(), "VmHWM"));
+        } finally {
+            process.destroy();
+            if (!process.waitFor(10, TimeUnit.SECONDS)) {
+                process.destroyForcibly();
+            }
+        }
+    }
+
+    private static void awaitStarted(Process process, CompletableFuture<Long> started) {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                final Matcher matcher = STARTED.matcher(line);
+                if (!started.isDone() && matcher.find()) {
+                    started.complete(Math.round(Double.parseDouble(matcher.group(1)) * 1000));
+                }
+            }
+
+            started.completeExceptionally(new IllegalStateException("Process exited before the application started"));
+        } catch (IOException ex) {
+            started.completeExceptionally(ex);
+        }
+    }
+
+    private static long readProcessStatus(long pid, String field) {
+        try {
+            for (String line : Files.readAllLines(Path.of("/proc", String.valueOf(pid), "status"))) {
+                if (line.startsWith(field + ":")) {
+                    return Long.parseLong(line.substring(field.length() + 1).replace("kB", "").trim());
+                }
+            }
+        } catch (IOException | NumberFormatException ex) {
+            // Process status is only available on Linux
+        }
+
+        return -1;
+    }
+
+    private static long toMiB(long kiB) {
+        return kiB < 0 ? kiB : kiB / 1024;
+    }
+
+    private static String summarize(List<Sample> samples, ToLongFunction<Sample> value) {
+        final long[] values = samples.stream().mapToLong(value).sorted().toArray();
+        if (values[0] < 0) {
+            return "n/a";
+        }
+
+        return values[values.length / 2] + " (" + values[0] + "-" + values[values.length - 1] + ")";
+    }
+
+    private static String abbreviate(String command) {
+        return command.length() <= 60 ? command : "..." + command.substring(command.length() - 57);
+    }
+
+    private static final class Sample {
+
+        private final long startupNanos;
+        private final long processMillis;
+        private final long rssKiB;
+        private final long peakRssKiB;
+
+        Sample(long startupNanos, long processMillis, long rssKiB, long peakRssKiB) {
+            this.startupNanos = startupNanos;
+            this.processMillis = processMillis;
+            this.rssKiB = rssKiB;
+            this.peakRssKiB = peakRssKiB;
+        }
+    }
+}
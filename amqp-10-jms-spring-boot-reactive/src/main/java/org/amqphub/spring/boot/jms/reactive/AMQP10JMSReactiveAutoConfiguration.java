@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSAsyncTemplate;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSAutoConfiguration;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSConnectionFactoryCustomizer;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSConnectionFactoryFactory;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSProperties;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSTemplateAutoConfiguration;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.context.annotation.Bean;
+
+import reactor.core.publisher.Flux;
+
+/**
+ * Auto Configuration class for the Project Reactor based {@link AMQP10JMSReactiveReceiver} and
+ * {@link AMQP10JMSReactiveSender}. The receiver uses a dedicated Qpid JMS connection factory
+ * configured from the same {@link AMQP10JMSProperties} and {@link AMQP10JMSConnectionFactoryCustomizer}
+ * beans as the auto-configured connection factory, other than the client ID which remains with the
+ * application's connections. The sender is built on the auto-configured {@link AMQP10JMSAsyncTemplate}.
+ */
+@AutoConfiguration(after = { AMQP10JMSAutoConfiguration.class, AMQP10JMSTemplateAutoConfiguration.class })
+@ConditionalOnClass({ Flux.class, JmsConnectionFactory.class })
+@ConditionalOnBean(AMQP10JMSProperties.class)
+public class AMQP10JMSReactiveAutoConfiguration {
+
+    @Bean
+    @ConditionalOnMissingBean
+    AMQP10JMSReactiveReceiver amqp10JmsReactiveReceiver(AMQP10JMSProperties properties,
+                                                        ObjectProvider<AMQP10JMSConnectionFactoryCustomizer> factoryCustomizers) {
+        final JmsConnectionFactory connectionFactory = new AMQP10JMSConnectionFactoryFactory(properties, factoryCustomizers)
+            .createConnectionFactory(JmsConnectionFactory.class);
+
+        // The receiver connection must not claim the client ID used by the application's connections
+        connectionFactory.setClientID(null);
+
+        return new AMQP10JMSReactiveReceiver(connectionFactory);
+    }
+
+    @Bean
+    @ConditionalOnMissingBean
+    @ConditionalOnBean(AMQP10JMSAsyncTemplate.class)
+    AMQP10JMSReactiveSender amqp10JmsReactiveSender(AMQP10JMSAsyncTemplate asyncTemplate) {
+        return new AMQP10JMSReactiveSender(asyncTemplate);
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.apache.qpid.jms.JmsDestination;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
+import org.springframework.util.Assert;
+
+import jakarta.jms.Session;
+
+/**
+ * {@link JmsPrefetchPolicy} that limits the prefetch of a consumer created on a session for which
+ * the receiver has set a limit, the prefetch of every other consumer is chosen by the policy the
+ * connection factory was configured with. The limits are shared by all copies of the policy such
+ * that the connections created by the connection factory see the limits set by the receiver.
+ */
+final class AMQP10JMSReactivePrefetchPolicy implements JmsPrefetchPolicy {
+
+    private final JmsPrefetchPolicy delegate;
+    private final Map<Session, Integer> sessionLimits;
+
+    AMQP10JMSReactivePrefetchPolicy(JmsPrefetchPolicy delegate) {
+        this(delegate, new ConcurrentHashMap<>());
+    }
+
+    private AMQP10JMSReactivePrefetchPolicy(JmsPrefetchPolicy delegate, Map<Session, Integer> sessionLimits) {
+        Assert.notNull(delegate, "Prefetch policy must not be null");
+
+        this.delegate = delegate;
+        this.sessionLimits = sessionLimits;
+    }
+
+    @Override
+    public AMQP10JMSReactivePrefetchPolicy copy() {
+        return new AMQP10JMSReactivePrefetchPolicy(delegate.copy(), sessionLimits);
+    }
+
+    @Override
+    public int getConfiguredPrefetch(JmsSession session, JmsDestination destination, boolean durable, boolean browser) {
+        final int configuredPrefetch = delegate.getConfiguredPrefetch(session, destination, durable, browser);
+        final Integer limit = browser ? null : sessionLimits.get(session);
+
+        return limit != null ? Math.min(configuredPrefetch, limit) : configuredPrefetch;
+    }
+
+    /**
+     * Limits the prefetch of the consumers created on the session until the limit is cleared.
+     *
+     * @param session
+     *      The session whose consumers are limited.
+     * @param limit
+     *      The highest prefetch given to a consumer of the session.
+     */
+    void setSessionLimit(Session session, int limit) {
+        sessionLimits.put(session, limit);
+    }
+
+    /**
+     * Clears the limit of the session, its later consumers use the configured prefetch.
+     *
+     * @param session
+     *      The session whose limit is cleared.
+     */
+    void clearSessionLimit(Session session) {
+        sessionLimits.remove(session);
+    }
+}
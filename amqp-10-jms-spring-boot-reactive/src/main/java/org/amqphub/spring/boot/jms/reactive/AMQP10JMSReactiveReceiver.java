@@ -0,0 +1,339 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jms.support.JmsUtils;
+import org.springframework.util.Assert;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.JMSException;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.Session;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Creates {@link Flux} instances that emit the messages received from a destination while
+ * honoring the demand signalled by the subscriber.
+ * <p>
+ * Every subscription creates its own session and consumer on a connection that is shared by
+ * all subscriptions of the receiver. Messages are delivered by the client on the session's
+ * delivery thread, when the subscriber has no outstanding demand the delivery thread waits for
+ * further demand. As messages are not consumed while waiting, the client grants the remote peer
+ * no further credit and keeps at most the prefetch of the consumer buffered for the subscription.
+ * <p>
+ * When given a Qpid JMS connection factory the receiver limits the prefetch of each consumer, and
+ * so the credit the client grants for it, to the demand outstanding when the subscription is set
+ * up, such that a subscriber requesting one message at a time is sent about one message at a time
+ * rather than the configured prefetch. The prefetch of a consumer is fixed when it is created and
+ * later requests do not change it, a subscriber whose first request is unbounded is given the
+ * configured prefetch and one that has requested nothing by then is given a prefetch of one. Other
+ * connection factories buffer up to the prefetch they were configured with.
+ * <p>
+ * Waiting for demand is not free of threads. The client delivers the messages of each session on
+ * its own thread, and a subscription without outstanding demand parks that thread until demand
+ * arrives, so each waiting subscription holds one client thread. Applications with many idle
+ * subscriptions should share subscriptions rather than create one per downstream consumer.
+ * <p>
+ * Subscribing opens the shared connection when it is not yet open and creates the session and
+ * consumer of the subscription, each of which blocks on the remote peer, so subscriptions are set
+ * up on a scheduler meant for blocking work rather than on the subscribing thread, which in a
+ * reactive application is commonly an event loop thread. Unless one is given the receiver creates
+ * a dedicated bounded elastic scheduler which it disposes when closed.
+ * <p>
+ * Messages are acknowledged according to the session acknowledge mode once they have been
+ * emitted, by default automatically once the subscriber's onNext signal returns.
+ * <p>
+ * Cancelling a subscription closes its consumer before the cancel returns, so the messages
+ * buffered by the client are released to the remote peer rather than handed to the cancelled
+ * subscription and failed. Only a message whose delivery was waiting for demand when the
+ * subscription was cancelled fails its delivery and is redelivered.
+ */
+public class AMQP10JMSReactiveReceiver implements AutoCloseable {
+
+    static final String SCHEDULER_NAME = "amqp10jms-reactive-receive";
+
+    private static final Logger LOG = LoggerFactory.getLogger(AMQP10JMSReactiveReceiver.class);
+
+    private final ConnectionFactory connectionFactory;
+    private final Scheduler subscribeScheduler;
+    private final boolean ownsScheduler;
+    private final AMQP10JMSReactivePrefetchPolicy prefetchPolicy;
+    private final Set<FluxSink<Message>> activeSinks = ConcurrentHashMap.newKeySet();
+
+    private int sessionAcknowledgeMode = Session.AUTO_ACKNOWLEDGE;
+
+    private Connection connection;
+    private boolean closed;
+
+    /**
+     * Creates a new receiver that sets up its subscriptions on a dedicated scheduler.
+     *
+     * @param connectionFactory
+     *      The {@link ConnectionFactory} used to create the receiver's dedicated connection, the prefetch
+     *      policy of a Qpid JMS connection factory is wrapped to limit the prefetch of each subscription.
+     */
+    public AMQP10JMSReactiveReceiver(ConnectionFactory connectionFactory) {
+        this(connectionFactory, Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                                                             Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+                                                             SCHEDULER_NAME), true);
+    }
+
+    /**
+     * Creates a new receiver.
+     *
+     * @param connectionFactory
+     *      The {@link ConnectionFactory} used to create the receiver's dedicated connection, the prefetch
+     *      policy of a Qpid JMS connection factory is wrapped to limit the prefetch of each subscription.
+     * @param subscribeScheduler
+     *      The {@link Scheduler} on which subscriptions are set up, it must allow blocking and is not disposed by the receiver.
+     */
+    public AMQP10JMSReactiveReceiver(ConnectionFactory connectionFactory, Scheduler subscribeScheduler) {
+        this(connectionFactory, subscribeScheduler, false);
+    }
+
+    private AMQP10JMSReactiveReceiver(ConnectionFactory connectionFactory, Scheduler subscribeScheduler, boolean ownsScheduler) {
+        Assert.notNull(connectionFactory, "ConnectionFactory must not be null");
+        Assert.notNull(subscribeScheduler, "Subscribe scheduler must not be null");
+
+        this.connectionFactory = connectionFactory;
+        this.subscribeScheduler = subscribeScheduler;
+        this.ownsScheduler = ownsScheduler;
+        this.prefetchPolicy = connectionFactory instanceof JmsConnectionFactory ?
+            installPrefetchPolicy((JmsConnectionFactory) connectionFactory) : null;
+    }
+
+    private static AMQP10JMSReactivePrefetchPolicy installPrefetchPolicy(JmsConnectionFactory connectionFactory) {
+        final JmsPrefetchPolicy configured = connectionFactory.getPrefetchPolicy();
+        if (configured instanceof AMQP10JMSReactivePrefetchPolicy) {
+            // Shared with another receiver of the factory, the limits are kept per session
+            return (AMQP10JMSReactivePrefetchPolicy) configured;
+        }
+
+        final AMQP10JMSReactivePrefetchPolicy prefetchPolicy =
+            new AMQP10JMSReactivePrefetchPolicy(configured != null ? configured : new JmsDefaultPrefetchPolicy());
+        connectionFactory.setPrefetchPolicy(prefetchPolicy);
+
+        return prefetchPolicy;
+    }
+
+    public ConnectionFactory getConnectionFactory() {
+        return connectionFactory;
+    }
+
+    public Scheduler getSubscribeScheduler() {
+        return subscribeScheduler;
+    }
+
+    public int getSessionAcknowledgeMode() {
+        return sessionAcknowledgeMode;
+    }
+
+    /**
+     * Sets the acknowledge mode of the sessions created for each subscription, subscribers
+     * using client acknowledgement must acknowledge each message they have processed.
+     *
+     * @param sessionAcknowledgeMode
+     *      The JMS (or Qpid JMS specific) session acknowledge mode.
+     */
+    public void setSessionAcknowledgeMode(int sessionAcknowledgeMode) {
+        Assert.isTrue(sessionAcknowledgeMode != Session.SESSION_TRANSACTED, "Transacted sessions are not supported");
+        this.sessionAcknowledgeMode = sessionAcknowledgeMode;
+    }
+
+    /**
+     * Creates a {@link Flux} that emits the messages received from the named queue.
+     *
+     * @param queueName
+     *      The name of the queue to consume from.
+     *
+     * @return a {@link Flux} that consumes from the queue once subscribed.
+     */
+    public Flux<Message> receive(String queueName) {
+        Assert.hasText(queueName, "Queue name must not be empty");
+        return receive((session) -> session.createQueue(queueName));
+    }
+
+    /**
+     * Creates a {@link Flux} that emits the messages received from the given destination.
+     *
+     * @param destination
+     *      The destination to consume from.
+     *
+     * @return a {@link Flux} that consumes from the destination once subscribed.
+     */
+    public Flux<Message> receive(Destination destination) {
+        Assert.notNull(destination, "Destination must not be null");
+        return receive((session) -> destination);
+    }
+
+    private Flux<Message> receive(DestinationSupplier destinationSupplier) {
+        return Flux.create((sink) -> {
+            final DemandGate demand = new DemandGate();
+            final Session session;
+            final MessageConsumer consumer;
+
+            try {
+                session = getConnection().createSession(sessionAcknowledgeMode);
+            } catch (JMSException ex) {
+                sink.error(JmsUtils.convertJmsAccessException(ex));
+                return;
+            }
+
+            try {
+                consumer = createConsumer(session, destinationSupplier.getDestination(session), sink.requestedFromDownstream());
+            } catch (JMSException ex) {
+                JmsUtils.closeSession(session);
+                sink.error(JmsUtils.convertJmsAccessException(ex));
+                return;
+            }
+
+            activeSinks.add(sink);
+
+            sink.onRequest(demand::request);
+            sink.onDispose(() -> {
+                activeSinks.remove(sink);
+                // Releases a delivery waiting for demand before the consumer close waits for it
+                demand.cancel();
+                // Stops delivery before the subscriber could be handed another message, the messages
+                // buffered by the client are released to the remote peer rather than failed. A consumer
+                // may be closed from its own delivery thread, on which the subscriber may cancel.
+                JmsUtils.closeMessageConsumer(consumer);
+                closeSession(session);
+            });
+
+            try {
+                consumer.setMessageListener((message) -> {
+                    if (!demand.acquire()) {
+                        // Returning normally would acknowledge a message that was never emitted, failing
+                        // the delivery leaves the message to be redelivered.
+                        throw new IllegalStateException("Subscription cancelled before the message was emitted");
+                    }
+
+                    sink.next(message);
+                });
+            } catch (JMSException ex) {
+                sink.error(JmsUtils.convertJmsAccessException(ex));
+            }
+        // Requests only release a waiting delivery thread and so are not moved to the scheduler
+        }).subscribeOn(subscribeScheduler, false);
+    }
+
+    private MessageConsumer createConsumer(Session session, Destination destination, long demand) throws JMSException {
+        if (prefetchPolicy == null) {
+            return session.createConsumer(destination);
+        }
+
+        // The prefetch is the credit the client keeps granted to the consumer, limiting it to the
+        // demand keeps a subscriber that requests a few messages from being sent a full prefetch.
+        prefetchPolicy.setSessionLimit(session, (int) Math.max(1, Math.min(demand, Integer.MAX_VALUE)));
+        try {
+            return session.createConsumer(destination);
+        } finally {
+            prefetchPolicy.clearSessionLimit(session);
+        }
+    }
+
+    private void closeSession(Session session) {
+        try {
+            // Sessions must not be closed from their own delivery thread which could be the
+            // thread on which the subscriber cancels.
+            subscribeScheduler.schedule(() -> JmsUtils.closeSession(session));
+        } catch (RejectedExecutionException ex) {
+            // The receiver is closed and closing its connection closed the session
+            LOG.trace("Session of a cancelled subscription left to be closed with the connection");
+        }
+    }
+
+    private synchronized Connection getConnection() throws JMSException {
+        if (closed) {
+            throw new jakarta.jms.IllegalStateException("The reactive receiver has been closed");
+        }
+
+        if (connection == null) {
+            final Connection created = connectionFactory.createConnection();
+            try {
+                created.setExceptionListener(this::onConnectionFailure);
+                created.start();
+            } catch (JMSException ex) {
+                JmsUtils.closeConnection(created);
+                throw ex;
+            }
+
+            connection = created;
+        }
+
+        return connection;
+    }
+
+    private void onConnectionFailure(JMSException cause) {
+        LOG.warn("Reactive receiver connection failed: {}", cause.getMessage());
+
+        final Connection failed;
+        synchronized (this) {
+            failed = connection;
+            connection = null;
+        }
+
+        activeSinks.forEach((sink) -> sink.error(JmsUtils.convertJmsAccessException(cause)));
+
+        JmsUtils.closeConnection(failed);
+    }
+
+    /**
+     * Closes the receiver's connection, completing every active subscription, and disposes the
+     * dedicated subscribe scheduler, a scheduler given to the receiver is left running.
+     */
+    @Override
+    public void close() {
+        final Connection toClose;
+        synchronized (this) {
+            closed = true;
+            toClose = connection;
+            connection = null;
+        }
+
+        activeSinks.forEach(FluxSink::complete);
+
+        JmsUtils.closeConnection(toClose);
+
+        if (ownsScheduler) {
+            subscribeScheduler.dispose();
+        }
+    }
+
+    @FunctionalInterface
+    private interface DestinationSupplier {
+
+        Destination getDestination(Session session) throws JMSException;
+
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Supplier;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSAsyncTemplate;
+import org.springframework.jms.core.MessageCreator;
+import org.springframework.util.Assert;
+
+import jakarta.jms.Destination;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Sender that returns a {@link Mono} for each send which completes once the remote peer has
+ * settled the message, built on the completion listener based sends of the
+ * {@link AMQP10JMSAsyncTemplate}.
+ * <p>
+ * The send is made when the returned {@link Mono} is subscribed. Starting a send can block, on
+ * the in-flight send limit of the async template, on borrowing a pooled session and on attaching
+ * a producer, so sends are started on a scheduler meant for blocking work rather than on the
+ * subscribing thread, which in a reactive application is commonly an event loop thread. Unless
+ * one is given the sender creates a dedicated bounded elastic scheduler which it disposes when
+ * closed. Waiting on the in-flight send limit should be bounded by configuring an acquire timeout.
+ */
+public class AMQP10JMSReactiveSender implements AutoCloseable {
+
+    static final String SCHEDULER_NAME = "amqp10jms-reactive-send";
+
+    private final AMQP10JMSAsyncTemplate asyncTemplate;
+    private final Scheduler sendScheduler;
+    private final boolean ownsScheduler;
+
+    /**
+     * Creates a new sender that starts its sends on a dedicated scheduler.
+     *
+     * @param asyncTemplate
+     *      The {@link AMQP10JMSAsyncTemplate} used to perform each send.
+     */
+    public AMQP10JMSReactiveSender(AMQP10JMSAsyncTemplate asyncTemplate) {
+        this(asyncTemplate, Schedulers.newBoundedElastic(Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                                                         Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+                                                         SCHEDULER_NAME), true);
+    }
+
+    /**
+     * Creates a new sender.
+     *
+     * @param asyncTemplate
+     *      The {@link AMQP10JMSAsyncTemplate} used to perform each send.
+     * @param sendScheduler
+     *      The {@link Scheduler} on which sends are started, it must allow blocking and is not disposed by the sender.
+     */
+    public AMQP10JMSReactiveSender(AMQP10JMSAsyncTemplate asyncTemplate, Scheduler sendScheduler) {
+        this(asyncTemplate, sendScheduler, false);
+    }
+
+    private AMQP10JMSReactiveSender(AMQP10JMSAsyncTemplate asyncTemplate, Scheduler sendScheduler, boolean ownsScheduler) {
+        Assert.notNull(asyncTemplate, "Async template must not be null");
+        Assert.notNull(sendScheduler, "Send scheduler must not be null");
+
+        this.asyncTemplate = asyncTemplate;
+        this.sendScheduler = sendScheduler;
+        this.ownsScheduler = ownsScheduler;
+    }
+
+    public AMQP10JMSAsyncTemplate getAsyncTemplate() {
+        return asyncTemplate;
+    }
+
+    public Scheduler getSendScheduler() {
+        return sendScheduler;
+    }
+
+    public Mono<Void> send(String destinationName, MessageCreator messageCreator) {
+        return fromSend(() -> asyncTemplate.send(destinationName, messageCreator));
+    }
+
+    public Mono<Void> send(Destination destination, MessageCreator messageCreator) {
+        return fromSend(() -> asyncTemplate.send(destination, messageCreator));
+    }
+
+    public Mono<Void> convertAndSend(String destinationName, Object message) {
+        return fromSend(() -> asyncTemplate.convertAndSend(destinationName, message));
+    }
+
+    public Mono<Void> convertAndSend(Destination destination, Object message) {
+        return fromSend(() -> asyncTemplate.convertAndSend(destination, message));
+    }
+
+    /**
+     * Disposes the dedicated send scheduler, a scheduler given to the sender is left running.
+     */
+    @Override
+    public void close() {
+        if (ownsScheduler) {
+            sendScheduler.dispose();
+        }
+    }
+
+    private Mono<Void> fromSend(Supplier<CompletableFuture<Void>> send) {
+        return Mono.fromFuture(send).subscribeOn(sendScheduler);
+    }
+}
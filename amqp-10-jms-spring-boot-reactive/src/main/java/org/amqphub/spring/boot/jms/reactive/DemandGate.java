@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+/**
+ * Tracks the demand signalled by a subscriber and allows the delivery thread to wait
+ * until demand is available before emitting the next message, the waiting delivery
+ * thread is parked for as long as the subscriber signals no demand.
+ */
+final class DemandGate {
+
+    private long demand;
+    private boolean cancelled;
+
+    /**
+     * Adds to the outstanding demand, demand of {@link Long#MAX_VALUE} is unbounded.
+     *
+     * @param requested
+     *      The additional demand requested by the subscriber.
+     */
+    synchronized void request(long requested) {
+        if (requested <= 0) {
+            return;
+        }
+
+        demand = demand + requested < 0 ? Long.MAX_VALUE : demand + requested;
+        notifyAll();
+    }
+
+    /**
+     * Waits for demand to be available and claims one unit of it.
+     *
+     * @return true if demand was claimed or false if the gate was cancelled while waiting.
+     */
+    synchronized boolean acquire() {
+        while (demand == 0 && !cancelled) {
+            try {
+                wait();
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+
+        if (cancelled) {
+            return false;
+        }
+
+        if (demand != Long.MAX_VALUE) {
+            demand--;
+        }
+
+        return true;
+    }
+
+    /**
+     * Cancels the gate releasing any thread waiting for demand.
+     */
+    synchronized void cancel() {
+        cancelled = true;
+        notifyAll();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSAsyncTemplate;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSAutoConfiguration;
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSTemplateAutoConfiguration;
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.jms.autoconfigure.JmsAutoConfiguration;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import jakarta.jms.ConnectionFactory;
+
+/**
+ * Test the reactive sender and receiver auto configuration.
+ */
+public class AMQP10JMSReactiveAutoConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(AutoConfigurations.of(AMQP10JMSAutoConfiguration.class,
+                                                 JmsAutoConfiguration.class,
+                                                 AMQP10JMSTemplateAutoConfiguration.class,
+                                                 AMQP10JMSReactiveAutoConfiguration.class));
+
+    @Test
+    public void testReactiveSenderAndReceiverAreConfigured() {
+        this.contextRunner.run((context) -> {
+            assertThat(context).hasSingleBean(AMQP10JMSReactiveReceiver.class);
+            assertThat(context).hasSingleBean(AMQP10JMSReactiveSender.class);
+
+            assertThat(context.getBean(AMQP10JMSReactiveSender.class).getAsyncTemplate())
+                .isSameAs(context.getBean(AMQP10JMSAsyncTemplate.class));
+        });
+    }
+
+    @Test
+    public void testReceiverConnectionDoesNotUseClientId() {
+        this.contextRunner.withPropertyValues("amqphub.amqp10jms.clientId=app").run((context) -> {
+            ConnectionFactory connectionFactory = context.getBean(AMQP10JMSReactiveReceiver.class).getConnectionFactory();
+
+            assertThat(connectionFactory).isInstanceOf(JmsConnectionFactory.class);
+            assertThat(((JmsConnectionFactory) connectionFactory).getClientID()).isNull();
+        });
+    }
+
+    @Test
+    public void testNotConfiguredWithUserConnectionFactory() {
+        this.contextRunner.withUserConfiguration(UserConnectionFactoryConfiguration.class).run((context) -> {
+            assertThat(context).doesNotHaveBean(AMQP10JMSReactiveReceiver.class);
+            assertThat(context).doesNotHaveBean(AMQP10JMSReactiveSender.class);
+        });
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    static class UserConnectionFactoryConfiguration {
+
+        @Bean
+        ConnectionFactory userConnectionFactory() {
+            return mock(ConnectionFactory.class);
+        }
+    }
+}
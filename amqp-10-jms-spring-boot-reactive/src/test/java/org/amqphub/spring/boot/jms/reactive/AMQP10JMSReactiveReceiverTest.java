@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.qpid.jms.JmsConnectionFactory;
+import org.apache.qpid.jms.JmsQueue;
+import org.apache.qpid.jms.JmsSession;
+import org.apache.qpid.jms.policy.JmsDefaultPrefetchPolicy;
+import org.apache.qpid.jms.policy.JmsPrefetchPolicy;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import jakarta.jms.Connection;
+import jakarta.jms.ConnectionFactory;
+import jakarta.jms.Destination;
+import jakarta.jms.Message;
+import jakarta.jms.MessageConsumer;
+import jakarta.jms.MessageListener;
+import jakarta.jms.Queue;
+import jakarta.jms.Session;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+import reactor.test.subscriber.TestSubscriber;
+
+/**
+ * Tests for the demand driven reactive receiver.
+ */
+public class AMQP10JMSReactiveReceiverTest {
+
+    private final ExecutorService deliveryThread = Executors.newSingleThreadExecutor();
+
+    private ConnectionFactory connectionFactory;
+    private Connection connection;
+    private Session session;
+    private MessageConsumer consumer;
+    private AMQP10JMSReactiveReceiver receiver;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        connectionFactory = mock(ConnectionFactory.class);
+        connection = mock(Connection.class);
+        session = mock(Session.class);
+        consumer = mock(MessageConsumer.class);
+
+        when(connectionFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyInt())).thenReturn(session);
+        when(session.createQueue(anyString())).thenReturn(mock(Queue.class));
+        when(session.createConsumer(any(Destination.class))).thenReturn(consumer);
+
+        receiver = new AMQP10JMSReactiveReceiver(connectionFactory);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        receiver.close();
+        deliveryThread.shutdownNow();
+    }
+
+    @Test
+    public void testMessagesEmittedOnlyWhenRequested() throws Exception {
+        TestSubscriber<Message> subscriber = TestSubscriber.builder().initialRequest(0).build();
+        receiver.receive("queue").subscribe(subscriber);
+
+        MessageListener listener = captureListener();
+
+        verify(connection).start();
+        Message first = mock(Message.class);
+        Message second = mock(Message.class);
+
+        Future<?> delivery = deliveryThread.submit(() -> {
+            listener.onMessage(first);
+            listener.onMessage(second);
+        });
+
+        // Without demand the delivery thread must wait rather than emit
+        TimeUnit.MILLISECONDS.sleep(100);
+        assertThat(subscriber.getReceivedOnNext()).isEmpty();
+
+        subscriber.request(1);
+        await().atMost(Duration.ofSeconds(5)).until(() -> subscriber.getReceivedOnNext().size() == 1);
+        assertThat(delivery.isDone()).isFalse();
+
+        subscriber.request(1);
+        delivery.get(5, TimeUnit.SECONDS);
+
+        assertThat(subscriber.getReceivedOnNext()).containsExactly(first, second);
+    }
+
+    @Test
+    public void testCancelReleasesWaitingDeliveryAndClosesSession() throws Exception {
+        TestSubscriber<Message> subscriber = TestSubscriber.builder().initialRequest(0).build();
+        receiver.receive("queue").subscribe(subscriber);
+
+        MessageListener listener = captureListener();
+
+        CompletableFuture<Throwable> delivery = CompletableFuture.supplyAsync(() -> {
+            try {
+                listener.onMessage(mock(Message.class));
+                return null;
+            } catch (RuntimeException ex) {
+                return ex;
+            }
+        }, deliveryThread);
+
+        subscriber.cancel();
+
+        // The undelivered message must not be acknowledged by returning normally
+        assertThat(delivery.get(5, TimeUnit.SECONDS)).isInstanceOf(IllegalStateException.class);
+        assertThat(subscriber.getReceivedOnNext()).isEmpty();
+
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> verify(session).close());
+    }
+
+    @Test
+    public void testCancelClosesConsumerBeforeReturning() throws Exception {
+        TestSubscriber<Message> subscriber = TestSubscriber.create();
+        receiver.receive("queue").subscribe(subscriber);
+
+        captureListener();
+
+        subscriber.cancel();
+
+        // Closed synchronously so that no buffered message reaches the cancelled subscription
+        verify(consumer).close();
+    }
+
+    @Test
+    public void testCancelWithinOnNextClosesConsumerOnDeliveryThread() throws Exception {
+        AtomicReference<String> closeThread = new AtomicReference<>();
+        AtomicReference<String> sessionCloseThread = new AtomicReference<>();
+        TestSubscriber<Message> subscriber = TestSubscriber.create();
+        receiver.receive("queue").take(1).subscribe(subscriber);
+
+        MessageListener listener = captureListener();
+
+        doAnswer((invocation) -> {
+            closeThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(consumer).close();
+        doAnswer((invocation) -> {
+            sessionCloseThread.set(Thread.currentThread().getName());
+            return null;
+        }).when(session).close();
+
+        Message first = mock(Message.class);
+        String deliveryThreadName = deliveryThread.submit(() -> {
+            listener.onMessage(first);
+            return Thread.currentThread().getName();
+        }).get(5, TimeUnit.SECONDS);
+
+        assertThat(subscriber.getReceivedOnNext()).containsExactly(first);
+        assertThat(closeThread.get()).isEqualTo(deliveryThreadName);
+
+        // The session is never closed from its own delivery thread
+        await().atMost(Duration.ofSeconds(5)).until(() -> sessionCloseThread.get() != null);
+        assertThat(sessionCloseThread.get()).startsWith(AMQP10JMSReactiveReceiver.SCHEDULER_NAME);
+    }
+
+    @Test
+    public void testCloseCompletesActiveSubscriptions() throws Exception {
+        TestSubscriber<Message> subscriber = TestSubscriber.create();
+        receiver.receive("queue").subscribe(subscriber);
+
+        captureListener();
+        receiver.close();
+
+        assertThat(subscriber.isTerminatedComplete()).isTrue();
+        verify(connection).close();
+    }
+
+    @Test
+    public void testSubscriptionIsSetUpOnTheSubscribeScheduler() throws Exception {
+        AtomicReference<String> sessionThread = new AtomicReference<>();
+
+        when(connection.createSession(anyInt())).thenAnswer((invocation) -> {
+            sessionThread.set(Thread.currentThread().getName());
+            return session;
+        });
+
+        receiver.receive("queue").subscribe(TestSubscriber.create());
+
+        captureListener();
+
+        assertThat(sessionThread.get()).startsWith(AMQP10JMSReactiveReceiver.SCHEDULER_NAME);
+        assertThat(sessionThread.get()).isNotEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void testConsumerPrefetchLimitedToInitialDemand() throws Exception {
+        JmsConnectionFactory qpidFactory = mock(JmsConnectionFactory.class);
+        JmsSession qpidSession = mock(JmsSession.class);
+        JmsQueue queue = new JmsQueue("queue");
+        JmsDefaultPrefetchPolicy configured = new JmsDefaultPrefetchPolicy();
+        configured.setAll(1000);
+
+        when(qpidFactory.getPrefetchPolicy()).thenReturn(configured);
+        when(qpidFactory.createConnection()).thenReturn(connection);
+        when(connection.createSession(anyInt())).thenReturn(qpidSession);
+        when(qpidSession.createQueue("queue")).thenReturn(queue);
+
+        AMQP10JMSReactiveReceiver qpidReceiver = new AMQP10JMSReactiveReceiver(qpidFactory);
+
+        try {
+            ArgumentCaptor<JmsPrefetchPolicy> installed = ArgumentCaptor.forClass(JmsPrefetchPolicy.class);
+            verify(qpidFactory).setPrefetchPolicy(installed.capture());
+
+            // Connections use a copy of the factory policy, which must see the receiver's limits
+            JmsPrefetchPolicy connectionPolicy = installed.getValue().copy();
+            AtomicInteger consumerPrefetch = new AtomicInteger();
+
+            when(qpidSession.createConsumer(queue)).thenAnswer((invocation) -> {
+                consumerPrefetch.set(connectionPolicy.getConfiguredPrefetch(qpidSession, queue, false, false));
+                return consumer;
+            });
+
+            qpidReceiver.receive("queue").subscribe(TestSubscriber.builder().initialRequest(5).build());
+
+            captureListener();
+
+            assertThat(consumerPrefetch.get()).isEqualTo(5);
+            assertThat(connectionPolicy.getConfiguredPrefetch(qpidSession, queue, false, false)).isEqualTo(1000);
+        } finally {
+            qpidReceiver.close();
+        }
+    }
+
+    @Test
+    public void testGivenSchedulerIsNotDisposed() {
+        Scheduler scheduler = Schedulers.newSingle("test-receive");
+
+        try {
+            AMQP10JMSReactiveReceiver custom = new AMQP10JMSReactiveReceiver(connectionFactory, scheduler);
+            custom.close();
+
+            assertThat(custom.getSubscribeScheduler()).isSameAs(scheduler);
+            assertThat(scheduler.isDisposed()).isFalse();
+        } finally {
+            scheduler.dispose();
+        }
+
+        receiver.close();
+        assertThat(receiver.getSubscribeScheduler().isDisposed()).isTrue();
+    }
+
+    private MessageListener captureListener() throws Exception {
+        ArgumentCaptor<MessageListener> listener = ArgumentCaptor.forClass(MessageListener.class);
+
+        // Subscriptions are set up on the subscribe scheduler
+        await().atMost(Duration.ofSeconds(5)).untilAsserted(() -> verify(consumer).setMessageListener(listener.capture()));
+
+        return listener.getValue();
+    }
+}
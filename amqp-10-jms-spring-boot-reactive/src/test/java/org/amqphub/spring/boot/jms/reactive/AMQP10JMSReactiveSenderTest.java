@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more
+ * contributor license agreements.  See the NOTICE file distributed with
+ * this work for additional information regarding copyright ownership.
+ * The ASF licenses this file to You under the Apache License, Version 2.0
+ * (the "License"); you may not use this file except in compliance with
+ * the License.  You may obtain a copy of the License at
+ *
+ *      http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package org.amqphub.spring.boot.jms.reactive;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.amqphub.spring.boot.jms.autoconfigure.AMQP10JMSAsyncTemplate;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jms.core.MessageCreator;
+
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * Tests for the reactive sender.
+ */
+public class AMQP10JMSReactiveSenderTest {
+
+    private AMQP10JMSAsyncTemplate asyncTemplate;
+    private AMQP10JMSReactiveSender sender;
+
+    @BeforeEach
+    public void setUp() {
+        asyncTemplate = mock(AMQP10JMSAsyncTemplate.class);
+        sender = new AMQP10JMSReactiveSender(asyncTemplate);
+    }
+
+    @AfterEach
+    public void tearDown() {
+        sender.close();
+    }
+
+    @Test
+    public void testSendIsStartedOnTheSendScheduler() {
+        AtomicReference<String> sendThread = new AtomicReference<>();
+
+        when(asyncTemplate.send(eq("queue"), any(MessageCreator.class))).thenAnswer((invocation) -> {
+            sendThread.set(Thread.currentThread().getName());
+            return CompletableFuture.completedFuture(null);
+        });
+
+        sender.send("queue", (session) -> session.createTextMessage("Hello World")).block(Duration.ofSeconds(10));
+
+        assertThat(sendThread.get()).startsWith(AMQP10JMSReactiveSender.SCHEDULER_NAME);
+        assertThat(sendThread.get()).isNotEqualTo(Thread.currentThread().getName());
+    }
+
+    @Test
+    public void testSendIsDeferredUntilSubscribed() {
+        when(asyncTemplate.convertAndSend(eq("queue"), any())).thenReturn(CompletableFuture.completedFuture(null));
+
+        Mono<Void> send = sender.convertAndSend("queue", "Hello World");
+
+        verify(asyncTemplate, never()).convertAndSend(eq("queue"), any());
+
+        send.block(Duration.ofSeconds(10));
+
+        verify(asyncTemplate).convertAndSend("queue", "Hello World");
+    }
+
+    @Test
+    public void testGivenSchedulerIsNotDisposed() {
+        Scheduler scheduler = Schedulers.newSingle("test-send");
+
+        try {
+            AMQP10JMSReactiveSender custom = new AMQP10JMSReactiveSender(asyncTemplate, scheduler);
+            custom.close();
+
+            assertThat(custom.getSendScheduler()).isSameAs(scheduler);
+            assertThat(scheduler.isDisposed()).isFalse();
+        } finally {
+            scheduler.dispose();
+        }
+
+        sender.close();
+        assertThat(sender.getSendScheduler().isDisposed()).isTrue();
+    }
+}